@@ -0,0 +1,263 @@
+package mediathek;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.base.Stopwatch;
+import mediathek.config.Config;
+import mediathek.config.Daten;
+import mediathek.config.Konstanten;
+import mediathek.config.MVConfig;
+import mediathek.controller.starter.Start;
+import mediathek.daten.DatenDownload;
+import mediathek.daten.DatenFilm;
+import mediathek.daten.ListeDownloads;
+import mediathek.filmlisten.reader.FilmListReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import picocli.CommandLine;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the stages behind the GUI without Swing and JavaFX: read the film list, apply abos and blacklist,
+ * search abos and run downloads.
+ * The duration of every stage is logged and can be exported as JSON together with the films or downloads.
+ */
+@CommandLine.Command(name = "batch", description = "Filmliste ohne Oberfläche filtern, Abos suchen und Downloads ausführen")
+class BatchMode implements Callable<Integer> {
+    private static final Logger logger = LogManager.getLogger(BatchMode.class);
+    private static final String STAGE_CONFIG = "Konfiguration";
+    private static final String STAGE_HISTORY = "Historie";
+    private static final String STAGE_FILMLIST = "Filmliste lesen";
+    private static final String STAGE_SENDER = "Themen suchen";
+    private static final String STAGE_ABO_FILME = "Abos eintragen";
+    private static final String STAGE_BLACKLIST = "Blacklist filtern";
+    private static final String STAGE_ABOS = "Abos suchen";
+    private static final String STAGE_DOWNLOADS = "Downloads";
+    private static final String STAGE_SAVE = "Speichern";
+    /**
+     * Die Dauer der einzelnen Stufen in ms, in der Reihenfolge ihrer Ausführung
+     */
+    private final Map<String, Long> timings = new LinkedHashMap<>();
+    /**
+     * Die in diesem Lauf gestarteten Downloads, abgebrochene setzt der Starter wieder auf "nicht gestartet" zurück
+     */
+    private final Set<DatenDownload> started = new HashSet<>();
+    @CommandLine.Option(names = {"-f", "--filmliste"}, paramLabel = "<Datei|URL>", description = "Filmliste, die gelesen wird (Standard: lokale Filmliste)")
+    private String filmliste;
+    @CommandLine.Option(names = {"--tage"}, description = "Nur Filme der letzten Tage lesen, 0 für alle (Standard: Einstellung)")
+    private Integer tage;
+    @CommandLine.Option(names = {"-a", "--abos"}, description = "Abos suchen und neue Downloads eintragen")
+    private boolean abosSuchen;
+    @CommandLine.Option(names = {"-l", "--laden"}, description = "Alle wartenden Downloads ausführen und auf ihr Ende warten")
+    private boolean downloadsStarten;
+    @CommandLine.Option(names = {"-x", "--export"}, paramLabel = "<Datei>", description = "Laufzeiten und Filme bzw. Downloads als JSON speichern")
+    private File exportFile;
+    @CommandLine.Option(names = {"-h", "--help"}, usageHelp = true, description = "Hilfe anzeigen")
+    private boolean helpRequested;
+
+    private String getStatus(DatenDownload download) {
+        final Start start = download.start;
+        if (start == null)
+            return isCancelled(download) ? "abgebrochen" : "offen";
+
+        switch (start.getStatus()) {
+            case Start.STATUS_INIT:
+                return "wartet";
+            case Start.STATUS_RUN:
+                return "laeuft";
+            case Start.STATUS_FERTIG:
+                return "fertig";
+            default:
+                return "fehler";
+        }
+    }
+
+    /**
+     * A download started by this run is cancelled when the starter has reset it, e.g. because the file exists.
+     */
+    private boolean isCancelled(DatenDownload download) {
+        return download.start == null && started.contains(download);
+    }
+
+    /**
+     * A download is done when it has finished, was cancelled or failed without being restarted by the starter again.
+     */
+    private boolean isDone(DatenDownload download) {
+        final Start start = download.start;
+        if (start == null)
+            return isCancelled(download);
+
+        switch (start.getStatus()) {
+            case Start.STATUS_FERTIG:
+                return true;
+            case Start.STATUS_ERR:
+                return download.art != DatenDownload.ART_DOWNLOAD || start.countRestarted >= Konstanten.MAX_DOWNLOAD_RESTARTS;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        // keine Dialoge, Benachrichtigungen oder Töne, auch wenn eine Oberfläche verfügbar wäre
+        Config.setBatchMode(true);
+        final Daten daten = Daten.getInstance();
+        final ListeDownloads listeDownloads = daten.getListeDownloads();
+
+        stage(STAGE_CONFIG, () -> {
+            if (!daten.allesLaden())
+                logger.warn("Keine Einstellungen gefunden, es gibt weder Abos noch Blacklist oder Sets");
+        });
+        stage(STAGE_HISTORY, () -> {
+            daten.launchHistoryDataLoading();
+            try {
+                daten.waitForHistoryDataLoadingToComplete();
+            } catch (ExecutionException | InterruptedException e) {
+                logger.error("waitForHistoryDataLoadingToComplete()", e);
+            }
+        });
+
+        final String source = filmliste != null ? filmliste : Daten.getDateiFilmliste();
+        final int days = tage != null ? tage : Integer.parseInt(MVConfig.get(MVConfig.Configs.SYSTEM_ANZ_TAGE_FILMLISTE));
+        stage(STAGE_FILMLIST, () -> {
+            try (FilmListReader reader = new FilmListReader()) {
+                reader.readFilmListe(source, daten.getListeFilme(), days);
+            }
+        });
+        if (daten.getListeFilme().isEmpty()) {
+            logger.error("Filmliste {} ist leer oder konnte nicht gelesen werden", source);
+            return 1;
+        }
+        logger.info("Filme gelesen: {}", daten.getListeFilme().size());
+
+        stage(STAGE_SENDER, () -> daten.getListeFilme().fillSenderList());
+        stage(STAGE_ABO_FILME, () -> daten.getListeAbo().setAboFuerFilm(daten.getListeFilme(), false));
+        stage(STAGE_BLACKLIST, () -> daten.getListeBlacklist().filterListe());
+        logger.info("Filme nach Blacklist: {}", daten.getListeFilmeNachBlackList().size());
+
+        if (abosSuchen) {
+            stage(STAGE_ABOS, () -> {
+                listeDownloads.abosAuffrischen();
+                listeDownloads.abosSuchen(null);
+            });
+        }
+
+        final List<DatenDownload> downloads;
+        synchronized (listeDownloads) {
+            // nach abosAuffrischen() sind alle nicht gestarteten Abo-Downloads neu gefunden
+            downloads = listeDownloads.stream()
+                    .filter(d -> d.start == null)
+                    .filter(d -> downloadsStarten ? !d.istZurueckgestellt() : d.istAbo())
+                    .collect(Collectors.toList());
+        }
+        logger.info("Downloads: {}", downloads.size());
+
+        if (downloadsStarten && !downloads.isEmpty()) {
+            stage(STAGE_DOWNLOADS, () -> {
+                started.addAll(downloads);
+                DatenDownload.startenDownloads(daten, new ArrayList<>(downloads));
+                waitForDownloads(downloads);
+            });
+        }
+
+        stage(STAGE_SAVE, () -> daten.getConfigSaver().saveNow());
+
+        if (exportFile != null)
+            export(downloads);
+
+        final long failed = downloads.stream().filter(d -> d.start != null && d.start.getStatus() == Start.STATUS_ERR).count();
+        final long cancelled = downloads.stream().filter(this::isCancelled).count();
+        if (cancelled > 0)
+            logger.warn("Downloads abgebrochen: {}", cancelled);
+        return failed == 0 && cancelled == 0 ? 0 : 2;
+    }
+
+    private void waitForDownloads(List<DatenDownload> downloads) {
+        long lastOpen = -1;
+        try {
+            while (true) {
+                final long open = downloads.stream().filter(d -> !isDone(d)).count();
+                if (open == 0)
+                    break;
+
+                if (open != lastOpen) {
+                    logger.info("Downloads offen: {} von {}", open, downloads.size());
+                    lastOpen = open;
+                }
+                TimeUnit.SECONDS.sleep(1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void stage(String name, Runnable action) {
+        final Stopwatch stopwatch = Stopwatch.createStarted();
+        action.run();
+        stopwatch.stop();
+        timings.put(name, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        logger.info("{}: {}", name, stopwatch);
+    }
+
+    private void export(List<DatenDownload> downloads) throws IOException {
+        try (JsonGenerator jg = new JsonFactory().createGenerator(exportFile, JsonEncoding.UTF8).useDefaultPrettyPrinter()) {
+            jg.writeStartObject();
+
+            jg.writeArrayFieldStart("stufen");
+            for (Map.Entry<String, Long> timing : timings.entrySet()) {
+                jg.writeStartObject();
+                jg.writeStringField("name", timing.getKey());
+                jg.writeNumberField("ms", timing.getValue());
+                jg.writeEndObject();
+            }
+            jg.writeEndArray();
+
+            if (abosSuchen || downloadsStarten) {
+                jg.writeArrayFieldStart("downloads");
+                for (DatenDownload download : downloads) {
+                    jg.writeStartObject();
+                    jg.writeStringField("sender", download.arr[DatenDownload.DOWNLOAD_SENDER]);
+                    jg.writeStringField("thema", download.arr[DatenDownload.DOWNLOAD_THEMA]);
+                    jg.writeStringField("titel", download.arr[DatenDownload.DOWNLOAD_TITEL]);
+                    jg.writeStringField("abo", download.arr[DatenDownload.DOWNLOAD_ABO]);
+                    jg.writeStringField("url", download.arr[DatenDownload.DOWNLOAD_URL]);
+                    jg.writeStringField("ziel", download.arr[DatenDownload.DOWNLOAD_ZIEL_PFAD_DATEINAME]);
+                    jg.writeStringField("status", getStatus(download));
+                    jg.writeEndObject();
+                }
+                jg.writeEndArray();
+            } else {
+                jg.writeArrayFieldStart("filme");
+                for (DatenFilm film : Daten.getInstance().getListeFilmeNachBlackList()) {
+                    jg.writeStartObject();
+                    jg.writeStringField("sender", film.getSender());
+                    jg.writeStringField("thema", film.getThema());
+                    jg.writeStringField("titel", film.getTitle());
+                    jg.writeStringField("datum", film.getSendeDatum());
+                    jg.writeStringField("zeit", film.getSendeZeit());
+                    jg.writeStringField("dauer", film.getDauer());
+                    jg.writeStringField("abo", film.getAboName());
+                    jg.writeStringField("url", film.getUrl());
+                    jg.writeEndObject();
+                }
+                jg.writeEndArray();
+            }
+
+            jg.writeEndObject();
+        }
+        logger.info("Export geschrieben: {}", exportFile);
+    }
+}
@@ -2,7 +2,6 @@ package mediathek;
 
 import com.google.common.base.Stopwatch;
 import com.jidesoft.utils.ThreadCheckingRepaintManager;
-import com.zaxxer.sansorm.SansOrm;
 import javafx.application.Platform;
 import javafx.embed.swing.JFXPanel;
 import javafx.scene.control.Alert;
@@ -43,11 +42,21 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.security.Security;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 
 public class Main {
     private static final String MAC_SYSTEM_PROPERTY_APPLE_LAF_USE_SCREEN_MENU_BAR = "apple.laf.useScreenMenuBar";
 
     private static final Logger logger = LogManager.getLogger(Main.class);
+    private static final String STARTUP_JAVAFX = "JavaFX";
+    private static final String STARTUP_CHECKS = "Startprüfungen";
+    private static final String STARTUP_SPLASH = "Splashscreen";
+    private static final String STARTUP_DATABASE = "Datenbank";
+    private static final String STARTUP_HISTORY = "Historie";
+    private static final String STARTUP_SENDER_ICONS = "Sendericons";
+    private static final String STARTUP_CONFIG = "Konfiguration";
+    private static final String STARTUP_GUI = "Oberfläche";
+    private static final String STARTUP_FILMLIST = "Filmliste";
 
     /**
      * Ensures that old film lists in .mediathek directory get deleted because they were moved to
@@ -237,18 +246,24 @@ public class Main {
     public static void main(final String... args) {
         setupEnvironmentProperties();
 
-        if (GraphicsEnvironment.isHeadless()) {
-            System.err.println("Diese Version von MediathekView unterstützt keine Kommandozeilenausführung.");
-            System.exit(1);
-        }
-
+        final BatchMode batchMode = new BatchMode();
+        boolean batchRequested = false;
         CommandLine cmd = new CommandLine(Config.class);
+        cmd.addSubcommand("batch", batchMode);
         try {
             var parseResult = cmd.parseArgs(args);
             if (parseResult.isUsageHelpRequested()) {
                 cmd.usage(System.out);
                 System.exit(cmd.getCommandSpec().exitCodeOnUsageHelp());
             }
+            if (parseResult.hasSubcommand()) {
+                final var batchResult = parseResult.subcommand();
+                if (batchResult.isUsageHelpRequested()) {
+                    batchResult.commandSpec().commandLine().usage(System.out);
+                    System.exit(cmd.getCommandSpec().exitCodeOnUsageHelp());
+                }
+                batchRequested = true;
+            }
 
             Config.setPortableMode(parseResult.hasMatchedPositional(0));
             setupLogging();
@@ -269,29 +284,74 @@ public class Main {
 
         printDirectoryPaths();
 
-        initializeJavaFX();
-
-        checkMemoryRequirements();
+        if (batchRequested) {
+            runBatchMode(batchMode);
+        }
 
-        installSingleInstanceHandler();
+        if (GraphicsEnvironment.isHeadless()) {
+            System.err.println("Ohne Oberfläche unterstützt MediathekView nur den Stapelbetrieb, siehe \"batch --help\".");
+            System.exit(1);
+        }
 
         setSystemLookAndFeel();
 
-        splashScreen = Optional.of(new SplashScreen());
-        splashScreen.ifPresent(SplashScreen::show);
+        // unabhängige Schritte laufen parallel, die Oberfläche startet sobald ihre Daten bereit sind
+        final StartupGraph startup = new StartupGraph();
+        startup.add(STARTUP_JAVAFX, Main::initializeJavaFX);
+        startup.add(STARTUP_CHECKS, () -> {
+            checkMemoryRequirements();
+            installSingleInstanceHandler();
+        }, STARTUP_JAVAFX);
+        startup.add(STARTUP_SPLASH, () -> {
+            splashScreen = Optional.of(new SplashScreen());
+            splashScreen.ifPresent(SplashScreen::show);
+        }, STARTUP_CHECKS);
+        // erst nach der Prüfung auf eine laufende Instanz, sonst löscht eine zweite deren Datenbank
+        startup.add(STARTUP_DATABASE, Main::initializeDatabase, STARTUP_CHECKS);
+        startup.add(STARTUP_HISTORY, Main::loadHistoryData, STARTUP_CHECKS);
+        startup.add(STARTUP_SENDER_ICONS, () -> Daten.getInstance().getSenderIconCache().prefetchKnownSenders(), STARTUP_CHECKS);
+        startup.add(STARTUP_CONFIG, Main::loadConfigurationData, STARTUP_SPLASH);
+        startup.add(STARTUP_GUI, SwingUtilities::invokeLater, Main::startGuiMode, STARTUP_CONFIG, STARTUP_HISTORY);
+        startup.add(STARTUP_FILMLIST, () -> MediathekGui.ui().loadFilmlist().join(), STARTUP_GUI, STARTUP_DATABASE);
+
+        // ohne Oberfläche würde das Programm nur noch hängen
+        if (!startup.awaitAll() && !startup.isCompleted(STARTUP_GUI)) {
+            logger.error("Programmstart fehlgeschlagen");
+            System.exit(1);
+        }
+    }
 
-        loadConfigurationData();
+    /**
+     * Run the batch mode without GUI and terminate the program.
+     */
+    private static void runBatchMode(BatchMode batchMode) {
+        int exitCode;
+        try {
+            initializeDatabase();
+            exitCode = batchMode.call();
+        } catch (Exception e) {
+            logger.error("Stapelbetrieb fehlgeschlagen", e);
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
 
-        Daten.getInstance().launchHistoryDataLoading();
+    private static void loadHistoryData() {
+        final Daten daten = Daten.getInstance();
+        daten.launchHistoryDataLoading();
+        try {
+            daten.waitForHistoryDataLoadingToComplete();
+        } catch (ExecutionException | InterruptedException e) {
+            logger.error("waitForHistoryDataLoadingToComplete()", e);
+        }
+    }
 
+    private static void initializeDatabase() {
         deleteDatabase();
 
-        if (MemoryUtils.isLowMemoryEnvironment()) {
-            setupDatabase();
-            DatenFilm.Database.initializeDatabase();
-        }
-
-        startGuiMode();
+        // sonst wird die Datenbank erst angelegt, wenn der Speicher knapp wird
+        if (MemoryGovernor.getInstance().isSmallHeap())
+            DatenFilm.Database.ensureInitialized();
     }
 
     @SuppressWarnings("unused")
@@ -366,6 +426,7 @@ public class Main {
             var dialog = new DialogStarteinstellungen(null, daten);
             dialog.setVisible(true);
             MVConfig.loadSystemParameter();
+            daten.getConfigSaver().start(false);
         }
     }
 
@@ -377,22 +438,15 @@ public class Main {
     }
 
     private static void deleteDatabase() {
-        if (!MemoryUtils.isLowMemoryEnvironment()) {
-            //we can delete the database as it is not needed.
-            try {
-                final String dbLocation = PooledDatabaseConnection.getDatabaseLocation() + "mediathekview.mv.db";
-                Files.deleteIfExists(Paths.get(dbLocation));
-            } catch (IOException e) {
-                logger.error("deleteDatabase()", e);
-            }
+        //the database of the last run is not needed, the tables are created again on first use.
+        try {
+            final String dbLocation = PooledDatabaseConnection.getDatabaseLocation() + "mediathekview.mv.db";
+            Files.deleteIfExists(Paths.get(dbLocation));
+        } catch (IOException e) {
+            logger.error("deleteDatabase()", e);
         }
     }
 
-    private static void setupDatabase() {
-        logger.trace("setupDatabase()");
-        SansOrm.initializeTxSimple(PooledDatabaseConnection.getInstance().getDataSource());
-    }
-
     private static void installSingleInstanceHandler() {
         //prevent startup of multiple instances...
         var singleInstanceWatcher = new SingleInstance();
@@ -440,36 +494,33 @@ public class Main {
     }
 
     private static void startGuiMode() {
-        SwingUtilities.invokeLater(() ->
-        {
-            splashScreen.ifPresent(s -> s.update(UIProgressState.INIT_FX));
-
-            splashScreen.ifPresent(s -> s.update(UIProgressState.FILE_CLEANUP));
-            if (SystemUtils.IS_OS_MAC_OSX) {
-                checkForOfficialOSXAppUse();
-                System.setProperty(MAC_SYSTEM_PROPERTY_APPLE_LAF_USE_SCREEN_MENU_BAR, Boolean.TRUE.toString());
-                cleanupOsxFiles();
-            }
+        splashScreen.ifPresent(s -> s.update(UIProgressState.INIT_FX));
 
-            if (Config.isDebugModeEnabled()) {
-                // use for debugging EDT violations
-                RepaintManager.setCurrentManager(new ThreadCheckingRepaintManager());
-                logger.info("Swing Thread checking repaint manager installed.");
-            }
+        splashScreen.ifPresent(s -> s.update(UIProgressState.FILE_CLEANUP));
+        if (SystemUtils.IS_OS_MAC_OSX) {
+            checkForOfficialOSXAppUse();
+            System.setProperty(MAC_SYSTEM_PROPERTY_APPLE_LAF_USE_SCREEN_MENU_BAR, Boolean.TRUE.toString());
+            cleanupOsxFiles();
+        }
 
-            splashScreen.ifPresent(s -> s.update(UIProgressState.START_UI));
-            var window = getPlatformWindow();
-            splashScreen.ifPresent(SplashScreen::close);
-            window.setVisible(true);
-            /*
-                on windows there is a strange behaviour that the main window gets sent behind
-                other open windows after the splash screen is closed.
-             */
-            if (SystemUtils.IS_OS_WINDOWS) {
-                window.toFront();
-                window.requestFocus();
-            }
-        });
+        if (Config.isDebugModeEnabled()) {
+            // use for debugging EDT violations
+            RepaintManager.setCurrentManager(new ThreadCheckingRepaintManager());
+            logger.info("Swing Thread checking repaint manager installed.");
+        }
+
+        splashScreen.ifPresent(s -> s.update(UIProgressState.START_UI));
+        var window = getPlatformWindow();
+        splashScreen.ifPresent(SplashScreen::close);
+        window.setVisible(true);
+        /*
+            on windows there is a strange behaviour that the main window gets sent behind
+            other open windows after the splash screen is closed.
+         */
+        if (SystemUtils.IS_OS_WINDOWS) {
+            window.toFront();
+            window.requestFocus();
+        }
     }
 
     private static MediathekGui getPlatformWindow() {
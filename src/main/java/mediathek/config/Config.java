@@ -45,6 +45,10 @@ public class Config {
     private static boolean startMaximized; // Fenster maximieren
     @CommandLine.Option(names = { "-h", "--help" }, usageHelp = true, description = "Hilfe anzeigen")
     private static boolean helpRequested;
+    /**
+     * Running as batch without GUI: no dialogs, notifications, sounds or taskbar calls.
+     */
+    private static volatile boolean batchMode;
 
     public static boolean isPortableMode() {
         return portableMode;
@@ -69,4 +73,12 @@ public class Config {
     public static boolean isHttpTrafficDebuggingEnabled() {
         return debugHttpTraffic;
     }
+
+    public static boolean isBatchMode() {
+        return batchMode;
+    }
+
+    public static void setBatchMode(boolean batchMode) {
+        Config.batchMode = batchMode;
+    }
 }
@@ -2,21 +2,26 @@ package mediathek.config;
 
 import com.google.common.util.concurrent.*;
 import mediathek.controller.IoXmlLesen;
-import mediathek.controller.IoXmlSchreiben;
+import mediathek.controller.ConfigSaver;
 import mediathek.controller.history.AboHistoryController;
 import mediathek.controller.history.SeenHistoryController;
 import mediathek.controller.starter.StarterClass;
 import mediathek.daten.*;
 import mediathek.filmlisten.FilmeLaden;
 import mediathek.gui.messages.BaseEvent;
-import mediathek.gui.messages.TimerEvent;
+import mediathek.gui.messages.DownloadInfoUpdateAvailableEvent;
+import mediathek.gui.messages.DownloadProgressChangedEvent;
 import mediathek.mainwindow.AboHistoryCallable;
 import mediathek.mainwindow.MediathekGui;
 import mediathek.mainwindow.SeenHistoryCallable;
+import mediathek.tool.ApplicationConfiguration;
+import mediathek.tool.EventChannel;
 import mediathek.tool.GuiFunktionen;
 import mediathek.tool.MVMessageDialog;
 import mediathek.tool.MVSenderIconCache;
+import mediathek.tool.MemoryGovernor;
 import mediathek.tool.ReplaceList;
+import mediathek.tool.TickScheduler;
 import mediathek.tool.notification.INotificationCenter;
 import mediathek.tool.notification.NotificationFactory;
 import net.engio.mbassy.bus.MBassador;
@@ -37,12 +42,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.nio.file.attribute.BasicFileAttributes;
-import java.nio.file.attribute.FileTime;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -87,6 +90,15 @@ public class Daten {
     private final ListeAbo listeAbo;
     private final DownloadInfos downloadInfos;
     private final MVSenderIconCache senderIconCache;
+    private final TickScheduler tickScheduler;
+    /**
+     * Fortschritt der laufenden Downloads, kommt sehr häufig.
+     */
+    private final EventChannel<DownloadProgressChangedEvent> downloadProgressChannel = new EventChannel<>("DownloadProgress", true);
+    /**
+     * Neue {@link DownloadStatistics}, kommt bei laufenden Downloads jede Sekunde.
+     */
+    private final EventChannel<DownloadInfoUpdateAvailableEvent> downloadInfoChannel = new EventChannel<>("DownloadInfo", true);
     public StarterClass starterClass; // Klasse zum Ausführen der Programme (für die Downloads): VLC, flvstreamer, ...
     private INotificationCenter notificationCenter;
     /**
@@ -97,7 +109,7 @@ public class Daten {
      * erfolgreich geladene Abos.
      */
     private AboHistoryController erledigteAbos;
-    private boolean alreadyMadeBackup;
+    private final ConfigSaver configSaver;
     private MBassador<BaseEvent> messageBus;
     private ListenableFuture<SeenHistoryController> historyFuture;
     private ListenableFuture<AboHistoryController> aboHistoryFuture;
@@ -105,6 +117,10 @@ public class Daten {
     private Daten() {
         setupNotifications();
         setupMessageBus();
+        ReplaceList.subscribe(messageBus);
+
+        configSaver = new ConfigSaver(getMediathekXmlFilePath());
+        configSaver.subscribe(messageBus);
 
         listeFilme = new ListeFilme();
         filmeLaden = new FilmeLaden(this);
@@ -124,10 +140,36 @@ public class Daten {
         listeMediaDB = new ListeMediaDB(this);
         listeMediaPath = new ListeMediaPath();
 
-        downloadInfos = new DownloadInfos(messageBus);
+        setupTimerPool();
+        tickScheduler = new TickScheduler(timerPool);
+
+        downloadInfos = new DownloadInfos(downloadInfoChannel, tickScheduler, listeDownloads);
         starterClass = new StarterClass(this);
 
-        setupTimerPool();
+        setupMemoryGovernor();
+    }
+
+    /**
+     * Let the indices of the lists give up their memory when it gets scarce
+     * and move the descriptions of the films to the database.
+     */
+    private void setupMemoryGovernor() {
+        MemoryGovernor.getInstance().register(new MemoryGovernor.MemoryConsumer() {
+            @Override
+            public void shed() {
+                listeFilme.dropIndices();
+                listeFilmeNachBlackList.dropIndices();
+                listeMediaDB.dropSearchIndex();
+                // die gefilterte Liste enthält dieselben Filme
+                listeFilme.moveDescriptionsToDatabase();
+            }
+
+            @Override
+            public void restore() {
+                // werden vom Filterpanel bei jedem Senderwechsel und beim Sortieren der Tabelle gebraucht
+                listeFilmeNachBlackList.prepareIndices();
+            }
+        });
     }
 
     public static boolean isReset() {
@@ -148,13 +190,46 @@ public class Daten {
     }
 
     /**
-     * Liefert den Pfad zur Filmliste
+     * Liefert den Pfad zur Filmliste.
+     * Ist nur die Liste im jeweils anderen Format (json/json.gz) vorhanden, wird diese geliefert.
      *
      * @return Den Pfad als String
      */
     public static String getDateiFilmliste() {
+        final String strFile = getDateiFilmlisteSpeichern();
+        if (Files.notExists(Paths.get(strFile))) {
+            final String other = getDateiFilmliste(!isFilmlisteCompressed());
+            if (Files.exists(Paths.get(other)))
+                return other;
+        }
+
+        return strFile;
+    }
+
+    /**
+     * Liefert den Pfad unter dem die Filmliste im eingestellten Format gespeichert wird.
+     *
+     * @return Den Pfad als String
+     */
+    public static String getDateiFilmlisteSpeichern() {
+        return getDateiFilmliste(isFilmlisteCompressed());
+    }
+
+    private static boolean isFilmlisteCompressed() {
+        return ApplicationConfiguration.getConfiguration().getBoolean(ApplicationConfiguration.FILMLISTE_SAVE_COMPRESSED, false);
+    }
+
+    /**
+     * Liefert den Pfad zur Filmliste
+     *
+     * @param compressed true für die gzip-komprimierte Liste
+     * @return Den Pfad als String
+     */
+    public static String getDateiFilmliste(boolean compressed) {
         String strFile;
-        final String filePart = File.separator + Konstanten.JSON_DATEI_FILME;
+        String filePart = File.separator + Konstanten.JSON_DATEI_FILME;
+        if (compressed)
+            filePart += Konstanten.FORMAT_GZ;
 
         if (Config.isPortableMode())
             strFile = getSettingsDirectory_String() + filePart;
@@ -226,21 +301,6 @@ public class Daten {
         }
     }
 
-    /**
-     * Return the number of milliseconds from today´s midnight.
-     *
-     * @return Number of milliseconds from today´s midnight.
-     */
-    private static long getHeute_0Uhr() {
-        final Calendar cal = Calendar.getInstance();
-        cal.set(Calendar.HOUR_OF_DAY, 0);
-        cal.set(Calendar.MINUTE, 0);
-        cal.set(Calendar.SECOND, 0);
-        cal.set(Calendar.MILLISECOND, 0);
-
-        return cal.getTimeInMillis();
-    }
-
     public void setupNotifications() {
         notificationCenter = NotificationFactory.createNotificationCenter();
     }
@@ -265,6 +325,14 @@ public class Daten {
         return messageBus;
     }
 
+    public EventChannel<DownloadProgressChangedEvent> getDownloadProgressChannel() {
+        return downloadProgressChannel;
+    }
+
+    public EventChannel<DownloadInfoUpdateAvailableEvent> getDownloadInfoChannel() {
+        return downloadInfoChannel;
+    }
+
     /**
      * Set up message bus to log errors to our default logger
      */
@@ -300,23 +368,60 @@ public class Daten {
     private void setupTimerPool() {
         //get rid of cancelled tasks immediately...
         timerPool.setRemoveOnCancelPolicy(true);
+    }
 
-        timerPool.scheduleWithFixedDelay(() -> messageBus.publishAsync(new TimerEvent()), 4,1, TimeUnit.SECONDS);
+    /**
+     * The common clock for periodic updates of the status displays.
+     */
+    public TickScheduler getTickScheduler() {
+        return tickScheduler;
     }
 
+    /**
+     * Read the configuration or one of its backups.
+     * Only a read configuration is written by the {@link #getConfigSaver()} right away, after a failure the caller
+     * starts it once the defaults are set up.
+     *
+     * @return true if the configuration could be read
+     */
     public boolean allesLaden() {
         if (!load()) {
             logger.info("Weder Konfig noch Backup konnte geladen werden!");
+            // die kaputte Konfig nicht mit den Standardeinstellungen überschreiben
+            keepBrokenConfig();
             // teils geladene Reste entfernen
             clearKonfig();
             return false;
         }
         logger.info("Konfig wurde gelesen!");
         mVColor.load(); // Farben einrichten
+        configSaver.start(true);
 
         return true;
     }
 
+    /**
+     * Rename a configuration file which could not be read, e.g. to "mediathek.xml--2019.10.18__10.15.00".
+     */
+    private void keepBrokenConfig() {
+        final Path xmlFilePath = getMediathekXmlFilePath();
+        if (!Files.exists(xmlFilePath))
+            return;
+
+        final Path broken = xmlFilePath.resolveSibling(xmlFilePath.getFileName() + "--"
+                + new SimpleDateFormat("yyyy.MM.dd__HH.mm.ss").format(new Date()));
+        try {
+            Files.move(xmlFilePath, broken);
+            logger.warn("Nicht lesbare Konfig umbenannt: {}", broken);
+        } catch (IOException e) {
+            logger.error("Nicht lesbare Konfig konnte nicht umbenannt werden: {}", xmlFilePath, e);
+        }
+    }
+
+    public ConfigSaver getConfigSaver() {
+        return configSaver;
+    }
+
     public void launchHistoryDataLoading() {
         logger.trace("launching async history data loading");
         var decoratedPool = MoreExecutors.listeningDecorator(ForkJoinPool.commonPool());
@@ -360,6 +465,10 @@ public class Daten {
     }
 
     public void waitForHistoryDataLoadingToComplete() throws ExecutionException, InterruptedException {
+        // schon beim Programmstart abgewartet
+        if (historyFuture == null)
+            return;
+
         historyFuture.get();
         aboHistoryFuture.get();
         historyFuture = null;
@@ -399,10 +508,11 @@ public class Daten {
     }
 
     private boolean loadBackup() {
-        boolean ret = false;
+        // Sicherungen der einzelnen Abschnitte, sonst die der kompletten Konfig von älteren Versionen
+        final List<Path> sectionBackups = ConfigSaver.findBackups(getMediathekXmlFilePath());
         ArrayList<Path> path = new ArrayList<>();
         Daten.getMediathekXmlCopyFilePath(path);
-        if (path.isEmpty()) {
+        if (sectionBackups.isEmpty() && path.isEmpty()) {
             logger.info("Es gibt kein Backup");
             return false;
         }
@@ -421,6 +531,22 @@ public class Daten {
             return false;
         }
 
+        if (!sectionBackups.isEmpty()) {
+            // teils geladene Reste entfernen
+            clearKonfig();
+            boolean ok = true;
+            for (Path p : sectionBackups) {
+                logger.info("Versuch Backup zu laden: {}", p.toString());
+                final IoXmlLesen configReader = new IoXmlLesen();
+                ok &= configReader.datenLesen(p);
+            }
+            if (ok) {
+                logger.info("Backup hat geklappt: {}", sectionBackups);
+                return true;
+            }
+        }
+
+        boolean ret = false;
         for (Path p : path) {
             // teils geladene Reste entfernen
             clearKonfig();
@@ -436,13 +562,18 @@ public class Daten {
         return ret;
     }
 
+    /**
+     * Write the complete configuration on the calling thread, e.g. before program exit.
+     * Changes while the program runs are written in the background by {@link #getConfigSaver()}.
+     */
     public void allesSpeichern() {
-        konfigCopy();
-
-        final IoXmlSchreiben configWriter = new IoXmlSchreiben();
-        configWriter.writeConfigurationFile(getMediathekXmlFilePath());
+        configSaver.markAllDirty();
+        configSaver.saveNow();
 
         if (Daten.isReset()) {
+            // danach darf nichts mehr in den Ordner geschrieben werden
+            configSaver.close();
+
             // das Programm soll beim nächsten Start mit den Standardeinstellungen gestartet werden
             // dazu wird den Ordner mit den Einstellungen umbenannt
             String dir1 = getSettingsDirectory_String();
@@ -469,51 +600,6 @@ public class Daten {
         }
     }
 
-    /**
-     * Create backup copies of settings file.
-     */
-    private void konfigCopy() {
-        if (!alreadyMadeBackup) {
-            // nur einmal pro Programmstart machen
-            logger.info("-------------------------------------------------------");
-            logger.info("Einstellungen sichern");
-
-            try {
-                final Path xmlFilePath = Daten.getMediathekXmlFilePath();
-                long creatTime = -1;
-
-                Path xmlFilePathCopy_1 = Daten.getSettingsDirectory().resolve(Konstanten.CONFIG_FILE_COPY + 1);
-                if (Files.exists(xmlFilePathCopy_1)) {
-                    BasicFileAttributes attrs = Files.readAttributes(xmlFilePathCopy_1, BasicFileAttributes.class);
-                    FileTime d = attrs.lastModifiedTime();
-                    creatTime = d.toMillis();
-                }
-
-                if (creatTime == -1 || creatTime < getHeute_0Uhr()) {
-                    // nur dann ist die letzte Kopie älter als einen Tag
-                    for (int i = MAX_COPY; i > 1; --i) {
-                        xmlFilePathCopy_1 = Daten.getSettingsDirectory().resolve(Konstanten.CONFIG_FILE_COPY + (i - 1));
-                        final Path xmlFilePathCopy_2 = Daten.getSettingsDirectory().resolve(Konstanten.CONFIG_FILE_COPY + i);
-                        if (Files.exists(xmlFilePathCopy_1)) {
-                            Files.move(xmlFilePathCopy_1, xmlFilePathCopy_2, StandardCopyOption.REPLACE_EXISTING);
-                        }
-                    }
-                    if (Files.exists(xmlFilePath)) {
-                        Files.move(xmlFilePath, Daten.getSettingsDirectory().resolve(Konstanten.CONFIG_FILE_COPY + 1), StandardCopyOption.REPLACE_EXISTING);
-                    }
-                    logger.info("Einstellungen wurden gesichert");
-                } else {
-                    logger.info("Einstellungen wurden heute schon gesichert");
-                }
-            } catch (IOException e) {
-                logger.error("Die Einstellungen konnten nicht komplett gesichert werden!", e);
-            }
-
-            alreadyMadeBackup = true;
-            logger.info("-------------------------------------------------------");
-        }
-    }
-
     public FilmeLaden getFilmeLaden() {
         return filmeLaden;
     }
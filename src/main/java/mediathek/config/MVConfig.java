@@ -5,23 +5,34 @@ import org.apache.commons.lang3.SystemUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class MVConfig {
 
     public final static String TRENNER = "#=#";
     public static final String SYSTEM = "system";
     private static final Logger logger = LogManager.getLogger(MVConfig.class);
-    private static final HashMap<String, String> HASHMAP = new HashMap<>();
     private static final int MAX_FILTER = 5; //old filter profile code setting
+    private static final Map<String, Configs> BY_NAME = new HashMap<>();
+    private static final Map<Configs, List<Runnable>> LISTENERS = new EnumMap<>(Configs.class);
+    /**
+     * All settings, replaced as a whole on every change. Reading never locks.
+     */
+    private static volatile Snapshot snapshot;
+
+    static {
+        for (Configs key : Configs.values()) {
+            BY_NAME.put(key.cValue, key);
+            LISTENERS.put(key, new CopyOnWriteArrayList<>());
+        }
+        snapshot = new Snapshot(new HashMap<>());
+    }
 
     public static void loadSystemParameter() {
         //einmal die leeren mit den inits füllen
         for (Configs key : Configs.values()) {
-            String s = HASHMAP.get(key.cValue);
+            String s = snapshot.werte.get(key.cValue);
             if (s == null || s.isEmpty()) {
                 MVConfig.add(key, key.initValue);
             }
@@ -44,82 +55,136 @@ public class MVConfig {
         }
     }
 
-    public static synchronized void add(String key, String value) {
-        HASHMAP.put(key, value);
+    /**
+     * Register a listener which is called after the value of the setting has changed.
+     * It runs on the thread which changed the setting, hot code can use it to cache the value instead
+     * of reading it for every item.
+     *
+     * @param key      the setting
+     * @param listener called after each change
+     */
+    public static void addChangeListener(Configs key, Runnable listener) {
+        LISTENERS.get(key).add(listener);
     }
 
-    public static synchronized void add(Configs key, String value) {
-        HASHMAP.put(key.cValue, value);
+    public static void removeChangeListener(Configs key, Runnable listener) {
+        LISTENERS.get(key).remove(listener);
     }
 
-    public static synchronized void add(Configs key, String value, int i) {
-        boolean ok = false;
-        String[] sa = {""};
-        String s = HASHMAP.get(key.cValue);
-        if (s != null) {
-            sa = split(s);
-            if (sa.length == MAX_FILTER) {
+    public static void add(String key, String value) {
+        final Configs changed;
+        synchronized (MVConfig.class) {
+            changed = publish(key, value);
+        }
+        fireChanged(changed);
+    }
+
+    public static void add(Configs key, String value) {
+        add(key.cValue, value);
+    }
+
+    public static void add(Configs key, String value, int i) {
+        final Configs changed;
+        synchronized (MVConfig.class) {
+            boolean ok = false;
+            String[] sa = {""};
+            String s = snapshot.werte.get(key.cValue);
+            if (s != null) {
+                sa = split(s);
+                if (sa.length == MAX_FILTER) {
+                    sa[i] = value;
+                    ok = true;
+                }
+            }
+            if (!ok) {
+                // dann anlegen
+                sa = initArray(key);
                 sa[i] = value;
-                ok = true;
             }
+            // und jetzt eintragen
+            changed = publish(key.cValue, addArray(sa));
         }
-        if (!ok) {
-            // dann anlegen
-            sa = initArray(key);
-            sa[i] = value;
-        }
-        // und jetzt eintragen
-        s = addArray(sa);
-        HASHMAP.put(key.cValue, s);
+        fireChanged(changed);
     }
 
-    public static synchronized String get(Configs key) {
-        String s = HASHMAP.get(key.cValue);
-        if (s == null) {
-            s = key.initValue;
+    /**
+     * Replace the snapshot with one containing the new value, must be called while holding the lock.
+     *
+     * @param value the new value, null to remove the setting
+     * @return the setting whose value has changed, null if nothing changed
+     */
+    private static Configs publish(String key, String value) {
+        final Snapshot old = snapshot;
+        if (Objects.equals(old.werte.get(key), value))
+            return null;
+
+        final Map<String, String> werte = new HashMap<>(old.werte);
+        if (value == null)
+            werte.remove(key);
+        else
+            werte.put(key, value);
+
+        final Configs config = BY_NAME.get(key);
+        if (config == null) {
+            snapshot = new Snapshot(werte, old.values);
+            return null;
         }
-        return s == null ? "" : s;
+
+        final Value[] values = old.values.clone();
+        values[config.ordinal()] = new Value(value == null ? config.initValue : value);
+        snapshot = new Snapshot(werte, values);
+        return values[config.ordinal()].text.equals(old.values[config.ordinal()].text) ? null : config;
     }
 
-    public static synchronized int getInt(Configs key) {
-        int ret;
-        try {
-            ret = Integer.parseInt(get(key));
-        } catch (Exception ignore) {
-            ret = 0;
+    private static void fireChanged(Configs key) {
+        if (key == null)
+            return;
+
+        for (Runnable listener : LISTENERS.get(key)) {
+            try {
+                listener.run();
+            } catch (Exception ex) {
+                logger.error("Config listener for {}", key.cValue, ex);
+            }
         }
-        return ret;
     }
 
-    public static synchronized boolean getBool(Configs key) {
-        return Boolean.parseBoolean(get(key));
+    public static String get(Configs key) {
+        return snapshot.values[key.ordinal()].text;
+    }
+
+    public static int getInt(Configs key) {
+        return snapshot.values[key.ordinal()].intValue;
+    }
+
+    public static boolean getBool(Configs key) {
+        return snapshot.values[key.ordinal()].boolValue;
     }
 
-    public static synchronized String get(Configs key, int i) {
+    public static String get(Configs key, int i) {
         String[] sa;
-        String s = HASHMAP.get(key.cValue);
+        String s = snapshot.werte.get(key.cValue);
         if (s == null) {
             return key.initValue;
         } else {
             sa = split(s);
         }
         if (sa.length <= i) {
-            HASHMAP.remove(key.cValue);
+            final Configs changed;
+            synchronized (MVConfig.class) {
+                changed = publish(key.cValue, null);
+            }
+            fireChanged(changed);
             return key.initValue;
         } else {
             return sa[i];
         }
     }
 
-    public static synchronized String[][] getAll() {
+    public static String[][] getAll() {
         final LinkedList<String[]> liste = new LinkedList<>();
-        final Set<String> strings = HASHMAP.keySet();
-        final String[] setArray = strings.toArray(new String[0]);
-        for (String entry : setArray) {
-            String[] s = new String[2];
-            s[0] = entry;
-            s[1] = HASHMAP.get(entry);
-            liste.add(s);
+        for (Map.Entry<String, String> entry : snapshot.werte.entrySet()) {
+            liste.add(new String[]{entry.getKey(), entry.getValue()});
         }
         listeSort(liste);
 
@@ -295,12 +360,52 @@ public class MVConfig {
         }
 
         public static boolean find(String value) {
-            for (Configs conf : values()) {
-                if (conf.cValue.equals(value)) {
-                    return true;
-                }
+            return BY_NAME.containsKey(value);
+        }
+    }
+
+    /**
+     * A setting already parsed into all types it is read as.
+     */
+    private static final class Value {
+        private final String text;
+        private final int intValue;
+        private final boolean boolValue;
+
+        Value(String s) {
+            text = s == null ? "" : s;
+            int i;
+            try {
+                i = Integer.parseInt(text);
+            } catch (NumberFormatException ignore) {
+                i = 0;
             }
-            return false;
+            intValue = i;
+            boolValue = Boolean.parseBoolean(text);
+        }
+    }
+
+    /**
+     * Immutable state of all settings.
+     */
+    private static final class Snapshot {
+        private final Map<String, String> werte;
+        /**
+         * The values of the known settings by {@link Configs#ordinal()}, the init value if not set.
+         */
+        private final Value[] values;
+
+        Snapshot(Map<String, String> werte) {
+            this.werte = werte;
+            values = new Value[Configs.values().length];
+            for (Configs key : Configs.values()) {
+                values[key.ordinal()] = new Value(werte.getOrDefault(key.cValue, key.initValue));
+            }
+        }
+
+        Snapshot(Map<String, String> werte, Value[] values) {
+            this.werte = werte;
+            this.values = values;
         }
     }
 }
@@ -0,0 +1,400 @@
+package mediathek.controller;
+
+import mediathek.config.MVConfig;
+import mediathek.gui.messages.*;
+import mediathek.tool.Listener;
+import net.engio.mbassy.bus.MBassador;
+import net.engio.mbassy.listener.Handler;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Writes the configuration file in the background.
+ * The file is split into sections which are serialized independently, only sections marked as changed
+ * are serialized again, the others are taken from the last write.
+ * Changes arriving within a short delay are combined into one write. The sections are serialized on the
+ * Swing thread which changes the lists, only the finished snapshot is written on the background thread.
+ * The file is written to a temporary file first which then replaces the old one, an interrupted write never
+ * leaves a broken configuration.
+ * Every section is backed up separately as a complete configuration file, but only if its content has changed.
+ */
+public class ConfigSaver implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(ConfigSaver.class);
+    /**
+     * Delay in seconds to collect changes before writing.
+     */
+    private static final long SAVE_DELAY = 2;
+    /**
+     * Maximum number of backup files per section.
+     */
+    private static final int MAX_COPY = 5;
+    private final Path xmlFilePath;
+    private final SectionWriter sectionWriter;
+    /**
+     * Runs the serialization of the sections on the thread which changes the lists.
+     */
+    private final Executor snapshotExecutor;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "ConfigSaver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Section> dirty = EnumSet.allOf(Section.class);
+    /**
+     * The serialized sections of the last write, only used while holding saveLock.
+     */
+    private final Map<Section, byte[]> fragments = new EnumMap<>(Section.class);
+    /**
+     * Number of the snapshot each fragment was taken from, only used while holding saveLock.
+     */
+    private final Map<Section, Long> fragmentSnapshots = new EnumMap<>(Section.class);
+    /**
+     * Sections which have been backed up since program start.
+     */
+    private final Set<Section> backedUp = EnumSet.noneOf(Section.class);
+    private final Object saveLock = new Object();
+    private ScheduledFuture<?> pending;
+    private boolean started;
+    private long snapshotCount;
+    private volatile boolean backupsEnabled;
+
+    /**
+     * @param xmlFilePath the configuration file
+     */
+    public ConfigSaver(@NotNull Path xmlFilePath) {
+        this(xmlFilePath, new IoXmlSchreiben()::writeSection, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * @param xmlFilePath      the configuration file
+     * @param sectionWriter    serializes a section
+     * @param snapshotExecutor runs the serialization of the sections changed in the background
+     */
+    ConfigSaver(@NotNull Path xmlFilePath, @NotNull SectionWriter sectionWriter, @NotNull Executor snapshotExecutor) {
+        this.xmlFilePath = xmlFilePath;
+        this.sectionWriter = sectionWriter;
+        this.snapshotExecutor = snapshotExecutor;
+    }
+
+    /**
+     * Return the path of a backup of a section, e.g. "mediathek.xml_abos_copy_1".
+     *
+     * @param xmlFilePath the configuration file
+     * @param section     the section
+     * @param number      number of the backup, 1 is the newest
+     */
+    static Path getBackupPath(Path xmlFilePath, Section section, int number) {
+        return xmlFilePath.resolveSibling(xmlFilePath.getFileName() + "_" + section.name().toLowerCase() + "_copy_" + number);
+    }
+
+    /**
+     * Find the newest readable backup of every section.
+     * Every backup is a complete configuration file which can be read by {@link IoXmlLesen}.
+     *
+     * @param xmlFilePath the configuration file
+     * @return the backups, empty if there are none
+     */
+    public static List<Path> findBackups(@NotNull Path xmlFilePath) {
+        final List<Path> backups = new ArrayList<>();
+        for (Section section : Section.values()) {
+            for (int i = 1; i <= MAX_COPY; ++i) {
+                final Path path = getBackupPath(xmlFilePath, section, i);
+                if (Files.exists(path) && isWellFormed(path)) {
+                    backups.add(path);
+                    break;
+                }
+            }
+        }
+        return backups;
+    }
+
+    private static boolean isWellFormed(Path path) {
+        XMLStreamReader parser = null;
+        try (InputStream is = Files.newInputStream(path)) {
+            parser = XMLInputFactory.newInstance().createXMLStreamReader(is);
+            while (parser.hasNext()) {
+                parser.next();
+            }
+            return true;
+        } catch (IOException | XMLStreamException e) {
+            logger.warn("Backup {} ist beschädigt", path);
+            return false;
+        } finally {
+            if (parser != null) {
+                try {
+                    parser.close();
+                } catch (XMLStreamException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Register for the change events of the lists which are stored in the configuration.
+     */
+    public void subscribe(@NotNull MBassador<BaseEvent> messageBus) {
+        messageBus.subscribe(this);
+        Listener.addListener(new Listener(Listener.EREIGNIS_LISTE_PSET, ConfigSaver.class.getSimpleName()) {
+            @Override
+            public void ping() {
+                markDirty(Section.PSETS);
+            }
+        });
+        Listener.addListener(new Listener(Listener.EREIGNIS_BLACKLIST_GEAENDERT, ConfigSaver.class.getSimpleName()) {
+            @Override
+            public void ping() {
+                markDirty(Section.BLACKLIST);
+            }
+        });
+        for (MVConfig.Configs key : MVConfig.Configs.values()) {
+            MVConfig.addChangeListener(key, () -> markDirty(Section.SYSTEM));
+        }
+    }
+
+    @Handler
+    private void handleAboListChanged(AboListChangedEvent e) {
+        markDirty(Section.ABOS);
+    }
+
+    @Handler
+    private void handleReplaceListChanged(ReplaceListChangedEvent e) {
+        markDirty(Section.REPLACELIST);
+    }
+
+    @Handler
+    private void handleDownloadListChanged(DownloadListChangedEvent e) {
+        markDirty(Section.DOWNLOADS);
+    }
+
+    @Handler
+    private void handleDownloadQueueRankChanged(DownloadQueueRankChangedEvent e) {
+        markDirty(Section.DOWNLOADS);
+    }
+
+    @Handler
+    private void handleRestartDownload(RestartDownloadEvent e) {
+        markDirty(Section.DOWNLOADS);
+    }
+
+    /**
+     * Start writing changes, before that they are only collected.
+     * Must be called after the configuration has been read or replaced by the defaults, otherwise a partly
+     * read configuration could replace the file.
+     *
+     * @param loaded true if the configuration was read from the file or a backup. The defaults are not backed up,
+     *               they would push the backups of the last working configuration out.
+     */
+    public synchronized void start(boolean loaded) {
+        started = true;
+        backupsEnabled = loaded;
+        schedule();
+    }
+
+    /**
+     * Write the section in the background.
+     */
+    public synchronized void markDirty(@NotNull Section section) {
+        dirty.add(section);
+        schedule();
+    }
+
+    /**
+     * Write all sections in the background, e.g. for changes of single entries which are not announced.
+     */
+    public synchronized void markAllDirty() {
+        dirty.addAll(EnumSet.allOf(Section.class));
+        schedule();
+    }
+
+    private void schedule() {
+        if (started && pending == null && !dirty.isEmpty() && !executor.isShutdown()) {
+            pending = executor.schedule(this::requestSnapshot, SAVE_DELAY, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Serialize the changed sections on the thread which changes the lists and write them afterwards.
+     */
+    private void requestSnapshot() {
+        snapshotExecutor.execute(() -> {
+            final Snapshot snapshot = takeSnapshot();
+            if (snapshot == null)
+                return;
+
+            try {
+                executor.execute(() -> write(snapshot));
+            } catch (RejectedExecutionException ignored) {
+                // schon geschlossen, die Änderungen werden verworfen
+            }
+        });
+    }
+
+    /**
+     * Write all changes, the sections are serialized on the calling thread, e.g. before program exit.
+     */
+    public void saveNow() {
+        final Snapshot snapshot = takeSnapshot();
+        if (snapshot != null)
+            write(snapshot);
+    }
+
+    private Snapshot takeSnapshot() {
+        final Set<Section> sections;
+        final long number;
+        synchronized (this) {
+            pending = null;
+            if (dirty.isEmpty())
+                return null;
+            sections = EnumSet.copyOf(dirty);
+            dirty.clear();
+            number = ++snapshotCount;
+        }
+
+        final Map<Section, byte[]> content = new EnumMap<>(Section.class);
+        for (Section section : sections) {
+            try {
+                content.put(section, sectionWriter.write(section));
+            } catch (XMLStreamException e) {
+                logger.error("Abschnitt {} konnte nicht geschrieben werden", section, e);
+            }
+        }
+        return new Snapshot(number, content);
+    }
+
+    private void write(Snapshot snapshot) {
+        synchronized (saveLock) {
+            final Set<Section> changed = EnumSet.noneOf(Section.class);
+            for (Map.Entry<Section, byte[]> entry : snapshot.content.entrySet()) {
+                final Section section = entry.getKey();
+                // ein später geschriebener älterer Stand darf einen neueren nicht ersetzen
+                if (fragmentSnapshots.getOrDefault(section, 0L) > snapshot.number)
+                    continue;
+
+                fragmentSnapshots.put(section, snapshot.number);
+                if (!Arrays.equals(entry.getValue(), fragments.get(section))) {
+                    fragments.put(section, entry.getValue());
+                    changed.add(section);
+                }
+            }
+
+            // die Datei nur schreiben, wenn alle Abschnitte vorhanden sind
+            if (changed.isEmpty() || fragments.size() < Section.values().length)
+                return;
+
+            try {
+                writeFile(xmlFilePath, fragments.values());
+                logger.info("Config geschrieben: {}", changed);
+            } catch (IOException e) {
+                logger.error("Config konnte nicht geschrieben werden: {}", xmlFilePath, e);
+                // beim nächsten Mal erneut schreiben
+                changed.forEach(fragments::remove);
+                synchronized (this) {
+                    dirty.addAll(changed);
+                }
+                return;
+            }
+
+            if (backupsEnabled)
+                backup(changed);
+        }
+    }
+
+    private void writeFile(Path file, Collection<byte[]> content) throws IOException {
+        final Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final OutputStream os = Channels.newOutputStream(channel);
+            IoXmlSchreiben.writeConfigurationFile(os, content);
+            channel.force(true);
+        }
+
+        try {
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Back up the changed sections once per program start if they differ from their last backup.
+     */
+    private void backup(Set<Section> changed) {
+        for (Section section : changed) {
+            if (backedUp.contains(section))
+                continue;
+
+            try {
+                final Path copy = getBackupPath(xmlFilePath, section, 1);
+                final byte[] fragment = fragments.get(section);
+                if (Files.exists(copy) && Arrays.equals(toDocument(fragment), Files.readAllBytes(copy))) {
+                    backedUp.add(section);
+                    continue;
+                }
+
+                for (int i = MAX_COPY; i > 1; --i) {
+                    final Path older = getBackupPath(xmlFilePath, section, i - 1);
+                    if (Files.exists(older)) {
+                        Files.move(older, getBackupPath(xmlFilePath, section, i), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                writeFile(copy, Collections.singletonList(fragment));
+                backedUp.add(section);
+                logger.info("Einstellungen gesichert: {}", section);
+            } catch (IOException e) {
+                logger.error("Die Einstellungen konnten nicht gesichert werden: {}", section, e);
+            }
+        }
+    }
+
+    private static byte[] toDocument(byte[] fragment) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        IoXmlSchreiben.writeConfigurationFile(bos, Collections.singletonList(fragment));
+        return bos.toByteArray();
+    }
+
+    /**
+     * Stop writing in the background, pending changes are discarded.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The sections of the configuration file in the order they are written.
+     */
+    public enum Section {
+        ABOS, BLACKLIST, SYSTEM, PSETS, REPLACELIST, DOWNLOADS, MEDIAPATH
+    }
+
+    /**
+     * Serializes one section of the configuration file, see {@link IoXmlSchreiben#writeSection(Section)}.
+     */
+    interface SectionWriter {
+        byte[] write(Section section) throws XMLStreamException;
+    }
+
+    private static final class Snapshot {
+        private final long number;
+        private final Map<Section, byte[]> content;
+
+        Snapshot(long number, Map<Section, byte[]> content) {
+            this.number = number;
+            this.content = content;
+        }
+    }
+}
@@ -31,15 +31,20 @@ import org.apache.logging.log4j.Logger;
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collection;
 
 public class IoXmlSchreiben {
     private static final Logger logger = LogManager.getLogger(IoXmlSchreiben.class);
+    private static final byte[] FILE_HEADER = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<" + Konstanten.XML_START + ">\n").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FILE_END = ("\n\n</" + Konstanten.XML_START + ">").getBytes(StandardCharsets.UTF_8);
     private final XMLOutputFactory outFactory;
 
     public IoXmlSchreiben() {
@@ -118,13 +123,17 @@ public class IoXmlSchreiben {
         //writer.writeComment("Downloads");
         writeNewLine(writer);
         //Abo schreiben
-        for (DatenDownload download : Daten.getInstance().getListeDownloads()) {
-            if (download.isInterrupted()) {
-                // unterbrochene werden gespeichert, dass die Info "Interrupt" erhalten bleibt
-                xmlSchreibenDaten(writer, DatenDownload.TAG, DatenDownload.XML_NAMES, download.arr, false);
-            } else if (!download.istAbo() && !download.isFinished()) {
-                //Download, (Abo müssen neu angelegt werden)
-                xmlSchreibenDaten(writer, DatenDownload.TAG, DatenDownload.XML_NAMES, download.arr, false);
+        final ListeDownloads listeDownloads = Daten.getInstance().getListeDownloads();
+        // die Downloads ändern auch die Starter, die Liste wird nur mit ihrem Lock gelesen
+        synchronized (listeDownloads) {
+            for (DatenDownload download : listeDownloads) {
+                if (download.isInterrupted()) {
+                    // unterbrochene werden gespeichert, dass die Info "Interrupt" erhalten bleibt
+                    xmlSchreibenDaten(writer, DatenDownload.TAG, DatenDownload.XML_NAMES, download.arr, false);
+                } else if (!download.istAbo() && !download.isFinished()) {
+                    //Download, (Abo müssen neu angelegt werden)
+                    xmlSchreibenDaten(writer, DatenDownload.TAG, DatenDownload.XML_NAMES, download.arr, false);
+                }
             }
         }
     }
@@ -203,9 +212,59 @@ public class IoXmlSchreiben {
         }
     }
 
-    public synchronized void writeConfigurationFile(Path xmlFilePath) {
-        logger.info("Daten Schreiben nach: {}", xmlFilePath.toString());
-        xmlDatenSchreiben(xmlFilePath);
+    /**
+     * Serialize one section of the configuration file.
+     * The result is an XML fragment without document header, it is only valid inside the root element.
+     *
+     * @param section the section to write
+     * @return the UTF-8 encoded fragment
+     * @throws XMLStreamException on serialization errors
+     */
+    public synchronized byte[] writeSection(ConfigSaver.Section section) throws XMLStreamException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final XMLStreamWriter writer = outFactory.createXMLStreamWriter(bos, StandardCharsets.UTF_8.name());
+        switch (section) {
+            case ABOS:
+                writeAbos(writer);
+                break;
+            case BLACKLIST:
+                writeBlacklist(writer);
+                break;
+            case SYSTEM:
+                writeProgramSettings(writer);
+                break;
+            case PSETS:
+                writeProgramSets(writer);
+                break;
+            case REPLACELIST:
+                writeReplacementTable(writer);
+                break;
+            case DOWNLOADS:
+                writeDownloads(writer);
+                break;
+            case MEDIAPATH:
+                writeMediaDatabase(writer);
+                break;
+        }
+        writer.flush();
+        writer.close();
+        return bos.toByteArray();
+    }
+
+    /**
+     * Write a complete configuration file from section fragments.
+     *
+     * @param os        the target stream, it is not closed
+     * @param fragments fragments created by {@link #writeSection(ConfigSaver.Section)}
+     * @throws IOException if the stream can´t be written
+     */
+    public static void writeConfigurationFile(OutputStream os, Collection<byte[]> fragments) throws IOException {
+        os.write(FILE_HEADER);
+        for (byte[] fragment : fragments) {
+            os.write(fragment);
+        }
+        os.write(FILE_END);
+        os.flush();
     }
 
     public synchronized void exportPset(DatenPset[] pSet, String datei) {
@@ -227,37 +286,4 @@ public class IoXmlSchreiben {
             logger.error("nach {}", datei, ex);
         }
     }
-
-    private void xmlDatenSchreiben(Path xmlFilePath) {
-        logger.info("Config Schreiben nach: {} startet", xmlFilePath.toAbsolutePath());
-
-        try (OutputStream os = Files.newOutputStream(xmlFilePath);
-             OutputStreamWriter out = new OutputStreamWriter(os, StandardCharsets.UTF_8)) {
-            XMLStreamWriter writer = outFactory.createXMLStreamWriter(out);
-
-            writeFileHeader(writer);
-
-            writeAbos(writer);
-
-            writeBlacklist(writer);
-
-            writeProgramSettings(writer);
-
-            writeProgramSets(writer);
-
-            writeReplacementTable(writer);
-
-            writeDownloads(writer);
-
-            writeMediaDatabase(writer);
-
-            writer.writeCharacters("\n\n");
-
-            writeFileEnd(writer);
-
-            logger.info("Config Schreiben beendet");
-        } catch (Exception ex) {
-            Log.errorLog(656328109, ex);
-        }
-    }
 }
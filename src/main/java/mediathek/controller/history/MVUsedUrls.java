@@ -31,6 +31,7 @@ import java.io.*;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 @SuppressWarnings("serial")
 public abstract class MVUsedUrls<T extends HistoryChangedEvent> {
@@ -48,6 +49,10 @@ public abstract class MVUsedUrls<T extends HistoryChangedEvent> {
      */
     private final List<MVUsedUrl> listeUrlsSortDate = Collections.synchronizedList(new LinkedList<>());
     private final Class<T> clazz;
+    /**
+     * Incremented with every change of the history.
+     */
+    private final AtomicLong version = new AtomicLong();
     private Path urlPath;
 
     protected MVUsedUrls(String fileName, String settingsDir, Class<T> clazz) {
@@ -67,7 +72,15 @@ public abstract class MVUsedUrls<T extends HistoryChangedEvent> {
         return listeUrlsSortDate;
     }
 
+    /**
+     * @return a number which changes whenever the history has been changed.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
     private void sendChangeMessage() {
+        version.incrementAndGet();
         try {
             final T msg = clazz.getDeclaredConstructor().newInstance();
             Daten.getInstance().getMessageBus().publishAsync(msg);
@@ -1,6 +1,7 @@
 package mediathek.controller.starter;
 
 import com.google.common.util.concurrent.RateLimiter;
+import mediathek.config.Config;
 import mediathek.config.Daten;
 import mediathek.config.Konstanten;
 import mediathek.controller.MVBandwidthCountingInputStream;
@@ -69,7 +70,7 @@ public class DirectHttpDownload extends Thread {
         start = datenDownload.start;
         setName("DIRECT DL THREAD_" + d.arr[DatenDownload.DOWNLOAD_TITEL]);
 
-        start.status = Start.STATUS_RUN;
+        start.setStatus(Start.STATUS_RUN);
         StarterClass.notifyStartEvent(datenDownload);
     }
 
@@ -229,7 +230,7 @@ public class DirectHttpDownload extends Thread {
                     melden = true;
                 }
                 if (melden) {
-                    daten.getMessageBus().publishAsync(new DownloadProgressChangedEvent());
+                    daten.getDownloadProgressChannel().publish(DownloadProgressChangedEvent.INSTANCE);
                     melden = false;
                 }
             }
@@ -239,13 +240,13 @@ public class DirectHttpDownload extends Thread {
         if (!start.stoppen) {
             if (datenDownload.quelle == DatenDownload.QUELLE_BUTTON) {
                 // direkter Start mit dem Button
-                start.status = Start.STATUS_FERTIG;
+                start.setStatus(Start.STATUS_FERTIG);
             } else if (StarterClass.pruefen(daten, datenDownload, start)) {
                 //Anzeige ändern - fertig
-                start.status = Start.STATUS_FERTIG;
+                start.setStatus(Start.STATUS_FERTIG);
             } else {
                 //Anzeige ändern - bei Fehler fehlt der Eintrag
-                start.status = Start.STATUS_ERR;
+                start.setStatus(Start.STATUS_ERR);
             }
         }
     }
@@ -254,14 +255,14 @@ public class DirectHttpDownload extends Thread {
         final String responseCode = "Responsecode: " + response.code() + '\n' + response.message();
         logger.error("HTTP-Fehler: {} {}", response.code(), response.message());
 
-        if (!(start.countRestarted < Konstanten.MAX_DOWNLOAD_RESTARTS)) {
+        if (!(start.countRestarted < Konstanten.MAX_DOWNLOAD_RESTARTS) && !Config.isBatchMode()) {
             SwingUtilities.invokeLater(() -> new MeldungDownloadfehler(MediathekGui.ui(), "URL des Films:\n"
                     + datenDownload.arr[DatenDownload.DOWNLOAD_URL] + "\n\n"
                     + responseCode + '\n', datenDownload).setVisible(true));
         }
 
         state = HttpDownloadState.ERROR;
-        start.status = Start.STATUS_ERR;
+        start.setStatus(Start.STATUS_ERR);
     }
 
     private Request buildDownloadRequest(@NotNull URL url) {
@@ -319,9 +320,10 @@ public class DirectHttpDownload extends Thread {
             }
         } catch (IOException ex) {
             logger.error("run()", ex);
-            start.status = Start.STATUS_ERR;
+            start.setStatus(Start.STATUS_ERR);
             state = HttpDownloadState.ERROR;
-            SwingUtilities.invokeLater(() -> new MeldungDownloadfehler(MediathekGui.ui(), ex.getLocalizedMessage(), datenDownload).setVisible(true));
+            if (!Config.isBatchMode())
+                SwingUtilities.invokeLater(() -> new MeldungDownloadfehler(MediathekGui.ui(), ex.getLocalizedMessage(), datenDownload).setVisible(true));
         } finally {
             if (body != null)
                 body.close();
@@ -357,6 +359,13 @@ public class DirectHttpDownload extends Thread {
             return false;
         }
 
+        if (Config.isBatchMode()) {
+            // ohne Oberfläche kann niemand gefragt werden, die vorhandene Datei bleibt unangetastet
+            logger.warn("Datei existiert bereits, Download abgebrochen: {}", file);
+            state = HttpDownloadState.CANCEL;
+            return true;
+        }
+
         dialogAbbrechenIsVis = true;
         retAbbrechen = true;
         if (SwingUtilities.isEventDispatchThread()) {
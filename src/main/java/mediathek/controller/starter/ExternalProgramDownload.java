@@ -1,5 +1,6 @@
 package mediathek.controller.starter;
 
+import mediathek.config.Config;
 import mediathek.config.Daten;
 import mediathek.controller.starter.DirectHttpDownload.HttpDownloadState;
 import mediathek.daten.DatenDownload;
@@ -44,7 +45,7 @@ public class ExternalProgramDownload extends Thread
         this.daten = daten;
         datenDownload = d;
         start = datenDownload.start;
-        start.status = Start.STATUS_RUN;
+        start.setStatus(Start.STATUS_RUN);
         file = new File(datenDownload.arr[DatenDownload.DOWNLOAD_ZIEL_PFAD_DATEINAME]);
         notifyStartEvent(datenDownload);
         try
@@ -196,11 +197,11 @@ public class ExternalProgramDownload extends Thread
                             }
                             break;
                         case stat_fertig_fehler:
-                            start.status = Start.STATUS_ERR;
+                            start.setStatus(Start.STATUS_ERR);
                             stat = stat_ende;
                             break;
                         case stat_fertig_ok:
-                            start.status = Start.STATUS_FERTIG;
+                            start.setStatus(Start.STATUS_FERTIG);
                             stat = stat_ende;
                             break;
                     }
@@ -210,8 +211,9 @@ public class ExternalProgramDownload extends Thread
         {
             exMessage = ex.getLocalizedMessage();
             Log.errorLog(395623710, ex);
-            SwingUtilities.invokeLater(() ->
-                    new MeldungDownloadfehler(MediathekGui.ui(), exMessage, datenDownload).setVisible(true));
+            if (!Config.isBatchMode())
+                SwingUtilities.invokeLater(() ->
+                        new MeldungDownloadfehler(MediathekGui.ui(), exMessage, datenDownload).setVisible(true));
         }
         finalizeDownload(datenDownload, start, state);
         daten.getMessageBus().publish(new DownloadFinishedEvent());
@@ -246,6 +248,14 @@ public class ExternalProgramDownload extends Thread
             return false;
         }
 
+        if (Config.isBatchMode())
+        {
+            // ohne Oberfläche kann niemand gefragt werden, die vorhandene Datei bleibt unangetastet
+            Log.sysLog("Datei existiert bereits, Download abgebrochen: " + file);
+            state = HttpDownloadState.CANCEL;
+            return true;
+        }
+
         dialogAbbrechenIsVis = true;
         retAbbrechen = true;
         if (SwingUtilities.isEventDispatchThread())
@@ -166,7 +166,7 @@ public class RuntimeExec {
                     double d = Double.parseDouble(prozent);
                     meldenDouble(d);
                 } catch (Exception ex) {
-                    Daten.getInstance().getMessageBus().publishAsync(new DownloadProgressChangedEvent());
+                    Daten.getInstance().getDownloadProgressChannel().publish(DownloadProgressChangedEvent.INSTANCE);
                     Log.errorLog(912036780, input);
                 }
                 return;
@@ -230,7 +230,7 @@ public class RuntimeExec {
                     }
                 }
             } catch (Exception ex) {
-                Daten.getInstance().getMessageBus().publishAsync(new DownloadProgressChangedEvent());
+                Daten.getInstance().getDownloadProgressChannel().publish(DownloadProgressChangedEvent.INSTANCE);
                 Log.errorLog(912036780, input);
             }
         }
@@ -253,7 +253,7 @@ public class RuntimeExec {
                     int restProzent = 1000 - percent;
                     start.restSekunden = (diffZeit * restProzent / diffProzent);
                 }
-                Daten.getInstance().getMessageBus().publishAsync(new DownloadProgressChangedEvent());
+                Daten.getInstance().getDownloadProgressChannel().publish(DownloadProgressChangedEvent.INSTANCE);
             }
         }
     }
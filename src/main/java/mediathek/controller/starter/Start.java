@@ -22,13 +22,19 @@ package mediathek.controller.starter;
 import mediathek.controller.MVBandwidthCountingInputStream;
 import mediathek.tool.Datum;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 public class Start {
 
     public static final int PROGRESS_NICHT_GESTARTET = -1;
     public static final int PROGRESS_WARTEN = 0;
     public static final int PROGRESS_GESTARTET = 1;
     public static final int PROGRESS_FERTIG = 1000;
-    public byte status = STATUS_INIT;
+    /**
+     * Counts every change of the status of any download, used to validate cached download statistics.
+     */
+    private static final AtomicLong statusVersion = new AtomicLong();
+    private volatile byte status = STATUS_INIT;
     public int startcounter = 0;
     public Process process = null; //Prozess des Download
     public int percent = -1; // Prozent fertiggestellt: -1=nix, 999=99,9%
@@ -51,6 +57,31 @@ public class Start {
     public Start() {
     }
 
+    /**
+     * Announce a change which affects the download statistics but not the status of a start,
+     * e.g. a start which has been added to or removed from a download.
+     * Must be called after the change has been made.
+     */
+    public static void statusChanged() {
+        statusVersion.incrementAndGet();
+    }
+
+    /**
+     * @return a number which changes whenever the status of any download changes.
+     */
+    public static long getStatusVersion() {
+        return statusVersion.get();
+    }
+
+    public byte getStatus() {
+        return status;
+    }
+
+    public void setStatus(byte status) {
+        this.status = status;
+        statusChanged();
+    }
+
     public static String getTextProgress(boolean dManager, Start s) {
         String ret = "";
 //        boolean dManager = download.isDownloadManager();
@@ -1,5 +1,6 @@
 package mediathek.controller.starter;
 
+import mediathek.config.Config;
 import mediathek.config.Daten;
 import mediathek.config.Konstanten;
 import mediathek.daten.DatenDownload;
@@ -113,7 +114,7 @@ public class StarterClass {
     }
 
     private static void makeBeep() {
-        if (ApplicationConfiguration.getConfiguration().getBoolean(ApplicationConfiguration.DOWNLOAD_SOUND_BEEP, false)) {
+        if (!Config.isBatchMode() && ApplicationConfiguration.getConfiguration().getBoolean(ApplicationConfiguration.DOWNLOAD_SOUND_BEEP, false)) {
             Toolkit.getDefaultToolkit().beep();
         }
     }
@@ -129,10 +130,10 @@ public class StarterClass {
         } else {
             if (start.stoppen) {
                 text.add("Download abgebrochen");
-            } else if (start.status == Start.STATUS_FERTIG) {
+            } else if (start.getStatus() == Start.STATUS_FERTIG) {
                 // dann ists gut
                 text.add("Download ist fertig und hat geklappt");
-            } else if (start.status == Start.STATUS_ERR) {
+            } else if (start.getStatus() == Start.STATUS_ERR) {
                 text.add("Download ist fertig und war fehlerhaft");
             }
             if (datenDownload.isDownloadManager()) {
@@ -168,7 +169,7 @@ public class StarterClass {
         logger.info(text);
         if (!start.stoppen && !abgebrochen) {
             if (datenDownload.quelle != DatenDownload.QUELLE_BUTTON) {
-                addNotification(datenDownload, start.status != Start.STATUS_ERR);
+                addNotification(datenDownload, start.getStatus() != Start.STATUS_ERR);
             }
         }
     }
@@ -177,6 +178,10 @@ public class StarterClass {
      * Post a notification dialog whether download was successful or not.
      */
     private static void addNotification(DatenDownload datenDownload, boolean erfolgreich) {
+        // im Stapelbetrieb läuft kein JavaFX, das Ergebnis steht im Log und im Export
+        if (Config.isBatchMode())
+            return;
+
         final String[] m = {
                 "Film:   " + datenDownload.arr[DatenDownload.DOWNLOAD_TITEL],
                 "Sender: " + datenDownload.arr[DatenDownload.DOWNLOAD_SENDER],
@@ -234,7 +239,7 @@ public class StarterClass {
         }
         notifyStartEvent(datenDownload);
 
-        if (SystemUtils.IS_OS_MAC_OSX) {
+        if (SystemUtils.IS_OS_MAC_OSX && !Config.isBatchMode()) {
             Taskbar.getTaskbar().requestUserAttention(true,false);
         }
     }
@@ -355,7 +360,7 @@ public class StarterClass {
          */
         private void launchDownloadThread(DatenDownload datenDownload) {
             datenDownload.start.startZeit = new Datum();
-            daten.getMessageBus().publishAsync(new DownloadProgressChangedEvent());
+            daten.getDownloadProgressChannel().publish(DownloadProgressChangedEvent.INSTANCE);
 
             Thread downloadThread;
 
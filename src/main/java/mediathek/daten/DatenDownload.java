@@ -17,6 +17,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.LinkedList;
+import java.util.function.IntFunction;
 
 public final class DatenDownload implements Comparable<DatenDownload> {
 
@@ -39,6 +40,9 @@ public final class DatenDownload implements Comparable<DatenDownload> {
     private static final GermanStringSorter sorter = GermanStringSorter.getInstance();
     private static final FastDateFormat sdf_datum_zeit = FastDateFormat.getInstance("dd.MM.yyyyHH:mm:ss");
     private static final FastDateFormat sdf_datum = FastDateFormat.getInstance("dd.MM.yyyy");
+    private static final FastDateFormat sdf_yyyyMMdd = FastDateFormat.getInstance("yyyyMMdd");
+    private static final FastDateFormat sdf_HHmmss = FastDateFormat.getInstance("HHmmss");
+    private static final FastDateFormat sdf_HH_mm_ss = FastDateFormat.getInstance("HH:mm:ss");
 
     public static final int DOWNLOAD_NR = 0;
     public static final int DOWNLOAD_FILM_NR = 1;// nur ein Platzhalter für: "film.nr"
@@ -199,15 +203,26 @@ public final class DatenDownload implements Comparable<DatenDownload> {
 
     public void zurueckstellen() {
         if (start != null) {
-            if (start.status > Start.STATUS_INIT) {
+            if (start.getStatus() > Start.STATUS_INIT) {
                 // zu spät
                 return;
             }
         }
-        arr[DOWNLOAD_ZURUECKGESTELLT] = Boolean.TRUE.toString();
+        setZurueckgestellt(true);
         resetDownload();
     }
 
+    /**
+     * All changes of the flag go through here, the download counts of {@link ListeDownloads} depend on it.
+     */
+    public void setZurueckgestellt(boolean zurueckgestellt) {
+        final String value = Boolean.toString(zurueckgestellt);
+        if (!value.equals(arr[DOWNLOAD_ZURUECKGESTELLT])) {
+            arr[DOWNLOAD_ZURUECKGESTELLT] = value;
+            Start.statusChanged();
+        }
+    }
+
     public boolean isInterrupted() {
         return !isFinished() && arr[DOWNLOAD_UNTERBROCHEN].equals(Boolean.TRUE.toString());
     }
@@ -226,29 +241,31 @@ public final class DatenDownload implements Comparable<DatenDownload> {
     }
 
     public boolean isWaiting() {
-        return (start != null) && (start.status == Start.STATUS_INIT);
+        return (start != null) && (start.getStatus() == Start.STATUS_INIT);
     }
 
     public boolean isFinished() {
-        return (start != null) && (start.status == Start.STATUS_FERTIG);
+        return (start != null) && (start.getStatus() == Start.STATUS_FERTIG);
     }
 
     public boolean runNotFinished() {
-        return start != null && start.status < Start.STATUS_FERTIG;
+        return start != null && start.getStatus() < Start.STATUS_FERTIG;
     }
 
     public boolean running() {
-        return start != null && start.status == Start.STATUS_RUN;
+        return start != null && start.getStatus() == Start.STATUS_RUN;
     }
 
     public void resetDownload() {
         mVFilmSize.reset();
         start = null;
+        Start.statusChanged();
     }
 
     public void startDownload(Daten aDaten) {
         // Start erstellen und zur Liste hinzufügen
         this.start = new Start();
+        Start.statusChanged();
         aDaten.getSeenHistoryController().zeileSchreiben(arr[DatenDownload.DOWNLOAD_THEMA], arr[DatenDownload.DOWNLOAD_TITEL], arr[DatenDownload.DOWNLOAD_HISTORY_URL]);
         aDaten.getMessageBus().publishAsync(new StartEvent());
     }
@@ -259,6 +276,7 @@ public final class DatenDownload implements Comparable<DatenDownload> {
         LinkedList<MVUsedUrl> urlList = new LinkedList<>();
         for (DatenDownload d : downloads) {
             d.start = new Start();
+            Start.statusChanged();
             urlList.add(new MVUsedUrl(zeit,
                     d.arr[DatenDownload.DOWNLOAD_THEMA],
                     d.arr[DatenDownload.DOWNLOAD_TITEL],
@@ -339,7 +357,7 @@ public final class DatenDownload implements Comparable<DatenDownload> {
 
     public String getTextRestzeit() {
         if (start != null) {
-            if (start.status < Start.STATUS_FERTIG && start.status >= Start.STATUS_RUN && start.restSekunden > 0) {
+            if (start.getStatus() < Start.STATUS_FERTIG && start.getStatus() >= Start.STATUS_RUN && start.restSekunden > 0) {
 
                 if (start.restSekunden > 300) {
                     return Math.round(start.restSekunden / 60.0) + " Min.";
@@ -368,7 +386,7 @@ public final class DatenDownload implements Comparable<DatenDownload> {
     public String getTextBandbreite() {
         // start.bandbreite -->> bytes per second
         if (start != null) {
-            if (/*start.status < Start.STATUS_FERTIG &&*/start.status >= Start.STATUS_RUN) {
+            if (/*start.status < Start.STATUS_FERTIG &&*/start.getStatus() >= Start.STATUS_RUN) {
                 return getTextBandbreite(start.bandbreite);
             }
         }
@@ -405,15 +423,7 @@ public final class DatenDownload implements Comparable<DatenDownload> {
             DatenProg programm = pSet.getProgUrl(arr[DOWNLOAD_URL]);
             // ##############################################
             // für die alten Versionen:
-            pSet.arr[DatenPset.PROGRAMMSET_ZIEL_DATEINAME] = StringUtils.replace(pSet.arr[DatenPset.PROGRAMMSET_ZIEL_DATEINAME], "%n", "");
-            pSet.arr[DatenPset.PROGRAMMSET_ZIEL_DATEINAME] = StringUtils.replace(pSet.arr[DatenPset.PROGRAMMSET_ZIEL_DATEINAME], "%p", "");
-            pSet.arr[DatenPset.PROGRAMMSET_ZIEL_PFAD] = StringUtils.replace(pSet.arr[DatenPset.PROGRAMMSET_ZIEL_PFAD], "%n", "");
-            pSet.arr[DatenPset.PROGRAMMSET_ZIEL_PFAD] = StringUtils.replace(pSet.arr[DatenPset.PROGRAMMSET_ZIEL_PFAD], "%p", "");
-
-            for (DatenProg prog : pSet.getListeProg()) {
-                prog.arr[DatenProg.PROGRAMM_ZIEL_DATEINAME] = StringUtils.replace(prog.arr[DatenProg.PROGRAMM_ZIEL_DATEINAME], "%n", "");
-                prog.arr[DatenProg.PROGRAMM_ZIEL_DATEINAME] = StringUtils.replace(prog.arr[DatenProg.PROGRAMM_ZIEL_DATEINAME], "%p", "");
-            }
+            pSet.removeOldPlaceholders();
 
             // ##############################################
             // pSet und ... eintragen
@@ -454,13 +464,22 @@ public final class DatenDownload implements Comparable<DatenDownload> {
     }
 
     private String replaceExec(String befehlsString) {
-        befehlsString = StringUtils.replace(befehlsString, "**", arr[DatenDownload.DOWNLOAD_ZIEL_PFAD_DATEINAME]);
-        befehlsString = StringUtils.replace(befehlsString, "%f", arr[DOWNLOAD_URL]);
-        befehlsString = StringUtils.replace(befehlsString, "%F", arr[DOWNLOAD_URL_RTMP]);
-        befehlsString = StringUtils.replace(befehlsString, "%a", arr[DOWNLOAD_ZIEL_PFAD]);
-        befehlsString = StringUtils.replace(befehlsString, "%b", arr[DOWNLOAD_ZIEL_DATEINAME]);
-
-        return befehlsString;
+        return DownloadTemplate.command(befehlsString).render(key -> {
+            switch (key) {
+                case DownloadTemplate.COMMAND_ZIEL_PFAD_DATEINAME:
+                    return arr[DatenDownload.DOWNLOAD_ZIEL_PFAD_DATEINAME];
+                case DownloadTemplate.COMMAND_URL:
+                    return arr[DOWNLOAD_URL];
+                case DownloadTemplate.COMMAND_URL_RTMP:
+                    return arr[DOWNLOAD_URL_RTMP];
+                case DownloadTemplate.COMMAND_ZIEL_PFAD:
+                    return arr[DOWNLOAD_ZIEL_PFAD];
+                case DownloadTemplate.COMMAND_ZIEL_DATEINAME:
+                    return arr[DOWNLOAD_ZIEL_DATEINAME];
+                default:
+                    throw new IllegalArgumentException("Unknown key: " + key);
+            }
+        });
     }
 
     private void dateinamePfadBauen(DatenPset pSet, DatenFilm film, DatenAbo abo, String nname, String ppfad) {
@@ -579,74 +598,140 @@ public final class DatenDownload implements Comparable<DatenDownload> {
     }
 
     private String replaceString(String replStr, DatenFilm film) {
-        //hier wird nur ersetzt! 
-        //Felder mit variabler Länge, evtl. vorher kürzen
-
-        int laenge = -1;
-
-        if (Boolean.parseBoolean(pSet.arr[DatenPset.PROGRAMMSET_LAENGE_FIELD_BESCHRAENKEN])) {
-            // nur dann ist was zu tun
-            laenge = Konstanten.LAENGE_FELD;
-            if (!pSet.arr[DatenPset.PROGRAMMSET_MAX_LAENGE_FIELD].isEmpty()) {
-                laenge = Integer.parseInt(pSet.arr[DatenPset.PROGRAMMSET_MAX_LAENGE_FIELD]);
+        //hier wird nur ersetzt!
+        return DownloadTemplate.filename(replStr).render(new FilenameFields(film));
+    }
+
+    /**
+     * Liefert die Werte für die Platzhalter im Dateinamen, jedes Feld wird höchstens einmal berechnet.
+     */
+    private final class FilenameFields implements IntFunction<String> {
+        private final DatenFilm film;
+        private final String downloadUrl = arr[DatenDownload.DOWNLOAD_URL];
+        private final boolean userReplace = Boolean.parseBoolean(MVConfig.get(MVConfig.Configs.SYSTEM_USE_REPLACETABLE));
+        private final boolean onlyAscii = Boolean.parseBoolean(MVConfig.get(MVConfig.Configs.SYSTEM_ONLY_ASCII));
+        private final Date jetzt = new Date();
+        private final int laenge;
+        private String datum;
+        private String zeit;
+        private String hash;
+
+        FilenameFields(DatenFilm film) {
+            this.film = film;
+
+            //Felder mit variabler Länge, evtl. vorher kürzen
+            int l = -1;
+            if (Boolean.parseBoolean(pSet.arr[DatenPset.PROGRAMMSET_LAENGE_FIELD_BESCHRAENKEN])) {
+                // nur dann ist was zu tun
+                l = Konstanten.LAENGE_FELD;
+                if (!pSet.arr[DatenPset.PROGRAMMSET_MAX_LAENGE_FIELD].isEmpty()) {
+                    l = Integer.parseInt(pSet.arr[DatenPset.PROGRAMMSET_MAX_LAENGE_FIELD]);
+                }
+            }
+            laenge = l;
+        }
+
+        @Override
+        public String apply(int key) {
+            switch (key) {
+                case DownloadTemplate.FILENAME_THEMA:
+                    return getField(film.getThema(), laenge, userReplace, onlyAscii);
+                case DownloadTemplate.FILENAME_TITEL:
+                    return getField(film.getTitle(), laenge, userReplace, onlyAscii);
+                case DownloadTemplate.FILENAME_SENDER:
+                    return getField(film.getSender(), laenge, userReplace, onlyAscii);
+                case DownloadTemplate.FILENAME_URL_DATEINAME:
+                    return getUrlDateiname();
+
+                //Felder mit fester Länge werden immer ganz geschrieben
+                case DownloadTemplate.FILENAME_DATUM:
+                    return getDatum().isEmpty() ? sdf_yyyyMMdd.format(jetzt) : datumDatumZeitReinigen(datumDrehen(getDatum()));
+                case DownloadTemplate.FILENAME_ZEIT:
+                    return getZeit().isEmpty() ? sdf_HHmmss.format(jetzt) : datumDatumZeitReinigen(getZeit());
+                case DownloadTemplate.FILENAME_HEUTE:
+                    return sdf_yyyyMMdd.format(jetzt);
+                case DownloadTemplate.FILENAME_JETZT:
+                    return sdf_HHmmss.format(jetzt);
+
+                case DownloadTemplate.FILENAME_TAG:
+                    return getDMY("%1", getDatum().isEmpty() ? sdf_datum.format(jetzt) : getDatum());
+                case DownloadTemplate.FILENAME_MONAT:
+                    return getDMY("%2", getDatum().isEmpty() ? sdf_datum.format(jetzt) : getDatum());
+                case DownloadTemplate.FILENAME_JAHR:
+                    return getDMY("%3", getDatum().isEmpty() ? sdf_datum.format(jetzt) : getDatum());
+                case DownloadTemplate.FILENAME_STUNDE:
+                    return getHMS("%4", getZeit().isEmpty() ? sdf_HH_mm_ss.format(jetzt) : getZeit());
+                case DownloadTemplate.FILENAME_MINUTE:
+                    return getHMS("%5", getZeit().isEmpty() ? sdf_HH_mm_ss.format(jetzt) : getZeit());
+                case DownloadTemplate.FILENAME_SEKUNDE:
+                    return getHMS("%6", getZeit().isEmpty() ? sdf_HH_mm_ss.format(jetzt) : getZeit());
+
+                case DownloadTemplate.FILENAME_FILM_NR:
+                    return String.valueOf(film.getFilmNr());
+                case DownloadTemplate.FILENAME_QUALITAET:
+                    return getQualitaet();
+                case DownloadTemplate.FILENAME_SUFFIX:
+                    return GuiFunktionen.getSuffixFromUrl(downloadUrl);
+                case DownloadTemplate.FILENAME_HASH:
+                    return getUrlHash();
+                case DownloadTemplate.FILENAME_HASH_SUFFIX:
+                    return getUrlHash() + '.' + GuiFunktionen.getSuffixFromUrl(downloadUrl);
+                default:
+                    throw new IllegalArgumentException("Unknown key: " + key);
             }
         }
 
-        replStr = StringUtils.replace(replStr, "%t", getField(film.getThema(), laenge));
-        replStr = StringUtils.replace(replStr, "%T", getField(film.getTitle(), laenge));
-        replStr = StringUtils.replace(replStr, "%s", getField(film.getSender(), laenge));
-
-        final String downloadUrl = this.arr[DatenDownload.DOWNLOAD_URL];
-        //special case only for austrian ORF and m3u8 files
-        //github issue #388
-        if (downloadUrl.endsWith(".m3u8") && downloadUrl.contains(".at")) {
-            String field = getField(GuiFunktionen.getDateiName(downloadUrl), laenge);
-
-            final HttpUrl url = HttpUrl.parse(downloadUrl);
-            if (url != null) {
-                final var segments = url.pathSegments();
-                final var segment = segments.get(segments.size() - 2);
-                field = getField(GuiFunktionen.getDateiName(segment), laenge);
-                field = org.apache.commons.io.FilenameUtils.removeExtension(field);
+        private String getDatum() {
+            if (datum == null) {
+                datum = film.arr[DatenFilm.FILM_DATUM];
             }
+            return datum;
+        }
 
-            replStr = StringUtils.replace(replStr, "%N", field);
+        private String getZeit() {
+            if (zeit == null) {
+                zeit = film.arr[DatenFilm.FILM_ZEIT];
+            }
+            return zeit;
         }
-        else
-            replStr = StringUtils.replace(replStr, "%N", getField(GuiFunktionen.getDateiName(downloadUrl), laenge));
 
-        //Felder mit fester Länge werden immer ganz geschrieben
-        replStr = StringUtils.replace(replStr, "%D", film.arr[DatenFilm.FILM_DATUM].isEmpty() ? getHeute_yyyyMMdd() : datumDatumZeitReinigen(datumDrehen(film.arr[DatenFilm.FILM_DATUM])));
-        replStr = StringUtils.replace(replStr, "%d", film.arr[DatenFilm.FILM_ZEIT].isEmpty() ? getJetzt_HHMMSS() : datumDatumZeitReinigen(film.arr[DatenFilm.FILM_ZEIT]));
-        replStr = StringUtils.replace(replStr, "%H", getHeute_yyyyMMdd());
-        replStr = StringUtils.replace(replStr, "%h", getJetzt_HHMMSS());
+        private String getUrlHash() {
+            if (hash == null) {
+                hash = getHash(downloadUrl);
+            }
+            return hash;
+        }
 
-        replStr = StringUtils.replace(replStr, "%1", getDMY("%1", film.arr[DatenFilm.FILM_DATUM].isEmpty() ? getHeute_yyyy_MM_dd() : film.arr[DatenFilm.FILM_DATUM]));
-        replStr = StringUtils.replace(replStr, "%2", getDMY("%2", film.arr[DatenFilm.FILM_DATUM].isEmpty() ? getHeute_yyyy_MM_dd() : film.arr[DatenFilm.FILM_DATUM]));
-        replStr = StringUtils.replace(replStr, "%3", getDMY("%3", film.arr[DatenFilm.FILM_DATUM].isEmpty() ? getHeute_yyyy_MM_dd() : film.arr[DatenFilm.FILM_DATUM]));
-        replStr = StringUtils.replace(replStr, "%4", getHMS("%4", film.arr[DatenFilm.FILM_ZEIT].isEmpty() ? getJetzt_HH_MM_SS() : film.arr[DatenFilm.FILM_ZEIT]));
-        replStr = StringUtils.replace(replStr, "%5", getHMS("%5", film.arr[DatenFilm.FILM_ZEIT].isEmpty() ? getJetzt_HH_MM_SS() : film.arr[DatenFilm.FILM_ZEIT]));
-        replStr = StringUtils.replace(replStr, "%6", getHMS("%6", film.arr[DatenFilm.FILM_ZEIT].isEmpty() ? getJetzt_HH_MM_SS() : film.arr[DatenFilm.FILM_ZEIT]));
+        private String getUrlDateiname() {
+            //special case only for austrian ORF and m3u8 files
+            //github issue #388
+            if (downloadUrl.endsWith(".m3u8") && downloadUrl.contains(".at")) {
+                String field = getField(GuiFunktionen.getDateiName(downloadUrl), laenge, userReplace, onlyAscii);
 
-        replStr = StringUtils.replace(replStr, "%i", String.valueOf(film.getFilmNr()));
+                final HttpUrl url = HttpUrl.parse(downloadUrl);
+                if (url != null) {
+                    final var segments = url.pathSegments();
+                    final var segment = segments.get(segments.size() - 2);
+                    field = getField(GuiFunktionen.getDateiName(segment), laenge, userReplace, onlyAscii);
+                    field = org.apache.commons.io.FilenameUtils.removeExtension(field);
+                }
 
-        String res = "";
-        if (arr[DOWNLOAD_URL].equals(film.getUrlFuerAufloesung(FilmResolution.AUFLOESUNG_NORMAL))) {
-            res = "H";
-        } else if (arr[DOWNLOAD_URL].equals(film.getUrlFuerAufloesung(FilmResolution.AUFLOESUNG_HD))) {
-            res = "HD";
-        } else if (arr[DOWNLOAD_URL].equals(film.getUrlFuerAufloesung(FilmResolution.AUFLOESUNG_KLEIN))) {
-            res = "L";
+                return field;
+            } else
+                return getField(GuiFunktionen.getDateiName(downloadUrl), laenge, userReplace, onlyAscii);
         }
-        replStr = StringUtils.replace(replStr, "%q", res);
-
-        replStr = StringUtils.replace(replStr, "%S", GuiFunktionen.getSuffixFromUrl(downloadUrl));
-        replStr = StringUtils.replace(replStr, "%Z", getHash(downloadUrl));
 
-        replStr = StringUtils.replace(replStr, "%z", getHash(downloadUrl)
-                + '.' + GuiFunktionen.getSuffixFromUrl(downloadUrl));
-
-        return replStr;
+        private String getQualitaet() {
+            String res = "";
+            if (downloadUrl.equals(film.getUrlFuerAufloesung(FilmResolution.AUFLOESUNG_NORMAL))) {
+                res = "H";
+            } else if (downloadUrl.equals(film.getUrlFuerAufloesung(FilmResolution.AUFLOESUNG_HD))) {
+                res = "HD";
+            } else if (downloadUrl.equals(film.getUrlFuerAufloesung(FilmResolution.AUFLOESUNG_KLEIN))) {
+                res = "L";
+            }
+            return res;
+        }
     }
 
     private String getHash(String pfad) {
@@ -659,10 +744,8 @@ public final class DatenDownload implements Comparable<DatenDownload> {
         return hh.toString();
     }
 
-    private String getField(String name, int length) {
-        name = FilenameUtils.replaceLeerDateiname(name, false /*pfad*/,
-                Boolean.parseBoolean(MVConfig.get(MVConfig.Configs.SYSTEM_USE_REPLACETABLE)),
-                Boolean.parseBoolean(MVConfig.get(MVConfig.Configs.SYSTEM_ONLY_ASCII)));
+    private static String getField(String name, int length, boolean userReplace, boolean onlyAscii) {
+        name = FilenameUtils.replaceLeerDateiname(name, false /*pfad*/, userReplace, onlyAscii);
 
         if (length < 0) {
             return name;
@@ -674,20 +757,8 @@ public final class DatenDownload implements Comparable<DatenDownload> {
         return name;
     }
 
-    private String getJetzt_HHMMSS() {
-        return FastDateFormat.getInstance("HHmmss").format(new Date());
-    }
-
-    private String getJetzt_HH_MM_SS() {
-        return FastDateFormat.getInstance("HH:mm:ss").format(new Date());
-    }
-
     private String getHeute_yyyyMMdd() {
-        return FastDateFormat.getInstance("yyyyMMdd").format(new Date());
-    }
-
-    private String getHeute_yyyy_MM_dd() {
-        return sdf_datum.format(new Date());
+        return sdf_yyyyMMdd.format(new Date());
     }
 
     private static String getDMY(String s, String datum) {
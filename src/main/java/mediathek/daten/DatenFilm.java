@@ -1,6 +1,7 @@
 package mediathek.daten;
 
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.sansorm.SansOrm;
 import com.zaxxer.sansorm.SqlClosure;
 import mediathek.config.Daten;
 import mediathek.tool.*;
@@ -11,7 +12,6 @@ import org.jetbrains.annotations.NotNull;
 
 import java.lang.ref.Cleaner;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -105,17 +105,25 @@ public class DatenFilm implements AutoCloseable, Comparable<DatenFilm> {
      * Flag indicating a trailer, teaser or german Vorschau.
      */
     private boolean isTrailerTeaser = false;
-    private String websiteLink = null;
-    private String description = null;
+    private volatile String websiteLink = null;
+    private volatile String description = null;
+    /**
+     * Description and website link are stored in the database, either since the film was created with low memory
+     * or since they were moved there when memory got scarce.
+     * While a film is moved the strings are still kept until the rows are committed.
+     */
+    private volatile boolean storedInDatabase = false;
     private boolean livestream = false;
     public DatenFilm() {
         setupArr();
 
         filmSize = new MSLong(0); // Dateigröße in MByte
         databaseFilmNumber = FILM_COUNTER.getAndIncrement();
-        writeFilmNumberToDatabase();
-
-        setupDatabaseCleanup();
+        if (FilmDatabaseWriter.getActive() != null || MemoryGovernor.getInstance().isLowMemory()) {
+            storedInDatabase = true;
+            writeFilmNumberToDatabase();
+            setupDatabaseCleanup();
+        }
     }
 
     public DatumFilm getDatumFilm() {
@@ -139,15 +147,20 @@ public class DatenFilm implements AutoCloseable, Comparable<DatenFilm> {
     }
 
     private void writeFilmNumberToDatabase() {
-        if (MemoryUtils.isLowMemoryEnvironment()) {
-            SqlClosure.sqlExecute(connection -> {
-                PreparedStatement insertStatement = connection.prepareStatement("INSERT INTO mediathekview.film VALUES (?)");
-                insertStatement.setInt(1, databaseFilmNumber);
-                insertStatement.executeUpdate();
-
-                return null;
-            });
+        final FilmDatabaseWriter writer = FilmDatabaseWriter.getActive();
+        if (writer != null) {
+            writer.addFilm(databaseFilmNumber);
+            return;
         }
+
+        Database.ensureInitialized();
+        SqlClosure.sqlExecute(connection -> {
+            PreparedStatement insertStatement = connection.prepareStatement("INSERT INTO mediathekview.film VALUES (?)");
+            insertStatement.setInt(1, databaseFilmNumber);
+            insertStatement.executeUpdate();
+
+            return null;
+        });
     }
 
     public boolean isTrailerTeaser() {
@@ -186,11 +199,9 @@ public class DatenFilm implements AutoCloseable, Comparable<DatenFilm> {
     }
 
     private void setupDatabaseCleanup() {
-        if (MemoryUtils.isLowMemoryEnvironment()) {
-            final boolean useCleaner = ApplicationConfiguration.getConfiguration().getBoolean(ApplicationConfiguration.DATABASE_USE_CLEANER_INTERFACE, false);
-            if (useCleaner)
-                installCleanupTask();
-        }
+        final boolean useCleaner = ApplicationConfiguration.getConfiguration().getBoolean(ApplicationConfiguration.DATABASE_USE_CLEANER_INTERFACE, false);
+        if (useCleaner && cleaner == null)
+            installCleanupTask();
     }
 
     private void installCleanupTask() {
@@ -226,17 +237,12 @@ public class DatenFilm implements AutoCloseable, Comparable<DatenFilm> {
      * @return the film description.
      */
     public String getDescription() {
-        if (MemoryUtils.isLowMemoryEnvironment()) {
-            return SqlClosure.sqlExecute(connection -> {
-                PreparedStatement statement = connection.prepareStatement("SELECT desc FROM mediathekview.description WHERE id = ?");
-                statement.setLong(1, databaseFilmNumber);
-                ResultSet rs = statement.executeQuery();
+        // das Feld zuerst, beim Verschieben wird es erst nach dem Commit gelöscht
+        final String desc = description;
+        if (desc != null)
+            return desc;
 
-                return (rs.next() ? rs.getString(1) : "");
-            });
-        } else {
-            return StringUtils.defaultString(description);
-        }
+        return storedInDatabase ? FilmDescriptionProvider.getInstance().get(databaseFilmNumber).getDescription() : "";
     }
 
     /**
@@ -245,10 +251,13 @@ public class DatenFilm implements AutoCloseable, Comparable<DatenFilm> {
      *
      * @param desc String to be stored.
      */
-    public void setDescription(final String desc) {
+    public synchronized void setDescription(final String desc) {
         if (desc != null && !desc.isEmpty()) {
-            if (MemoryUtils.isLowMemoryEnvironment()) {
-                SqlClosure.sqlExecute(connection -> {
+            if (storedInDatabase) {
+                final FilmDatabaseWriter writer = FilmDatabaseWriter.getActive();
+                if (writer != null)
+                    writer.addDescription(databaseFilmNumber, desc);
+                else SqlClosure.sqlExecute(connection -> {
                     PreparedStatement mergeStatement = connection.prepareStatement("MERGE INTO mediathekview.description KEY(ID) VALUES (?,?)");
                     mergeStatement.setInt(1, databaseFilmNumber);
                     mergeStatement.setString(2, desc);
@@ -256,27 +265,30 @@ public class DatenFilm implements AutoCloseable, Comparable<DatenFilm> {
 
                     return null;
                 });
+                FilmDescriptionProvider.getInstance().invalidate(databaseFilmNumber);
+                // der Film wird gerade verschoben, bis zum Commit wird noch das Feld gelesen
+                if (description != null)
+                    description = desc;
             } else
                 description = desc;
         }
     }
 
     public String getWebsiteLink() {
-        if (MemoryUtils.isLowMemoryEnvironment()) {
-            return SqlClosure.sqlExecute(connection -> {
-                PreparedStatement statement = connection.prepareStatement("SELECT link FROM mediathekview.website_links WHERE id = ?");
-                statement.setLong(1, databaseFilmNumber);
-                ResultSet rs = statement.executeQuery();
-                return (rs.next() ? rs.getString(1) : "");
-            });
-        } else
-            return websiteLink != null ? websiteLink : "";
+        final String link = websiteLink;
+        if (link != null)
+            return link;
+
+        return storedInDatabase ? FilmDescriptionProvider.getInstance().get(databaseFilmNumber).getWebsiteLink() : "";
     }
 
-    public void setWebsiteLink(String link) {
+    public synchronized void setWebsiteLink(String link) {
         if (link != null && !link.isEmpty()) {
-            if (MemoryUtils.isLowMemoryEnvironment()) {
-                SqlClosure.sqlExecute(connection -> {
+            if (storedInDatabase) {
+                final FilmDatabaseWriter writer = FilmDatabaseWriter.getActive();
+                if (writer != null)
+                    writer.addWebsiteLink(databaseFilmNumber, link);
+                else SqlClosure.sqlExecute(connection -> {
                     PreparedStatement mergeStatement = connection.prepareStatement("MERGE INTO mediathekview.website_links KEY(ID) VALUES (?,?)");
                     mergeStatement.setInt(1, databaseFilmNumber);
                     mergeStatement.setString(2, link);
@@ -284,12 +296,56 @@ public class DatenFilm implements AutoCloseable, Comparable<DatenFilm> {
 
                     return null;
                 });
+                FilmDescriptionProvider.getInstance().invalidate(databaseFilmNumber);
+                // der Film wird gerade verschoben, bis zum Commit wird noch das Feld gelesen
+                if (websiteLink != null)
+                    websiteLink = link;
             } else {
                 websiteLink = link;
             }
         }
     }
 
+    /**
+     * @return true if description and website link must be read from the database.
+     */
+    boolean isReadFromDatabase() {
+        return storedInDatabase && description == null && websiteLink == null;
+    }
+
+    /**
+     * Queue description and website link on the writer, from now on changes go to the database.
+     * The strings are kept until {@link #finishMoveToDatabase(boolean)}.
+     *
+     * @return false if the film is already stored in the database or has nothing to move.
+     */
+    synchronized boolean moveToDatabase(@NotNull FilmDatabaseWriter writer) {
+        if (storedInDatabase || (description == null && websiteLink == null))
+            return false;
+
+        writer.addFilm(databaseFilmNumber);
+        if (description != null)
+            writer.addDescription(databaseFilmNumber, description);
+        if (websiteLink != null)
+            writer.addWebsiteLink(databaseFilmNumber, websiteLink);
+        storedInDatabase = true;
+        return true;
+    }
+
+    /**
+     * Release the strings after the rows of {@link #moveToDatabase(FilmDatabaseWriter)} have been committed.
+     *
+     * @param committed false if writing failed, then the film stays on the heap.
+     */
+    synchronized void finishMoveToDatabase(boolean committed) {
+        if (committed) {
+            description = null;
+            websiteLink = null;
+            setupDatabaseCleanup();
+        } else
+            storedInDatabase = false;
+    }
+
     public boolean isNew() {
         return neuerFilm;
     }
@@ -515,6 +571,24 @@ public class DatenFilm implements AutoCloseable, Comparable<DatenFilm> {
         private Database() {
         }
 
+        private static boolean initialized = false;
+
+        /**
+         * The database is only set up when the first film is stored there,
+         * right at startup with a small heap or later when memory gets scarce.
+         */
+        public static synchronized void ensureInitialized() {
+            if (!initialized) {
+                SansOrm.initializeTxSimple(PooledDatabaseConnection.getInstance().getDataSource());
+                initializeDatabase();
+                initialized = true;
+            }
+        }
+
+        public static synchronized boolean isInitialized() {
+            return initialized;
+        }
+
         public static void closeDatabase() {
             HikariDataSource ds = PooledDatabaseConnection.getInstance().getDataSource();
             ds.close();
@@ -533,11 +607,11 @@ public class DatenFilm implements AutoCloseable, Comparable<DatenFilm> {
             logger.trace("Finished creating SQL indices");
         }
 
-        public static void initializeDatabase() {
+        private static void initializeDatabase() {
             logger.debug("initializeDatabase()");
             SqlClosure.sqlExecute(connection -> {
                 Statement statement = connection.createStatement();
-                if (!MemoryUtils.isLowMemoryEnvironment()) {
+                if (!MemoryGovernor.getInstance().isSmallHeap()) {
                     statement.executeUpdate("SET WRITE_DELAY 5000");
                     statement.executeUpdate("SET MAX_OPERATION_MEMORY 0");
                 }
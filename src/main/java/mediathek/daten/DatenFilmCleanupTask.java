@@ -1,10 +1,23 @@
 package mediathek.daten;
 
 import com.zaxxer.sansorm.SqlClosure;
+import mediathek.config.Daten;
 
 import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Removes the database entries of a garbage collected {@link DatenFilm}.
+ * The ids are collected and deleted in batches of id ranges, as whole film lists get collected at once.
+ */
 public class DatenFilmCleanupTask implements Runnable {
+    private static final int BATCH_SIZE = FilmDatabaseWriter.BATCH_SIZE;
+    private static final long FLUSH_DELAY = 2;
+    private static final Object LOCK = new Object();
+    private static long[] pending = new long[BATCH_SIZE];
+    private static int pendingCount;
+    private static boolean flushScheduled;
     private final long filmNr;
 
     public DatenFilmCleanupTask(long film) {
@@ -13,10 +26,65 @@ public class DatenFilmCleanupTask implements Runnable {
 
     @Override
     public void run() {
+        long[] ids = null;
+        synchronized (LOCK) {
+            pending[pendingCount++] = filmNr;
+            if (pendingCount == BATCH_SIZE) {
+                ids = takePending();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                Daten.getInstance().getTimerPool().schedule(DatenFilmCleanupTask::flush, FLUSH_DELAY, TimeUnit.SECONDS);
+            }
+        }
+
+        if (ids != null)
+            delete(ids);
+    }
+
+    private static long[] takePending() {
+        final long[] ids = Arrays.copyOf(pending, pendingCount);
+        pendingCount = 0;
+        return ids;
+    }
+
+    private static void flush() {
+        final long[] ids;
+        synchronized (LOCK) {
+            flushScheduled = false;
+            if (pendingCount == 0)
+                return;
+            ids = takePending();
+        }
+        delete(ids);
+    }
+
+    /**
+     * Delete the films, consecutive ids are combined into one range.
+     * Description and website link are removed by ON DELETE CASCADE.
+     */
+    private static void delete(long[] ids) {
+        // Filme einer laufenden Ladung müssen erst geschrieben sein, sonst bleiben ihre Zeilen übrig
+        final FilmDatabaseWriter writer = FilmDatabaseWriter.getActive();
+        if (writer != null)
+            writer.commitPending();
+
+        Arrays.sort(ids);
         SqlClosure.sqlExecute(connection -> {
-            PreparedStatement preparedStatement = connection.prepareStatement("DELETE FROM mediathekview.film where ID = ?");
-            preparedStatement.setLong(1, filmNr);
-            preparedStatement.executeUpdate();
+            PreparedStatement preparedStatement = connection.prepareStatement("DELETE FROM mediathekview.film WHERE ID BETWEEN ? AND ?");
+            int i = 0;
+            while (i < ids.length) {
+                final long from = ids[i];
+                long to = from;
+                i++;
+                while (i < ids.length && ids[i] <= to + 1) {
+                    to = ids[i];
+                    i++;
+                }
+                preparedStatement.setLong(1, from);
+                preparedStatement.setLong(2, to);
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
 
             return null;
         });
@@ -23,6 +23,7 @@ import mediathek.config.Daten;
 import mediathek.tool.GuiFunktionenProgramme;
 import mediathek.tool.Log;
 import mediathek.tool.MVMessageDialog;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.SystemUtils;
 import org.jetbrains.annotations.NotNull;
 
@@ -263,6 +264,25 @@ public class DatenPset implements Comparable<DatenPset> {
         return false;
     }
 
+    /**
+     * Remove the placeholders %n and %p of old versions from the target name and path of the set and its programs.
+     * Fields are only written if they contain a placeholder, once cleaned the set is only read.
+     */
+    public void removeOldPlaceholders() {
+        removeOldPlaceholders(arr, PROGRAMMSET_ZIEL_DATEINAME);
+        removeOldPlaceholders(arr, PROGRAMMSET_ZIEL_PFAD);
+        for (DatenProg prog : getListeProg()) {
+            removeOldPlaceholders(prog.arr, DatenProg.PROGRAMM_ZIEL_DATEINAME);
+        }
+    }
+
+    private static void removeOldPlaceholders(String[] values, int index) {
+        final String value = values[index];
+        if (StringUtils.contains(value, "%n") || StringUtils.contains(value, "%p")) {
+            values[index] = StringUtils.remove(StringUtils.remove(value, "%n"), "%p");
+        }
+    }
+
     @Override
     public String toString() {
         String ret = "";
@@ -1,132 +1,70 @@
 package mediathek.daten;
 
-import mediathek.config.Daten;
 import mediathek.controller.starter.Start;
-import mediathek.gui.messages.BaseEvent;
 import mediathek.gui.messages.DownloadInfoUpdateAvailableEvent;
-import mediathek.gui.messages.TimerEvent;
-import net.engio.mbassy.bus.MBassador;
-import net.engio.mbassy.listener.Handler;
+import mediathek.tool.EventChannel;
+import mediathek.tool.TickScheduler;
 
-import java.text.DecimalFormat;
+import java.util.List;
 
+/**
+ * Collects the state of all downloads into a {@link DownloadStatistics} snapshot.
+ * The counts are only determined again when the download list or the status of a download has changed,
+ * sizes, bandwidth and remaining time are summed up from the started downloads only.
+ */
 public class DownloadInfos {
-    private static final DecimalFormat formatter = new DecimalFormat("####0.00");
-    private final MBassador<BaseEvent> messageBus;
+    private final EventChannel<DownloadInfoUpdateAvailableEvent> channel;
+    private final ListeDownloads listeDownloads;
+    private volatile DownloadStatistics statistics = DownloadStatistics.EMPTY;
     /**
-     * Bandbreite: bytes per second
+     * Version of the download list of the last snapshot, only used on the clock thread.
      */
-    private long bandwidth = 0;
-    /**
-     * Restzeit aller gestarteten Downloads
-     */
-    private long timeRestAllDownloads = 0;
-    /**
-     * Restzeit für die gerade ladenden/laufenden Downloads
-     */
-    private long timeRestAktDownloads = 0;
-    /**
-     * Anzahl Bytes bereits geladen für die gerade ladenden/laufenden Downloads
-     */
-    private long byteAktDownloads = 0;
-    /**
-     * Anzahl Bytes für alle gestarteten Downloads
-     */
-    private long byteAlleDownloads = 0;
-    /**
-     * Anzahl gestarteter Downloads
-     */
-    private int anzDownloadsRun = 0;
-
-    private String bandwidthStr = "";
-
-    public DownloadInfos(MBassador<BaseEvent> messageBus) {
-        this.messageBus = messageBus;
-        messageBus.subscribe(this);
-    }
-
-    public long getBandwidth() {
-        return bandwidth;
-    }
-
-    public long getTimeRestAllDownloads() {
-        return timeRestAllDownloads;
-    }
-
-    public long getTimeRestAktDownloads() {
-        return timeRestAktDownloads;
-    }
-
-    public long getByteAktDownloads() {
-        return byteAktDownloads;
-    }
-
-    public long getByteAlleDownloads() {
-        return byteAlleDownloads;
+    private long version = -1;
+
+    public DownloadInfos(EventChannel<DownloadInfoUpdateAvailableEvent> channel, TickScheduler tickScheduler, ListeDownloads listeDownloads) {
+        this.channel = channel;
+        this.listeDownloads = listeDownloads;
+        // solange Downloads laufen, ändern sich Bandbreite und Restzeit ständig
+        tickScheduler.register("DownloadInfos", 1, TickScheduler.Target.BACKGROUND, this::makeDownloadInfos)
+                .changedWhen(() -> statistics.getAnzDownloadsRun() > 0 || listeDownloads.getVersion() != version);
     }
 
-    public String getBandwidthStr() {
-        return bandwidthStr;
-    }
-
-    public void formatBandwidthString() {
-        if (bandwidth > 1_000_000.0) {
-            bandwidthStr = formatter.format(bandwidth / 1_000_000.0) + " MByte/s";
-        } else if (bandwidth > 1_000.0) {
-            bandwidthStr = Math.round(bandwidth / 1_000.0) + " kByte/s";
-        } else {
-            bandwidthStr = Math.round(bandwidth) + " Byte/s";
-        }
-    }
-
-    public String getGesamtRestzeit() {
-        if (timeRestAllDownloads > 0) {
-            if (timeRestAllDownloads < 60) {
-                return "< 1 Min";
-            } else {
-                return timeRestAllDownloads / 60 + " Min";
-            }
-        }
-        return "";
-    }
-
-    public String getRestzeit() {
-        if (timeRestAktDownloads > 0) {
-            if (timeRestAktDownloads < 60) {
-                return "< 1 Min";
-            } else {
-                return timeRestAktDownloads / 60 + " Min";
-            }
-        }
-        return "";
-    }
-
-    @Handler
-    private void handleTimerEvent(TimerEvent e) {
-        makeDownloadInfos();
+    /**
+     * @return the state of all downloads at the last update.
+     */
+    public DownloadStatistics getStatistics() {
+        return statistics;
     }
 
     private void makeDownloadInfos() {
-        resetData();
+        final DownloadStartInfo starts;
+        final List<DatenDownload> aktivDownloads;
+        synchronized (listeDownloads) {
+            version = listeDownloads.getVersion();
+            starts = listeDownloads.getStarts();
+            aktivDownloads = listeDownloads.getActiveStarts();
+        }
 
-        final var listeDownloads = Daten.getInstance().getListeDownloads();
-        final var aktivDownloads = listeDownloads.getListOfStartsNotFinished(DatenDownload.QUELLE_ALLE);
+        long bandwidth = 0;
+        long timeRestAllDownloads = 0;
+        long timeRestAktDownloads = 0;
+        long byteAktDownloads = 0;
+        long byteAlleDownloads = 0;
 
         // Liste gestarteter Downloads
         for (DatenDownload download : aktivDownloads) {
-            anzDownloadsRun++;
             byteAlleDownloads += (download.mVFilmSize.getSize() > 0 ? download.mVFilmSize.getSize() : 0);
-            if (download.start != null && download.start.status == Start.STATUS_RUN) {
+            final Start start = download.start;
+            if (start != null && start.getStatus() == Start.STATUS_RUN) {
                 // die Downlaods laufen gerade
-                bandwidth += download.start.bandbreite; // bytes per second
+                bandwidth += start.bandbreite; // bytes per second
                 byteAktDownloads += (download.mVFilmSize.getAktSize() > 0 ? download.mVFilmSize.getAktSize() : 0);
-                if (download.start.restSekunden > timeRestAktDownloads) {
+                if (start.restSekunden > timeRestAktDownloads) {
                     // der längeste gibt die aktuelle Restzeit vor
-                    timeRestAktDownloads = download.start.restSekunden;
+                    timeRestAktDownloads = start.restSekunden;
                 }
             }
         }
-        aktivDownloads.clear();
 
         if (bandwidth < 0) {
             bandwidth = 0;
@@ -144,24 +82,15 @@ public class DownloadInfos {
                 timeRestAllDownloads = timeRestAktDownloads; // falsch geraten oder es gibt nur einen
             }
 
-            if (anzDownloadsRun == 1) {
+            if (aktivDownloads.size() == 1) {
                 timeRestAllDownloads = 0; // gibt ja nur noch einen
             }
         }
 
-        formatBandwidthString();
+        statistics = new DownloadStatistics(starts, aktivDownloads.size(), bandwidth, timeRestAllDownloads,
+                timeRestAktDownloads, byteAktDownloads, byteAlleDownloads);
 
-        //TODO put status values in Info Event message
-        messageBus.publishAsync(new DownloadInfoUpdateAvailableEvent());
+        // synchron, damit die Anzeigen noch im selben Takt aktualisiert werden
+        channel.publish(DownloadInfoUpdateAvailableEvent.INSTANCE);
     }
-
-    private void resetData() {
-        anzDownloadsRun = 0;
-        byteAlleDownloads = 0;
-        byteAktDownloads = 0;
-        timeRestAktDownloads = 0;
-        timeRestAllDownloads = 0;
-        bandwidth = 0;
-    }
-
 }
@@ -1,22 +1,41 @@
 package mediathek.daten;
 
+/**
+ * Immutable counts of the downloads of a {@link ListeDownloads}.
+ */
 public class DownloadStartInfo {
-    public int total_starts = 0;
-    public int num_abos = 0;
-    public int num_downloads = 0;
+    /**
+     * all downloads of the list, including the deferred ones.
+     */
+    public final int total_downloads;
+    public final int total_starts;
+    public final int num_abos;
+    public final int num_downloads;
     /**
      * not yet started but initialized.
      */
-    public int initialized = 0;
-    public int running = 0;
+    public final int initialized;
+    public final int running;
     /**
      * finished without error.
      */
-    public int finished = 0;
+    public final int finished;
     /**
      * finished with error.
      */
-    public int error = 0;
+    public final int error;
+
+    DownloadStartInfo(int total_downloads, int total_starts, int num_abos, int num_downloads,
+                      int initialized, int running, int finished, int error) {
+        this.total_downloads = total_downloads;
+        this.total_starts = total_starts;
+        this.num_abos = num_abos;
+        this.num_downloads = num_downloads;
+        this.initialized = initialized;
+        this.running = running;
+        this.finished = finished;
+        this.error = error;
+    }
 
     /**
      * determine if it has non standard values.
@@ -0,0 +1,121 @@
+package mediathek.daten;
+
+import java.text.DecimalFormat;
+
+/**
+ * Immutable snapshot of the state of all downloads, created by {@link DownloadInfos}.
+ */
+public class DownloadStatistics {
+    static final DownloadStatistics EMPTY = new DownloadStatistics(new DownloadStartInfo(0, 0, 0, 0, 0, 0, 0, 0),
+            0, 0, 0, 0, 0, 0);
+    private static final DecimalFormat formatter = new DecimalFormat("####0.00");
+    private final DownloadStartInfo starts;
+    /**
+     * Anzahl gestarteter Downloads
+     */
+    private final int anzDownloadsRun;
+    /**
+     * Bandbreite: bytes per second
+     */
+    private final long bandwidth;
+    /**
+     * Restzeit aller gestarteten Downloads
+     */
+    private final long timeRestAllDownloads;
+    /**
+     * Restzeit für die gerade ladenden/laufenden Downloads
+     */
+    private final long timeRestAktDownloads;
+    /**
+     * Anzahl Bytes bereits geladen für die gerade ladenden/laufenden Downloads
+     */
+    private final long byteAktDownloads;
+    /**
+     * Anzahl Bytes für alle gestarteten Downloads
+     */
+    private final long byteAlleDownloads;
+    private final String bandwidthStr;
+
+    DownloadStatistics(DownloadStartInfo starts, int anzDownloadsRun, long bandwidth, long timeRestAllDownloads,
+                       long timeRestAktDownloads, long byteAktDownloads, long byteAlleDownloads) {
+        this.starts = starts;
+        this.anzDownloadsRun = anzDownloadsRun;
+        this.bandwidth = bandwidth;
+        this.timeRestAllDownloads = timeRestAllDownloads;
+        this.timeRestAktDownloads = timeRestAktDownloads;
+        this.byteAktDownloads = byteAktDownloads;
+        this.byteAlleDownloads = byteAlleDownloads;
+        bandwidthStr = formatBandwidth(bandwidth);
+    }
+
+    private static String formatBandwidth(long bandwidth) {
+        final String result;
+        if (bandwidth > 1_000_000.0) {
+            synchronized (formatter) {
+                result = formatter.format(bandwidth / 1_000_000.0) + " MByte/s";
+            }
+        } else if (bandwidth > 1_000.0) {
+            result = Math.round(bandwidth / 1_000.0) + " kByte/s";
+        } else {
+            result = Math.round(bandwidth) + " Byte/s";
+        }
+        return result;
+    }
+
+    private static String formatRestzeit(long seconds) {
+        if (seconds > 0) {
+            if (seconds < 60) {
+                return "< 1 Min";
+            } else {
+                return seconds / 60 + " Min";
+            }
+        }
+        return "";
+    }
+
+    /**
+     * @return the counts of the downloads in the download list.
+     */
+    public DownloadStartInfo getStarts() {
+        return starts;
+    }
+
+    /**
+     * @return number of started but not yet finished downloads.
+     */
+    public int getAnzDownloadsRun() {
+        return anzDownloadsRun;
+    }
+
+    public long getBandwidth() {
+        return bandwidth;
+    }
+
+    public long getTimeRestAllDownloads() {
+        return timeRestAllDownloads;
+    }
+
+    public long getTimeRestAktDownloads() {
+        return timeRestAktDownloads;
+    }
+
+    public long getByteAktDownloads() {
+        return byteAktDownloads;
+    }
+
+    public long getByteAlleDownloads() {
+        return byteAlleDownloads;
+    }
+
+    public String getBandwidthStr() {
+        return bandwidthStr;
+    }
+
+    public String getGesamtRestzeit() {
+        return formatRestzeit(timeRestAllDownloads);
+    }
+
+    public String getRestzeit() {
+        return formatRestzeit(timeRestAktDownloads);
+    }
+}
@@ -0,0 +1,201 @@
+package mediathek.daten;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.function.IntFunction;
+
+/**
+ * Compiled form of a pset filename/path template ("%t-%T-%D.mp4") or of a program call ("** %f").
+ * The template is split once into literal parts and placeholder tokens, rendering then only appends
+ * to a single {@link StringBuilder} and asks the resolver for every placeholder value at most once.
+ * <p>
+ * The old implementation chained one {@link StringUtils#replace(String, String, String)} per placeholder.
+ * That means a value which itself contains a placeholder (e.g. a thema "100%Tatort") got replaced again
+ * by a later pass. To stay byte-identical such templates and values are rendered the old way.
+ */
+final class DownloadTemplate {
+    /**
+     * Placeholders for filenames and paths in the order in which they were replaced before.
+     */
+    static final String[] FILENAME_KEYS = {"%t", "%T", "%s", "%N", "%D", "%d", "%H", "%h",
+            "%1", "%2", "%3", "%4", "%5", "%6", "%i", "%q", "%S", "%Z", "%z"};
+    static final int FILENAME_THEMA = 0;
+    static final int FILENAME_TITEL = 1;
+    static final int FILENAME_SENDER = 2;
+    static final int FILENAME_URL_DATEINAME = 3;
+    static final int FILENAME_DATUM = 4;
+    static final int FILENAME_ZEIT = 5;
+    static final int FILENAME_HEUTE = 6;
+    static final int FILENAME_JETZT = 7;
+    static final int FILENAME_TAG = 8;
+    static final int FILENAME_MONAT = 9;
+    static final int FILENAME_JAHR = 10;
+    static final int FILENAME_STUNDE = 11;
+    static final int FILENAME_MINUTE = 12;
+    static final int FILENAME_SEKUNDE = 13;
+    static final int FILENAME_FILM_NR = 14;
+    static final int FILENAME_QUALITAET = 15;
+    static final int FILENAME_SUFFIX = 16;
+    static final int FILENAME_HASH = 17;
+    static final int FILENAME_HASH_SUFFIX = 18;
+
+    /**
+     * Placeholders for the program call, again in the order in which they were replaced before.
+     */
+    static final String[] COMMAND_KEYS = {"**", "%f", "%F", "%a", "%b"};
+    static final int COMMAND_ZIEL_PFAD_DATEINAME = 0;
+    static final int COMMAND_URL = 1;
+    static final int COMMAND_URL_RTMP = 2;
+    static final int COMMAND_ZIEL_PFAD = 3;
+    static final int COMMAND_ZIEL_DATEINAME = 4;
+
+    private static final LoadingCache<String, DownloadTemplate> FILENAME_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(100)
+            .build(CacheLoader.from(template -> new DownloadTemplate(template, FILENAME_KEYS)));
+    private static final LoadingCache<String, DownloadTemplate> COMMAND_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(100)
+            .build(CacheLoader.from(template -> new DownloadTemplate(template, COMMAND_KEYS)));
+
+    private final String source;
+    private final String[] keys;
+    /**
+     * First characters of all keys, a value containing one of them might form a new placeholder.
+     */
+    private final char[] keyStarts;
+    /**
+     * literals[i] is written before tokens[i], the last literal after the last token.
+     */
+    private final String[] literals;
+    private final int[] tokens;
+    /**
+     * True if a literal ends with a key start directly in front of a placeholder ("%%t").
+     */
+    private final boolean ambiguous;
+
+    DownloadTemplate(String source, String[] keys) {
+        this.source = source;
+        this.keys = keys;
+
+        final StringBuilder starts = new StringBuilder();
+        for (String key : keys) {
+            if (starts.indexOf(key.substring(0, 1)) < 0)
+                starts.append(key.charAt(0));
+        }
+        keyStarts = starts.toString().toCharArray();
+
+        final ArrayList<String> lit = new ArrayList<>();
+        final ArrayList<Integer> tok = new ArrayList<>();
+        boolean amb = false;
+        int start = 0;
+        int i = 0;
+        while (i < source.length()) {
+            final int key = keyAt(source, i);
+            if (key < 0) {
+                i++;
+                continue;
+            }
+            final String literal = source.substring(start, i);
+            if (!literal.isEmpty() && isKeyStart(literal.charAt(literal.length() - 1)))
+                amb = true;
+            lit.add(literal);
+            tok.add(key);
+            i += keys[key].length();
+            start = i;
+        }
+        lit.add(source.substring(start));
+
+        literals = lit.toArray(new String[0]);
+        tokens = tok.stream().mapToInt(Integer::intValue).toArray();
+        ambiguous = amb;
+    }
+
+    static DownloadTemplate filename(String template) {
+        return FILENAME_CACHE.getUnchecked(template);
+    }
+
+    static DownloadTemplate command(String template) {
+        return COMMAND_CACHE.getUnchecked(template);
+    }
+
+    /**
+     * Build the resulting string.
+     *
+     * @param resolver returns the value for a key index, is called at most once per key.
+     * @return the template with all placeholders replaced.
+     */
+    String render(IntFunction<String> resolver) {
+        if (tokens.length == 0)
+            return source;
+
+        final String[] values = new String[keys.length];
+
+        if (!ambiguous) {
+            final StringBuilder sb = new StringBuilder(source.length() + 16 * tokens.length);
+            for (int i = 0; i < tokens.length; i++) {
+                final String value = value(values, tokens[i], resolver);
+                if (containsKeyStart(value)) {
+                    // value might form a new placeholder, only the sequential replace gives the same result
+                    return renderSequential(values, resolver);
+                }
+                sb.append(literals[i]).append(value);
+            }
+            sb.append(literals[tokens.length]);
+            return sb.toString();
+        }
+
+        return renderSequential(values, resolver);
+    }
+
+    /**
+     * The old way: replace every key one after another in the whole string.
+     */
+    private String renderSequential(String[] values, IntFunction<String> resolver) {
+        String ret = source;
+        for (int k = 0; k < keys.length; k++) {
+            if (ret.contains(keys[k])) {
+                ret = StringUtils.replace(ret, keys[k], value(values, k, resolver));
+            }
+        }
+        return ret;
+    }
+
+    private static String value(String[] values, int key, IntFunction<String> resolver) {
+        String value = values[key];
+        if (value == null) {
+            value = resolver.apply(key);
+            values[key] = value;
+        }
+        return value;
+    }
+
+    private int keyAt(String s, int pos) {
+        if (!isKeyStart(s.charAt(pos)))
+            return -1;
+
+        for (int k = 0; k < keys.length; k++) {
+            if (s.startsWith(keys[k], pos))
+                return k;
+        }
+        return -1;
+    }
+
+    private boolean isKeyStart(char c) {
+        for (char start : keyStarts) {
+            if (start == c)
+                return true;
+        }
+        return false;
+    }
+
+    private boolean containsKeyStart(String value) {
+        for (char start : keyStarts) {
+            if (value.indexOf(start) >= 0)
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,209 @@
+package mediathek.daten;
+
+import com.google.common.base.Stopwatch;
+import com.zaxxer.sansorm.SqlClosure;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Write-behind path for the film database.
+ * While a film list is read with low memory, or while the films are moved to the database when memory gets scarce,
+ * all film ids, descriptions and website links are collected in JDBC batches on reused prepared statements.
+ * Every batch is committed when it is written, so other connections see the films while the load is still running.
+ * The indices are created when the writer is closed.
+ * <p>
+ * Usage: {@code try (FilmDatabaseWriter writer = FilmDatabaseWriter.begin()) {...}}
+ */
+public class FilmDatabaseWriter implements AutoCloseable {
+    /**
+     * Number of rows per statement which are sent with one executeBatch.
+     */
+    public static final int BATCH_SIZE = 5000;
+    private static final Logger logger = LogManager.getLogger(FilmDatabaseWriter.class);
+    private static volatile FilmDatabaseWriter active = null;
+    private final Stopwatch stopwatch = Stopwatch.createStarted();
+    private final Connection connection;
+    private final PreparedStatement insertFilm;
+    private final PreparedStatement mergeDescription;
+    private final PreparedStatement mergeWebsiteLink;
+    private int pendingFilms;
+    private int pendingDescriptions;
+    private int pendingWebsiteLinks;
+    private long rows;
+    private boolean closed;
+    private boolean failed;
+
+    private FilmDatabaseWriter() throws SQLException {
+        connection = PooledDatabaseConnection.getInstance().getDataSource().getConnection();
+        connection.setAutoCommit(false);
+        // ein abgebrochenes Verschieben kann Filme schon geschrieben haben
+        insertFilm = connection.prepareStatement("MERGE INTO mediathekview.film KEY(ID) VALUES (?)");
+        mergeDescription = connection.prepareStatement("MERGE INTO mediathekview.description KEY(ID) VALUES (?,?)");
+        mergeWebsiteLink = connection.prepareStatement("MERGE INTO mediathekview.website_links KEY(ID) VALUES (?,?)");
+    }
+
+    /**
+     * Start a bulk load. Until {@link #close()} all new {@link DatenFilm} objects will be written through this writer.
+     *
+     * @return the writer or null if the database is not available, then the films are written one by one.
+     */
+    public static synchronized FilmDatabaseWriter begin() {
+        if (active != null) {
+            logger.warn("Bulk load already running");
+            return null;
+        }
+
+        try {
+            DatenFilm.Database.ensureInitialized();
+            dropIndices();
+            active = new FilmDatabaseWriter();
+        } catch (SQLException e) {
+            logger.error("Failed to start bulk load", e);
+            active = null;
+            DatenFilm.Database.createIndices();
+        }
+        return active;
+    }
+
+    /**
+     * @return the writer of the currently running bulk load or null.
+     */
+    static FilmDatabaseWriter getActive() {
+        return active;
+    }
+
+    private static void dropIndices() {
+        SqlClosure.sqlExecute(connection -> {
+            Statement statement = connection.createStatement();
+            statement.executeUpdate("DROP INDEX IF EXISTS mediathekview.IDX_FILM_ID");
+            statement.executeUpdate("DROP INDEX IF EXISTS mediathekview.IDX_DESC_ID");
+            statement.executeUpdate("DROP INDEX IF EXISTS mediathekview.IDX_WEBSITE_LINKS_ID");
+
+            return null;
+        });
+    }
+
+    synchronized void addFilm(int filmNr) {
+        try {
+            insertFilm.setInt(1, filmNr);
+            insertFilm.addBatch();
+            pendingFilms++;
+            flushIfNeeded();
+        } catch (SQLException e) {
+            failed = true;
+            logger.error("addFilm failed", e);
+        }
+    }
+
+    synchronized void addDescription(int filmNr, String desc) {
+        try {
+            mergeDescription.setInt(1, filmNr);
+            mergeDescription.setString(2, desc);
+            mergeDescription.addBatch();
+            pendingDescriptions++;
+            flushIfNeeded();
+        } catch (SQLException e) {
+            failed = true;
+            logger.error("addDescription failed", e);
+        }
+    }
+
+    synchronized void addWebsiteLink(int filmNr, String link) {
+        try {
+            mergeWebsiteLink.setInt(1, filmNr);
+            mergeWebsiteLink.setString(2, link);
+            mergeWebsiteLink.addBatch();
+            pendingWebsiteLinks++;
+            flushIfNeeded();
+        } catch (SQLException e) {
+            failed = true;
+            logger.error("addWebsiteLink failed", e);
+        }
+    }
+
+    private void flushIfNeeded() throws SQLException {
+        if (pendingFilms >= BATCH_SIZE || pendingDescriptions >= BATCH_SIZE || pendingWebsiteLinks >= BATCH_SIZE)
+            flush();
+    }
+
+    /**
+     * Write and commit all rows collected so far, e.g. before films are deleted through another connection.
+     *
+     * @return false if any row of this writer could not be written.
+     */
+    synchronized boolean commitPending() {
+        if (closed)
+            return false;
+
+        try {
+            flush();
+        } catch (SQLException e) {
+            failed = true;
+            logger.error("commitPending failed", e);
+        }
+        return !failed;
+    }
+
+    /**
+     * Execute and commit all pending batches. Films must go first as descriptions and links reference them.
+     */
+    private void flush() throws SQLException {
+        if (pendingFilms > 0) {
+            insertFilm.executeBatch();
+            rows += pendingFilms;
+            pendingFilms = 0;
+        }
+        if (pendingDescriptions > 0) {
+            mergeDescription.executeBatch();
+            rows += pendingDescriptions;
+            pendingDescriptions = 0;
+        }
+        if (pendingWebsiteLinks > 0) {
+            mergeWebsiteLink.executeBatch();
+            rows += pendingWebsiteLinks;
+            pendingWebsiteLinks = 0;
+        }
+        connection.commit();
+    }
+
+    /**
+     * Write the remaining rows and create the indices.
+     * Entries looked up during the load are dropped from the {@link FilmDescriptionProvider} afterwards.
+     */
+    @Override
+    public void close() {
+        synchronized (FilmDatabaseWriter.class) {
+            active = null;
+        }
+
+        synchronized (this) {
+            closed = true;
+            try {
+                flush();
+            } catch (SQLException e) {
+                logger.error("Failed to finish bulk load", e);
+            } finally {
+                try {
+                    insertFilm.close();
+                    mergeDescription.close();
+                    mergeWebsiteLink.close();
+                    connection.setAutoCommit(true);
+                    connection.close();
+                } catch (SQLException e) {
+                    logger.error("Failed to close bulk load connection", e);
+                }
+            }
+        }
+
+        DatenFilm.Database.createIndices();
+        FilmDescriptionProvider.getInstance().clear();
+
+        stopwatch.stop();
+        logger.debug("Bulk load of {} rows took {}", rows, stopwatch);
+    }
+}
@@ -0,0 +1,174 @@
+package mediathek.daten;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.zaxxer.sansorm.SqlClosure;
+import mediathek.tool.MemoryGovernor;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads film descriptions and website links of the films which keep them in the database.
+ * Recently used entries are kept in a small LRU cache, callers which iterate over many films
+ * should {@link #prefetch(Collection)} them in batches to avoid one query per film.
+ * UI code must use {@link #lookupAsync(DatenFilm)} so that the JavaFX and Swing threads never wait for JDBC.
+ */
+public class FilmDescriptionProvider {
+    /**
+     * Number of films which are fetched with one query.
+     */
+    public static final int BATCH_SIZE = 250;
+    private static final int CACHE_SIZE = 5000;
+    private static final Logger logger = LogManager.getLogger(FilmDescriptionProvider.class);
+    private static final FilmDescriptionProvider INSTANCE = new FilmDescriptionProvider();
+    private final Cache<Integer, Entry> cache = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .build();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("FilmDescriptionProvider-%d")
+            .setDaemon(true)
+            .build());
+
+    private FilmDescriptionProvider() {
+        MemoryGovernor.getInstance().register(this::clear);
+    }
+
+    public static FilmDescriptionProvider getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get description and website link, from cache if possible.
+     * This will block on a cache miss, do not call it from the UI threads.
+     */
+    public Entry get(int filmNr) {
+        Entry entry = cache.getIfPresent(filmNr);
+        if (entry == null) {
+            entry = SqlClosure.sqlExecute(connection -> {
+                PreparedStatement statement = connection.prepareStatement("SELECT d.desc, w.link FROM mediathekview.film f"
+                        + " LEFT JOIN mediathekview.description d ON d.id = f.id"
+                        + " LEFT JOIN mediathekview.website_links w ON w.id = f.id"
+                        + " WHERE f.id = ?");
+                statement.setInt(1, filmNr);
+                ResultSet rs = statement.executeQuery();
+                return rs.next() ? new Entry(rs.getString(1), rs.getString(2)) : Entry.EMPTY;
+            });
+            if (isCacheable())
+                cache.put(filmNr, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * While films are written, by a film list load or when they are moved to the database,
+     * the rows of a film may not be complete yet, so nothing is cached. The cache is cleared when the writer is closed.
+     */
+    private static boolean isCacheable() {
+        return FilmDatabaseWriter.getActive() == null;
+    }
+
+    /**
+     * Load the entries of all films which are not in the cache yet, {@link #BATCH_SIZE} films per query.
+     * Films which keep their data on the heap are skipped, nothing is loaded while a film list is written.
+     *
+     * @param films the films which will be accessed next.
+     */
+    public void prefetch(@NotNull Collection<DatenFilm> films) {
+        if (!isCacheable())
+            return;
+
+        final List<Integer> missing = new ArrayList<>();
+        for (DatenFilm film : films) {
+            final int nr = film.getFilmNr();
+            if (film.isReadFromDatabase() && cache.getIfPresent(nr) == null)
+                missing.add(nr);
+        }
+
+        for (List<Integer> batch : Lists.partition(missing, BATCH_SIZE)) {
+            fetchBatch(batch);
+        }
+    }
+
+    private void fetchBatch(List<Integer> batch) {
+        final String placeholders = StringUtils.repeat("?", ",", batch.size());
+        SqlClosure.sqlExecute(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT f.id, d.desc, w.link FROM mediathekview.film f"
+                    + " LEFT JOIN mediathekview.description d ON d.id = f.id"
+                    + " LEFT JOIN mediathekview.website_links w ON w.id = f.id"
+                    + " WHERE f.id IN (" + placeholders + ")");
+            for (int i = 0; i < batch.size(); i++) {
+                statement.setInt(i + 1, batch.get(i));
+            }
+            ResultSet rs = statement.executeQuery();
+            while (rs.next()) {
+                cache.put(rs.getInt(1), new Entry(rs.getString(2), rs.getString(3)));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Get description and website link without blocking the caller.
+     * For films which keep them on the heap the future is already completed.
+     */
+    public CompletableFuture<Entry> lookupAsync(@NotNull DatenFilm film) {
+        if (!film.isReadFromDatabase())
+            return CompletableFuture.completedFuture(new Entry(film.getDescription(), film.getWebsiteLink()));
+
+        final Entry entry = cache.getIfPresent(film.getFilmNr());
+        if (entry != null)
+            return CompletableFuture.completedFuture(entry);
+
+        return CompletableFuture.supplyAsync(() -> get(film.getFilmNr()), executor)
+                .exceptionally(ex -> {
+                    logger.error("Failed to load description for film {}", film.getFilmNr(), ex);
+                    return Entry.EMPTY;
+                });
+    }
+
+    /**
+     * The stored data of a film has changed.
+     */
+    public void invalidate(int filmNr) {
+        cache.invalidate(filmNr);
+    }
+
+    /**
+     * Drop all cached entries, e.g. when a new film list gets loaded.
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public static class Entry {
+        static final Entry EMPTY = new Entry("", "");
+        private final String description;
+        private final String websiteLink;
+
+        Entry(String description, String websiteLink) {
+            this.description = StringUtils.defaultString(description);
+            this.websiteLink = StringUtils.defaultString(websiteLink);
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String getWebsiteLink() {
+            return websiteLink;
+        }
+    }
+}
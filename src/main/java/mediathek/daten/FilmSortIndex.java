@@ -0,0 +1,187 @@
+package mediathek.daten;
+
+import mediathek.tool.models.TModelFilm;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.*;
+
+/**
+ * Sort keys of the film table for all films of a film list.
+ * Every column is converted once into a primitive key per film, strings by their collation order and all other
+ * values by their natural order, the same orders the default {@link javax.swing.table.TableRowSorter} uses.
+ * The resulting order of the whole list is cached per sort key combination. A table model showing a subset of the
+ * list is sorted by picking its films from this order, without comparing anything again.
+ */
+public class FilmSortIndex {
+    /**
+     * Number of cached orders, every one needs four bytes per film.
+     */
+    private static final int MAX_ORDERS = 4;
+    private final DatenFilm[] filme;
+    private final long[][] keys = new long[DatenFilm.MAX_ELEM][];
+    private final Map<List<RowSorter.SortKey>, int[]> orders = new LinkedHashMap<>(MAX_ORDERS + 1, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<RowSorter.SortKey>, int[]> eldest) {
+            return size() > MAX_ORDERS;
+        }
+    };
+    private Map<DatenFilm, Integer> positionen = null;
+
+    /**
+     * @param filme the films in the order ties are sorted in
+     */
+    public FilmSortIndex(@NotNull Collection<DatenFilm> filme) {
+        this.filme = filme.toArray(new DatenFilm[0]);
+    }
+
+    /**
+     * Sort the rows of a table model.
+     * Rows with equal keys keep the order of the film list.
+     *
+     * @param model    the model, its films must be part of the film list
+     * @param sortKeys the sort keys, none of them may be unsorted
+     * @return the model row for every view row or null if the model contains a film which is not part of the list
+     */
+    public synchronized int[] sort(@NotNull TModelFilm model, @NotNull List<? extends RowSorter.SortKey> sortKeys) {
+        final Map<DatenFilm, Integer> pos = getPositionen();
+        final int rowCount = model.getRowCount();
+        final int[] modelRow = new int[filme.length];
+        Arrays.fill(modelRow, -1);
+        for (int row = 0; row < rowCount; ++row) {
+            final Integer p = pos.get(model.getValueAt(row, DatenFilm.FILM_REF));
+            if (p == null || modelRow[p] != -1)
+                return null;
+
+            modelRow[p] = row;
+        }
+
+        final int[] viewToModel = new int[rowCount];
+        int view = 0;
+        for (int p : getOrder(model, sortKeys)) {
+            final int row = modelRow[p];
+            if (row != -1)
+                viewToModel[view++] = row;
+        }
+        return viewToModel;
+    }
+
+    /**
+     * Build everything {@link #sort(TModelFilm, List)} needs for these sort keys, e.g. on a background thread
+     * before the table is sorted.
+     *
+     * @param model    only used for the column classes
+     * @param sortKeys the sort keys, none of them may be unsorted
+     */
+    public synchronized void prepare(@NotNull TModelFilm model, @NotNull List<? extends RowSorter.SortKey> sortKeys) {
+        getPositionen();
+        if (!sortKeys.isEmpty())
+            getOrder(model, sortKeys);
+    }
+
+    private Map<DatenFilm, Integer> getPositionen() {
+        if (positionen == null) {
+            positionen = new IdentityHashMap<>(filme.length);
+            for (int i = 0; i < filme.length; ++i) {
+                positionen.put(filme[i], i);
+            }
+        }
+        return positionen;
+    }
+
+    /**
+     * @return the positions of all films of the list in sort order.
+     */
+    private int[] getOrder(TModelFilm model, List<? extends RowSorter.SortKey> sortKeys) {
+        final List<RowSorter.SortKey> cacheKey = new ArrayList<>(sortKeys);
+        int[] order = orders.get(cacheKey);
+        if (order == null) {
+            final long[][] columnKeys = new long[sortKeys.size()][];
+            final boolean[] descending = new boolean[sortKeys.size()];
+            for (int i = 0; i < columnKeys.length; ++i) {
+                final RowSorter.SortKey sortKey = sortKeys.get(i);
+                columnKeys[i] = getKeys(model, sortKey.getColumn());
+                descending[i] = sortKey.getSortOrder() == SortOrder.DESCENDING;
+            }
+
+            final Integer[] sorted = new Integer[filme.length];
+            Arrays.setAll(sorted, i -> i);
+            Arrays.sort(sorted, (p1, p2) -> {
+                for (int i = 0; i < columnKeys.length; ++i) {
+                    final int result = Long.compare(columnKeys[i][p1], columnKeys[i][p2]);
+                    if (result != 0)
+                        return descending[i] ? -result : result;
+                }
+                return Integer.compare(p1, p2);
+            });
+
+            order = Arrays.stream(sorted).mapToInt(Integer::intValue).toArray();
+            orders.put(cacheKey, order);
+        }
+        return order;
+    }
+
+    private long[] getKeys(TModelFilm model, int column) {
+        if (keys[column] == null) {
+            if (model.getColumnClass(column) == String.class)
+                keys[column] = createCollationKeys(column);
+            else
+                keys[column] = createComparableKeys(column);
+        }
+        return keys[column];
+    }
+
+    /**
+     * Each distinct string is collated only once, films with equal strings get the same key.
+     */
+    private long[] createCollationKeys(int column) {
+        final Collator collator = Collator.getInstance();
+        final String[] values = new String[filme.length];
+        final Map<String, Long> rang = new HashMap<>();
+        for (int i = 0; i < filme.length; ++i) {
+            values[i] = String.valueOf(TModelFilm.getColumnValue(filme[i], column));
+            rang.put(values[i], 0L);
+        }
+
+        final CollationKey[] collationKeys = rang.keySet().stream()
+                .map(collator::getCollationKey)
+                .sorted()
+                .toArray(CollationKey[]::new);
+        long key = 0;
+        for (int i = 0; i < collationKeys.length; ++i) {
+            // verschiedene Strings können für den Collator gleich sein
+            if (i > 0 && collationKeys[i].compareTo(collationKeys[i - 1]) != 0)
+                ++key;
+            rang.put(collationKeys[i].getSourceString(), key);
+        }
+
+        final long[] result = new long[filme.length];
+        for (int i = 0; i < filme.length; ++i) {
+            result[i] = rang.get(values[i]);
+        }
+        return result;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private long[] createComparableKeys(int column) {
+        final Comparable[] values = new Comparable[filme.length];
+        for (int i = 0; i < filme.length; ++i) {
+            values[i] = (Comparable) TModelFilm.getColumnValue(filme[i], column);
+        }
+
+        final Integer[] sorted = new Integer[filme.length];
+        Arrays.setAll(sorted, i -> i);
+        Arrays.sort(sorted, (p1, p2) -> values[p1].compareTo(values[p2]));
+
+        final long[] result = new long[filme.length];
+        long key = 0;
+        for (int i = 0; i < sorted.length; ++i) {
+            if (i > 0 && values[sorted[i]].compareTo(values[sorted[i - 1]]) != 0)
+                ++key;
+            result[sorted[i]] = key;
+        }
+        return result;
+    }
+}
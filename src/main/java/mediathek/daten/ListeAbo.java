@@ -20,6 +20,7 @@
 package mediathek.daten;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.Lists;
 import mediathek.config.Daten;
 import mediathek.config.MVConfig;
 import mediathek.gui.dialog.DialogEditAbo;
@@ -37,6 +38,8 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @SuppressWarnings("serial")
 public class ListeAbo extends LinkedList<DatenAbo> {
@@ -265,6 +268,20 @@ public class ListeAbo extends LinkedList<DatenAbo> {
                 ifPresentOrElse(foundAbo -> assignAboToFilm(foundAbo, film), () -> deleteAboInFilm(film));
     }
 
+    /**
+     * Check if one of the abos will search the description of this film.
+     */
+    private static boolean needsDescription(List<DatenAbo> irgendwoAbos, DatenFilm film) {
+        for (DatenAbo abo : irgendwoAbos) {
+            final String sender = abo.arr[DatenAbo.ABO_SENDER];
+            final String thema = abo.arr[DatenAbo.ABO_THEMA];
+            if ((sender.isEmpty() || film.getSender().equals(sender))
+                    && (thema.isEmpty() || film.getThema().equalsIgnoreCase(thema)))
+                return true;
+        }
+        return false;
+    }
+
     private void assignAboToFilm(DatenAbo foundAbo, DatenFilm film) {
         if (!Filter.laengePruefen(foundAbo.mindestdauerMinuten, film.getFilmLength(), foundAbo.min)) {
             // dann ist der Film zu kurz
@@ -292,7 +309,19 @@ public class ListeAbo extends LinkedList<DatenAbo> {
         forEach(this::createAbo);
 
         // das kostet die Zeit!!
-        listeFilme.parallelStream().forEach(this::assignAboToFilm);
+        final List<DatenAbo> irgendwoAbos = stream()
+                .filter(abo -> !abo.arr[DatenAbo.ABO_IRGENDWO].isEmpty())
+                .collect(Collectors.toList());
+        if (!irgendwoAbos.isEmpty()) {
+            // Beschreibungen, die in der Datenbank liegen, blockweise laden und nicht einzeln für jeden Film
+            Lists.partition(listeFilme, FilmDescriptionProvider.BATCH_SIZE).parallelStream().forEach(batch -> {
+                FilmDescriptionProvider.getInstance().prefetch(batch.stream()
+                        .filter(film -> needsDescription(irgendwoAbos, film))
+                        .collect(Collectors.toList()));
+                batch.forEach(this::assignAboToFilm);
+            });
+        } else
+            listeFilme.parallelStream().forEach(this::assignAboToFilm);
 
         // und jetzt wieder löschen
         forEach(datenAbo -> {
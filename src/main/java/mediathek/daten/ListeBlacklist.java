@@ -16,6 +16,7 @@ import org.jetbrains.annotations.NotNull;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
 
 @SuppressWarnings("serial")
@@ -26,6 +27,8 @@ public class ListeBlacklist extends LinkedList<DatenBlacklist> {
     private long days = 0;
     private boolean doNotShowFutureFilms, doNotShowGeoBlockedFilms;
     private boolean blacklistIsActive;
+    private boolean isWhitelist;
+    private String geoLocation = "";
     private long filmlaengeSoll = 0;
     private int nr = 0;
 
@@ -120,34 +123,68 @@ public class ListeBlacklist extends LinkedList<DatenBlacklist> {
         loadCurrentFilterSettings();
 
         Stopwatch stopwatch = Stopwatch.createStarted();
-        listeRet.clear();
+        // die Indizes der Liste werden unter ihrem Lock gebaut und dürfen sie nicht halb gefüllt sehen
+        synchronized (listeRet) {
+            listeRet.clear();
 
-        if (listeFilme != null) {
-            listeRet.setMetaData(listeFilme.metaData());
+            if (listeFilme != null) {
+                listeRet.setMetaData(listeFilme.metaData());
 
-            this.parallelStream().forEach(entry -> {
-                entry.toLower();
-                entry.hasPattern();
-            });
+                prepareEntries();
 
-            listeRet.neueFilme = false;
+                listeRet.neueFilme = false;
 
-            final Predicate<DatenFilm> pred = createPredicate();
+                final Predicate<DatenFilm> pred = createPredicate();
 
-            Stopwatch stopwatch2 = Stopwatch.createStarted();
-            listeFilme.parallelStream().filter(pred).forEachOrdered(listeRet::add);
-            stopwatch2.stop();
-            logger.debug("FILTERING and ADDING() took: {}", stopwatch2);
+                Stopwatch stopwatch2 = Stopwatch.createStarted();
+                listeFilme.parallelStream().filter(pred).forEachOrdered(listeRet::add);
+                stopwatch2.stop();
+                logger.debug("FILTERING and ADDING() took: {}", stopwatch2);
 
-            setupNewEntries();
+                setupNewEntries();
 
-            // Array mit Sendernamen/Themen füllen
-            listeRet.fillSenderList();
+                // Array mit Sendernamen/Themen füllen
+                listeRet.fillSenderList();
+                listeRet.prepareIndices();
+            }
         }
         stopwatch.stop();
         logger.debug("filterListe(): {}", stopwatch);
     }
 
+    /**
+     * Fill the filtered film list with a snapshot of a film list which is still being read.
+     * The result is only preliminary, {@link #filterListe()} must run when the list is complete.
+     * Both hold the lock of the blacklist while they fill the list, so they never write it at the same time.
+     *
+     * @param filme     the films read so far
+     * @param isCurrent checked under the lock, an outdated snapshot must not replace the result of {@link #filterListe()}
+     * @return true if the filtered list was replaced by the snapshot.
+     */
+    public synchronized boolean filterSnapshot(List<DatenFilm> filme, BooleanSupplier isCurrent) {
+        if (!isCurrent.getAsBoolean())
+            return false;
+
+        final ListeFilme listeRet = Daten.getInstance().getListeFilmeNachBlackList();
+        loadCurrentFilterSettings();
+        prepareEntries();
+
+        final Predicate<DatenFilm> pred = createPredicate();
+        synchronized (listeRet) {
+            listeRet.clear();
+            filme.parallelStream().filter(pred).forEachOrdered(listeRet::add);
+            listeRet.fillSenderList();
+        }
+        return true;
+    }
+
+    private void prepareEntries() {
+        this.parallelStream().forEach(entry -> {
+            entry.toLower();
+            entry.hasPattern();
+        });
+    }
+
     /**
      * Setup dynamically the list of filter to be applied to blacklist film list
      *
@@ -165,12 +202,12 @@ public class ListeBlacklist extends LinkedList<DatenBlacklist> {
             }
 
             if (doNotShowGeoBlockedFilms) {
-                filterList.add(this::checkGeoBlockedFilm);
+                filterList.add(film -> checkGeoBlockedFilm(film, geoLocation));
             }
             if (doNotShowFutureFilms) {
-                filterList.add(this::checkIfFilmIsInFuture);
+                filterList.add(ListeBlacklist::checkIfFilmIsInFuture);
             }
-            filterList.add(this::checkFilmLength);
+            filterList.add(film -> checkFilmLength(film, filmlaengeSoll));
         }
 
         final Predicate<DatenFilm> pred = filterList.stream().reduce(Predicate::and).orElse(x -> true);
@@ -192,19 +229,15 @@ public class ListeBlacklist extends LinkedList<DatenBlacklist> {
     }
 
     /**
-     * Filterfunction for Abos dialog.
+     * Create the filter for the films of the abos, the date filter of the tab is not used and the blacklist
+     * is always applied.
+     * The filter works on a copy of the current settings and entries and may be used from several threads.
      *
-     * @param film item to te tested
-     * @return true if item should be displayed.
+     * @return filter which accepts the films that may be downloaded
      */
-    public synchronized boolean checkBlackOkFilme_Downloads(DatenFilm film) {
-        // hier werden die Filme für Downloads gesucht, Zeit ist "0"
-        // ob die Blackliste dafür verwendet werden soll, ist schon geklärt
+    public synchronized Predicate<DatenFilm> createAboFilter() {
         loadCurrentFilterSettings();
-        days = 0; // soll nur im TabFilme ausgewertet werden (Filter: Tage)
-        blacklistIsActive = true; // Blacklist nur wenn "auch für Abos" geklickt, egal ob ein- oder ausgeschaltet
-
-        return applyFiltersForAbos(film);
+        return new AboFilter(this, isWhitelist, doNotShowGeoBlockedFilms, doNotShowFutureFilms, geoLocation, filmlaengeSoll);
     }
 
     /**
@@ -235,63 +268,22 @@ public class ListeBlacklist extends LinkedList<DatenBlacklist> {
         } catch (Exception ex) {
             filmlaengeSoll = 0;
         }
-        blacklistIsActive = Boolean.parseBoolean(MVConfig.get(MVConfig.Configs.SYSTEM_BLACKLIST_ON));
-        doNotShowFutureFilms = Boolean.parseBoolean(MVConfig.get(MVConfig.Configs.SYSTEM_BLACKLIST_ZUKUNFT_NICHT_ANZEIGEN));
-        doNotShowGeoBlockedFilms = Boolean.parseBoolean(MVConfig.get(MVConfig.Configs.SYSTEM_BLACKLIST_GEO_NICHT_ANZEIGEN));
-    }
-
-    /**
-     * Apply filters for ABOS if check box is active
-     *
-     * @param film item to be filtered
-     * @return true if film shall be displayed
-     */
-    private boolean applyFiltersForAbos(DatenFilm film) {
-        // erst mal den Filter Tage, kommt aus dem Filter und deswegen immer
-        if (!checkDate(film)) {
-            return false;
-        }
-
-        //===========================================
-        // dann die Blacklist, nur wenn eingeschaltet
-        if (!blacklistIsActive) {
-            return true;
-        }
-        if (doNotShowGeoBlockedFilms && !checkGeoBlockedFilm(film)) {
-            return false;
-        }
-        if (doNotShowFutureFilms && !checkIfFilmIsInFuture(film)) {
-            return false;
-        }
-        if (!checkFilmLength(film)) {
-            // wegen der Möglichkeit "Whiteliste" muss das extra geprüft werden
-            return false;
-        }
-        if (this.isEmpty()) {
-            return true;
-        }
-        for (DatenBlacklist blacklistEntry : this) {
-            if (Filter.filterAufFilmPruefen(blacklistEntry.arr[DatenBlacklist.BLACKLIST_SENDER], blacklistEntry.arr[DatenBlacklist.BLACKLIST_THEMA],
-                    Filter.isPattern(blacklistEntry.arr[DatenBlacklist.BLACKLIST_TITEL])
-                            ? new String[]{blacklistEntry.arr[DatenBlacklist.BLACKLIST_TITEL]} : blacklistEntry.arr[DatenBlacklist.BLACKLIST_TITEL].toLowerCase().split(","),
-                    Filter.isPattern(blacklistEntry.arr[DatenBlacklist.BLACKLIST_THEMA_TITEL])
-                            ? new String[]{blacklistEntry.arr[DatenBlacklist.BLACKLIST_THEMA_TITEL]} : blacklistEntry.arr[DatenBlacklist.BLACKLIST_THEMA_TITEL].toLowerCase().split(","),
-                    new String[]{""}, 0, true /*min*/, film, true /*auch die Länge prüfen*/
-            )) {
-                return Boolean.parseBoolean(MVConfig.get(MVConfig.Configs.SYSTEM_BLACKLIST_IST_WHITELIST));
-            }
-        }
-        return !Boolean.parseBoolean(MVConfig.get(MVConfig.Configs.SYSTEM_BLACKLIST_IST_WHITELIST));
+        blacklistIsActive = MVConfig.getBool(MVConfig.Configs.SYSTEM_BLACKLIST_ON);
+        doNotShowFutureFilms = MVConfig.getBool(MVConfig.Configs.SYSTEM_BLACKLIST_ZUKUNFT_NICHT_ANZEIGEN);
+        doNotShowGeoBlockedFilms = MVConfig.getBool(MVConfig.Configs.SYSTEM_BLACKLIST_GEO_NICHT_ANZEIGEN);
+        // werden für jeden Film gebraucht
+        isWhitelist = MVConfig.getBool(MVConfig.Configs.SYSTEM_BLACKLIST_IST_WHITELIST);
+        geoLocation = ApplicationConfiguration.getConfiguration().getString(ApplicationConfiguration.GEO_LOCATION);
     }
 
     /**
      * Check if film would be geoblocked for user
      *
-     * @param film item to be checked
+     * @param film        item to be checked
+     * @param geoLocation location of the user
      * @return true if it is NOT blocked, false if it IS blocked
      */
-    private boolean checkGeoBlockedFilm(DatenFilm film) {
-        final String geoLocation = ApplicationConfiguration.getConfiguration().getString(ApplicationConfiguration.GEO_LOCATION);
+    private static boolean checkGeoBlockedFilm(DatenFilm film, String geoLocation) {
         final String geo = film.getGeo();
 
         return geo.isEmpty() || geo.contains(geoLocation);
@@ -319,8 +311,6 @@ public class ListeBlacklist extends LinkedList<DatenBlacklist> {
      * @return true if film can be displayed
      */
     private boolean applyBlacklistFilters(DatenFilm film) {
-        final boolean isWhitelist = Boolean.parseBoolean(MVConfig.get(MVConfig.Configs.SYSTEM_BLACKLIST_IST_WHITELIST));
-
         for (DatenBlacklist entry : this) {
             final String[] pTitel = createPattern(entry.patternTitle, entry.arr[DatenBlacklist.BLACKLIST_TITEL]);
             final String[] pThema = createPattern(entry.patternThema, entry.arr[DatenBlacklist.BLACKLIST_THEMA_TITEL]);
@@ -395,19 +385,87 @@ public class ListeBlacklist extends LinkedList<DatenBlacklist> {
      * @param film item to be checked.
      * @return true if it should be displayed.
      */
-    private boolean checkIfFilmIsInFuture(@NotNull DatenFilm film) {
+    private static boolean checkIfFilmIsInFuture(@NotNull DatenFilm film) {
         return film.getDatumFilm().getTime() <= System.currentTimeMillis();
     }
 
     /**
      * Filter based on film length.
      *
-     * @param film item to check
+     * @param film           item to check
+     * @param filmlaengeSoll minimum length in seconds, 0 for no limit
      * @return true if film should be displayed
      */
-    private boolean checkFilmLength(@NotNull DatenFilm film) {
+    private static boolean checkFilmLength(@NotNull DatenFilm film, long filmlaengeSoll) {
         final long filmLength = film.getFilmLength();
         return !(filmlaengeSoll != 0 && filmLength != 0 && filmlaengeSoll > filmLength);
 
     }
+
+    /**
+     * Filter for the abos with the settings at the time of its creation.
+     */
+    private static final class AboFilter implements Predicate<DatenFilm> {
+        private final List<Entry> entries = new ArrayList<>();
+        private final boolean isWhitelist;
+        private final boolean doNotShowGeoBlockedFilms;
+        private final boolean doNotShowFutureFilms;
+        private final String geoLocation;
+        private final long filmlaengeSoll;
+
+        AboFilter(List<DatenBlacklist> blacklist, boolean isWhitelist, boolean doNotShowGeoBlockedFilms,
+                  boolean doNotShowFutureFilms, String geoLocation, long filmlaengeSoll) {
+            this.isWhitelist = isWhitelist;
+            this.doNotShowGeoBlockedFilms = doNotShowGeoBlockedFilms;
+            this.doNotShowFutureFilms = doNotShowFutureFilms;
+            this.geoLocation = geoLocation;
+            this.filmlaengeSoll = filmlaengeSoll;
+            // die Suchmuster nur einmal und nicht für jeden Film bauen
+            for (DatenBlacklist entry : blacklist) {
+                entries.add(new Entry(entry));
+            }
+        }
+
+        @Override
+        public boolean test(DatenFilm film) {
+            if (doNotShowGeoBlockedFilms && !checkGeoBlockedFilm(film, geoLocation)) {
+                return false;
+            }
+            if (doNotShowFutureFilms && !checkIfFilmIsInFuture(film)) {
+                return false;
+            }
+            if (!checkFilmLength(film, filmlaengeSoll)) {
+                // wegen der Möglichkeit "Whiteliste" muss das extra geprüft werden
+                return false;
+            }
+            if (entries.isEmpty()) {
+                return true;
+            }
+            for (Entry entry : entries) {
+                if (Filter.filterAufFilmPruefen(entry.sender, entry.thema, entry.titel, entry.themaTitel,
+                        EMPTY_STRING, 0, true /*min*/, film, true /*auch die Länge prüfen*/)) {
+                    return isWhitelist;
+                }
+            }
+            return !isWhitelist;
+        }
+
+        private static final class Entry {
+            private final String sender;
+            private final String thema;
+            private final String[] titel;
+            private final String[] themaTitel;
+
+            Entry(DatenBlacklist entry) {
+                sender = entry.arr[DatenBlacklist.BLACKLIST_SENDER];
+                thema = entry.arr[DatenBlacklist.BLACKLIST_THEMA];
+                titel = createPattern(entry.arr[DatenBlacklist.BLACKLIST_TITEL]);
+                themaTitel = createPattern(entry.arr[DatenBlacklist.BLACKLIST_THEMA_TITEL]);
+            }
+
+            private static String[] createPattern(String inputString) {
+                return Filter.isPattern(inputString) ? new String[]{inputString} : inputString.toLowerCase().split(",");
+            }
+        }
+    }
 }
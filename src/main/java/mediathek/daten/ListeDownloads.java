@@ -19,9 +19,11 @@
  */
 package mediathek.daten;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import mediathek.config.Daten;
 import mediathek.config.Konstanten;
 import mediathek.config.MVConfig;
+import mediathek.controller.history.AboHistoryController;
 import mediathek.controller.starter.Start;
 import mediathek.gui.dialog.DialogAboNoSet;
 import mediathek.gui.messages.ButtonStartEvent;
@@ -36,14 +38,40 @@ import javax.swing.*;
 import java.net.URL;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @SuppressWarnings("serial")
 public class ListeDownloads extends LinkedList<DatenDownload> {
     private final Daten daten;
+    /**
+     * Cached settings, updated by {@link MVConfig} when they change.
+     */
+    private volatile int maxDownloads;
+    private volatile int maxProSender;
+    /**
+     * Counts of the downloads, valid as long as {@link #getVersion()} has not changed.
+     */
+    private DownloadStartInfo starts;
+    private List<DatenDownload> activeStarts;
+    private long startsVersion = -1;
 
     public ListeDownloads(Daten daten_) {
         this.daten = daten_;
+
+        updateMaxDownloads();
+        MVConfig.addChangeListener(MVConfig.Configs.SYSTEM_MAX_DOWNLOAD, this::updateMaxDownloads);
+        MVConfig.addChangeListener(MVConfig.Configs.SYSTEM_MAX_1_DOWNLOAD_PRO_SERVER, this::updateMaxDownloads);
+    }
+
+    private void updateMaxDownloads() {
+        maxDownloads = MVConfig.getInt(MVConfig.Configs.SYSTEM_MAX_DOWNLOAD);
+        // dann darf nur ein Download pro Server gestartet werden
+        maxProSender = MVConfig.getBool(MVConfig.Configs.SYSTEM_MAX_1_DOWNLOAD_PRO_SERVER) ? 1 : Konstanten.MAX_SENDER_FILME_LADEN;
     }
 
     public synchronized void addMitNummer(DatenDownload e) {
@@ -52,6 +80,10 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
     }
 
     private static final Logger logger = LogManager.getLogger(ListeDownloads.class);
+    /**
+     * Maximum number of threads which build the downloads of the abos.
+     */
+    private static final int ABO_DOWNLOAD_THREADS = 4;
 
     public synchronized void filmEintragen() {
         // bei einmal Downloads nach einem Programmstart/Neuladen der Filmliste
@@ -76,11 +108,11 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
             if (d.start == null) {
                 continue;
             }
-            if (d.start.status == Start.STATUS_FERTIG) {
+            if (d.start.getStatus() == Start.STATUS_FERTIG) {
                 // alles was fertig/fehlerhaft ist, kommt beim putzen weg
                 it.remove();
                 gefunden = true;
-            } else if (d.start.status == Start.STATUS_ERR) {
+            } else if (d.start.getStatus() == Start.STATUS_ERR) {
                 // fehlerhafte werden zurückgesetzt
                 d.resetDownload();
                 gefunden = true;
@@ -95,11 +127,11 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
         // fertigen Download löschen
         boolean gefunden = false;
         if (datenDownload.start != null) {
-            if (datenDownload.start.status == Start.STATUS_FERTIG) {
+            if (datenDownload.start.getStatus() == Start.STATUS_FERTIG) {
                 // alles was fertig/fehlerhaft ist, kommt beim putzen weg
                 remove(datenDownload);
                 gefunden = true;
-            } else if (datenDownload.start.status == Start.STATUS_ERR) {
+            } else if (datenDownload.start.getStatus() == Start.STATUS_ERR) {
                 // fehlerhafte werden zurückgesetzt
                 datenDownload.resetDownload();
                 gefunden = true;
@@ -127,13 +159,13 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
             if (d.start == null) {
                 // noch nicht gestartet
                 it.remove();
-            } else if (d.start.status == Start.STATUS_ERR) {
+            } else if (d.start.getStatus() == Start.STATUS_ERR) {
                 // fehlerhafte
                 d.resetDownload();
             }
         }
 
-        this.forEach(d -> d.arr[DatenDownload.DOWNLOAD_ZURUECKGESTELLT] = Boolean.FALSE.toString());
+        this.forEach(d -> d.setZurueckgestellt(false));
     }
 
     /**
@@ -157,12 +189,11 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
         for (DatenDownload datenDownload : this) {
             if (datenDownload.arr[DatenDownload.DOWNLOAD_URL].equals(url)) {
                 if (datenDownload.start != null) {
-                    if (datenDownload.start.status < Start.STATUS_FERTIG) {
+                    if (datenDownload.start.getStatus() < Start.STATUS_FERTIG) {
                         datenDownload.start.stoppen = true;
                     }
                 }
-                datenDownload.mVFilmSize.reset();
-                datenDownload.start = null;
+                datenDownload.resetDownload();
                 daten.getMessageBus().publishAsync(new DownloadListChangedEvent());
                 break;
             }
@@ -176,10 +207,10 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
                 if (this.contains(down)) {
                     // nur dann ist er in der Liste
                     if (down.start != null) {
-                        if (down.start.status < Start.STATUS_FERTIG) {
+                        if (down.start.getStatus() < Start.STATUS_FERTIG) {
                             down.start.stoppen = true;
                         }
-                        if (down.start.status == Start.STATUS_RUN) {
+                        if (down.start.getStatus() == Start.STATUS_RUN) {
                             down.interrupt();
                         }
                     }
@@ -198,7 +229,7 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
         if (download != null) {
             for (DatenDownload down : download) {
                 if (down.start != null) {
-                    if (down.start.status < Start.STATUS_FERTIG) {
+                    if (down.start.getStatus() < Start.STATUS_FERTIG) {
                         down.start.stoppen = true;
                     }
                 }
@@ -318,7 +349,7 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
         for (Vector item : tModel.getDataVector()) {
             DatenDownload datenDownload = (DatenDownload) item.get(DatenDownload.DOWNLOAD_REF);
             if (datenDownload.start != null) {
-                if (datenDownload.start.status == Start.STATUS_RUN) {
+                if (datenDownload.start.getStatus() == Start.STATUS_RUN) {
                     tModel.setValueAt(datenDownload.getTextRestzeit(), row, DatenDownload.DOWNLOAD_RESTZEIT);
                     tModel.setValueAt(datenDownload.getTextBandbreite(), row, DatenDownload.DOWNLOAD_BANDBREITE);
                     tModel.setValueAt(setProgress(datenDownload), row, DatenDownload.DOWNLOAD_PROGRESS);
@@ -329,71 +360,140 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
         }
     }
 
-    public synchronized void abosSuchen(JFrame parent) {
-        // in der Filmliste nach passenden Filmen suchen und 
+    /**
+     * Build the downloads of the abo hits in their order.
+     * Target name, program call and the file size, which is requested by HTTP, take most of the time.
+     * The downloads are therefore built on a bounded pool of their own and not in the common pool.
+     *
+     * @param neu hits with their set
+     * @return the downloads which could be built
+     */
+    private static List<DatenDownload> aboDownloadsBauen(List<AboTreffer> neu) {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(ABO_DOWNLOAD_THREADS, neu.size()),
+                new ThreadFactoryBuilder().setNameFormat("AboDownloads-%d").setDaemon(true).build());
+        final List<DatenDownload> downloads = new ArrayList<>(neu.size());
+        try {
+            final List<Future<DatenDownload>> futures = new ArrayList<>(neu.size());
+            for (AboTreffer t : neu) {
+                futures.add(executor.submit(() -> new DatenDownload(t.pSet, t.film, DatenDownload.QUELLE_ABO, t.abo, "", "", "" /*Aufloesung*/)));
+            }
+            for (Future<DatenDownload> future : futures) {
+                try {
+                    downloads.add(future.get());
+                } catch (ExecutionException e) {
+                    logger.error("Download für Abo konnte nicht angelegt werden", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        return downloads;
+    }
+
+    /**
+     * Search the film list for films of the active abos and add them to the downloads.
+     * The films are selected and the downloads built in parallel without locking the list,
+     * the new downloads are then added in one step.
+     *
+     * @param parent parent of the dialog if there is no set for abos, null without GUI
+     */
+    public void abosSuchen(JFrame parent) {
+        // in der Filmliste nach passenden Filmen suchen und
         // in die Liste der Downloads eintragen
         final HashSet<String> listeUrls = new HashSet<>();
         // mit den bereits enthaltenen URL füllen
-        this.forEach((download) -> listeUrls.add(download.arr[DatenDownload.DOWNLOAD_URL]));
+        synchronized (this) {
+            this.forEach((download) -> listeUrls.add(download.arr[DatenDownload.DOWNLOAD_URL]));
+        }
 
-        boolean gefunden = false;
-        DatenAbo abo;
         // prüfen ob in "alle Filme" oder nur "nach Blacklist" gesucht werden soll
-        boolean checkWithBlackList = Boolean.parseBoolean(MVConfig.get(MVConfig.Configs.SYSTEM_BLACKLIST_AUCH_ABO));
-        DatenPset pSet_ = Daten.listePset.getPsetAbo("");
-        for (DatenFilm film : daten.getListeFilme()) {
-            abo = daten.getListeAbo().getAboFuerFilm_schnell(film, true /*auch die Länge überprüfen*/);
-            if (abo == null) {
-                // dann gibts dafür kein Abo
-                continue;
+        final Predicate<DatenFilm> blacklist = MVConfig.getBool(MVConfig.Configs.SYSTEM_BLACKLIST_AUCH_ABO)
+                ? daten.getListeBlacklist().createAboFilter()
+                : film -> true;
+        final ListeAbo listeAbo = daten.getListeAbo();
+        final AboHistoryController aboHistory = daten.getAboHistoryController();
+        final List<AboTreffer> treffer = daten.getListeFilme().parallelStream()
+                .map(film -> {
+                    final DatenAbo abo = listeAbo.getAboFuerFilm_schnell(film, true /*auch die Länge überprüfen*/);
+                    if (abo == null || !abo.aboIstEingeschaltet()) {
+                        // dann gibts dafür kein Abo
+                        return null;
+                    }
+                    //Blacklist auch bei Abos anwenden
+                    if (!blacklist.test(film) || aboHistory.urlPruefen(film.getUrl())) {
+                        // oder ist schon mal geladen worden
+                        return null;
+                    }
+                    return new AboTreffer(film, abo);
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        // in der Reihenfolge der Filmliste, der erste Film mit einer URL gewinnt
+        final List<AboTreffer> neu = new ArrayList<>();
+        final String heute = new SimpleDateFormat("dd.MM.yyyy").format(new Date());
+        final DatenPset pSet_ = Daten.listePset.getPsetAbo("");
+        boolean keinSet = false;
+        for (AboTreffer t : treffer) {
+            final DatenAbo abo = t.abo;
+            t.pSet = abo.arr[DatenAbo.ABO_PSET].isEmpty() ? pSet_ : Daten.listePset.getPsetAbo(abo.arr[DatenAbo.ABO_PSET]);
+            if (t.pSet == null) {
+                keinSet = true;
+                break;
             }
-            if (!abo.aboIstEingeschaltet()) {
+
+            // mit der tatsächlichen URL prüfen, ob die URL schon in der Downloadliste ist
+            final String urlDownload = t.film.getUrlFuerAufloesung(t.pSet.arr[DatenPset.PROGRAMMSET_AUFLOESUNG]);
+            if (!listeUrls.add(urlDownload)) {
                 continue;
             }
-            if (checkWithBlackList) {
-                //Blacklist auch bei Abos anwenden
-                if (!daten.getListeBlacklist().checkBlackOkFilme_Downloads(film)) {
-                    continue;
-                }
-            }
-            if (daten.getAboHistoryController().urlPruefen(film.getUrl())) {
-                // ist schon mal geladen worden
-                continue;
+
+            //diesen Film in die Downloadliste eintragen
+            abo.arr[DatenAbo.ABO_DOWN_DATUM] = heute;
+            if (!abo.arr[DatenAbo.ABO_PSET].equals(t.pSet.arr[DatenPset.PROGRAMMSET_NAME])) {
+                // nur den Namen anpassen, falls geändert
+                abo.arr[DatenAbo.ABO_PSET] = t.pSet.arr[DatenPset.PROGRAMMSET_NAME];
             }
-            DatenPset pSet = abo.arr[DatenAbo.ABO_PSET].isEmpty() ? pSet_ : Daten.listePset.getPsetAbo(abo.arr[DatenAbo.ABO_PSET]);
-            //DatenPset pSet = Daten.listePset.getPsetAbo(abo.arr[DatenAbo.ABO_PSET]);
-            if (pSet != null) {
+            neu.add(t);
+        }
 
-                // mit der tatsächlichen URL prüfen, ob die URL schon in der Downloadliste ist
-                String urlDownload = film.getUrlFuerAufloesung(pSet.arr[DatenPset.PROGRAMMSET_AUFLOESUNG]);
-                if (listeUrls.contains(urlDownload)) {
-                    continue;
-                }
-                listeUrls.add(urlDownload);
-                //                if (checkUrlExists(urlDownload)) {
-                //                    // haben wir schon in der Downloadliste
-                //                    continue;
-                //                }
-
-                //diesen Film in die Downloadliste eintragen
-                abo.arr[DatenAbo.ABO_DOWN_DATUM] = new SimpleDateFormat("dd.MM.yyyy").format(new Date());
-                if (!abo.arr[DatenAbo.ABO_PSET].equals(pSet.arr[DatenPset.PROGRAMMSET_NAME])) {
-                    // nur den Namen anpassen, falls geändert
-                    abo.arr[DatenAbo.ABO_PSET] = pSet.arr[DatenPset.PROGRAMMSET_NAME];
-                }
+        // die Sets vorher einmal bereinigen, beim parallelen Bauen werden sie dann nur noch gelesen
+        neu.stream().map(t -> t.pSet).distinct().forEach(DatenPset::removeOldPlaceholders);
+        final List<DatenDownload> downloads = neu.isEmpty() ? new ArrayList<>() : aboDownloadsBauen(neu);
+
+        if (!downloads.isEmpty()) {
+            synchronized (this) {
+                // inzwischen anders eingetragene Downloads nicht doppelt anlegen
+                final HashSet<String> vorhanden = new HashSet<>();
+                this.forEach((download) -> vorhanden.add(download.arr[DatenDownload.DOWNLOAD_URL]));
+                downloads.removeIf(download -> !vorhanden.add(download.arr[DatenDownload.DOWNLOAD_URL]));
                 //dann in die Liste schreiben
-                add(new DatenDownload(pSet, film, DatenDownload.QUELLE_ABO, abo, "", "", "" /*Aufloesung*/));
-                gefunden = true;
-            } else if (parent != null) {
-                // sonst sind wir evtl. nur in einer Konsole ohne X
-                new DialogAboNoSet(parent).setVisible(true);
-                break;
+                addAll(downloads);
+                listeNummerieren();
             }
+            daten.getMessageBus().publishAsync(new DownloadListChangedEvent());
         }
-        if (gefunden) {
-            listeNummerieren();
+
+        if (keinSet && parent != null) {
+            // sonst sind wir evtl. nur in einer Konsole ohne X
+            new DialogAboNoSet(parent).setVisible(true);
+        }
+    }
+
+    /**
+     * A film found for an abo.
+     */
+    private static final class AboTreffer {
+        private final DatenFilm film;
+        private final DatenAbo abo;
+        private DatenPset pSet;
+
+        AboTreffer(DatenFilm film, DatenAbo abo) {
+            this.film = film;
+            this.abo = abo;
         }
-        listeUrls.clear();
     }
 
     public synchronized void listeNummerieren() {
@@ -403,42 +503,85 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
         }
     }
 
+    /**
+     * Return a number which changes whenever downloads are added or removed or the status of a download changes.
+     */
+    public synchronized long getVersion() {
+        // beide Zähler werden nur größer
+        return modCount + Start.getStatusVersion();
+    }
+
+    /**
+     * Return the counts of the downloads, they are only counted again after a change of the list.
+     */
     public synchronized DownloadStartInfo getStarts() {
-        final DownloadStartInfo info = new DownloadStartInfo();
+        updateStarts();
+        return starts;
+    }
+
+    /**
+     * Return all started but not yet finished downloads of all sources.
+     * The list is only created again after a change of the list and must not be modified.
+     */
+    public synchronized List<DatenDownload> getActiveStarts() {
+        updateStarts();
+        return activeStarts;
+    }
+
+    private void updateStarts() {
+        // vorher lesen, eine Änderung während des Zählens führt beim nächsten Mal zum erneuten Zählen
+        final long version = getVersion();
+        if (starts != null && version == startsVersion)
+            return;
+
+        int total_starts = 0;
+        int num_abos = 0;
+        int num_downloads = 0;
+        int initialized = 0;
+        int running = 0;
+        int finished = 0;
+        int error = 0;
+        final List<DatenDownload> active = new ArrayList<>();
 
         for (DatenDownload download : this) {
             if (!download.istZurueckgestellt()) {
-                info.total_starts++;
+                total_starts++;
             }
             if (download.istAbo()) {
-                info.num_abos++;
+                num_abos++;
             } else {
-                info.num_downloads++;
+                num_downloads++;
             }
-            if (download.start != null) {
+            final Start start = download.start;
+            if (start != null) {
+                if (start.getStatus() < Start.STATUS_FERTIG)
+                    active.add(download);
+
                 if (download.quelle == DatenDownload.QUELLE_ABO || download.quelle == DatenDownload.QUELLE_DOWNLOAD) {
-                    switch (download.start.status) {
+                    switch (start.getStatus()) {
                         case Start.STATUS_INIT:
-                            info.initialized++;
+                            initialized++;
                             break;
 
                         case Start.STATUS_RUN:
-                            info.running++;
+                            running++;
                             break;
 
                         case Start.STATUS_FERTIG:
-                            info.finished++;
+                            finished++;
                             break;
 
                         case Start.STATUS_ERR:
-                            info.error++;
+                            error++;
                             break;
                     }
                 }
             }
         }
 
-        return info;
+        starts = new DownloadStartInfo(size(), total_starts, num_abos, num_downloads, initialized, running, finished, error);
+        activeStarts = Collections.unmodifiableList(active);
+        startsVersion = version;
     }
 
     /**
@@ -451,7 +594,7 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
         final List<DatenDownload> activeDownloads;
         activeDownloads = this.stream()
                 .filter(download -> download.start != null)
-                .filter(download -> download.start.status < Start.STATUS_FERTIG)
+                .filter(download -> download.start.getStatus() < Start.STATUS_FERTIG)
                 .filter(download -> quelle == DatenDownload.QUELLE_ALLE || download.quelle == quelle)
                 .collect(Collectors.toList());
 
@@ -466,7 +609,7 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
             DatenDownload d = it.next();
             if (d.start != null) {
                 if (d.quelle == DatenDownload.QUELLE_BUTTON) {
-                    if (d.start.status >= Start.STATUS_FERTIG) {
+                    if (d.start.getStatus() >= Start.STATUS_FERTIG) {
                         // dann ist er fertig oder abgebrochen
                         it.remove();
                         gefunden = true;
@@ -484,10 +627,10 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
         final DatenDownload[] ret = new DatenDownload[1];
 
         if (this.size() > 0 &&
-                getDown(Integer.parseInt(MVConfig.get(MVConfig.Configs.SYSTEM_MAX_DOWNLOAD)))) {
+                getDown(maxDownloads)) {
             naechsterStart().ifPresent(datenDownload -> {
                 if (datenDownload.start != null) {
-                    if (datenDownload.start.status == Start.STATUS_INIT)
+                    if (datenDownload.start.getStatus() == Start.STATUS_INIT)
                         ret[0] = datenDownload;
                 }
             });
@@ -507,7 +650,7 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
                 continue;
             }
 
-            if (datenDownload.start.status == Start.STATUS_ERR
+            if (datenDownload.start.getStatus() == Start.STATUS_ERR
                     && datenDownload.start.countRestarted < Konstanten.MAX_DOWNLOAD_RESTARTS
                     && !maxSenderLaufen(datenDownload, 1)) {
                 int restarted = datenDownload.start.countRestarted;
@@ -530,7 +673,7 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
         for (DatenDownload datenDownload : this) {
             Start s = datenDownload.start;
             if (s != null) {
-                if (s.status == Start.STATUS_RUN) {
+                if (s.getStatus() == Start.STATUS_RUN) {
                     ++count;
                     if (count >= max) {
                         return false;
@@ -545,7 +688,7 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
         //erster Versuch, Start mit einem anderen Sender
         for (DatenDownload datenDownload : this) {
             if (datenDownload.start != null) {
-                if (datenDownload.start.status == Start.STATUS_INIT) {
+                if (datenDownload.start.getStatus() == Start.STATUS_INIT) {
                     if (!maxSenderLaufen(datenDownload, 1)) {
                         return Optional.of(datenDownload);
                     }
@@ -553,16 +696,12 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
             }
         }
 
-        int maxProSender = Konstanten.MAX_SENDER_FILME_LADEN;
-        if (Boolean.parseBoolean(MVConfig.get(MVConfig.Configs.SYSTEM_MAX_1_DOWNLOAD_PRO_SERVER))) {
-            // dann darf nur ein Download pro Server gestartet werden
-            maxProSender = 1;
-        }
+        final int maxProSender = this.maxProSender;
 
         //zweiter Versuch, Start mit einem passenden Sender
         for (DatenDownload datenDownload : this) {
             if (datenDownload.start != null) {
-                if (datenDownload.start.status == Start.STATUS_INIT) {
+                if (datenDownload.start.getStatus() == Start.STATUS_INIT) {
                     if (!maxSenderLaufen(datenDownload, maxProSender)) {
                         return Optional.of(datenDownload);
                     }
@@ -590,7 +729,7 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
             final String host = getHost(d);
             for (DatenDownload download : this) {
                 if (download.start != null) {
-                    if (download.start.status == Start.STATUS_RUN
+                    if (download.start.getStatus() == Start.STATUS_RUN
                             && getHost(download).equalsIgnoreCase(host)) {
                         if (!isCDN(d.arr[DatenDownload.DOWNLOAD_FILM_URL])) {
                             counter++;
@@ -6,7 +6,7 @@ import ca.odell.glazedlists.javafx.EventObservableList;
 import javafx.application.Platform;
 import javafx.collections.ObservableList;
 import mediathek.config.Konstanten;
-import mediathek.tool.GermanStringSorter;
+import mediathek.tool.MemoryGovernor;
 import org.apache.commons.lang3.time.FastDateFormat;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -14,8 +14,9 @@ import org.apache.logging.log4j.Logger;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @SuppressWarnings("serial")
 public class ListeFilme extends ArrayList<DatenFilm> {
@@ -34,6 +35,27 @@ public class ListeFilme extends ArrayList<DatenFilm> {
      */
     private final ObservableList<String> obs_senderList = new EventObservableList<>(m_senderList);
     public boolean neueFilme = false;
+    /**
+     * Lazily built indices for the url lookups, they are valid as long as the list has not been modified.
+     */
+    private transient Map<String, DatenFilm> urlIndex = null;
+    private transient int urlIndexModCount;
+    private transient Map<String, DatenFilm> urlVariantIndex = null;
+    private transient int urlVariantIndexModCount;
+    /**
+     * Sorted themas per sender, built in the background after the list has been filled.
+     */
+    private transient ThemaIndex themaIndex = null;
+    private transient int themaIndexModCount;
+    /**
+     * Sort keys for the film table, built in the background after the list has been filled.
+     */
+    private transient FilmSortIndex sortIndex = null;
+    private transient int sortIndexModCount;
+    /**
+     * Builds the order the table currently uses into new sort keys, set by the sorter of the table.
+     */
+    private transient volatile Consumer<FilmSortIndex> sortIndexPreparer = null;
 
     /**
      * Get the basic sender channel list, useful e.g. for swing models
@@ -64,15 +86,136 @@ public class ListeFilme extends ArrayList<DatenFilm> {
      * @return List of themas as String.
      */
     public List<String> getThemen(String sender) {
-        Stream<DatenFilm> mystream = parallelStream();
-        //if sender is empty return all themas...
-        if (!sender.isEmpty())
-            mystream = mystream.filter(f -> f.getSender().equals(sender));
+        if (sender.isEmpty())
+            return getThemaIndex().getThemen(Collections.emptyList());
+        else
+            return getThemaIndex().getThemen(Collections.singletonList(sender));
+    }
 
-        return mystream.map(DatenFilm::getThema)
-                .distinct()
-                .sorted(GermanStringSorter.getInstance())
-                .collect(Collectors.toList());
+    /**
+     * Search all themas of the selected senders.
+     *
+     * @param senders the selected senders, all themas if empty.
+     * @return sorted list of themas without duplicates.
+     */
+    public List<String> getThemen(Collection<String> senders) {
+        return getThemaIndex().getThemen(senders);
+    }
+
+    /**
+     * Build the sender/thema index and the sort keys in the background, then neither switching the sender
+     * nor sorting the table has to wait.
+     * The indices are built from a copy of the list, they are dropped if the list was modified meanwhile.
+     * Whoever fills the list holds its lock, so the copy is never taken from a half filled list.
+     */
+    public synchronized void prepareIndices() {
+        final List<DatenFilm> filme = new ArrayList<>(this);
+        final int filmeModCount = modCount;
+        ForkJoinPool.commonPool().execute(() -> {
+            final ThemaIndex thema = new ThemaIndex(filme);
+            synchronized (this) {
+                if (!isCurrentIndex(filmeModCount))
+                    return;
+                themaIndex = thema;
+                themaIndexModCount = filmeModCount;
+            }
+
+            final FilmSortIndex sort = new FilmSortIndex(filme);
+            final Consumer<FilmSortIndex> preparer = sortIndexPreparer;
+            if (preparer != null)
+                preparer.accept(sort);
+            synchronized (this) {
+                if (isCurrentIndex(filmeModCount)) {
+                    sortIndex = sort;
+                    sortIndexModCount = filmeModCount;
+                }
+            }
+        });
+    }
+
+    /**
+     * @param preparer called on the background thread with new sort keys before they are used, may be null.
+     */
+    public void setSortIndexPreparer(Consumer<FilmSortIndex> preparer) {
+        sortIndexPreparer = preparer;
+    }
+
+    /**
+     * @return true if an index built for this modCount may be kept.
+     */
+    private boolean isCurrentIndex(int indexModCount) {
+        return modCount == indexModCount && !MemoryGovernor.getInstance().isUnderPressure();
+    }
+
+    /**
+     * The index is rebuilt if the list was modified since it has been built.
+     * While the heap is under pressure a rebuilt index is not kept.
+     *
+     * @return the current sender/thema index of this list.
+     */
+    public synchronized ThemaIndex getThemaIndex() {
+        if (themaIndex == null || themaIndexModCount != modCount) {
+            final ThemaIndex index = new ThemaIndex(this);
+            if (MemoryGovernor.getInstance().isUnderPressure()) {
+                themaIndex = null;
+                return index;
+            }
+            themaIndex = index;
+            themaIndexModCount = modCount;
+        }
+        return themaIndex;
+    }
+
+    /**
+     * The sort keys are only built by {@link #prepareIndices()}, never on the caller's thread.
+     *
+     * @return the sort keys of the current list or null if they are not ready, e.g. while the list is filtered
+     * or the heap is under pressure. Then the caller has to sort without them.
+     */
+    public synchronized FilmSortIndex getSortIndex() {
+        return sortIndex != null && sortIndexModCount == modCount ? sortIndex : null;
+    }
+
+    /**
+     * Move descriptions and website links of all films to the database, e.g. when memory gets scarce.
+     * The films are written in chunks, the strings of a chunk are released as soon as its rows are committed.
+     * Nothing is moved while a film list is loaded, the loaded films are then stored in the database anyway.
+     *
+     * @return the number of films which have been moved.
+     */
+    public int moveDescriptionsToDatabase() {
+        final DatenFilm[] filme;
+        synchronized (this) {
+            filme = toArray(new DatenFilm[0]);
+        }
+
+        int moved = 0;
+        try (FilmDatabaseWriter writer = FilmDatabaseWriter.begin()) {
+            if (writer == null)
+                return 0;
+
+            final List<DatenFilm> chunk = new ArrayList<>(FilmDatabaseWriter.BATCH_SIZE);
+            for (int index = 0; index < filme.length; index += FilmDatabaseWriter.BATCH_SIZE) {
+                final int end = Math.min(index + FilmDatabaseWriter.BATCH_SIZE, filme.length);
+                chunk.clear();
+                for (int i = index; i < end; i++) {
+                    if (filme[i].moveToDatabase(writer))
+                        chunk.add(filme[i]);
+                }
+
+                final boolean committed = writer.commitPending();
+                for (DatenFilm film : chunk) {
+                    film.finishMoveToDatabase(committed);
+                }
+                if (!committed) {
+                    logger.error("Moving the film descriptions to the database failed after {} films", moved);
+                    break;
+                }
+                moved += chunk.size();
+            }
+        }
+        logger.info("{} film descriptions moved to the database", moved);
+        return moved;
     }
 
     private void addHash(DatenFilm f, HashSet<String> hash, boolean index) {
@@ -88,6 +231,7 @@ public class ListeFilme extends ArrayList<DatenFilm> {
         // es werden nur Filme die noch nicht vorhanden sind, einsortiert
         // "ersetzen": true: dann werden gleiche (index/URL) in der Liste durch neue ersetzt
         final HashSet<String> hash = new HashSet<>(listeEinsortieren.size() + 1, 1);
+        invalidateUrlIndex();
 
         if (ersetzen) {
             listeEinsortieren.forEach((DatenFilm f) -> addHash(f, hash, index));
@@ -135,6 +279,9 @@ public class ListeFilme extends ArrayList<DatenFilm> {
     @Override
     public synchronized void clear() {
         neueFilme = false;
+        invalidateUrlIndex();
+        themaIndex = null;
+        sortIndex = null;
 
         super.clear();
     }
@@ -144,28 +291,81 @@ public class ListeFilme extends ArrayList<DatenFilm> {
         metaData.setId(meta.getId());
     }
 
+    /**
+     * The url indices cost a hash entry per film and variant. With a small heap or while memory is scarce they are
+     * not built and the lookups scan the list instead.
+     */
+    private static boolean canBuildUrlIndex() {
+        return !MemoryGovernor.getInstance().isLowMemory();
+    }
+
     public synchronized DatenFilm getFilmByUrl(final String url) {
-        return parallelStream().filter(f -> f.getUrl().equalsIgnoreCase(url)).findAny().orElse(null);
+        if (urlIndex == null || urlIndexModCount != modCount) {
+            urlIndex = null;
+            if (!canBuildUrlIndex())
+                return stream().filter(f -> f.getUrl().equalsIgnoreCase(url)).findFirst().orElse(null);
+
+            urlIndex = new HashMap<>(size() * 4 / 3 + 1);
+            for (DatenFilm f : this) {
+                urlIndex.putIfAbsent(normalizeUrl(f.getUrl()), f);
+            }
+            urlIndexModCount = modCount;
+        }
+
+        return urlIndex.get(normalizeUrl(url));
+    }
+
+    private static String normalizeUrl(String url) {
+        return url.toLowerCase(Locale.ROOT);
     }
 
     public synchronized DatenFilm getFilmByUrl_klein_hoch_hd(String url) {
         // Problem wegen gleicher URLs
         // wird versucht, einen Film mit einer kleinen/Hoher/HD-URL zu finden
-        DatenFilm ret = null;
-        for (DatenFilm f : this) {
-            if (f.getUrl().equals(url)) {
-                ret = f;
-                break;
-            } else if (f.getUrlFuerAufloesung(FilmResolution.AUFLOESUNG_HD).equals(url)) {
-                ret = f;
-                break;
-            } else if (f.getUrlFuerAufloesung(FilmResolution.AUFLOESUNG_KLEIN).equals(url)) {
-                ret = f;
-                break;
+        // der erste Film in der Liste gewinnt, wie bei der Suche über die ganze Liste
+        if (urlVariantIndex == null || urlVariantIndexModCount != modCount) {
+            urlVariantIndex = null;
+            if (!canBuildUrlIndex())
+                return findFilmByUrlVariant(url);
+
+            urlVariantIndex = new HashMap<>(size() * 2 + 1);
+            for (DatenFilm f : this) {
+                urlVariantIndex.putIfAbsent(f.getUrl(), f);
+                urlVariantIndex.putIfAbsent(f.getUrlFuerAufloesung(FilmResolution.AUFLOESUNG_HD), f);
+                urlVariantIndex.putIfAbsent(f.getUrlFuerAufloesung(FilmResolution.AUFLOESUNG_KLEIN), f);
             }
+            urlVariantIndexModCount = modCount;
         }
 
-        return ret;
+        return urlVariantIndex.get(url);
+    }
+
+    private DatenFilm findFilmByUrlVariant(String url) {
+        for (DatenFilm f : this) {
+            if (f.getUrl().equals(url)
+                    || f.getUrlFuerAufloesung(FilmResolution.AUFLOESUNG_HD).equals(url)
+                    || f.getUrlFuerAufloesung(FilmResolution.AUFLOESUNG_KLEIN).equals(url))
+                return f;
+        }
+        return null;
+    }
+
+    /**
+     * Release the memory of all lookup indices, e.g. when memory gets scarce.
+     * They are rebuilt with the next lookup.
+     */
+    public synchronized void dropIndices() {
+        invalidateUrlIndex();
+        themaIndex = null;
+        sortIndex = null;
+    }
+
+    /**
+     * Drop the url indices, they are rebuilt with the next lookup.
+     */
+    private void invalidateUrlIndex() {
+        urlIndex = null;
+        urlVariantIndex = null;
     }
 
     public synchronized String genDate() {
@@ -35,8 +35,10 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.regex.Pattern;
 
 @SuppressWarnings("serial")
@@ -45,6 +47,8 @@ public class ListeMediaDB extends LinkedList<DatenMediaDB> {
     private boolean makeIndex = false;
     private String[] suffix = {""};
     private boolean ohneSuffix = true;
+    private MediaDbSearchIndex searchIndex;
+    private int searchIndexModCount;
 
     private final Daten daten;
 
@@ -57,22 +61,41 @@ public class ListeMediaDB extends LinkedList<DatenMediaDB> {
         this.forEach((mdb) -> modelMediaDB.addRow(mdb.getRow()));
     }
 
-    public synchronized void searchFilmInDB(TModelMediaDB foundModel, String title) {
-        foundModel.setRowCount(0);
-        if (!makeIndex && !title.isEmpty()) {
-            Pattern p = Filter.makePattern(title);
-            if (p != null) {
-                // dann mit RegEx prüfen
-                daten.getListeMediaDB().stream().filter(s -> p.matcher(s.arr[DatenMediaDB.MEDIA_DB_NAME]).matches()).forEach(s -> foundModel.addRow(s.getRow()));
-            } else {
-                title = title.toLowerCase();
-                for (DatenMediaDB s : daten.getListeMediaDB()) {
-                    if (s.arr[DatenMediaDB.MEDIA_DB_NAME].toLowerCase().contains(title)) {
-                        foundModel.addRow(s.getRow());
-                    }
-                }
-            }
+    /**
+     * @param title the search text or a regexp starting with "#:"
+     * @return the matching entries, empty while the index is built
+     */
+    public synchronized List<DatenMediaDB> searchFilmInDB(String title) {
+        if (makeIndex || title.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final MediaDbSearchIndex index = getSearchIndex();
+        Pattern p = Filter.makePattern(title);
+        if (p != null) {
+            // dann mit RegEx prüfen
+            return index.search(p);
+        } else {
+            return index.search(title);
+        }
+    }
+
+    /**
+     * Den Suchindex verwerfen, z.B. wenn der Speicher knapp wird. Er wird bei der nächsten Suche neu erstellt.
+     */
+    public synchronized void dropSearchIndex() {
+        searchIndex = null;
+    }
+
+    /**
+     * Der Suchindex wird neu erstellt, wenn sich die Liste seit dem letzten Mal geändert hat.
+     */
+    private synchronized MediaDbSearchIndex getSearchIndex() {
+        if (searchIndex == null || searchIndexModCount != modCount) {
+            searchIndex = new MediaDbSearchIndex(this);
+            searchIndexModCount = modCount;
         }
+        return searchIndex;
     }
 
     public synchronized void cleanList() {
@@ -93,6 +116,7 @@ public class ListeMediaDB extends LinkedList<DatenMediaDB> {
             makeIndex = true;
 
             clean();
+            getSearchIndex();
 
             makeIndex = false;
             messageBus.publishAsync(new MediaDbStopEvent());
@@ -285,6 +309,8 @@ public class ListeMediaDB extends LinkedList<DatenMediaDB> {
             }
 
             daten.getListeMediaDB().exportListe("");
+            // der Suchindex gleich mit, dann muss die erste Suche nicht warten
+            getSearchIndex();
             makeIndex = false;
             logger.debug("Ende Mediensammlung erstellen");
 
@@ -0,0 +1,324 @@
+package mediathek.daten;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Trigram index over the file names of the media collection.
+ * Every trigram of the lowercased name points to the sorted positions of the entries which contain it,
+ * a query only has to check the intersection of the lists of its own trigrams.
+ * Queries shorter than a trigram and regexps without a usable literal fall back to a scan over the
+ * cached lowercased names.
+ */
+final class MediaDbSearchIndex {
+    private static final int TRIGRAM = 3;
+    private final DatenMediaDB[] entries;
+    private final String[] lowerNames;
+    private final Map<Long, int[]> postings;
+    /**
+     * Entries whose name changes its length when lowercased, the trigrams of those
+     * can´t be compared with a case insensitive regexp and are always checked.
+     */
+    private final int[] unsicher;
+
+    MediaDbSearchIndex(@NotNull Collection<DatenMediaDB> liste) {
+        entries = liste.toArray(new DatenMediaDB[0]);
+        lowerNames = new String[entries.length];
+
+        final Map<Long, IntList> tmp = new HashMap<>();
+        final IntList tmpUnsicher = new IntList();
+        for (int i = 0; i < entries.length; ++i) {
+            final String name = entries[i].arr[DatenMediaDB.MEDIA_DB_NAME];
+            final String lower = name.toLowerCase();
+            lowerNames[i] = lower;
+            if (lower.length() != name.length()) {
+                tmpUnsicher.add(i);
+            }
+            final String fold = fold(lower);
+            for (int k = 0; k + TRIGRAM <= fold.length(); ++k) {
+                final IntList list = tmp.computeIfAbsent(key(fold, k), key -> new IntList());
+                // die Positionen sind aufsteigend, doppelte Trigramme eines Namens nur einmal
+                if (list.size == 0 || list.last() != i) {
+                    list.add(i);
+                }
+            }
+        }
+
+        postings = new HashMap<>(tmp.size() * 4 / 3 + 1);
+        tmp.forEach((key, list) -> postings.put(key, list.toArray()));
+        unsicher = tmpUnsicher.toArray();
+    }
+
+    /**
+     * Fold a char to the case which a case insensitive regexp compares.
+     */
+    private static String fold(String s) {
+        final char[] c = s.toCharArray();
+        for (int i = 0; i < c.length; ++i) {
+            c[i] = Character.toLowerCase(Character.toUpperCase(c[i]));
+        }
+        return new String(c);
+    }
+
+    private static long key(String s, int pos) {
+        return ((long) s.charAt(pos) << 32) | ((long) s.charAt(pos + 1) << 16) | s.charAt(pos + 2);
+    }
+
+    /**
+     * Literal parts which every string matched by the regexp must contain.
+     * The extraction is conservative: everything which can´t be judged safely is simply skipped,
+     * an alternation on the top level means there is no required literal at all.
+     *
+     * @param regex the regexp without the "#:" prefix
+     * @return the lowercased literal runs, might be empty
+     */
+    static List<String> requiredLiterals(@NotNull String regex) {
+        final List<String> literals = new ArrayList<>();
+        final StringBuilder run = new StringBuilder();
+        boolean lastWasLiteral = false;
+        int depth = 0;
+
+        int i = 0;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            if (depth == 0 && isLiteral(c)) {
+                run.append(Character.toLowerCase(c));
+                lastWasLiteral = true;
+                ++i;
+                continue;
+            }
+
+            switch (c) {
+                case '?':
+                case '*':
+                case '{':
+                    // das letzte Zeichen ist optional
+                    if (lastWasLiteral) {
+                        run.setLength(run.length() - 1);
+                    }
+                    if (c == '{') {
+                        final int end = regex.indexOf('}', i);
+                        i = end < 0 ? regex.length() : end;
+                    }
+                    break;
+                case '|':
+                    if (depth == 0) {
+                        return Collections.emptyList();
+                    }
+                    break;
+                case '(':
+                    if (regex.startsWith("(?", i) && hasCommentsFlag(regex, i + 2)) {
+                        // Leerzeichen sind dann keine Literale mehr
+                        return Collections.emptyList();
+                    }
+                    ++depth;
+                    break;
+                case ')':
+                    if (depth > 0) {
+                        --depth;
+                    }
+                    break;
+                case '[':
+                    i = skipCharClass(regex, i);
+                    break;
+                case '\\':
+                    // Escapes wie \d oder \k<name> komplett überspringen
+                    ++i;
+                    while (i + 1 < regex.length() && isEscapeTail(regex.charAt(i + 1))) {
+                        ++i;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            addRun(literals, run);
+            lastWasLiteral = false;
+            ++i;
+        }
+        addRun(literals, run);
+        return literals;
+    }
+
+    private static boolean isLiteral(char c) {
+        return c < 128 && (Character.isLetterOrDigit(c) || c == ' ' || c == '-' || c == '_' || c == ',');
+    }
+
+    private static boolean isEscapeTail(char c) {
+        return c < 128 && (Character.isLetterOrDigit(c) || c == '{' || c == '}' || c == '<' || c == '>' || c == ',');
+    }
+
+    private static boolean hasCommentsFlag(String regex, int start) {
+        for (int i = start; i < regex.length(); ++i) {
+            final char c = regex.charAt(i);
+            if (c == 'x') {
+                return true;
+            }
+            if (!Character.isLetter(c) && c != '-') {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static int skipCharClass(String regex, int start) {
+        int depth = 0;
+        // ein ] direkt nach [ oder [^ gehört zur Klasse
+        int literalClose = -1;
+        for (int i = start; i < regex.length(); ++i) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                ++i;
+            } else if (c == '[') {
+                ++depth;
+                literalClose = regex.startsWith("^", i + 1) ? i + 2 : i + 1;
+            } else if (c == ']' && i != literalClose && --depth == 0) {
+                return i;
+            }
+        }
+        return regex.length();
+    }
+
+    private static void addRun(List<String> literals, StringBuilder run) {
+        if (run.length() >= TRIGRAM) {
+            literals.add(run.toString());
+        }
+        run.setLength(0);
+    }
+
+    /**
+     * @param title the search text, case is ignored
+     * @return all entries whose name contains title
+     */
+    List<DatenMediaDB> search(@NotNull String title) {
+        final String lower = title.toLowerCase();
+        final List<DatenMediaDB> result = new ArrayList<>();
+        final int[] kandidaten = kandidaten(Collections.singletonList(fold(lower)));
+        if (kandidaten == null) {
+            for (int i = 0; i < entries.length; ++i) {
+                if (lowerNames[i].contains(lower)) {
+                    result.add(entries[i]);
+                }
+            }
+        } else {
+            for (int i : kandidaten) {
+                if (lowerNames[i].contains(lower)) {
+                    result.add(entries[i]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param p a compiled case insensitive search regexp
+     * @return all entries whose name is matched by p
+     */
+    List<DatenMediaDB> search(@NotNull Pattern p) {
+        final List<DatenMediaDB> result = new ArrayList<>();
+        final int[] kandidaten = kandidaten(requiredLiterals(p.pattern()));
+        if (kandidaten == null) {
+            for (DatenMediaDB entry : entries) {
+                if (p.matcher(entry.arr[DatenMediaDB.MEDIA_DB_NAME]).matches()) {
+                    result.add(entry);
+                }
+            }
+        } else {
+            for (int i : merge(kandidaten, unsicher)) {
+                if (p.matcher(entries[i].arr[DatenMediaDB.MEDIA_DB_NAME]).matches()) {
+                    result.add(entries[i]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return sorted positions of the entries which contain all trigrams of the literals,
+     * null if the literals don´t contain a trigram.
+     */
+    private int[] kandidaten(List<String> literals) {
+        final List<int[]> lists = new ArrayList<>();
+        for (String literal : literals) {
+            for (int k = 0; k + TRIGRAM <= literal.length(); ++k) {
+                final int[] list = postings.get(key(literal, k));
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+        }
+        if (lists.isEmpty()) {
+            return null;
+        }
+
+        // mit der kürzesten Liste anfangen
+        lists.sort(Comparator.comparingInt(list -> list.length));
+        int[] result = lists.get(0);
+        for (int l = 1; l < lists.size() && result.length > 0; ++l) {
+            result = intersect(result, lists.get(l));
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] small, int[] large) {
+        final int[] result = new int[small.length];
+        int count = 0;
+        int from = 0;
+        for (int value : small) {
+            final int pos = Arrays.binarySearch(large, from, large.length, value);
+            if (pos >= 0) {
+                result[count++] = value;
+                from = pos + 1;
+            } else {
+                from = -pos - 1;
+            }
+            if (from >= large.length) {
+                break;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static int[] merge(int[] a, int[] b) {
+        if (b.length == 0) {
+            return a;
+        }
+        final int[] result = new int[a.length + b.length];
+        int i = 0, j = 0, count = 0;
+        while (i < a.length || j < b.length) {
+            final int value;
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                value = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                value = b[j++];
+            } else {
+                value = a[i++];
+                ++j;
+            }
+            result[count++] = value;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static class IntList {
+        private int[] data = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        int last() {
+            return data[size - 1];
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
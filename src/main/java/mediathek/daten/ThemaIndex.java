@@ -0,0 +1,93 @@
+package mediathek.daten;
+
+import mediathek.tool.GermanStringSorter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Sorted themas of every sender of a film list together with the number of films per thema.
+ * All themas are collation-sorted once, the list of a sender only stores the positions of its themas in
+ * this order. Lists for several senders can therefore be combined without sorting again.
+ */
+public class ThemaIndex {
+    private final String[] themen;
+    private final Map<String, int[]> senderThemen = new HashMap<>();
+    private final Map<String, Map<String, Integer>> anzahl = new HashMap<>();
+
+    ThemaIndex(@NotNull Collection<DatenFilm> filme) {
+        // Reihenfolge des ersten Auftretens, damit gleichwertige Themen wie bisher sortiert werden
+        final Map<String, Integer> alleThemen = new LinkedHashMap<>();
+        for (DatenFilm film : filme) {
+            final String thema = film.getThema();
+            alleThemen.merge(thema, 1, Integer::sum);
+            anzahl.computeIfAbsent(film.getSender(), k -> new HashMap<>()).merge(thema, 1, Integer::sum);
+        }
+
+        themen = alleThemen.keySet().toArray(new String[0]);
+        Arrays.sort(themen, GermanStringSorter.getInstance());
+        final Map<String, Integer> rang = new HashMap<>(themen.length * 4 / 3 + 1);
+        for (int i = 0; i < themen.length; ++i) {
+            rang.put(themen[i], i);
+        }
+
+        anzahl.forEach((sender, themaAnzahl) -> {
+            final int[] positionen = themaAnzahl.keySet().stream().mapToInt(rang::get).toArray();
+            Arrays.sort(positionen);
+            senderThemen.put(sender, positionen);
+        });
+        // leerer Sender steht für alle Sender
+        anzahl.put("", alleThemen);
+    }
+
+    /**
+     * @param senders the selected senders, all themas if empty.
+     * @return the collation-sorted themas of the senders
+     */
+    public List<String> getThemen(@NotNull Collection<String> senders) {
+        if (senders.isEmpty())
+            return new ArrayList<>(Arrays.asList(themen));
+
+        if (senders.size() == 1)
+            return toThemen(senderThemen.get(senders.iterator().next()));
+
+        final BitSet positionen = new BitSet(themen.length);
+        for (String sender : senders) {
+            final int[] senderPositionen = senderThemen.get(sender);
+            if (senderPositionen != null) {
+                for (int pos : senderPositionen)
+                    positionen.set(pos);
+            }
+        }
+
+        final List<String> result = new ArrayList<>(positionen.cardinality());
+        for (int pos = positionen.nextSetBit(0); pos >= 0; pos = positionen.nextSetBit(pos + 1)) {
+            result.add(themen[pos]);
+        }
+        return result;
+    }
+
+    private List<String> toThemen(int[] positionen) {
+        if (positionen == null)
+            return new ArrayList<>();
+
+        final List<String> result = new ArrayList<>(positionen.length);
+        for (int pos : positionen) {
+            result.add(themen[pos]);
+        }
+        return result;
+    }
+
+    /**
+     * @param sender the sender, all senders if empty.
+     * @param thema  the thema
+     * @return number of films of the sender with this thema
+     */
+    public int getAnzahl(@NotNull String sender, @NotNull String thema) {
+        final Map<String, Integer> themaAnzahl = anzahl.get(sender);
+        if (themaAnzahl == null)
+            return 0;
+
+        return themaAnzahl.getOrDefault(thema, 0);
+    }
+}
@@ -8,6 +8,10 @@ public class ListenerFilmeLadenEvent {
     public int progress;
     public boolean fehler;
     public int count;
+    /**
+     * Die Filmliste auf dem Server hat sich nicht geändert (HTTP 304).
+     */
+    public boolean unveraendert = false;
 
     public ListenerFilmeLadenEvent(String ssender, String ttext, int mmax, int pprogress, int ccount, boolean ffehler) {
         senderUrl = ssender;
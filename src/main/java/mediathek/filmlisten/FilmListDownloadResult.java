@@ -0,0 +1,3 @@
+package mediathek.filmlisten;
+
+enum FilmListDownloadResult {LOADED, NOT_MODIFIED, FAILED}
@@ -6,6 +6,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 class FilmeImportierenAutoThread extends Thread {
+    static final String URL_FULL = Konstanten.ROUTER_BASE_ADDRESS + "Filmliste-akt.xz";
+    static final String URL_DIFF = Konstanten.ROUTER_BASE_ADDRESS + "Filmliste-diff.xz";
     private static final Logger logger = LogManager.getLogger(FilmeImportierenAutoThread.class);
     private final ListeFilme listeFilme;
     private final ListeFilme listeFilmeDiff;
@@ -26,42 +28,34 @@ class FilmeImportierenAutoThread extends Thread {
 
     @Override
     public void run() {
-        boolean ret;
+        FilmListDownloadResult ret;
+        // die Anfragen sind bedingt, eine unveränderte Liste kostet nur ein 304
+        // eine leere Liste (z.B. "immer neu laden") wird immer komplett geladen
+        final String localListId = listeFilme.isEmpty() ? null : listeFilme.getId();
         if (listeFilme.isTooOldForDiff()) {
             // dann eine komplette Liste laden
-            listeFilme.clear();
-            ret = searchFullList(listeFilme, FilmListDownloadType.FULL);
+            ret = searchFullList(listeFilme, FilmListDownloadType.FULL, localListId);
         } else {
             // nur ein Update laden
-            ret = searchFullList(listeFilmeDiff, FilmListDownloadType.DIFF_ONLY);
-            if (!ret || listeFilmeDiff.isEmpty()) {
+            ret = searchFullList(listeFilmeDiff, FilmListDownloadType.DIFF_ONLY, localListId);
+            if (ret == FilmListDownloadResult.FAILED) {
                 // wenn diff, dann nochmal mit einer kompletten Liste versuchen
-                listeFilme.clear();
                 listeFilmeDiff.clear();
-                ret = searchFullList(listeFilme, FilmListDownloadType.FULL);
+                ret = searchFullList(listeFilme, FilmListDownloadType.FULL, localListId);
             }
         }
 
-        if (!ret) {
+        if (ret == FilmListDownloadResult.FAILED) {
             /* listeFilme ist schon wieder null -> "FilmeLaden" */
             logger.error("Es konnten keine Filme geladen werden!");
         }
         onFinished.onFinished(ret);
     }
 
-    private boolean searchFullList(ListeFilme liste, FilmListDownloadType state) {
-        String updateUrl = Konstanten.ROUTER_BASE_ADDRESS;
+    private FilmListDownloadResult searchFullList(ListeFilme liste, FilmListDownloadType state, String localListId) {
+        final String updateUrl = state == FilmListDownloadType.FULL ? URL_FULL : URL_DIFF;
 
-        switch (state) {
-            case FULL:
-                updateUrl += "Filmliste-akt.xz";
-                break;
-            case DIFF_ONLY:
-                updateUrl += "Filmliste-diff.xz";
-                break;
-        }
-
-        return downloadAction.performDownload(updateUrl, liste, days);
+        return downloadAction.performDownload(updateUrl, liste, days, localListId);
     }
 
 }
@@ -23,7 +23,7 @@ class FilmeImportierenDateiThread extends Thread {
 
     @Override
     public void run() {
-        final boolean result = downloadAction.performDownload(pfad, listeFilme, days);
+        final FilmListDownloadResult result = downloadAction.performDownload(pfad, listeFilme, days, null);
         onFinishedAction.onFinished(result);
     }
 }
@@ -13,6 +13,7 @@ import mediathek.daten.ListeFilme;
 import mediathek.filmeSuchen.ListenerFilmeLaden;
 import mediathek.filmeSuchen.ListenerFilmeLadenEvent;
 import mediathek.filmlisten.reader.FilmListReader;
+import mediathek.filmlisten.reader.FilmListValidators;
 import mediathek.gui.actions.FilmListWriteWorkerTask;
 import mediathek.javafx.FilmListFilterTask;
 import mediathek.javafx.tool.FXProgressPane;
@@ -116,18 +117,8 @@ public class FilmeLaden {
                     result = true;
             }
 
-            if (!result) {
-                if (showDialogs) {
-                    Platform.runLater(() -> {
-                        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                        alert.setTitle(Konstanten.PROGRAMMNAME);
-                        alert.setHeaderText(DIALOG_TITLE);
-                        alert.setContentText(NO_UPDATE_AVAILABLE);
-                        alert.showAndWait();
-                    });
-                } else
-                    logger.info(NO_UPDATE_AVAILABLE);
-            }
+            if (!result)
+                showNoUpdateAvailable();
         } catch (UnknownHostException ex) {
             logger.debug(ex);
             if (showDialogs)
@@ -151,34 +142,60 @@ public class FilmeLaden {
         return result;
     }
 
+    private void showNoUpdateAvailable() {
+        if (GuiFunktionen.getImportArtFilme() != FilmListUpdateType.AUTOMATIC) {
+            Platform.runLater(() -> {
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle(Konstanten.PROGRAMMNAME);
+                alert.setHeaderText(DIALOG_TITLE);
+                alert.setContentText(NO_UPDATE_AVAILABLE);
+                alert.showAndWait();
+            });
+        } else
+            logger.info(NO_UPDATE_AVAILABLE);
+    }
+
     /**
      * Determin whether we want to perform a remote update check.
-     * This will be done if:
-     * 1. don´t have film entries
-     * 2. dateiUrl is either empty or string starts with http
-     * 3. our filmlist is old enough that we dont use diff list - we dont check them.
      *
      * @return true if we need to load a new list, false if we should not load a remote list
      */
     private boolean performUpdateCheck(ListeFilme listeFilme, String dateiUrl) {
         boolean result = true;
 
-        //always perform update when list is empty
-        if (!listeFilme.isEmpty()) {
-            //remote download is using an empty file name!...
-            //or somebody put a web adress into the text field
-            if (dateiUrl.isEmpty() || dateiUrl.startsWith("http")) {
-                //perform check only if we dont want to use DIFF list...
-                if (listeFilme.isTooOldForDiff()) {
-                    if (!hasNewRemoteFilmlist())
-                        result = false;
-                }
-            }
+        if (needsRemoteIdCheck(listeFilme, dateiUrl, FilmListValidators.getInstance())) {
+            if (!hasNewRemoteFilmlist())
+                result = false;
         }
 
         return result;
     }
 
+    /**
+     * The id of the remote list is checked if:
+     * 1. we have film entries
+     * 2. dateiUrl is either empty or string starts with http
+     * 3. our filmlist is old enough that we dont use diff list - we dont check them.
+     * 4. the full list would not be requested conditionally anyway.
+     *
+     * @return true if the remote id has to be compared with the local one before loading.
+     */
+    static boolean needsRemoteIdCheck(ListeFilme listeFilme, String dateiUrl, FilmListValidators validators) {
+        //always perform update when list is empty
+        if (listeFilme.isEmpty())
+            return false;
+
+        //remote download is using an empty file name!...
+        //or somebody put a web adress into the text field
+        if (!dateiUrl.isEmpty() && !dateiUrl.startsWith("http"))
+            return false;
+
+        //perform check only if we dont want to use DIFF list...
+        //a conditional request for the full list replaces the id check
+        return listeFilme.isTooOldForDiff()
+                && !validators.isValidFor(FilmeImportierenAutoThread.URL_FULL, listeFilme.getId());
+    }
+
     private void prepareHashTable() {
         hashSet.clear();
         fillHash(daten.getListeFilme());
@@ -257,8 +274,13 @@ public class FilmeLaden {
 
         logger.debug("undEnde()");
 
-        // wenn nur ein Update
-        if (!diffListe.isEmpty()) {
+        if (event.unveraendert) {
+            // Liste auf dem Server ist unverändert, die "neu"-Markierungen bleiben erhalten
+            showNoUpdateAvailable();
+            diffListe.clear();
+            hashSet.clear();
+        } else if (!diffListe.isEmpty()) {
+            // wenn nur ein Update
             logger.info("Liste Diff gelesen am: {}", new SimpleDateFormat("dd.MM.yyyy, HH:mm").format(new Date()));
             logger.info("  Liste Diff erstellt am: {}", diffListe.genDate());
             logger.info("  Anzahl Filme: {}", diffListe.size());
@@ -274,7 +296,8 @@ public class FilmeLaden {
             logger.info("  Anzahl Filme: {}", daten.getListeFilme().size());
         }
 
-        findAndMarkNewFilms(daten.getListeFilme());
+        if (!event.unveraendert)
+            findAndMarkNewFilms(daten.getListeFilme());
 
         final boolean writeFilmList;
         final var listeFilme = daten.getListeFilme();
@@ -302,7 +325,7 @@ public class FilmeLaden {
 
             writeFilmList = false;
         } else {
-            writeFilmList = !Daten.dontWriteFilmlistOnStartup.get();
+            writeFilmList = !event.unveraendert && !Daten.dontWriteFilmlistOnStartup.get();
         }
 
         logger.info("");
@@ -1,5 +1,5 @@
 package mediathek.filmlisten;
 
 interface IAction {
-    void onFinished(boolean ok);
+    void onFinished(FilmListDownloadResult result);
 }
@@ -3,5 +3,8 @@ package mediathek.filmlisten;
 import mediathek.daten.ListeFilme;
 
 interface IDownloadAction {
-    boolean performDownload(String dateiUrl, ListeFilme listeFilme, int days);
+    /**
+     * @param localListId id of the current local film list, a web download is conditional if it is known. May be null.
+     */
+    FilmListDownloadResult performDownload(String dateiUrl, ListeFilme listeFilme, int days, String localListId);
 }
@@ -19,6 +19,7 @@
  */
 package mediathek.filmlisten;
 
+import mediathek.config.Daten;
 import mediathek.daten.ListeFilme;
 import mediathek.filmeSuchen.ListenerFilmeLaden;
 import mediathek.filmeSuchen.ListenerFilmeLadenEvent;
@@ -78,14 +79,18 @@ public class ImportFilmliste {
         listeners.add(ListenerFilmeLaden.class, listener);
     }
 
-    private boolean urlLaden(String dateiUrl, ListeFilme listeFilme, int days) {
-        boolean ret = false;
+    private FilmListDownloadResult urlLaden(String dateiUrl, ListeFilme listeFilme, int days, String localListId) {
+        FilmListDownloadResult ret = FilmListDownloadResult.FAILED;
         try {
             if (!dateiUrl.isEmpty()) {
                 logger.trace("Filmliste laden von: {}", dateiUrl);
-                msFilmListReader.readFilmListe(dateiUrl, listeFilme, days);
-                if (!listeFilme.isEmpty()) {
-                    ret = true;
+                // nur die Hauptliste wird schon während des Ladens angezeigt, eine Diff-Liste nicht
+                msFilmListReader.setPublishSnapshots(listeFilme == Daten.getInstance().getListeFilme());
+                msFilmListReader.readFilmListe(dateiUrl, listeFilme, days, localListId);
+                if (msFilmListReader.isNotModified()) {
+                    ret = FilmListDownloadResult.NOT_MODIFIED;
+                } else if (!listeFilme.isEmpty()) {
+                    ret = FilmListDownloadResult.LOADED;
                 }
             }
         } catch (Exception ex) {
@@ -94,9 +99,11 @@ public class ImportFilmliste {
         return ret;
     }
 
-    private synchronized void fertigMelden(boolean ok) {
+    private synchronized void fertigMelden(FilmListDownloadResult result) {
+        final ListenerFilmeLadenEvent event = new ListenerFilmeLadenEvent("", "", 0, 0, 0, result == FilmListDownloadResult.FAILED);
+        event.unveraendert = result == FilmListDownloadResult.NOT_MODIFIED;
         for (ListenerFilmeLaden l : listeners.getListeners(ListenerFilmeLaden.class)) {
-            l.fertig(new ListenerFilmeLadenEvent("", "", 0, 0, 0, !ok));
+            l.fertig(event);
         }
     }
 }
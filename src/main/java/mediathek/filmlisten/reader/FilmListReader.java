@@ -4,12 +4,16 @@ import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.google.common.base.Stopwatch;
+import mediathek.config.Daten;
 import mediathek.config.Konstanten;
 import mediathek.daten.DatenFilm;
+import mediathek.daten.FilmDatabaseWriter;
 import mediathek.daten.ListeFilme;
 import mediathek.filmeSuchen.ListenerFilmeLaden;
 import mediathek.filmeSuchen.ListenerFilmeLadenEvent;
+import mediathek.gui.messages.FilmListSnapshotEvent;
 import mediathek.tool.*;
+import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
@@ -29,18 +33,32 @@ import java.net.URL;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.*;
-import java.util.Date;
-import java.util.EnumSet;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
 
 public class FilmListReader implements AutoCloseable {
     private static final int PROGRESS_MAX = 100;
     private static final Logger logger = LogManager.getLogger(FilmListReader.class);
     private static final String THEMA_LIVE = "Livestream";
+    private static final int HTTP_NOT_MODIFIED = 304;
+    /**
+     * Number of films after which a snapshot of the growing list is published.
+     */
+    private static final int SNAPSHOT_CHUNK_SIZE = 50_000;
+    /**
+     * Incremented at start and end of every load which publishes snapshots.
+     */
+    private static final AtomicLong snapshotGeneration = new AtomicLong();
     private final EventListenerList listeners = new EventListenerList();
     private final ListenerFilmeLadenEvent progressEvent = new ListenerFilmeLadenEvent("", "Download", 0, 0, 0, false);
     private final int max;
-    private final TrailerTeaserChecker ttc = new TrailerTeaserChecker();
+    /**
+     * Client and validators of the web download, the application wide instances if null.
+     */
+    private final OkHttpClient httpClient;
+    private final FilmListValidators validators;
     /**
      * Memory limit for the xz decompressor. No limit by default.
      */
@@ -49,9 +67,48 @@ public class FilmListReader implements AutoCloseable {
     private long milliseconds = 0;
     private String sender = "";
     private String thema = "";
+    private boolean notModified = false;
+    private boolean publishSnapshots = false;
 
     public FilmListReader() {
+        this(null, null);
+    }
+
+    /**
+     * Reader with its own http client and validators, e.g. for tests against a stub server.
+     */
+    FilmListReader(OkHttpClient httpClient, FilmListValidators validators) {
         max = PROGRESS_MAX;
+        this.httpClient = httpClient;
+        this.validators = validators;
+    }
+
+    private OkHttpClient getHttpClient() {
+        return httpClient != null ? httpClient : MVHttpClient.getInstance().getHttpClient();
+    }
+
+    private FilmListValidators getValidators() {
+        return validators != null ? validators : FilmListValidators.getInstance();
+    }
+
+    /**
+     * @return true if no snapshot-publishing load started or finished since the snapshot was taken.
+     */
+    public static boolean isCurrentSnapshot(FilmListSnapshotEvent event) {
+        return event.generation == snapshotGeneration.get();
+    }
+
+    /**
+     * Publish {@link FilmListSnapshotEvent}s while reading so that the UI can be filled before the load has finished.
+     * Only useful for the main film list.
+     */
+    public void setPublishSnapshots(boolean publishSnapshots) {
+        this.publishSnapshots = publishSnapshots;
+    }
+
+    private void publishSnapshot(ListeFilme listeFilme, long generation) {
+        final List<DatenFilm> snapshot = Collections.unmodifiableList(new ArrayList<>(listeFilme));
+        Daten.getInstance().getMessageBus().publishAsync(new FilmListSnapshotEvent(snapshot, generation));
     }
 
     public void addAdListener(ListenerFilmeLaden listener) {
@@ -76,6 +133,10 @@ public class FilmListReader implements AutoCloseable {
                 is = new XZInputStream(in, DECOMPRESSOR_MEMORY_LIMIT, false);
                 break;
 
+            case Konstanten.FORMAT_GZ:
+                is = new GZIPInputStream(in, 64 * 1024);
+                break;
+
             case ".json":
                 is = in;
                 break;
@@ -197,33 +258,17 @@ public class FilmListReader implements AutoCloseable {
         datenFilm.arr[DatenFilm.FILM_ZEIT] = zeit;
     }
 
-    /**
-     * Check if the title contains keywords which specify an audio version
-     */
-    private void parseAudioVersion(String title, DatenFilm film) {
-        if (title.contains("Hörfassung") || title.contains("Audiodeskription")
-                || title.contains("AD |") || title.endsWith("(AD)"))
-            film.setAudioVersion(true);
-    }
-
-    private void parseSignLanguage(String title, DatenFilm film) {
-        if (title.contains("Gebärden"))
-            film.setSignLanguage(true);
-    }
-
-    private void parseTrailerTeaser(String title, DatenFilm film) {
-        if (ttc.check(title))
-            film.setTrailerTeaser(true);
-    }
-
     private void parseTitel(JsonParser jp, DatenFilm datenFilm) throws IOException {
         final String title = checkedString(jp);
         datenFilm.setTitle(title);
-        //check title if it is audio version
-        parseAudioVersion(title, datenFilm);
-        //check if it is in sign language
-        parseSignLanguage(title, datenFilm);
-        parseTrailerTeaser(title, datenFilm);
+        //check title for audio version, sign language and trailer in one pass
+        final int flags = TitleClassifier.classify(title);
+        if ((flags & TitleClassifier.AUDIO_VERSION) != 0)
+            datenFilm.setAudioVersion(true);
+        if ((flags & TitleClassifier.SIGN_LANGUAGE) != 0)
+            datenFilm.setSignLanguage(true);
+        if ((flags & TitleClassifier.TRAILER_TEASER) != 0)
+            datenFilm.setTrailerTeaser(true);
     }
 
     private void parseUrl(JsonParser jp, DatenFilm datenFilm) throws IOException {
@@ -251,6 +296,8 @@ public class FilmListReader implements AutoCloseable {
         final boolean loadTrailer = config.getBoolean(ApplicationConfiguration.FILMLIST_LOAD_TRAILER, true);
         final boolean loadAudiodescription = config.getBoolean(ApplicationConfiguration.FILMLIST_LOAD_AUDIODESCRIPTION, true);
         final boolean loadSignLanguage = config.getBoolean(ApplicationConfiguration.FILMLIST_LOAD_SIGNLANGUAGE, true);
+        final long generation = publishSnapshots ? snapshotGeneration.incrementAndGet() : 0;
+        int nextSnapshot = SNAPSHOT_CHUNK_SIZE;
 
         while ((jsonToken = jp.nextToken()) != null) {
             if (jsonToken == JsonToken.END_OBJECT) {
@@ -306,6 +353,11 @@ public class FilmListReader implements AutoCloseable {
                         listeFilme.remove(datenFilm);
                     }
                 }
+
+                if (publishSnapshots && listeFilme.size() >= nextSnapshot) {
+                    publishSnapshot(listeFilme, generation);
+                    nextSnapshot += SNAPSHOT_CHUNK_SIZE;
+                }
             }
         }
 
@@ -322,9 +374,24 @@ public class FilmListReader implements AutoCloseable {
     }
 
     public void readFilmListe(String source, final ListeFilme listeFilme, int days) {
-        try {
+        readFilmListe(source, listeFilme, days, null);
+    }
+
+    /**
+     * Read a film list from file or web.
+     * For web sources the request is conditional if we still have the list which the last download of source produced.
+     * If the server answers with 304 listeFilme is not touched and {@link #isNotModified()} returns true.
+     *
+     * @param source      file path or url
+     * @param listeFilme  the list to read to
+     * @param days        only read films of the last days, 0 for all
+     * @param localListId id of the current local film list, may be null
+     */
+    public void readFilmListe(String source, final ListeFilme listeFilme, int days, String localListId) {
+        notModified = false;
+        // bei wenig Speicher werden die Filme blockweise in die Datenbank geschrieben, die Indizes danach erstellt
+        try (FilmDatabaseWriter ignored = MemoryGovernor.getInstance().isLowMemory() ? FilmDatabaseWriter.begin() : null) {
             logger.trace("Liste Filme lesen von: {}", source);
-            listeFilme.clear();
 
             notifyStart(source); // für die Progressanzeige
 
@@ -332,16 +399,19 @@ public class FilmListReader implements AutoCloseable {
 
             if (source.startsWith("http")) {
                 final URL sourceUrl = new URL(source);
-                processFromWeb(sourceUrl, listeFilme);
-            } else
+                processFromWeb(sourceUrl, listeFilme, localListId);
+            } else {
+                listeFilme.clear();
                 processFromFile(source, listeFilme);
+            }
 
         } catch (MalformedURLException ex) {
             logger.warn(ex);
         }
 
-        if (MemoryUtils.isLowMemoryEnvironment())
-            DatenFilm.Database.createIndices();
+        // alle noch ausstehenden Snapshots sind damit veraltet
+        if (publishSnapshots)
+            snapshotGeneration.incrementAndGet();
 
         notifyFertig(source, listeFilme);
     }
@@ -394,35 +464,54 @@ public class FilmListReader implements AutoCloseable {
      * @param source     source url as string
      * @param listeFilme the list to read to
      */
-    private void processFromWeb(URL source, ListeFilme listeFilme) {
+    private void processFromWeb(URL source, ListeFilme listeFilme, String localListId) {
         final String clientId = Konstanten.MVVERSION.toString() + "," + SystemUtils.OS_ARCH + "," + SystemUtils.OS_NAME + "," + SystemUtils.OS_VERSION;
+        final String url = source.toString();
+        final FilmListValidators validators = getValidators();
 
-        final Request request = new Request.Builder()
+        final Request.Builder builder = new Request.Builder()
                 .url(source)
                 .header("MV-Client", clientId)
-                .get()
-                .build();
+                .get();
+        final boolean conditional = validators.addConditionalHeaders(builder, url, localListId);
+        if (!conditional)
+            listeFilme.clear();
 
-        try (Response response = MVHttpClient.getInstance().getHttpClient().newCall(request).execute();
+        try (Response response = getHttpClient().newCall(builder.build()).execute();
              ResponseBody body = response.body()) {
-            if (response.isSuccessful() && body != null) {
+            if (response.code() == HTTP_NOT_MODIFIED) {
+                logger.info("Filmliste nicht verändert: {}", url);
+                notModified = true;
+            } else if (response.isSuccessful() && body != null) {
+                listeFilme.clear();
                 final var endRequest = response.request();
                 logger.trace("Final Endpoint URL for filmlist: {}", endRequest.url().toString());
-                ProgressMonitor monitor = new ProgressMonitor(source.toString());
+                ProgressMonitor monitor = new ProgressMonitor(url);
                 try (InputStream input = new ProgressMonitorInputStream(body.byteStream(), body.contentLength(), monitor);
-                     InputStream is = selectDecompressor(source.toString(), input);
+                     InputStream is = selectDecompressor(url, input);
                      JsonParser jp = new JsonFactory().createParser(is)) {
                     readData(jp, listeFilme);
                 }
-            } else
+                validators.update(url, response, listeFilme.getId());
+            } else {
                 logger.warn("processFromWeb HTTP Response Code: {} for {}", response.code(), response.request().url().url());
+                listeFilme.clear();
+            }
 
         } catch (Exception ex) {
             logger.error("FilmListe: {}", source, ex);
             listeFilme.clear();
+            validators.remove(url);
         }
     }
 
+    /**
+     * @return true if the last {@link #readFilmListe(String, ListeFilme, int, String)} got a 304 and the local list is still current.
+     */
+    public boolean isNotModified() {
+        return notModified;
+    }
+
     /**
      *
      * @param film film to be checked.
@@ -0,0 +1,140 @@
+package mediathek.filmlisten.reader;
+
+import mediathek.config.Daten;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * HTTP validators (ETag, Last-Modified) of the last downloaded film lists.
+ * They are stored next to the local film list together with the id of the list which resulted from the download.
+ * Only if the local list still has this id we can send a conditional request, an unchanged list then costs a single 304.
+ */
+public class FilmListValidators {
+    public static final String FILE_NAME = "filmliste.validators";
+    private static final Logger logger = LogManager.getLogger(FilmListValidators.class);
+    private static final String ETAG = ".etag";
+    private static final String LAST_MODIFIED = ".lastModified";
+    private static final String LIST_ID = ".listId";
+    private final Path file;
+    private final Properties properties = new Properties();
+
+    /**
+     * @param file the file in which the validators are stored.
+     */
+    public FilmListValidators(@NotNull Path file) {
+        this.file = file;
+        load();
+    }
+
+    public static FilmListValidators getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private void load() {
+        try (InputStream is = Files.newInputStream(file)) {
+            properties.load(is);
+        } catch (NoSuchFileException ignored) {
+        } catch (IOException e) {
+            logger.warn("Could not read film list validators", e);
+        }
+    }
+
+    private void store() {
+        try {
+            final Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream os = Files.newOutputStream(tmp)) {
+                properties.store(os, null);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Could not write film list validators", e);
+        }
+    }
+
+    /**
+     * Add If-None-Match and If-Modified-Since to the request if we know the resource
+     * and the local list is still the one we got from it.
+     *
+     * @param builder     request under construction
+     * @param url         the requested film list url
+     * @param localListId id of the current local film list
+     * @return true if the request is conditional
+     */
+    public synchronized boolean addConditionalHeaders(@NotNull Request.Builder builder, @NotNull String url, String localListId) {
+        if (!isValidFor(url, localListId))
+            return false;
+
+        final String etag = properties.getProperty(url + ETAG);
+        if (etag != null)
+            builder.header("If-None-Match", etag);
+        final String lastModified = properties.getProperty(url + LAST_MODIFIED);
+        if (lastModified != null)
+            builder.header("If-Modified-Since", lastModified);
+
+        return etag != null || lastModified != null;
+    }
+
+    /**
+     * @return true if the stored validators of url belong to the local list.
+     */
+    public synchronized boolean isValidFor(@NotNull String url, String localListId) {
+        return localListId != null && !localListId.isEmpty()
+                && localListId.equals(properties.getProperty(url + LIST_ID));
+    }
+
+    /**
+     * Remember the validators of a successful download.
+     *
+     * @param url      the requested film list url
+     * @param response the response, its body must have been read completely
+     * @param listId   id of the local film list after processing the response
+     */
+    public synchronized void update(@NotNull String url, @NotNull Response response, String listId) {
+        final String etag = response.header("ETag");
+        final String lastModified = response.header("Last-Modified");
+        if ((etag == null && lastModified == null) || listId == null || listId.isEmpty()) {
+            remove(url);
+            return;
+        }
+
+        setOrRemove(url + ETAG, etag);
+        setOrRemove(url + LAST_MODIFIED, lastModified);
+        properties.setProperty(url + LIST_ID, listId);
+        store();
+    }
+
+    /**
+     * The local list has changed in a way the validators of url don´t cover anymore.
+     */
+    public synchronized void remove(@NotNull String url) {
+        if (properties.remove(url + LIST_ID) != null) {
+            properties.remove(url + ETAG);
+            properties.remove(url + LAST_MODIFIED);
+            store();
+        }
+    }
+
+    private void setOrRemove(String key, String value) {
+        if (value == null)
+            properties.remove(key);
+        else
+            properties.setProperty(key, value);
+    }
+
+    private static class Holder {
+        private static final FilmListValidators INSTANCE = new FilmListValidators(Paths.get(Daten.getDateiFilmliste()).resolveSibling(FILE_NAME));
+    }
+}
@@ -3,37 +3,66 @@ package mediathek.filmlisten.writer;
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import mediathek.config.Daten;
+import mediathek.config.Konstanten;
 import mediathek.daten.DatenFilm;
+import mediathek.daten.FilmDescriptionProvider;
 import mediathek.daten.ListeFilme;
 import mediathek.gui.messages.FilmListWriteStartEvent;
 import mediathek.gui.messages.FilmListWriteStopEvent;
 import mediathek.tool.ApplicationConfiguration;
+import mediathek.tool.MemoryGovernor;
 import org.apache.commons.lang3.SystemUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.IOException;
-import java.io.OutputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import org.tukaani.xz.ArrayCache;
+import org.tukaani.xz.BasicArrayCache;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZOutputStream;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a film list as JSON, compressed with xz or gzip depending on the file suffix.
+ * <p>
+ * The films are serialized and compressed in chunks on worker threads and written in order.
+ * The xz encoders reuse their buffers from chunk to chunk and only as many run in parallel as the heap allows.
+ * Every compressed chunk is a complete xz stream resp. gzip member, concatenated streams are valid files
+ * and are read by {@link org.tukaani.xz.XZInputStream} and {@link java.util.zip.GZIPInputStream}.
+ * The file is written to a temporary file first and then moved over the target, a crash while writing
+ * does not destroy the old list.
+ */
 public class FilmListWriter {
 
     private static final Logger logger = LogManager.getLogger(FilmListWriter.class);
     private static final String TAG_JSON_LIST = "X";
-    private String sender = "";
-    private String thema = "";
-
-    private JsonGenerator getJsonGenerator(OutputStream os) throws IOException {
-        final JsonFactory jsonF = new JsonFactory();
-        JsonGenerator jg = jsonF.createGenerator(os, JsonEncoding.UTF8);
+    /**
+     * Number of films which are serialized and compressed together.
+     */
+    private static final int CHUNK_SIZE = 10_000;
+    /**
+     * Dictionary size for the xz chunks, a chunk is only a few MB so a bigger dictionary doesn´t help.
+     */
+    private static final int XZ_DICT_SIZE = 4 * 1024 * 1024;
+    /**
+     * Part of the heap the parallel xz encoders may use together.
+     */
+    private static final int XZ_HEAP_SHARE = 8;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private long bytesWritten;
 
-        final boolean readable = ApplicationConfiguration.getConfiguration().getBoolean(ApplicationConfiguration.FILMLISTE_SAVE_HUMAN_READABLE, false);
+    private JsonGenerator getJsonGenerator(OutputStream os, boolean readable) throws IOException {
+        JsonGenerator jg = jsonFactory.createGenerator(os, JsonEncoding.UTF8);
         if (readable)
             jg = jg.useDefaultPrettyPrinter();
 
@@ -63,127 +92,201 @@ public class FilmListWriter {
         jg.writeEndArray();
     }
 
+    /**
+     * @return the number of bytes written by the last {@link #writeFilmList(String, ListeFilme, IProgressListener)}.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
     public void writeFilmList(String datei, ListeFilme listeFilme, IProgressListener listener) {
         Daten.getInstance().getMessageBus().publishAsync(new FilmListWriteStartEvent());
 
+        bytesWritten = 0;
+        final Path filePath = Paths.get(datei);
+        final Path tempPath = filePath.resolveSibling(filePath.getFileName() + ".tmp");
         try {
             logger.info("Filme schreiben ({} Filme) :", listeFilme.size());
             logger.info("   --> Start Schreiben nach: {}", datei);
 
-            sender = "";
-            thema = "";
-
             //Check if Cache directory exists on OSX
             if (SystemUtils.IS_OS_MAC_OSX) {
                 checkOsxCacheDirectory();
             }
 
+            final long start = System.nanoTime();
+            final Codec codec = Codec.of(datei);
+            final boolean readable = ApplicationConfiguration.getConfiguration().getBoolean(ApplicationConfiguration.FILMLISTE_SAVE_HUMAN_READABLE, false);
+            final DatenFilm[] films = listeFilme.toArray(new DatenFilm[0]);
+
+            try (OutputStream fos = Files.newOutputStream(tempPath);
+                 CountingOutputStream cos = new CountingOutputStream(fos);
+                 BufferedOutputStream bos = new BufferedOutputStream(cos, 64 * 1024)) {
+                if (readable) {
+                    // der PrettyPrinter rückt über Chunkgrenzen hinweg ein
+                    writeSequential(bos, codec, listeFilme, films, listener);
+                } else
+                    writeParallel(bos, codec, listeFilme, films, listener);
+                bos.flush();
+                bytesWritten = cos.count;
+            }
+            moveAtomically(tempPath, filePath);
 
-            Path filePath = Paths.get(datei);
-            Files.deleteIfExists(filePath);
-            long start = System.nanoTime();
-
-            try (OutputStream fos = Files.newOutputStream(filePath);
-                 BufferedOutputStream bos = new BufferedOutputStream(fos, 64 * 1024);
-                 JsonGenerator jg = getJsonGenerator(bos)) {
-
-                jg.writeStartObject();
-
-                writeFormatHeader(jg, listeFilme);
-                writeFormatDescription(jg);
-
-                final long filmEntries = listeFilme.size();
-                double curEntry = 0d;
-
-                for (DatenFilm datenFilm : listeFilme) {
-                    writeEntry(datenFilm, jg);
-                    if (listener != null) {
-                        listener.progress(curEntry / filmEntries);
-                        curEntry++;
-                    }
-                }
-                jg.writeEndObject();
-
-                if (listener != null)
-                    listener.progress(1d);
-
-                long end = System.nanoTime();
+            if (listener != null)
+                listener.progress(1d);
 
-                logger.info("   --> geschrieben!");
-                logger.info("Write duration: {} ms", TimeUnit.MILLISECONDS.convert(end - start, TimeUnit.NANOSECONDS));
-            }
+            final long duration = TimeUnit.MILLISECONDS.convert(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            logger.info("   --> geschrieben!");
+            logger.info("Write duration: {} ms, {} bytes", duration, bytesWritten);
         } catch (Exception ex) {
             logger.error("nach: {}", datei, ex);
+            try {
+                Files.deleteIfExists(tempPath);
+            } catch (IOException ignored) {
+            }
         }
 
         Daten.getInstance().getMessageBus().publishAsync(new FilmListWriteStopEvent());
     }
 
-    private void writeEntry(DatenFilm datenFilm, JsonGenerator jg) throws IOException {
-        jg.writeArrayFieldStart(TAG_JSON_LIST);
-
-        writeSender(jg, datenFilm);
-        writeThema(jg, datenFilm);
-        writeTitel(jg, datenFilm);
-        jg.writeString(datenFilm.getSendeDatum());
-        writeZeit(jg, datenFilm);
-        jg.writeString(datenFilm.arr[DatenFilm.FILM_DAUER]);
-        jg.writeString(datenFilm.arr[DatenFilm.FILM_GROESSE]);
-        jg.writeString(datenFilm.getDescription());
-        jg.writeString(datenFilm.getUrl());
-        jg.writeString(datenFilm.getWebsiteLink());
-        jg.writeString(datenFilm.getUrlSubtitle());
-        skipEntry(jg); //DatenFilm.FILM_URL_RTMP
-        jg.writeString(datenFilm.arr[DatenFilm.FILM_URL_KLEIN]);
-        skipEntry(jg); //DatenFilm.URL_RTMP_KLEIN
-        jg.writeString(datenFilm.arr[DatenFilm.FILM_URL_HD]);
-        skipEntry(jg); //DatenFilm.FILM_URL_RTMP_HD
-        jg.writeString(datenFilm.arr[DatenFilm.FILM_DATUM_LONG]);
-        skipEntry(jg); //DatenFilm.FILM_URL_HISTORY
-        jg.writeString(datenFilm.getGeo());
-        jg.writeString(Boolean.toString(datenFilm.isNew()));
+    private void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
 
-        jg.writeEndArray();
+    private void writeSequential(OutputStream os, Codec codec, ListeFilme listeFilme, DatenFilm[] films,
+                                 IProgressListener listener) throws IOException {
+        try (OutputStream cos = codec.wrap(new NonClosingOutputStream(os), ArrayCache.getDefaultCache());
+             JsonGenerator jg = getJsonGenerator(cos, true)) {
+            jg.writeStartObject();
+
+            writeFormatHeader(jg, listeFilme);
+            writeFormatDescription(jg);
+
+            final EntryWriter entryWriter = new EntryWriter("", "");
+            for (int i = 0; i < films.length; i++) {
+                prefetchDescriptions(films, i, films.length);
+                entryWriter.write(films[i], jg);
+                if (listener != null)
+                    listener.progress((double) i / films.length);
+            }
+            jg.writeEndObject();
+        }
     }
 
-    private void skipEntry(JsonGenerator jg) throws IOException {
-        jg.writeString("");
+    /**
+     * In low memory mode description and website link are in the database, load them for the next films with
+     * one query. Only a small batch is loaded at a time, so parallel chunks don´t push each other out of the cache.
+     *
+     * @param index the film which is written next
+     * @param end   end of the films which are written in this run
+     */
+    private static void prefetchDescriptions(DatenFilm[] films, int index, int end) {
+        if (index % FilmDescriptionProvider.BATCH_SIZE == 0) {
+            final int to = Math.min(index + FilmDescriptionProvider.BATCH_SIZE, end);
+            FilmDescriptionProvider.getInstance().prefetch(Arrays.asList(films).subList(index, to));
+        }
     }
 
-    private void writeTitel(JsonGenerator jg, DatenFilm datenFilm) throws IOException {
-        jg.writeString(datenFilm.getTitle());
+    /**
+     * Every xz encoder needs about ten times its dictionary size, together they may only use a part of the heap.
+     *
+     * @return the number of chunks which are compressed at the same time.
+     */
+    private static int getThreadCount(Codec codec) throws IOException {
+        if (MemoryGovernor.getInstance().isLowMemory())
+            return 1;
+
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        if (codec == Codec.XZ) {
+            final long encoderBytes = 1024L * Codec.getXzOptions().getEncoderMemoryUsage();
+            final long maxEncoders = Runtime.getRuntime().maxMemory() / XZ_HEAP_SHARE / encoderBytes;
+            threads = (int) Math.max(1, Math.min(threads, maxEncoders));
+        }
+        return threads;
     }
 
-    private void writeSender(JsonGenerator jg, DatenFilm datenFilm) throws IOException {
-        String tempSender = datenFilm.getSender();
+    /**
+     * Serialize and compress chunks on worker threads, the results are written in order.
+     * Only a few chunks are in flight so the memory usage stays bounded.
+     */
+    private void writeParallel(OutputStream os, Codec codec, ListeFilme listeFilme, DatenFilm[] films,
+                               IProgressListener listener) throws Exception {
+        final int threads = getThreadCount(codec);
+        // die Puffer eines fertigen Encoders übernimmt der nächste Chunk
+        final ArrayCache arrayCache = new BasicArrayCache();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+                .setNameFormat("FilmListWriter-%d")
+                .setDaemon(true)
+                .build());
+        try {
+            os.write(codec.compress(serializeHeader(listeFilme), arrayCache));
+
+            final ArrayDeque<Future<byte[]>> inFlight = new ArrayDeque<>();
+            int written = 0;
+            for (int from = 0; from < films.length; from += CHUNK_SIZE) {
+                final int chunkStart = from;
+                final int chunkEnd = Math.min(from + CHUNK_SIZE, films.length);
+                inFlight.add(executor.submit(() -> codec.compress(serializeChunk(films, chunkStart, chunkEnd), arrayCache)));
+
+                if (inFlight.size() > 2 * threads) {
+                    os.write(inFlight.poll().get());
+                    written += CHUNK_SIZE;
+                    if (listener != null)
+                        listener.progress((double) written / films.length);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                os.write(inFlight.poll().get());
+            }
 
-        if (tempSender.equals(sender)) {
-            jg.writeString("");
-        } else {
-            sender = tempSender;
-            jg.writeString(tempSender);
+            os.write(codec.compress(new byte[]{'}'}, arrayCache));
+        } finally {
+            executor.shutdownNow();
         }
     }
 
-    private void writeThema(JsonGenerator jg, DatenFilm datenFilm) throws IOException {
-        if (datenFilm.getThema().equals(thema)) {
-            jg.writeString("");
-        } else {
-            thema = datenFilm.getThema();
-            jg.writeString(datenFilm.getThema());
+    /**
+     * @return the start of the object with header and field description, the object is not closed.
+     */
+    private byte[] serializeHeader(ListeFilme listeFilme) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (JsonGenerator jg = getJsonGenerator(baos, false)) {
+            jg.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            jg.writeStartObject();
+            writeFormatHeader(jg, listeFilme);
+            writeFormatDescription(jg);
         }
+        return baos.toByteArray();
     }
 
-    private void writeZeit(JsonGenerator jg, DatenFilm datenFilm) throws IOException {
-        String strZeit = datenFilm.arr[DatenFilm.FILM_ZEIT];
-        final int len = strZeit.length();
-
-        if (strZeit.isEmpty() || len < 8)
-            jg.writeString("");
-        else {
-            strZeit = strZeit.substring(0, len - 3);
-            jg.writeString(strZeit);
+    /**
+     * Serialize the films of one chunk as they would appear in the complete object, including the leading separator.
+     * Sender and thema are only written if they differ from the previous film, this also applies over chunk borders.
+     */
+    private byte[] serializeChunk(DatenFilm[] films, int from, int to) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream(to - from > 0 ? (to - from) * 512 : 32);
+        final EntryWriter entryWriter = from == 0
+                ? new EntryWriter("", "")
+                : new EntryWriter(films[from - 1].getSender(), films[from - 1].getThema());
+        try (JsonGenerator jg = getJsonGenerator(baos, false)) {
+            jg.writeStartObject();
+            for (int i = from; i < to; i++) {
+                prefetchDescriptions(films, i, to);
+                entryWriter.write(films[i], jg);
+            }
+            jg.writeEndObject();
         }
+
+        // "{...}" -> ",..."
+        final byte[] object = baos.toByteArray();
+        object[0] = ',';
+        final byte[] chunk = new byte[object.length - 1];
+        System.arraycopy(object, 0, chunk, 0, chunk.length);
+        return chunk;
     }
 
     /**
@@ -200,4 +303,178 @@ public class FilmListWriter {
     public interface IProgressListener {
         void progress(double current);
     }
+
+    /**
+     * Compression selected by the file suffix.
+     * gzip is much faster than xz and meant for the local film list, xz is the format of the distributed lists.
+     */
+    private enum Codec {
+        NONE, XZ, GZIP;
+
+        static Codec of(String datei) {
+            if (datei.endsWith(Konstanten.FORMAT_XZ))
+                return XZ;
+            else if (datei.endsWith(Konstanten.FORMAT_GZ))
+                return GZIP;
+            else
+                return NONE;
+        }
+
+        static LZMA2Options getXzOptions() throws IOException {
+            final LZMA2Options options = new LZMA2Options();
+            options.setDictSize(XZ_DICT_SIZE);
+            return options;
+        }
+
+        /**
+         * @param arrayCache the xz encoder takes its buffers from here and returns them when it is closed
+         */
+        OutputStream wrap(OutputStream os, ArrayCache arrayCache) throws IOException {
+            switch (this) {
+                case XZ:
+                    return new XZOutputStream(os, getXzOptions(), arrayCache);
+                case GZIP:
+                    return new GZIPOutputStream(os, 64 * 1024) {
+                        {
+                            def.setLevel(Deflater.BEST_SPEED);
+                        }
+                    };
+                default:
+                    return os;
+            }
+        }
+
+        /**
+         * @return data as complete stream of this codec.
+         */
+        byte[] compress(byte[] data, ArrayCache arrayCache) throws IOException {
+            if (this == NONE)
+                return data;
+
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream(data.length / 4 + 64);
+            try (OutputStream os = wrap(baos, arrayCache)) {
+                os.write(data);
+            }
+            return baos.toByteArray();
+        }
+    }
+
+    /**
+     * Writes the entries, remembers sender and thema of the previous film.
+     */
+    private static class EntryWriter {
+        private String sender;
+        private String thema;
+
+        EntryWriter(String sender, String thema) {
+            this.sender = sender;
+            this.thema = thema;
+        }
+
+        void write(DatenFilm datenFilm, JsonGenerator jg) throws IOException {
+            jg.writeArrayFieldStart(TAG_JSON_LIST);
+
+            writeSender(jg, datenFilm);
+            writeThema(jg, datenFilm);
+            writeTitel(jg, datenFilm);
+            jg.writeString(datenFilm.getSendeDatum());
+            writeZeit(jg, datenFilm);
+            jg.writeString(datenFilm.arr[DatenFilm.FILM_DAUER]);
+            jg.writeString(datenFilm.arr[DatenFilm.FILM_GROESSE]);
+            jg.writeString(datenFilm.getDescription());
+            jg.writeString(datenFilm.getUrl());
+            jg.writeString(datenFilm.getWebsiteLink());
+            jg.writeString(datenFilm.getUrlSubtitle());
+            skipEntry(jg); //DatenFilm.FILM_URL_RTMP
+            jg.writeString(datenFilm.arr[DatenFilm.FILM_URL_KLEIN]);
+            skipEntry(jg); //DatenFilm.URL_RTMP_KLEIN
+            jg.writeString(datenFilm.arr[DatenFilm.FILM_URL_HD]);
+            skipEntry(jg); //DatenFilm.FILM_URL_RTMP_HD
+            jg.writeString(datenFilm.arr[DatenFilm.FILM_DATUM_LONG]);
+            skipEntry(jg); //DatenFilm.FILM_URL_HISTORY
+            jg.writeString(datenFilm.getGeo());
+            jg.writeString(Boolean.toString(datenFilm.isNew()));
+
+            jg.writeEndArray();
+        }
+
+        private void skipEntry(JsonGenerator jg) throws IOException {
+            jg.writeString("");
+        }
+
+        private void writeTitel(JsonGenerator jg, DatenFilm datenFilm) throws IOException {
+            jg.writeString(datenFilm.getTitle());
+        }
+
+        private void writeSender(JsonGenerator jg, DatenFilm datenFilm) throws IOException {
+            String tempSender = datenFilm.getSender();
+
+            if (tempSender.equals(sender)) {
+                jg.writeString("");
+            } else {
+                sender = tempSender;
+                jg.writeString(tempSender);
+            }
+        }
+
+        private void writeThema(JsonGenerator jg, DatenFilm datenFilm) throws IOException {
+            if (datenFilm.getThema().equals(thema)) {
+                jg.writeString("");
+            } else {
+                thema = datenFilm.getThema();
+                jg.writeString(datenFilm.getThema());
+            }
+        }
+
+        private void writeZeit(JsonGenerator jg, DatenFilm datenFilm) throws IOException {
+            String strZeit = datenFilm.arr[DatenFilm.FILM_ZEIT];
+            final int len = strZeit.length();
+
+            if (strZeit.isEmpty() || len < 8)
+                jg.writeString("");
+            else {
+                strZeit = strZeit.substring(0, len - 3);
+                jg.writeString(strZeit);
+            }
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    /**
+     * The codec streams close their target, the file stream is closed by the caller.
+     */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
 }
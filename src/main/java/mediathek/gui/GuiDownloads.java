@@ -18,6 +18,7 @@ import mediathek.daten.DatenAbo;
 import mediathek.daten.DatenDownload;
 import mediathek.daten.DatenFilm;
 import mediathek.daten.DatenPset;
+import mediathek.daten.DownloadStartInfo;
 import mediathek.filmeSuchen.ListenerFilmeLaden;
 import mediathek.filmeSuchen.ListenerFilmeLadenEvent;
 import mediathek.gui.actions.ShowFilmInformationAction;
@@ -317,14 +318,9 @@ public class GuiDownloads extends AGuiTabPanel {
         }
     }
 
-    @Handler
-    private void handleDownloadInfoUpdate(DownloadInfoUpdateAvailableEvent e) {
-        if (tabVisible.get()) {
-            SwingUtilities.invokeLater(() -> {
-                if (txtDownload.isShowing())
-                    setInfoText();
-            });
-        }
+    private void updateInfoText() {
+        if (tabVisible.get() && txtDownload.isShowing())
+            setInfoText();
     }
 
     private void setupDownloadRateLimitSpinner() {
@@ -646,7 +642,8 @@ public class GuiDownloads extends AGuiTabPanel {
     }
 
     private void setInfoText() {
-        if (daten.getListeDownloads().getStarts().total_starts == 0) {
+        final var downloadInfos = daten.getDownloadInfos().getStatistics();
+        if (downloadInfos.getStarts().total_starts == 0) {
             txtDownload.setText("");
             return;
         }
@@ -654,9 +651,8 @@ public class GuiDownloads extends AGuiTabPanel {
         String info = HEAD;
 
         // Downloads
-        info += getInfoText();
+        info += getInfoText(downloadInfos.getStarts());
 
-        final var downloadInfos = daten.getDownloadInfos();
         // Größe
         final long byteAlleDownloads = downloadInfos.getByteAlleDownloads();
         final long byteAktDownloads = downloadInfos.getByteAktDownloads();
@@ -690,9 +686,8 @@ public class GuiDownloads extends AGuiTabPanel {
         txtDownload.setText(info);
     }
 
-    private String getInfoText() {
+    private String getInfoText(DownloadStartInfo info) {
         String textLinks;
-        final var info = daten.getListeDownloads().getStarts();
         textLinks = "<span class=\"sans\"><b>Downloads:  </b>" + info.total_starts + "<br />";
 
         if (info.hasValues()) {
@@ -713,19 +708,17 @@ public class GuiDownloads extends AGuiTabPanel {
 
     @Handler
     private void handleRestartDownloadEvent(RestartDownloadEvent e) {
-        reloadAndSave();
+        reloadTableLater();
     }
 
     @Handler
     private void handleDownloadQueueRankChanged(DownloadQueueRankChangedEvent e) {
-        reloadAndSave();
+        reloadTableLater();
     }
 
-    private void reloadAndSave() {
-        SwingUtilities.invokeLater(() -> {
-            reloadTable();
-            daten.allesSpeichern();
-        });
+    private void reloadTableLater() {
+        // gespeichert wird vom ConfigSaver
+        SwingUtilities.invokeLater(this::reloadTable);
     }
 
     @Handler
@@ -738,15 +731,15 @@ public class GuiDownloads extends AGuiTabPanel {
 
     @Handler
     private void handleDownloadListChange(DownloadListChangedEvent e) {
-        SwingUtilities.invokeLater(() -> {
-            reloadTable();
-            daten.allesSpeichern();
-        });
+        reloadTableLater();
     }
 
     private void addListenerMediathekView() {
         //register message bus handler
         daten.getMessageBus().subscribe(this);
+        // die häufigen Ereignisse kommen nicht über den Nachrichtenbus
+        daten.getDownloadProgressChannel().subscribe(EventChannel.Dispatch.SWING, e -> updateProgress());
+        daten.getDownloadInfoChannel().subscribe(EventChannel.Dispatch.SWING, e -> updateInfoText());
 
         Listener.addListener(new Listener(Listener.EREIGNIS_BLACKLIST_GEAENDERT, GuiDownloads.class.getSimpleName()) {
             @Override
@@ -771,13 +764,12 @@ public class GuiDownloads extends AGuiTabPanel {
         setupShowFilmDescriptionMenuItem();
     }
 
-    @Handler
-    private void handleDownloadProgressChanged(DownloadProgressChangedEvent e) {
+    private void updateProgress() {
         final long now = System.currentTimeMillis();
         // nur alle 500ms aufrufen
         if (now - _lastUpdate.get() >= 500) {
             _lastUpdate.set(now);
-            SwingUtilities.invokeLater(() -> daten.getListeDownloads().setModelProgress(model));
+            daten.getListeDownloads().setModelProgress(model);
         }
     }
 
@@ -915,7 +907,7 @@ public class GuiDownloads extends AGuiTabPanel {
         }
         boolean gestartet = false;
         if (datenDownload.start != null) {
-            if (datenDownload.start.status >= Start.STATUS_RUN) {
+            if (datenDownload.start.getStatus() >= Start.STATUS_RUN) {
                 gestartet = true;
             }
         }
@@ -961,7 +953,7 @@ public class GuiDownloads extends AGuiTabPanel {
         }
         // Download nur löschen wenn er nicht läuft
         if (datenDownload.start != null) {
-            if (datenDownload.start.status < Start.STATUS_FERTIG) {
+            if (datenDownload.start.getStatus() < Start.STATUS_FERTIG) {
                 MVMessageDialog.showMessageDialog(mediathekGui, "Download erst stoppen!", "Film löschen", JOptionPane.ERROR_MESSAGE);
                 return;
             }
@@ -1056,11 +1048,11 @@ public class GuiDownloads extends AGuiTabPanel {
             // ==========================================
             // starten
             if (download.start != null) {
-                if (download.start.status == Start.STATUS_RUN) {
+                if (download.start.getStatus() == Start.STATUS_RUN) {
                     // dann läuft er schon
                     continue;
                 }
-                if (download.start.status > Start.STATUS_RUN) {
+                if (download.start.getStatus() > Start.STATUS_RUN) {
                     // wenn er noch läuft gibts nix
                     // wenn er schon fertig ist, erst mal fragen vor dem erneuten Starten
                     //TODO in auto dialog umwandeln!
@@ -1146,13 +1138,13 @@ public class GuiDownloads extends AGuiTabPanel {
                 // ==========================================
                 // starten
                 if (download.start != null) {
-                    if (download.start.status == Start.STATUS_RUN
-                            || !fertige && download.start.status > Start.STATUS_RUN) {
+                    if (download.start.getStatus() == Start.STATUS_RUN
+                            || !fertige && download.start.getStatus() > Start.STATUS_RUN) {
                         // wenn er noch läuft gibts nix
                         // fertige bleiben auch unverändert
                         continue;
                     }
-                    if (download.start.status > Start.STATUS_RUN) {
+                    if (download.start.getStatus() > Start.STATUS_RUN) {
                         // wenn er schon fertig ist, erst mal fragen vor dem erneuten Starten
                         //TODO in auto dialog umwandeln!
                         if (antwort == -1) {
@@ -1188,7 +1180,7 @@ public class GuiDownloads extends AGuiTabPanel {
                 // ==========================================
                 // stoppen
                 // wenn kein s -> dann gibts auch nichts zum stoppen oder wieder-starten
-                if (download.start.status <= Start.STATUS_RUN) {
+                if (download.start.getStatus() <= Start.STATUS_RUN) {
                     // löschen -> nur wenn noch läuft, sonst gibts nichts mehr zum löschen
                     listeDownloadsLoeschen.add(download);
                 }
@@ -1211,7 +1203,7 @@ public class GuiDownloads extends AGuiTabPanel {
         for (int i = 0; i < tabelle.getRowCount(); ++i) {
             DatenDownload datenDownload = (DatenDownload) tabelle.getModel().getValueAt(tabelle.convertRowIndexToModel(i), DatenDownload.DOWNLOAD_REF);
             if (datenDownload.start != null) {
-                if (datenDownload.start.status < Start.STATUS_RUN) {
+                if (datenDownload.start.getStatus() < Start.STATUS_RUN) {
                     listeStopDownload.add(datenDownload);
                 }
             }
@@ -1342,9 +1334,9 @@ public class GuiDownloads extends AGuiTabPanel {
                 if (tabelle.convertColumnIndexToModel(column) == DatenDownload.DOWNLOAD_BUTTON_START) {
                     // filmStartenWiederholenStoppen(boolean alle, boolean starten /* starten/wiederstarten oder stoppen */)
                     if (datenDownload.start != null && !datenDownload.isDownloadManager()) {
-                        if (datenDownload.start.status == Start.STATUS_FERTIG) {
+                        if (datenDownload.start.getStatus() == Start.STATUS_FERTIG) {
                             filmAbspielen();
-                        } else if (datenDownload.start.status == Start.STATUS_ERR) {
+                        } else if (datenDownload.start.getStatus() == Start.STATUS_ERR) {
                             // Download starten
                             filmStartenWiederholenStoppen(false, true /*starten*/);
                         } else {
@@ -1357,7 +1349,7 @@ public class GuiDownloads extends AGuiTabPanel {
                     }
                 } else if (tabelle.convertColumnIndexToModel(column) == DatenDownload.DOWNLOAD_BUTTON_DEL) {
                     if (datenDownload.start != null) {
-                        if (datenDownload.start.status >= Start.STATUS_FERTIG) {
+                        if (datenDownload.start.getStatus() >= Start.STATUS_FERTIG) {
                             downloadsAufraeumen(datenDownload);
                         } else {
                             // Download dauerhaft löschen
@@ -1385,7 +1377,7 @@ public class GuiDownloads extends AGuiTabPanel {
             if (row != -1) {
                 DatenDownload download = (DatenDownload) tabelle.getModel().getValueAt(tabelle.convertRowIndexToModel(row), DatenDownload.DOWNLOAD_REF);
                 if (download.start != null) {
-                    if (download.start.status <= Start.STATUS_RUN) {
+                    if (download.start.getStatus() <= Start.STATUS_RUN) {
                         wartenOderLaufen = true;
                     }
                 }
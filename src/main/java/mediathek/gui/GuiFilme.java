@@ -20,6 +20,7 @@ import mediathek.controller.starter.Start;
 import mediathek.daten.*;
 import mediathek.filmeSuchen.ListenerFilmeLaden;
 import mediathek.filmeSuchen.ListenerFilmeLadenEvent;
+import mediathek.filmlisten.reader.FilmListReader;
 import mediathek.gui.actions.ShowBlacklistDialogAction;
 import mediathek.gui.actions.ShowFilmInformationAction;
 import mediathek.gui.dialog.DialogAboNoSet;
@@ -412,6 +413,23 @@ public class GuiFilme extends AGuiTabPanel {
         SwingUtilities.invokeLater(this::loadTable);
     }
 
+    /**
+     * Show the films read so far while the film list is still loading.
+     * Abos are marked and the final blacklist pass runs when the load has finished.
+     */
+    @Handler
+    private void handleFilmListSnapshot(FilmListSnapshotEvent e) {
+        // die Liste wird unter derselben Sperre wie in filterListe() gefüllt, nicht auf dem EDT
+        // der Ladevorgang kann inzwischen beendet sein, dann bleibt das Ergebnis von filterListe()
+        if (!daten.getListeBlacklist().filterSnapshot(e.filme, () -> FilmListReader.isCurrentSnapshot(e)))
+            return;
+
+        SwingUtilities.invokeLater(() -> {
+            loadTable();
+            Platform.runLater(() -> fap.updateThemaBox());
+        });
+    }
+
     private void start_addListener() {
         //register message bus handler
         daten.getMessageBus().subscribe(this);
@@ -837,7 +855,7 @@ public class GuiFilme extends AGuiTabPanel {
                         final DatenDownload datenDownload = daten.getListeDownloadsButton().getDownloadUrlFilm(datenFilm.getUrl());
                         if (datenDownload != null) {
                             if (datenDownload.start != null) {
-                                if (datenDownload.start.status == Start.STATUS_RUN) {
+                                if (datenDownload.start.getStatus() == Start.STATUS_RUN) {
                                     stop = true;
                                     daten.getListeDownloadsButton().delDownloadButton(datenFilm.getUrl());
                                 }
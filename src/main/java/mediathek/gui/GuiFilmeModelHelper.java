@@ -3,6 +3,7 @@ package mediathek.gui;
 import javafx.collections.ObservableList;
 import mediathek.config.Daten;
 import mediathek.daten.DatenFilm;
+import mediathek.daten.FilmDescriptionProvider;
 import mediathek.daten.ListeFilme;
 import mediathek.javafx.filterpanel.FilmActionPanel;
 import mediathek.javafx.filterpanel.FilmLengthSlider;
@@ -10,6 +11,8 @@ import mediathek.tool.Filter;
 import mediathek.tool.models.TModelFilm;
 import mediathek.tool.table.MVTable;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public class GuiFilmeModelHelper {
@@ -119,6 +122,7 @@ public class GuiFilmeModelHelper {
         final String filterThema = getFilterThema();
         final boolean searchFieldEmpty = arrIrgendwo.length == 0;
         final ObservableList<String> selectedSenders = fap.senderList.getCheckModel().getCheckedItems();
+        final List<DatenFilm> candidates = new ArrayList<>(FilmDescriptionProvider.BATCH_SIZE);
 
         for (DatenFilm film : listeFilme) {
             if (!selectedSenders.isEmpty()) {
@@ -190,11 +194,28 @@ public class GuiFilmeModelHelper {
             if (searchFieldEmpty)
                 addFilmToTableModel(film);
             else {
-                if (finalStageFiltering(film)) {
-                    addFilmToTableModel(film);
-                }
+                candidates.add(film);
+                if (candidates.size() == FilmDescriptionProvider.BATCH_SIZE)
+                    finalStageFiltering(candidates);
+            }
+        }
+        finalStageFiltering(candidates);
+    }
+
+    /**
+     * Perform the last stage of filtering for a batch of films.
+     * Descriptions are loaded with one query for the whole batch in low memory mode.
+     */
+    private void finalStageFiltering(List<DatenFilm> candidates) {
+        if (searchThroughDescriptions)
+            FilmDescriptionProvider.getInstance().prefetch(candidates);
+
+        for (DatenFilm film : candidates) {
+            if (finalStageFiltering(film)) {
+                addFilmToTableModel(film);
             }
         }
+        candidates.clear();
     }
 
     /**
@@ -204,9 +225,13 @@ public class GuiFilmeModelHelper {
     private boolean finalStageFiltering(final DatenFilm film) {
         boolean result;
 
-        if (searchThroughDescriptions && !film.getDescription().isEmpty())
-            result = searchEntriesWithDescription(film);
-        else
+        if (searchThroughDescriptions) {
+            final String description = film.getDescription();
+            if (!description.isEmpty())
+                result = searchEntriesWithDescription(film, description);
+            else
+                result = searchEntries(film);
+        } else
             result = searchEntries(film);
 
         return result;
@@ -221,10 +246,10 @@ public class GuiFilmeModelHelper {
         return result;
     }
 
-    private boolean searchEntriesWithDescription(DatenFilm film) {
+    private boolean searchEntriesWithDescription(DatenFilm film, String description) {
         boolean result = false;
 
-        if (Filter.pruefen(arrIrgendwo, film.getDescription())
+        if (Filter.pruefen(arrIrgendwo, description)
                 || searchEntries(film)) {
             result = true;
         }
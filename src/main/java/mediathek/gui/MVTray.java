@@ -4,12 +4,13 @@ import mediathek.config.Daten;
 import mediathek.config.Icons;
 import mediathek.config.MVConfig;
 import mediathek.daten.DownloadStartInfo;
-import mediathek.gui.messages.TimerEvent;
+import mediathek.daten.DownloadStatistics;
 import mediathek.gui.messages.TrayIconEvent;
 import mediathek.mainwindow.MediathekGui;
+import mediathek.tool.EventChannel;
+import mediathek.tool.TickScheduler;
 import mediathek.tool.notification.thrift.MessageType;
 import mediathek.tool.notification.thrift.NotificationMessage;
-import net.engio.mbassy.listener.Handler;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -23,46 +24,51 @@ public final class MVTray {
     private final Daten daten;
     private int trayState = 0; // 0, 1=Download, 2=Download mit Fehler
     private SystemTray tray = null;
-    private TrayIcon trayIcon = null;
-    private int count = 0;
+    private volatile TrayIcon trayIcon = null;
+    private final TickScheduler.Tick iconTick;
+    private final TickScheduler.Tick toolTipTick;
+    private final EventChannel<?>.Subscription downloadInfoSubscription;
 
     public MVTray() {
         daten = Daten.getInstance();
-        daten.getMessageBus().subscribe(this);
+        final var tickScheduler = daten.getTickScheduler();
+        iconTick = tickScheduler.register("Tray-Icon", 1, TickScheduler.Target.SWING, this::updateTrayIcon)
+                .visibleWhen(() -> trayIcon != null);
+        // nur alle 3s ändern
+        toolTipTick = tickScheduler.register("Tray-Tooltip", 3, TickScheduler.Target.SWING,
+                () -> trayIcon.setToolTip(getInfoTextDownloads()))
+                .visibleWhen(() -> trayIcon != null);
+        downloadInfoSubscription = daten.getDownloadInfoChannel().subscribe(EventChannel.Dispatch.DIRECT, e -> {
+            iconTick.markDirty();
+            toolTipTick.markDirty();
+        });
     }
 
-    @Handler
-    private void handleTimerEvent(TimerEvent msg) {
-        SwingUtilities.invokeLater(() -> {
-            ++count;
-            if (count > 3) {
-                // nur alle 3s ändern
-                trayIcon.setToolTip(getInfoTextDownloads());
-                count = 0;
+    private void updateTrayIcon() {
+        // Anzahl, Anz-Abo, Anz-Down, nicht gestarted, laufen, fertig OK, fertig fehler
+        DownloadStartInfo info = daten.getDownloadInfos().getStatistics().getStarts();
+        if (info.error > 0) {
+            // es gibt welche mit Fehler
+            if (trayState != 2) {
+                trayState = 2;
+                trayIcon.setImage(Icons.ICON_TRAY_ERROR);
             }
-
-            // Anzahl, Anz-Abo, Anz-Down, nicht gestarted, laufen, fertig OK, fertig fehler
-            DownloadStartInfo info = daten.getListeDownloads().getStarts();
-            if (info.error > 0) {
-                // es gibt welche mit Fehler
-                if (trayState != 2) {
-                    trayState = 2;
-                    trayIcon.setImage(Icons.ICON_TRAY_ERROR);
-                }
-            } else if (info.running > 0) {
-                // es laufen welche
-                if (trayState != 1) {
-                    trayState = 1;
-                    trayIcon.setImage(Icons.ICON_TRAY_DOWNLOAD);
-                }
-            } else if (trayState != 0) {
-                trayState = 0;
-                trayIcon.setImage(Icons.ICON_TRAY);
+        } else if (info.running > 0) {
+            // es laufen welche
+            if (trayState != 1) {
+                trayState = 1;
+                trayIcon.setImage(Icons.ICON_TRAY_DOWNLOAD);
             }
-        });
+        } else if (trayState != 0) {
+            trayState = 0;
+            trayIcon.setImage(Icons.ICON_TRAY);
+        }
     }
 
     public void beenden() {
+        iconTick.cancel();
+        toolTipTick.cancel();
+        downloadInfoSubscription.cancel();
         if (tray != null && trayIcon != null) {
             tray.remove(trayIcon);
         }
@@ -71,6 +77,7 @@ public final class MVTray {
     public MVTray systemTray() {
         if (!SystemTray.isSupported()) {
             logger.info("Tray wird nicht unterstützt");
+            beenden();
             return null;
         } else {
             tray = SystemTray.getSystemTray();
@@ -109,6 +116,7 @@ public final class MVTray {
             }
 
         }
+        beenden();
         return null;
     }
 
@@ -145,7 +153,8 @@ public final class MVTray {
     }
 
     private String getInfoTextDownloads() {
-        final DownloadStartInfo info = daten.getListeDownloads().getStarts();
+        final DownloadStatistics statistics = daten.getDownloadInfos().getStatistics();
+        final DownloadStartInfo info = statistics.getStarts();
         String text = "Downloads: " + info.total_starts;
 
         if (info.hasValues()) {
@@ -153,7 +162,7 @@ public final class MVTray {
             text += (info.running == 1) ? "1 läuft" : info.running + " laufen";
 
             if (info.running > 0)
-                text += " (" + daten.getDownloadInfos().getBandwidthStr() + ')';
+                text += " (" + statistics.getBandwidthStr() + ')';
 
             text += (info.initialized == 1) ? ", 1 wartet" : ", " + info.initialized + " warten";
 
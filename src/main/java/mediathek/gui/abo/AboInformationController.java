@@ -1,10 +1,11 @@
 package mediathek.gui.abo;
 
-import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
+import javafx.scene.Scene;
 import mediathek.config.Daten;
-import mediathek.gui.messages.TimerEvent;
+import mediathek.gui.messages.AboListChangedEvent;
+import mediathek.tool.TickScheduler;
 import net.engio.mbassy.listener.Handler;
 
 public class AboInformationController {
@@ -17,12 +18,28 @@ public class AboInformationController {
     private long oldActive = -1;
     private long oldInactive = -1;
     private Daten daten;
+    private TickScheduler.Tick tick;
 
     public void initialize() {
         this.daten = Daten.getInstance();
+        tick = daten.getTickScheduler().register("Abo-Information", 1, TickScheduler.Target.FX, this::updateDisplayText)
+                .visibleWhen(this::isShowing);
         daten.getMessageBus().subscribe(this);
     }
 
+    private boolean isShowing() {
+        final Scene scene = totalAbos.getScene();
+        return scene != null && scene.getWindow() != null && scene.getWindow().isShowing();
+    }
+
+    /**
+     * Stop updating, the dialog has been closed.
+     */
+    public void close() {
+        tick.cancel();
+        daten.getMessageBus().unsubscribe(this);
+    }
+
     private void updateTotalDisplay(final int gesamt) {
         if (gesamt == 1) {
             totalAbos.setText("1 Abo");
@@ -52,7 +69,7 @@ public class AboInformationController {
     }
 
     @Handler
-    private void handleTimerEvent(TimerEvent e) {
-        Platform.runLater(this::updateDisplayText);
+    private void handleAboListChanged(AboListChangedEvent e) {
+        tick.markDirty();
     }
 }
@@ -64,6 +64,15 @@ public class ManageAboDialog extends JDialog {
         });
     }
 
+    @Override
+    public void dispose() {
+        Platform.runLater(() -> {
+            if (infoController != null)
+                infoController.close();
+        });
+        super.dispose();
+    }
+
     public GuiAbo getAboPanel() {
         return aboPanel;
     }
@@ -1,11 +1,19 @@
 package mediathek.gui.actions;
 
+import com.google.common.base.Stopwatch;
 import javafx.concurrent.Task;
 import mediathek.config.Daten;
 import mediathek.filmlisten.writer.FilmListWriter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
-public class FilmListWriteWorkerTask extends Task<Void> {
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
+public class FilmListWriteWorkerTask extends Task<Void> {
+    private static final Logger logger = LogManager.getLogger(FilmListWriteWorkerTask.class);
     private final Daten daten;
 
     public FilmListWriteWorkerTask(Daten daten) {
@@ -18,10 +26,43 @@ public class FilmListWriteWorkerTask extends Task<Void> {
         FilmListWriter writer = new FilmListWriter();
         updateMessage("Schreibe Filmliste");
         updateProgress(0d, 1d);
-        writer.writeFilmList(Daten.getDateiFilmliste(),
+
+        final int filme = daten.getListeFilme().size();
+        final String datei = Daten.getDateiFilmlisteSpeichern();
+        final Stopwatch stopwatch = Stopwatch.createStarted();
+        writer.writeFilmList(datei,
                 daten.getListeFilme(),
                 prog -> updateProgress(prog, 1d));
+        stopwatch.stop();
+
+        reportThroughput(filme, writer.getBytesWritten(), stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        if (writer.getBytesWritten() > 0)
+            deleteOtherFormat(datei);
 
         return null;
     }
+
+    private void reportThroughput(int filme, long bytes, long millis) {
+        if (bytes == 0 || millis == 0)
+            return;
+
+        final double seconds = millis / 1000d;
+        final String msg = String.format("Filmliste geschrieben: %.0f Filme/s, %.1f MB/s", filme / seconds, bytes / seconds / (1024 * 1024));
+        logger.info(msg);
+        updateMessage(msg);
+    }
+
+    /**
+     * Remove the list in the format which is not configured anymore, it would be outdated.
+     */
+    private void deleteOtherFormat(String datei) {
+        try {
+            for (String other : new String[]{Daten.getDateiFilmliste(false), Daten.getDateiFilmliste(true)}) {
+                if (!other.equals(datei))
+                    Files.deleteIfExists(Paths.get(other));
+            }
+        } catch (IOException e) {
+            logger.warn("Could not delete old film list", e);
+        }
+    }
 }
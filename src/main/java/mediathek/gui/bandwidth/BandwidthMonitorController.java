@@ -13,9 +13,7 @@ import javafx.scene.paint.Stop;
 import javafx.util.Duration;
 import mediathek.config.Daten;
 import mediathek.config.MVConfig;
-import mediathek.controller.starter.Start;
-import mediathek.daten.DatenDownload;
-import mediathek.daten.ListeDownloads;
+import mediathek.daten.DownloadInfos;
 import mediathek.gui.messages.BandwidthMonitorStateChangedEvent;
 import mediathek.tool.GuiFunktionen;
 import net.engio.mbassy.listener.Handler;
@@ -34,14 +32,14 @@ public class BandwidthMonitorController {
 
     private static final int DEFAULT_WIDTH = 300;
     private static final int DEFAULT_HEIGHT = 150;
-    private final ListeDownloads listeDownloads;
+    private final DownloadInfos downloadInfos;
     private JDialog hudDialog = null;
     private Timeline updateMemoryTimer;
     private Tile bandwidthTile;
     private JFXPanel fxPanel;
 
     public BandwidthMonitorController(JFrame parent) {
-        listeDownloads = Daten.getInstance().getListeDownloads();
+        downloadInfos = Daten.getInstance().getDownloadInfos();
         createDialog(parent);
         Platform.runLater(() -> fxPanel.setScene(new Scene(createTile())));
 
@@ -103,15 +101,8 @@ public class BandwidthMonitorController {
      * @return Used bandwidth in Megabits per second.
      */
     private double calculateBandwidthUsage() {
-        double bandwidth = 0d; // bytes per second
-        //only count running/active downloads and calc accumulated progress..
-        var activeDownloadList = listeDownloads.getListOfStartsNotFinished(DatenDownload.QUELLE_ALLE);
-        for (DatenDownload download : activeDownloadList) {
-            if (download.start != null && download.start.status == Start.STATUS_RUN) {
-                bandwidth += download.start.bandbreite;
-            }
-        }
-        activeDownloadList.clear();
+        // bytes per second, summed up by the download statistics
+        double bandwidth = downloadInfos.getStatistics().getBandwidth();
 
         //convert to MBits per second
         bandwidth = bandwidth * 8d / 1000d / 1000d;
@@ -11,7 +11,7 @@ import mediathek.gui.messages.mediadb.MediaDbDialogVisibleEvent;
 import mediathek.gui.messages.mediadb.MediaDbStartEvent;
 import mediathek.gui.messages.mediadb.MediaDbStopEvent;
 import mediathek.tool.*;
-import mediathek.tool.models.TModelMediaDB;
+import mediathek.tool.models.TModelMediaDBSuche;
 import mediathek.tool.table.MVMediaDbTable;
 import mediathek.tool.table.MVTable;
 import net.engio.mbassy.listener.Handler;
@@ -35,6 +35,7 @@ public class DialogMediaDB extends JDialog {
     private final JFrame parent;
     private final Daten daten;
     private final MVTable tabelleFilme;
+    private final TModelMediaDBSuche modelFilm = new TModelMediaDBSuche();
 
     @Handler
     private void handleMediaDbStartEvent(MediaDbStartEvent e) {
@@ -74,7 +75,6 @@ public class DialogMediaDB extends JDialog {
         tabelleFilme = new MVMediaDbTable();
         jScrollPane3.setViewportView(tabelleFilme);
 
-        TModelMediaDB modelFilm = new TModelMediaDB(new Object[][]{}, DatenMediaDB.COLUMN_NAMES);
         final CellRendererMediaDB cellRenderer = new CellRendererMediaDB();
         tabelleFilme.setDefaultRenderer(Object.class, cellRenderer);
         tabelleFilme.setModel(modelFilm);
@@ -133,12 +133,9 @@ public class DialogMediaDB extends JDialog {
     }
 
     private synchronized void searchFilmInDb() {
-        TModelMediaDB model = new TModelMediaDB(new Object[][]{}, DatenMediaDB.COLUMN_NAMES);
-        daten.getListeMediaDB().searchFilmInDB(model, jTextFieldSearch.getText());
-        tabelleFilme.getSpalten();
-        tabelleFilme.setModel(model);
-        tabelleFilme.setSpalten();
-        jLabelSizeFound.setText(model.getRowCount() + "");
+        // das Model bleibt, damit bleiben auch Spalten und Sortierung erhalten
+        modelFilm.setTreffer(daten.getListeMediaDB().searchFilmInDB(jTextFieldSearch.getText()));
+        jLabelSizeFound.setText(modelFilm.getRowCount() + "");
     }
 
     private void makeIndex(boolean makeIndex) {
@@ -258,7 +258,7 @@ public class DialogEinstellungen extends JFrame {
         //save the dialog size when we are closing...
         GuiFunktionen.getSize(MVConfig.Configs.SYSTEM_GROESSE_EINSTELLUNGEN, this);
 
-        daten.allesSpeichern();
+        daten.getConfigSaver().markAllDirty();
         dispose();
     }
 
@@ -54,6 +54,7 @@ public class PanelDateinamen extends PanelVorlage {
         });
         jButtonPlus.addActionListener(e -> {
             ReplaceList.list.add(new String[]{"von", "nach"});
+            ReplaceList.invalidate();
             tabelleLaden();
             tabelle.setRowSelectionInterval(tabelle.getRowCount() - 1, tabelle.getRowCount() - 1);
             setTextfelder();
@@ -62,6 +63,7 @@ public class PanelDateinamen extends PanelVorlage {
             final int selectedTableRow = tabelle.getSelectedRow();
             if (selectedTableRow != -1) {
                 ReplaceList.list.remove(selectedTableRow);
+                ReplaceList.invalidate();
                 tabelleLaden();
                 setTextfelder();
             }
@@ -136,6 +138,7 @@ public class PanelDateinamen extends PanelVorlage {
             final int selectedTableRow = tabelle.getSelectedRow();
             if (selectedTableRow != -1) {
                 ReplaceList.list.get(tabelle.convertRowIndexToModel(selectedTableRow))[ReplaceList.VON_NR] = jTextFieldVon.getText(); // leer wird beim suchen aussortiert
+                ReplaceList.invalidate();
                 tabelleLaden();
             }
         }
@@ -146,6 +149,7 @@ public class PanelDateinamen extends PanelVorlage {
             final int selectedTableRow = tabelle.getSelectedRow();
             if (selectedTableRow != -1) {
                 ReplaceList.list.get(tabelle.convertRowIndexToModel(selectedTableRow))[ReplaceList.NACH_NR] = jTextFieldNach.getText();
+                ReplaceList.invalidate();
                 tabelleLaden();
             }
         }
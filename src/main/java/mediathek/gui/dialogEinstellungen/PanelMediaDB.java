@@ -3,6 +3,7 @@ package mediathek.gui.dialogEinstellungen;
 import mediathek.config.Daten;
 import mediathek.config.Icons;
 import mediathek.config.MVConfig;
+import mediathek.controller.ConfigSaver;
 import mediathek.daten.DatenMediaDB;
 import mediathek.daten.DatenMediaPath;
 import mediathek.file.GetFile;
@@ -202,6 +203,7 @@ public class PanelMediaDB extends PanelVorlage {
             }
         }
         daten.getListeMediaPath().add(new DatenMediaPath(add, false));
+        daten.getConfigSaver().markDirty(ConfigSaver.Section.MEDIAPATH);
         setTablePath(); //neu aufbauen
     }
 
@@ -212,7 +214,8 @@ public class PanelMediaDB extends PanelVorlage {
             return;
         }
         String path = jTablePath.getModel().getValueAt(jTablePath.convertRowIndexToModel(row), 0).toString();
-        daten.getListeMediaPath().removeIf(mp -> mp.arr[DatenMediaPath.MEDIA_PATH_PATH].equals(path));
+        if (daten.getListeMediaPath().removeIf(mp -> mp.arr[DatenMediaPath.MEDIA_PATH_PATH].equals(path)))
+            daten.getConfigSaver().markDirty(ConfigSaver.Section.MEDIAPATH);
         setTablePath(); //neu aufbauen
     }
 
@@ -223,6 +226,7 @@ public class PanelMediaDB extends PanelVorlage {
     private void setCbkExt(String add) {
         if (!add.isEmpty()) {
             daten.getListeMediaPath().addSave(new DatenMediaPath(add, true));
+            daten.getConfigSaver().markDirty(ConfigSaver.Section.MEDIAPATH);
             cbxExtMedien.setModel(daten.getListeMediaPath().getComboModel());
             cbxExtMedien.setSelectedItem(add);
         } else {
@@ -15,6 +15,7 @@ import javafx.scene.layout.CornerRadii;
 import javafx.scene.paint.Color;
 import mediathek.config.Daten;
 import mediathek.daten.DatenFilm;
+import mediathek.daten.FilmDescriptionProvider;
 import mediathek.gui.actions.UrlHyperlinkAction;
 import mediathek.tool.ApplicationConfiguration;
 import mediathek.tool.GuiFunktionen;
@@ -33,7 +34,6 @@ import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.net.URISyntaxException;
 import java.util.NoSuchElementException;
-import java.util.Optional;
 
 public class InfoDialog extends JDialog {
     private static final long serialVersionUID = -890508930316467747L;
@@ -176,11 +176,16 @@ public class InfoDialog extends JDialog {
     }
 
     private void setSenderIcon(final JLabel control) {
-        final Optional<ImageIcon> optIcon = senderIconCache.get(currentFilm.getSender(), true);
-        optIcon.ifPresent(icon -> {
-            control.setText("");
-            control.setIcon(icon);
-        });
+        final DatenFilm film = currentFilm;
+        senderIconCache.getAsync(film.getSender(), true).thenAccept(optIcon -> SwingUtilities.invokeLater(() -> {
+            // in der Zwischenzeit kann ein anderer Film ausgewählt worden sein
+            if (film == currentFilm) {
+                optIcon.ifPresent(icon -> {
+                    control.setText("");
+                    control.setIcon(icon);
+                });
+            }
+        }));
     }
 
     private void updateTextFields() {
@@ -192,8 +197,7 @@ public class InfoDialog extends JDialog {
             lblThema.setText(currentFilm.getThema());
             lblTitel.setText(currentFilm.getTitle());
 
-            lblDescription.setText(currentFilm.getDescription());
-            lblDescription.setCaretPosition(0);
+            lblDescription.setText("");
 
             lblSize.setText(currentFilm.getSize());
             lblDatum.setText(currentFilm.getSendeDatum());
@@ -206,9 +210,20 @@ public class InfoDialog extends JDialog {
             lblGeo.setText(currentFilm.getGeo());
             lblAbo.setText(currentFilm.arr[DatenFilm.FILM_ABO_NAME]);
 
-            Platform.runLater(() -> {
-                hyperlink.setTooltip(new Tooltip(currentFilm.getWebsiteLink()));
-                hyperlink.setDisable(false);
+            //in low memory mode the description must be loaded from database, don´t block the EDT
+            final DatenFilm film = currentFilm;
+            FilmDescriptionProvider.getInstance().lookupAsync(film).thenAccept(entry -> {
+                SwingUtilities.invokeLater(() -> {
+                    if (currentFilm != film)
+                        return;
+
+                    lblDescription.setText(entry.getDescription());
+                    lblDescription.setCaretPosition(0);
+                });
+                Platform.runLater(() -> {
+                    hyperlink.setTooltip(new Tooltip(entry.getWebsiteLink()));
+                    hyperlink.setDisable(false);
+                });
             });
         }
     }
@@ -1,5 +1,12 @@
 package mediathek.gui.messages;
 
+/**
+ * Frequent event, delivered by an {@link mediathek.tool.EventChannel} instead of the message bus.
+ * It carries no data, therefore the single {@link #INSTANCE} is always used.
+ */
 public class DownloadInfoUpdateAvailableEvent extends BaseEvent {
+    public static final DownloadInfoUpdateAvailableEvent INSTANCE = new DownloadInfoUpdateAvailableEvent();
 
+    private DownloadInfoUpdateAvailableEvent() {
+    }
 }
@@ -1,4 +1,12 @@
 package mediathek.gui.messages;
 
+/**
+ * Frequent event, delivered by an {@link mediathek.tool.EventChannel} instead of the message bus.
+ * It carries no data, therefore the single {@link #INSTANCE} is always used.
+ */
 public class DownloadProgressChangedEvent extends BaseEvent {
+    public static final DownloadProgressChangedEvent INSTANCE = new DownloadProgressChangedEvent();
+
+    private DownloadProgressChangedEvent() {
+    }
 }
@@ -0,0 +1,24 @@
+package mediathek.gui.messages;
+
+import mediathek.daten.DatenFilm;
+
+import java.util.List;
+
+/**
+ * Published while a film list is read, contains all films read so far.
+ */
+public class FilmListSnapshotEvent extends BaseEvent {
+    /**
+     * immutable copy of the films read so far
+     */
+    public final List<DatenFilm> filme;
+    /**
+     * load generation of the reader, the snapshot is outdated once the load has finished
+     */
+    public final long generation;
+
+    public FilmListSnapshotEvent(List<DatenFilm> filme, long generation) {
+        this.filme = filme;
+        this.generation = generation;
+    }
+}
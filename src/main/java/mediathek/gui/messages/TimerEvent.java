@@ -1,4 +0,0 @@
-package mediathek.gui.messages;
-
-public class TimerEvent extends BaseEvent {
-}
@@ -21,6 +21,7 @@ public class FilmListReaderTask extends Task<Void> {
         updateProgress(-1, 4);
         updateMessage("Lese lokale Filmliste");
         try (FilmListReader reader = new FilmListReader()) {
+            reader.setPublishSnapshots(true);
             reader.readFilmListe(Daten.getDateiFilmliste(), daten.getListeFilme(), Integer.parseInt(MVConfig.get(MVConfig.Configs.SYSTEM_ANZ_TAGE_FILMLISTE)));
         }
 
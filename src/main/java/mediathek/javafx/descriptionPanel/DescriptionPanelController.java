@@ -1,11 +1,13 @@
 package mediathek.javafx.descriptionPanel;
 
+import javafx.application.Platform;
 import javafx.event.Event;
 import javafx.event.EventHandler;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.text.*;
 import mediathek.daten.DatenFilm;
+import mediathek.daten.FilmDescriptionProvider;
 import mediathek.gui.actions.UrlHyperlinkAction;
 import mediathek.gui.dialog.DialogFilmBeschreibung;
 import mediathek.mainwindow.MediathekGui;
@@ -34,12 +36,13 @@ public class DescriptionPanelController {
 
     private EventHandler<Event> closeHandler;
     private DatenFilm currentFilm = null;
+    private String currentWebsiteLink = "";
     private ContextMenu contextMenu;
     private static final Logger logger = LogManager.getLogger(DescriptionPanelController.class);
 
     private void setupWebsiteLink() {
         websiteLink.setOnAction(e -> {
-            final var link = currentFilm.getWebsiteLink();
+            final var link = currentWebsiteLink;
             SwingUtilities.invokeLater(() -> {
                 try {
                     UrlHyperlinkAction.openURL(MediathekGui.ui(), link);
@@ -55,25 +58,38 @@ public class DescriptionPanelController {
 
         optFilm.ifPresentOrElse(film -> {
             currentFilm = film;
-            websiteLink.setVisible(true);
+            currentWebsiteLink = "";
+            websiteLink.setVisible(false);
             websiteLink.setVisited(false);
-            websiteLink.setTooltip(new Tooltip(film.getWebsiteLink()));
 
             Font defaultFont = Font.getDefault();
             Text headLine = new Text((film.getSender().isEmpty() ? "" : film.getSender() + "  -  ") + film.getTitle());
             headLine.setFont(Font.font(defaultFont.getName(), FontWeight.BOLD, FontPosture.REGULAR, defaultFont.getSize()));
 
-            Text description = new Text(film.getDescription());
+            Text description = new Text();
             description.setFont(Font.font(defaultFont.getName(), FontWeight.NORMAL, FontPosture.REGULAR, defaultFont.getSize()));
 
             textField.getChildren().addAll(headLine,
                     new Text("\n"),
                     new Text("\n"),
                     description);
+
+            //in low memory mode the description must be loaded from database, don´t block the FX thread
+            FilmDescriptionProvider.getInstance().lookupAsync(film).thenAccept(entry -> Platform.runLater(() -> {
+                //user might have selected another film in the meantime
+                if (currentFilm != film)
+                    return;
+
+                currentWebsiteLink = entry.getWebsiteLink();
+                websiteLink.setTooltip(new Tooltip(currentWebsiteLink));
+                websiteLink.setVisible(true);
+                description.setText(entry.getDescription());
+            }));
         }, () -> {
             websiteLink.setTooltip(null);
             websiteLink.setVisible(false);
             currentFilm = null;
+            currentWebsiteLink = "";
         });
     }
 
@@ -1,15 +1,14 @@
 package mediathek.javafx.downloadtab;
 
 import javafx.application.Platform;
-import javafx.beans.value.ChangeListener;
-import javafx.beans.value.ObservableValue;
 import javafx.scene.layout.HBox;
 import mediathek.config.Daten;
-import mediathek.gui.messages.TimerEvent;
 import mediathek.gui.messages.UpdateStatusBarLeftDisplayEvent;
 import mediathek.javafx.CenteredBorderPane;
 import mediathek.javafx.InfoLabel.*;
 import mediathek.javafx.VerticalSeparator;
+import mediathek.tool.EventChannel;
+import mediathek.tool.TickScheduler;
 import net.engio.mbassy.listener.Handler;
 
 
@@ -25,6 +24,8 @@ public class DownloadTabInformationLabel extends HBox {
     private final HBox finishedBox = new HBox();
     private final HBox waitingBox = new HBox();
     private final HBox activeBox = new HBox();
+    private TickScheduler.Tick tick;
+
     public DownloadTabInformationLabel(Daten daten) {
         super();
         this.daten = daten;
@@ -34,19 +35,10 @@ public class DownloadTabInformationLabel extends HBox {
     }
 
     private void setupListeners() {
-        if (isVisible())
-            daten.getMessageBus().subscribe(this);
-
-        visibleProperty().addListener(new ChangeListener<>() {
-            @Override
-            public void changed(ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue) {
-                if (newValue) {
-                    daten.getMessageBus().subscribe(this);
-                } else {
-                    daten.getMessageBus().unsubscribe(this);
-                }
-            }
-        });
+        tick = daten.getTickScheduler().register("Downloads-Statusleiste", 1, TickScheduler.Target.FX, this::getInfoTextDownloads)
+                .visibleWhen(this::isVisible);
+        daten.getDownloadInfoChannel().subscribe(EventChannel.Dispatch.DIRECT, e -> tick.markDirty());
+        daten.getMessageBus().subscribe(this);
     }
 
     private void initLayout() {
@@ -71,24 +63,19 @@ public class DownloadTabInformationLabel extends HBox {
         Platform.runLater(this::getInfoTextDownloads);
     }
 
-    @Handler
-    private void handleTimerEvent(TimerEvent e) {
-        Platform.runLater(this::getInfoTextDownloads);
-    }
-
     private void getInfoTextDownloads() {
-        final var listeDownloads = daten.getListeDownloads();
-        final var info = listeDownloads.getStarts();
+        final var statistics = daten.getDownloadInfos().getStatistics();
+        final var info = statistics.getStarts();
         final var children = getChildren();
 
-        overallDownloadLabel.updateLabel(listeDownloads, info);
+        overallDownloadLabel.updateLabel(info);
         aboLabel.updateLabel(info);
         numDownloadsLabel.updateLabel(info);
 
         if (info.running > 0) {
             if (!children.contains(activeBox))
                 children.add(activeBox);
-            activeDownloadLabel.updateLabel(daten, info);
+            activeDownloadLabel.updateLabel(statistics);
         } else
             children.remove(activeBox);
 
@@ -12,7 +12,7 @@ import javax.swing.*;
 
 /**
  * Pane which will display common information about the current filmlist.
- * Also handles updating the subcomponents based on a TimerEvent.
+ * The age of the list is updated by its label while the main window is active.
  */
 public class FilmListInfoPane extends HBox {
     private final FilmListCreationDateLabel filmListCreationDateLabel;
@@ -24,9 +24,16 @@ public class FilmInfoLabel extends Label {
         return textLinks;
     }
 
-    private int oldGesamt = 0;
+    private volatile int oldGesamt = 0;
     private int oldRowCount = 0;
 
+    /**
+     * @return true if the size of the film list has changed since the last update.
+     */
+    public boolean isOutdated() {
+        return daten.getListeFilme().size() != oldGesamt;
+    }
+
     public void updateValues() {
         String textLinks;
         final int gesamt = daten.getListeFilme().size();
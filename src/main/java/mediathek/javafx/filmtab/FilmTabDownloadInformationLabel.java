@@ -17,9 +17,9 @@ public class FilmTabDownloadInformationLabel extends Label {
 
     private String getInfoTextDownloads() {
         String textLinks;
-        final var listeDownloads = daten.getListeDownloads();
-        final var info = listeDownloads.getStarts();
-        final int anz = listeDownloads.size();
+        final var statistics = daten.getDownloadInfos().getStatistics();
+        final var info = statistics.getStarts();
+        final int anz = info.total_downloads;
 
         textLinks = (anz == 1) ? "1 Download" : anz + " Downloads";
 
@@ -29,7 +29,7 @@ public class FilmTabDownloadInformationLabel extends Label {
             textLinks += (info.running == 1) ? "1 läuft" : info.running + " laufen";
 
             if (info.running > 0)
-                textLinks += " (" + daten.getDownloadInfos().getBandwidthStr() + ')';
+                textLinks += " (" + statistics.getBandwidthStr() + ')';
 
             textLinks += (info.initialized == 1) ? ", 1 wartet" : ", " + info.initialized + " warten";
 
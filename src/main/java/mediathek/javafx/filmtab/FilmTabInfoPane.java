@@ -1,16 +1,14 @@
 package mediathek.javafx.filmtab;
 
 import javafx.application.Platform;
-import javafx.beans.value.ChangeListener;
-import javafx.beans.value.ObservableValue;
 import javafx.scene.layout.HBox;
 import mediathek.config.Daten;
 import mediathek.gui.GuiFilme;
-import mediathek.gui.messages.DownloadInfoUpdateAvailableEvent;
-import mediathek.gui.messages.TimerEvent;
 import mediathek.gui.messages.UpdateStatusBarLeftDisplayEvent;
 import mediathek.javafx.CenteredBorderPane;
 import mediathek.javafx.VerticalSeparator;
+import mediathek.tool.EventChannel;
+import mediathek.tool.TickScheduler;
 import net.engio.mbassy.listener.Handler;
 
 public class FilmTabInfoPane extends HBox {
@@ -27,37 +25,23 @@ public class FilmTabInfoPane extends HBox {
                 new CenteredBorderPane(downloadInformationLabel),
                 new VerticalSeparator());
 
-        if (isVisible())
-            daten.getMessageBus().subscribe(this);
-
-        visibleProperty().addListener(new ChangeListener<>() {
-            @Override
-            public void changed(ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue) {
-                if (newValue) {
-                    daten.getMessageBus().subscribe(this);
-                } else {
-                    daten.getMessageBus().unsubscribe(this);
-                }
-            }
-        });
+        final var tickScheduler = daten.getTickScheduler();
+        final var downloadTick = tickScheduler.register("Filme-Downloadinfo", 1, TickScheduler.Target.FX, downloadInformationLabel::setInfoFilme)
+                .visibleWhen(this::isVisible);
+        daten.getDownloadInfoChannel().subscribe(EventChannel.Dispatch.DIRECT, e -> downloadTick.markDirty());
+        // die Anzahl der Filme ändert sich beim Laden der Filmliste ohne eigenes Ereignis
+        tickScheduler.register("Filme-Statusleiste", 1, TickScheduler.Target.FX, this::updateLayout)
+                .visibleWhen(this::isVisible)
+                .changedWhen(filmInfoLabel::isOutdated);
+        daten.getMessageBus().subscribe(this);
     }
 
     private void updateLayout() {
         filmInfoLabel.updateValues();
     }
 
-    @Handler
-    private void handleDownloadInfoUpdate(DownloadInfoUpdateAvailableEvent e) {
-        Platform.runLater(downloadInformationLabel::setInfoFilme);
-    }
     @Handler
     private void handleLeftDisplayUpdate(UpdateStatusBarLeftDisplayEvent e) {
         Platform.runLater(this::updateLayout);
     }
-
-
-    @Handler
-    private void handleTimerEvent(TimerEvent e) {
-        Platform.runLater(this::updateLayout);
-    }
 }
@@ -28,7 +28,6 @@ import mediathek.javafx.tool.FilmInformationButton;
 import mediathek.mainwindow.MediathekGui;
 import mediathek.tool.ApplicationConfiguration;
 import mediathek.tool.Filter;
-import mediathek.tool.GermanStringSorter;
 import net.engio.mbassy.listener.Handler;
 import org.apache.commons.configuration2.Configuration;
 import org.controlsfx.control.CheckListView;
@@ -41,9 +40,7 @@ import org.controlsfx.glyphfont.GlyphFontRegistry;
 import org.controlsfx.tools.Borders;
 
 import javax.swing.*;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * This class sets up the GuiFilme tool panel and search bar.
@@ -308,26 +305,9 @@ public class FilmActionPanel {
         items.clear();
         items.add("");
 
-        List<String> finalList = new ArrayList<>();
-        List<String> selectedSenders = senderList.getCheckModel().getCheckedItems();
-
-        if (selectedSenders.isEmpty()) {
-            final List<String> lst = daten.getListeFilmeNachBlackList().getThemen("");
-            finalList.addAll(lst);
-            lst.clear();
-        } else {
-            for (String sender : selectedSenders) {
-                final List<String> lst = daten.getListeFilmeNachBlackList().getThemen(sender);
-                finalList.addAll(lst);
-                lst.clear();
-            }
-        }
-
-        items.addAll(finalList.stream()
-                .distinct()
-                .sorted(GermanStringSorter.getInstance())
-                .collect(Collectors.toList()));
-        finalList.clear();
+        // die Themen sind schon je Sender sortiert, auch mehrere Sender werden nur zusammengefasst
+        final List<String> selectedSenders = senderList.getCheckModel().getCheckedItems();
+        items.addAll(daten.getListeFilmeNachBlackList().getThemen(selectedSenders));
 
         themaSuggestionProvider.clearSuggestions();
         themaSuggestionProvider.addPossibleSuggestions(items);
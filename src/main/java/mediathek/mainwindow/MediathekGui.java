@@ -199,8 +199,6 @@ public class MediathekGui extends JFrame {
 
         SwingUtilities.invokeLater(this::setApplicationWindowSize);
 
-        loadFilmlist();
-
         setupUpdateCheck();
 
         showVlcHintForAustrianUsers();
@@ -310,8 +308,12 @@ public class MediathekGui extends JFrame {
 
     /**
      * Read a local filmlist or load a new one in auto mode.
+     * Called once at program start after the window has been created.
+     *
+     * @return completes when the filmlist has been read and filtered.
      */
-    private void loadFilmlist() {
+    public CompletableFuture<Void> loadFilmlist() {
+        final CompletableFuture<Void> result = new CompletableFuture<>();
         Platform.runLater(() -> {
             //don´t write filmlist when we are reading only...
             if (GuiFunktionen.getImportArtFilme() == FilmListUpdateType.AUTOMATIC && daten.getListeFilme().isTooOld()) {
@@ -338,11 +340,18 @@ public class MediathekGui extends JFrame {
 
             CompletableFuture.runAsync(filmListReaderTask)
                     .thenRun(networkTask)
-                    .thenRun(filterTask);
+                    .thenRun(filterTask)
+                    .whenComplete((r, ex) -> {
+                        if (ex != null)
+                            result.completeExceptionally(ex);
+                        else
+                            result.complete(null);
+                    });
 
             //reset after first load has happened
             Daten.dontWriteFilmlistOnStartup.set(false);
         });
+        return result;
     }
 
     public DialogMediaDB getMediaDatabaseDialog() {
@@ -462,7 +471,7 @@ public class MediathekGui extends JFrame {
             @Override
             public void fertig(ListenerFilmeLadenEvent event) {
                 loadFilmListAction.setEnabled(true);
-                daten.allesSpeichern(); // damit nichts verlorengeht
+                daten.getConfigSaver().markAllDirty(); // damit nichts verlorengeht
             }
 
             @Override
@@ -859,7 +868,7 @@ public class MediathekGui extends JFrame {
         dialog.setStatusText(6, "Programmkonfiguration schreiben");
         writeOldConfiguration();
 
-        if (MemoryUtils.isLowMemoryEnvironment()) {
+        if (DatenFilm.Database.isInitialized()) {
             dialog.setStatusText(7, "Datenbank schließen");
             DatenFilm.Database.closeDatabase();
         }
@@ -96,6 +96,8 @@ public class ApplicationConfiguration {
 
   public static final String DATABASE_USE_CLEANER_INTERFACE = "database.cleanup.use_cleaner";
   public static final String FILMLISTE_SAVE_HUMAN_READABLE = "filmlist.save.human_readable";
+  /** store the local film list gzip compressed */
+  public static final String FILMLISTE_SAVE_COMPRESSED = "filmlist.save.compressed";
 
   public static final String DOWNLOAD_RATE_LIMIT = "download.rate.limit";
   public static final String DOWNLOAD_SHOW_LAST_USED_PATH = "download.path.last_used.show";
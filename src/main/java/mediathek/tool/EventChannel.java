@@ -0,0 +1,164 @@
+package mediathek.tool;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import javafx.application.Platform;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Delivers one type of frequent event to its listeners without the overhead of the message bus.
+ * Listeners are called directly from an array, without reflection, on the thread they have chosen.
+ * A coalescing channel delivers only the latest event to a listener which has not yet processed the previous one,
+ * publishing then allocates nothing.
+ * The message bus of {@link mediathek.config.Daten} remains in use for all infrequent events.
+ *
+ * @param <E> type of the event
+ */
+public class EventChannel<E> {
+    private static final Logger logger = LogManager.getLogger(EventChannel.class);
+    private static final ExecutorService worker = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("EventChannel-Worker")
+            .setDaemon(true)
+            .build());
+    private final String name;
+    private final boolean coalesce;
+    @SuppressWarnings("unchecked")
+    private volatile Subscription[] subscriptions = new EventChannel.Subscription[0];
+
+    /**
+     * @param name     name used for logging
+     * @param coalesce true if a listener only needs the latest of several pending events
+     */
+    public EventChannel(@NotNull String name, boolean coalesce) {
+        this.name = name;
+        this.coalesce = coalesce;
+    }
+
+    /**
+     * Register a listener.
+     *
+     * @param dispatch the thread the listener is called on
+     * @param listener the listener
+     * @return the subscription to cancel the registration
+     */
+    public Subscription subscribe(@NotNull Dispatch dispatch, @NotNull Consumer<? super E> listener) {
+        return subscribe(dispatch.executor, listener);
+    }
+
+    synchronized Subscription subscribe(Executor executor, @NotNull Consumer<? super E> listener) {
+        final Subscription subscription = new Subscription(executor, listener);
+        final Subscription[] current = subscriptions;
+        final Subscription[] result = Arrays.copyOf(current, current.length + 1);
+        result[current.length] = subscription;
+        subscriptions = result;
+        return subscription;
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void unsubscribe(Subscription subscription) {
+        final Subscription[] current = subscriptions;
+        for (int i = 0; i < current.length; ++i) {
+            if (current[i] == subscription) {
+                final Subscription[] result = new EventChannel.Subscription[current.length - 1];
+                System.arraycopy(current, 0, result, 0, i);
+                System.arraycopy(current, i + 1, result, i, current.length - i - 1);
+                subscriptions = result;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deliver the event to all listeners, only listeners with {@link Dispatch#DIRECT} are called before returning.
+     */
+    public void publish(@NotNull E event) {
+        for (Subscription subscription : subscriptions) {
+            subscription.deliver(event);
+        }
+    }
+
+    /**
+     * The thread a listener is called on.
+     */
+    public enum Dispatch {
+        /**
+         * The publishing thread, the listener must be fast and must not block.
+         */
+        DIRECT(null),
+        /**
+         * The Swing event dispatch thread.
+         */
+        SWING(SwingUtilities::invokeLater),
+        /**
+         * The JavaFX application thread.
+         */
+        FX(Platform::runLater),
+        /**
+         * A common background thread for all channels.
+         */
+        WORKER(worker);
+
+        private final Executor executor;
+
+        Dispatch(Executor executor) {
+            this.executor = executor;
+        }
+    }
+
+    /**
+     * A registered listener.
+     */
+    public class Subscription implements Runnable {
+        private final Executor executor;
+        private final Consumer<? super E> listener;
+        /**
+         * The latest event not yet delivered, only used by coalescing channels.
+         */
+        private final AtomicReference<E> pending = new AtomicReference<>();
+
+        private Subscription(Executor executor, Consumer<? super E> listener) {
+            this.executor = executor;
+            this.listener = listener;
+        }
+
+        private void deliver(E event) {
+            if (executor == null) {
+                invoke(event);
+            } else if (!coalesce) {
+                executor.execute(() -> invoke(event));
+            } else if (pending.getAndSet(event) == null) {
+                // nur einplanen, wenn nicht schon ein Aufruf aussteht
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            invoke(pending.getAndSet(null));
+        }
+
+        private void invoke(E event) {
+            try {
+                listener.accept(event);
+            } catch (Exception e) {
+                logger.error("Listener of channel {} failed", name, e);
+            }
+        }
+
+        /**
+         * Stop delivering events to the listener, events already scheduled may still arrive.
+         */
+        public void cancel() {
+            unsubscribe(this);
+        }
+    }
+}
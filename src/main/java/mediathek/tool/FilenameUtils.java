@@ -27,6 +27,53 @@ public class FilenameUtils {
     public static final String REGEXP_ILLEGAL_CHARACTERS_OTHERS = "[:\\\\/*|<>]";
     public static final String REGEXP_ILLEGAL_CHARACTERS_OTHERS_PATH = "[:\\\\*|<>]";
 
+    /**
+     * Lookup tables for the character classes above, index is the char value.
+     * Much cheaper than running the regexp for every filename.
+     */
+    private static final boolean[] ILLEGAL_CHARACTERS_WINDOWS = characterTable(":\\/*?|<>\"");
+    private static final boolean[] ILLEGAL_CHARACTERS_WINDOWS_PATH = characterTable(":/*?|<>\"");
+    private static final boolean[] ILLEGAL_CHARACTERS_OTHERS = characterTable(":\\/*|<>");
+    private static final boolean[] ILLEGAL_CHARACTERS_OTHERS_PATH = characterTable(":\\*|<>");
+
+    /**
+     * With UTF-8 as native encoding the encoder round trip only replaces unpaired surrogates,
+     * so we can do this in a simple loop.
+     */
+    private static final boolean NATIVE_ENCODING_UTF8 = StandardCharsets.UTF_8.equals(Charset.defaultCharset());
+
+    private static boolean[] characterTable(String characters) {
+        final boolean[] table = new boolean[128];
+        for (char c : characters.toCharArray()) {
+            table[c] = true;
+        }
+        return table;
+    }
+
+    /**
+     * Replace all characters contained in table with '_'.
+     */
+    private static String replaceCharacters(String input, boolean[] table) {
+        int i = 0;
+        final int len = input.length();
+        while (i < len) {
+            final char c = input.charAt(i);
+            if (c < table.length && table[c])
+                break;
+            i++;
+        }
+        if (i == len)
+            return input;
+
+        final char[] chars = input.toCharArray();
+        for (; i < len; i++) {
+            final char c = chars[i];
+            if (c < table.length && table[c])
+                chars[i] = '_';
+        }
+        return new String(chars);
+    }
+
     public static String checkDateiname(final String name, final boolean isPath) {
         // dient nur zur Anzeige für Probleme (Textfeld wird rot)
         String ret = name;
@@ -123,6 +170,10 @@ public class FilenameUtils {
 
         ret = removeIllegalCharacters(ret, isPath);
 
+        if (NATIVE_ENCODING_UTF8) {
+            return replaceUnpairedSurrogates(ret);
+        }
+
         //convert our filename to OS encoding...
         try {
             final CharsetEncoder charsetEncoder = Charset.defaultCharset().newEncoder();
@@ -166,6 +217,10 @@ public class FilenameUtils {
 
         ret = removeIllegalCharacters(ret, isPath);
 
+        if (NATIVE_ENCODING_UTF8) {
+            return replaceNonAscii(ret);
+        }
+
         //convert our filename to OS encoding...
         try {
             final CharsetEncoder charsetEncoder = StandardCharsets.US_ASCII.newEncoder();
@@ -187,87 +242,133 @@ public class FilenameUtils {
         return ret;
     }
 
+    /**
+     * Same result as the UTF-8 encoder round trip: unpaired surrogates become '_', NUL is removed.
+     */
+    private static String replaceUnpairedSurrogates(String input) {
+        final int len = input.length();
+        final StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < len; i++) {
+            final char c = input.charAt(i);
+            if (c == '\u0000') {
+                continue;
+            }
+            if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(input.charAt(i + 1))) {
+                sb.append(c).append(input.charAt(++i));
+            } else if (Character.isSurrogate(c)) {
+                sb.append('_');
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Same result as the US-ASCII encoder round trip: a surrogate pair or any other non ASCII char becomes
+     * a single '_', NUL is removed.
+     */
+    private static String replaceNonAscii(String input) {
+        final int len = input.length();
+        final StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < len; i++) {
+            final char c = input.charAt(i);
+            if (c == '\u0000') {
+                continue;
+            }
+            if (c < 128) {
+                sb.append(c);
+            } else {
+                if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(input.charAt(i + 1))) {
+                    i++;
+                }
+                sb.append('_');
+            }
+        }
+        return sb.toString();
+    }
+
     private static String cleanUnicode(String ret) {
-        String r = "";
+        final StringBuilder r = new StringBuilder(ret.length());
         char c;
         for (int i = 0; i < ret.length(); ++i) {
             c = ret.charAt(i);
             //char hex = ret.charAt(i);
             if (Character.UnicodeBlock.of(c) == Character.UnicodeBlock.BASIC_LATIN) {
-                r += c;
+                r.append(c);
             } else if (c == 'ß') {
-                r += "ß";
+                r.append("ß");
             } else // Buchstaben
             {
                 if (c == 'Â' || c == 'À' || c == 'Å' || c == 'Á') {
-                    r += "A";
+                    r.append("A");
                 } else if (c == 'å' || c == 'á' || c == 'à' || c == 'â') {
-                    r += "a";
+                    r.append("a");
                 } else if (c == 'Č') {
-                    r += "C";
+                    r.append("C");
                 } else if (c == 'ć' || c == 'č' || c == 'ç') {
-                    r += "c";
+                    r.append("c");
                 } else if (c == 'Đ') {
-                    r += "D";
+                    r.append("D");
                 } else if (c == 'É' || c == 'È') {
-                    r += "E";
+                    r.append("E");
                 } else if (c == 'é' || c == 'è' || c == 'ê' || c == 'ě' || c == 'ë') {
-                    r += "e";
+                    r.append("e");
                 } else if (c == 'í') {
-                    r += "i";
+                    r.append("i");
                 } else if (c == 'ñ') {
-                    r += "n";
+                    r.append("n");
                 } else if (c == 'ó' || c == 'ô' || c == 'ø') {
-                    r += "o";
+                    r.append("o");
                 } else if (c == 'Š') {
-                    r += "S";
+                    r.append("S");
                 } else if (c == 'ś' || c == 'š' || c == 'ş') {
-                    r += "s";
+                    r.append("s");
                 } else if (c == 'ł' || c == 'Ł') {
-                    r += "t";
+                    r.append("t");
                 } else if (c == 'û' || c == 'ù') {
-                    r += "u";
+                    r.append("u");
                 } else if (c == 'ý') {
-                    r += "y";
+                    r.append("y");
                 } else if (c == 'Ž' || c == 'Ź') {
-                    r += "Z";
+                    r.append("Z");
                 } else if (c == 'ž' || c == 'ź') {
-                    r += "z";
+                    r.append("z");
                 } else if (c == 'æ') {
-                    r += "ae";
+                    r.append("ae");
                 } else if (c == '–') {
-                    r += "-";
+                    r.append("-");
                 } else if (c == '„') {
-                    r += "\"";
+                    r.append("\"");
                 } else if (c == '”' || c == '“' || c == '«' || c == '»') {
-                    r += "\"";
+                    r.append("\"");
                 } else if (c == '?') {
-                    r += "?";
+                    r.append("?");
                 } else if (c == '°' || c == '™') {
                 } else if (c == '…') {
-                    r += "...";
+                    r.append("...");
                 } else if (c == '€') {
-                    r += "€";
+                    r.append("€");
                 } else if (c == '´' || c == '’' || c == '‘' || c == '¿') {
-                    r += "'";
+                    r.append("'");
                 } else if (c == '\u003F') {
-                    r += "?";
+                    r.append("?");
                 } else if (c == '\u0096') {
-                    r += "-";
+                    r.append("-");
                 } else if (c == '\u0085') {
                 } else if (c == '\u0080') {
                 } else if (c == '\u0084') {
                 } else if (c == '\u0092') {
                 } else if (c == '\u0093') {
                 } else if (c == '\u0091') {
-                    r += "-";
+                    r.append("-");
                 } else if (c == '\n') {
                 } else {
-                    r += "_";
+                    r.append("_");
                 }
             }
         }
-        return r;
+        return r.toString();
     }
 
     /**
@@ -286,7 +387,7 @@ public class FilenameUtils {
                 //On OSX the VFS take care of writing correct filenames to FAT filesystems...
                 //Just remove the default illegal characters
                 ret = removeStartingDots(ret);
-                ret = ret.replaceAll(isPath ? REGEXP_ILLEGAL_CHARACTERS_OTHERS_PATH : REGEXP_ILLEGAL_CHARACTERS_OTHERS, "_");
+                ret = replaceCharacters(ret, isPath ? ILLEGAL_CHARACTERS_OTHERS_PATH : ILLEGAL_CHARACTERS_OTHERS);
                 break;
 
             case WIN64:
@@ -294,14 +395,14 @@ public class FilenameUtils {
                 //we need to be more careful on Windows when using e.g. FAT32
                 //Therefore be more conservative by default and replace more characters.
                 ret = removeWindowsTrailingDots(ret);
-                ret = ret.replaceAll(isPath ? REGEXP_ILLEGAL_CHARACTERS_WINDOWS_PATH : REGEXP_ILLEGAL_CHARACTERS_WINDOWS, "_");
+                ret = replaceCharacters(ret, isPath ? ILLEGAL_CHARACTERS_WINDOWS_PATH : ILLEGAL_CHARACTERS_WINDOWS);
                 break;
 
             default:
                 //we need to be more careful on Linux when using e.g. FAT32
                 //Therefore be more conservative by default and replace more characters.
                 ret = removeStartingDots(ret);
-                ret = ret.replaceAll(isPath ? REGEXP_ILLEGAL_CHARACTERS_WINDOWS_PATH : REGEXP_ILLEGAL_CHARACTERS_WINDOWS, "_");
+                ret = replaceCharacters(ret, isPath ? ILLEGAL_CHARACTERS_WINDOWS_PATH : ILLEGAL_CHARACTERS_WINDOWS);
                 break;
         }
 
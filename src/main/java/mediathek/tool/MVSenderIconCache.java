@@ -1,9 +1,11 @@
 package mediathek.tool;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.Striped;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import mediathek.config.Daten;
+import mediathek.daten.DatenFilm;
+import mediathek.filmeSuchen.ListenerFilmeLaden;
+import mediathek.filmeSuchen.ListenerFilmeLadenEvent;
 import mediathek.gui.messages.SenderIconStyleChangedEvent;
 import net.engio.mbassy.listener.Handler;
 import okhttp3.Request;
@@ -15,243 +17,343 @@ import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.Optional;
-import java.util.concurrent.ExecutionException;
+import java.awt.image.BufferedImage;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
 
 /**
  * This class will load only one instance for all used sender icons.
+ * Icons are loaded in the background, callers never wait for the network.
+ * Downloaded icons are kept scaled on disk and only revalidated with their ETag once per session.
  */
 public class MVSenderIconCache {
     public static final String CONFIG_USE_LOCAL_SENDER_ICONS = "application.sender_icons.use_local";
     private final static int ICON_SIZE_LARGE = 32;
     private final static int ICON_SIZE_SMALL = 16;
+    private final static int[] ICON_SIZES = {ICON_SIZE_SMALL, ICON_SIZE_LARGE};
+    private static final String WIKI_BASE_URL = "https://upload.wikimedia.org/wikipedia/commons/thumb";
+    private static final String DISK_CACHE_DIR = "sender-icons";
+    /**
+     * All senders {@link #getSource(String)} knows an icon for.
+     */
+    private static final List<String> KNOWN_SENDERS = Arrays.asList("3Sat", "ARD", "ARD.Podcast", "ARTE.DE", "ARTE.FR",
+            "BR", "HR", "KiKA", "MDR", "DW", "NDR", "ORF", "RBB", "SR", "SRF", "SRF.Podcast", "SWR", "WDR", "ZDF",
+            "ZDF-tivi", "PHOENIX", "Funk.net");
     private static final Logger logger = LogManager.getLogger(MVSenderIconCache.class);
     private final AtomicBoolean useLocalIcons = new AtomicBoolean(false);
-    private final LoadingCache<String, Optional<ImageIcon>> senderCache_small = CacheBuilder.newBuilder()
-            .expireAfterAccess(2, TimeUnit.HOURS)
-            .build(new IconCacheLoader(ICON_SIZE_SMALL));
-    private final LoadingCache<String, Optional<ImageIcon>> senderCache = CacheBuilder.newBuilder()
-            .expireAfterAccess(2, TimeUnit.HOURS)
-            .build(new IconCacheLoader(ICON_SIZE_LARGE));
+    private final Map<String, CompletableFuture<Optional<ImageIcon>>> icons = new ConcurrentHashMap<>();
+    /**
+     * Components which show a placeholder and must be repainted when their icon is ready.
+     */
+    private final Set<Component> waiting = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    /**
+     * Urls which were already checked for a new icon in this session.
+     */
+    private final Set<String> revalidated = ConcurrentHashMap.newKeySet();
+    private final Striped<Lock> downloadLocks = Striped.lock(8);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2, new ThreadFactoryBuilder()
+            .setNameFormat("SenderIconLoader-%d")
+            .setDaemon(true)
+            .build());
+    private SenderIconDiskCache diskCache;
 
     public MVSenderIconCache(Daten d) {
-        setupCleanupScheduler();
-
         d.getMessageBus().subscribe(this);
+        // die Icons werden bei Bedarf wieder von der Platte geladen
+        MemoryGovernor.getInstance().register(icons::clear);
         useLocalIcons.set(ApplicationConfiguration.getConfiguration().getBoolean(CONFIG_USE_LOCAL_SENDER_ICONS, false));
+
+        d.getFilmeLaden().addAdListener(new ListenerFilmeLaden() {
+            @Override
+            public void fertig(ListenerFilmeLadenEvent e) {
+                prefetch(d.getListeFilme().stream().map(DatenFilm::getSender).distinct().collect(Collectors.toList()));
+            }
+        });
     }
 
     @Handler
     private void handleSenderIconStyleChangedEvent(SenderIconStyleChangedEvent e) {
         logger.trace("invalidating caches due to sender icon style change");
         useLocalIcons.set(ApplicationConfiguration.getConfiguration().getBoolean(CONFIG_USE_LOCAL_SENDER_ICONS, false));
-        senderCache_small.invalidateAll();
-        senderCache.invalidateAll();
-    }
-
-    private void setupCleanupScheduler() {
-        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-        scheduler.scheduleAtFixedRate(() -> {
-            senderCache.cleanUp();
-            senderCache_small.cleanUp();
-        }, 2, 2, TimeUnit.MINUTES);
+        icons.clear();
     }
 
     /**
-     * Get the icon for a specific sender.
+     * Load the icons of all senders in the background before they are displayed.
      *
-     * @param sender The name of the supported sender.
-     * @param small  large or small icon requested.
-     * @return The {@link javax.swing.ImageIcon} for the sender or null.
+     * @param senders the senders of the film list.
      */
-    public Optional<ImageIcon> get(String sender, boolean small) {
-        Optional<ImageIcon> icon;
-        try {
-            if (small)
-                icon = senderCache_small.get(sender);
-            else
-                icon = senderCache.get(sender);
-        } catch (CacheLoader.InvalidCacheLoadException | ExecutionException ex) {
-            icon = Optional.empty();
+    public void prefetch(List<String> senders) {
+        for (String sender : senders) {
+            getAsync(sender, true);
+            getAsync(sender, false);
         }
+    }
 
-        return icon;
+    /**
+     * Load the icons of all senders with an icon, e.g. at program start before the film list is read.
+     */
+    public void prefetchKnownSenders() {
+        prefetch(KNOWN_SENDERS);
     }
 
-    class IconCacheLoader extends CacheLoader<String, Optional<ImageIcon>> {
-        private static final String WIKI_BASE_URL = "https://upload.wikimedia.org/wikipedia/commons/thumb";
-        private final int height;
+    /**
+     * Get the icon for a specific sender without waiting for it.
+     *
+     * @param sender    The name of the supported sender.
+     * @param small     large or small icon requested.
+     * @param requester component which will be repainted when the icon wasn´t ready yet, may be null.
+     * @return The {@link javax.swing.ImageIcon} for the sender, empty if there is none or it is still loading.
+     */
+    public Optional<ImageIcon> get(String sender, boolean small, Component requester) {
+        final CompletableFuture<Optional<ImageIcon>> future = getAsync(sender, small);
+        final Optional<ImageIcon> icon = future.getNow(null);
+        if (icon != null)
+            return icon;
 
-        public IconCacheLoader(int height) {
-            this.height = height;
+        if (requester != null && waiting.add(requester)) {
+            future.thenRun(() -> SwingUtilities.invokeLater(() -> {
+                waiting.remove(requester);
+                requester.repaint();
+            }));
         }
+        return Optional.empty();
+    }
 
-        private ImageIcon scaleImage(String source, int maxHeight) {
-            int newWidth, priorHeight, priorWidth; // Variables for the old - new ICON_SIZE_LARGE and width
-            Image image;
-            ImageIcon sizeImage;
-
-            image = new ImageIcon(MVSenderIconCache.class.getResource(source)).getImage();
-            sizeImage = new ImageIcon(image);
+    /**
+     * Get the icon for a specific sender.
+     *
+     * @param sender The name of the supported sender.
+     * @param small  large or small icon requested.
+     * @return future of the {@link javax.swing.ImageIcon} for the sender, completed in the background.
+     */
+    public CompletableFuture<Optional<ImageIcon>> getAsync(String sender, boolean small) {
+        final int height = small ? ICON_SIZE_SMALL : ICON_SIZE_LARGE;
+        return icons.computeIfAbsent(sender + '@' + height,
+                k -> CompletableFuture.supplyAsync(() -> load(sender, height), executor)
+                        .exceptionally(ex -> {
+                            logger.error("Could not load sender icon for {}", sender, ex);
+                            return Optional.empty();
+                        }));
+    }
 
-            priorHeight = sizeImage.getIconHeight();
-            priorWidth = sizeImage.getIconWidth();
+    private Optional<ImageIcon> load(@NotNull String sender, int height) {
+        final IconSource source = getSource(sender);
+        if (source == null)
+            return Optional.empty();
 
-            newWidth = (int) (((float) priorWidth / (float) priorHeight) * (float) maxHeight);
+        ImageIcon icon = null;
+        if (source.url != null && !useLocalIcons.get())
+            icon = getNetworkIcon(source.url, height);
 
-            return new ImageIcon(image.getScaledInstance(newWidth, maxHeight, Image.SCALE_AREA_AVERAGING));
+        if (icon == null) {
+            final Image image = new ImageIcon(MVSenderIconCache.class.getResource(source.localResource)).getImage();
+            icon = new ImageIcon(scaleImage(image, height));
         }
 
-        private ImageIcon scaleImage(ImageIcon icon, final int maxHeight) {
-            final float priorHeight = (float) icon.getIconHeight();
-            final float priorWidth = (float) icon.getIconWidth();
+        return Optional.of(icon);
+    }
 
-            final int newWidth = Math.round(((priorWidth / priorHeight) * (float) maxHeight));
-            final Image scaledImage = icon.getImage().getScaledInstance(newWidth, maxHeight, Image.SCALE_AREA_AVERAGING);
+    private synchronized SenderIconDiskCache getDiskCache() {
+        if (diskCache == null)
+            diskCache = new SenderIconDiskCache(Paths.get(Daten.getSettingsDirectory_String()).resolve(DISK_CACHE_DIR));
 
-            return new ImageIcon(scaledImage);
+        return diskCache;
+    }
+
+    /**
+     * Use the cached download and check for a new one in the background.
+     * A changed icon will be displayed after the next start.
+     *
+     * @return the scaled icon or null if it couldn´t be downloaded.
+     */
+    private ImageIcon getNetworkIcon(@NotNull String url, int height) {
+        final Optional<BufferedImage> cached = getDiskCache().read(url, height);
+        if (cached.isPresent()) {
+            if (!revalidated.contains(url))
+                executor.execute(() -> revalidate(url));
+            return new ImageIcon(cached.get());
         }
 
-        /**
-         * Download an icon from network or use local resourcec
-         *
-         * @param networkResource network address to image
-         * @param localResource   resource address
-         * @return the scaled image
-         */
-        private ImageIcon getIcon(@NotNull String networkResource, @NotNull String localResource) {
-            ImageIcon icon = null;
-
-            if (!useLocalIcons.get()) {
-                final Request request = new Request.Builder()
-                        .url(networkResource)
-                        .get()
-                        .build();
-
-                try (Response response = MVHttpClient.getInstance().getReducedTimeOutClient().newCall(request).execute();
-                     ResponseBody body = response.body()) {
-                    if (response.isSuccessful() && body != null) {
-                        icon = scaleImage(new ImageIcon(body.bytes()), height);
-                    } else
-                        icon = null;
-                } catch (Exception ex) {
-                    icon = null;
+        revalidate(url);
+        return getDiskCache().read(url, height).map(ImageIcon::new).orElse(null);
+    }
+
+    /**
+     * Download the icon if it has changed since the cached download and store all scaled variants.
+     * Only an answer with a usable icon or 304 counts as revalidated, after a failure the next lookup tries again.
+     */
+    private void revalidate(@NotNull String url) {
+        final Lock lock = downloadLocks.get(url);
+        lock.lock();
+        try {
+            if (revalidated.contains(url))
+                return;
+
+            final SenderIconDiskCache cache = getDiskCache();
+            final String etag = cache.getEtag(url);
+            final Request.Builder builder = new Request.Builder()
+                    .url(url)
+                    .get();
+            if (etag != null && !etag.isEmpty())
+                builder.header("If-None-Match", etag);
+
+            try (Response response = MVHttpClient.getInstance().getReducedTimeOutClient().newCall(builder.build()).execute();
+                 ResponseBody body = response.body()) {
+                if (response.code() == 304)
+                    revalidated.add(url);
+                else if (response.isSuccessful() && body != null) {
+                    final ImageIcon icon = new ImageIcon(body.bytes());
+                    //if network is unreachable we get an image with size -1...
+                    if (icon.getIconWidth() > 0 && icon.getIconHeight() > 0) {
+                        final Map<Integer, BufferedImage> variants = new HashMap<>();
+                        for (int height : ICON_SIZES)
+                            variants.put(height, scaleImage(icon.getImage(), height));
+
+                        final String newEtag = response.header("ETag");
+                        if (cache.store(url, newEtag == null ? "" : newEtag, variants))
+                            revalidated.add(url);
+                    }
                 }
+            } catch (Exception ex) {
+                logger.debug("Could not download sender icon {}", url, ex);
             }
+        } finally {
+            lock.unlock();
+        }
+    }
 
-            //if network is unreachable we get an image with size -1...
-            if (icon == null || icon.getIconWidth() < 0 || icon.getIconHeight() < 0)
-                icon = scaleImage(localResource, height);
+    private BufferedImage scaleImage(Image image, final int maxHeight) {
+        final float priorHeight = (float) image.getHeight(null);
+        final float priorWidth = (float) image.getWidth(null);
 
-            return icon;
-        }
+        final int newWidth = Math.max(1, Math.round(((priorWidth / priorHeight) * (float) maxHeight)));
+        // ImageIcon wartet bis das skalierte Bild fertig ist
+        final Image scaledImage = new ImageIcon(image.getScaledInstance(newWidth, maxHeight, Image.SCALE_AREA_AVERAGING)).getImage();
 
-        @Override
-        public Optional<ImageIcon> load(@NotNull String sender) {
-            ImageIcon icon;
+        final BufferedImage result = new BufferedImage(newWidth, maxHeight, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D g = result.createGraphics();
+        g.drawImage(scaledImage, 0, 0, null);
+        g.dispose();
 
-            switch (sender) {
-                case "3Sat":
-                    icon = getIcon(WIKI_BASE_URL + "/f/f2/3sat-Logo.svg/775px-3sat-Logo.svg.png", "/mediathek/res/sender/3sat.png");
-                    break;
+        return result;
+    }
 
-                case "ARD":
-                case "ARD.Podcast":
-                    icon = getIcon(WIKI_BASE_URL + "/6/68/ARD_logo.svg/320px-ARD_logo.svg.png", "/mediathek/res/sender/ard.png");
-                    break;
+    private static IconSource getSource(String sender) {
+        final IconSource source;
 
-                case "ARTE.DE":
-                    icon = getIcon(WIKI_BASE_URL + "/0/0e/Arte_Logo_2011.svg/320px-Arte_Logo_2011.svg.png", "/mediathek/res/sender/arte-de.png");
-                    break;
+        switch (sender) {
+            case "3Sat":
+                source = new IconSource(WIKI_BASE_URL + "/f/f2/3sat-Logo.svg/775px-3sat-Logo.svg.png", "/mediathek/res/sender/3sat.png");
+                break;
 
-                case "ARTE.FR":
-                    icon = scaleImage("/mediathek/res/sender/arte-fr.png", height);
-                    break;
+            case "ARD":
+            case "ARD.Podcast":
+                source = new IconSource(WIKI_BASE_URL + "/6/68/ARD_logo.svg/320px-ARD_logo.svg.png", "/mediathek/res/sender/ard.png");
+                break;
 
-                case "BR":
-                    icon = getIcon(WIKI_BASE_URL + "/9/98/BR_Dachmarke.svg/320px-BR_Dachmarke.svg.png", "/mediathek/res/sender/br.png");
-                    break;
+            case "ARTE.DE":
+                source = new IconSource(WIKI_BASE_URL + "/0/0e/Arte_Logo_2011.svg/320px-Arte_Logo_2011.svg.png", "/mediathek/res/sender/arte-de.png");
+                break;
 
-                case "HR":
-                    icon = getIcon(WIKI_BASE_URL + "/6/63/HR_Logo.svg/519px-HR_Logo.svg.png", "/mediathek/res/sender/hr.png");
-                    break;
+            case "ARTE.FR":
+                source = new IconSource(null, "/mediathek/res/sender/arte-fr.png");
+                break;
 
-                case "KiKA":
-                    icon = getIcon(WIKI_BASE_URL + "/f/f5/Kika_2012.svg/320px-Kika_2012.svg.png", "/mediathek/res/sender/kika.png");
-                    break;
+            case "BR":
+                source = new IconSource(WIKI_BASE_URL + "/9/98/BR_Dachmarke.svg/320px-BR_Dachmarke.svg.png", "/mediathek/res/sender/br.png");
+                break;
 
-                case "MDR":
-                    icon = getIcon(WIKI_BASE_URL + "/6/61/MDR_Logo_2017.svg/800px-MDR_Logo_2017.svg.png", "/mediathek/res/sender/mdr.png");
-                    break;
+            case "HR":
+                source = new IconSource(WIKI_BASE_URL + "/6/63/HR_Logo.svg/519px-HR_Logo.svg.png", "/mediathek/res/sender/hr.png");
+                break;
 
-                case "DW":
-                    icon = getIcon(WIKI_BASE_URL + "/6/69/Deutsche_Welle_Logo.svg/743px-Deutsche_Welle_Logo.svg.png", "/mediathek/res/sender/dw.png");
-                    break;
+            case "KiKA":
+                source = new IconSource(WIKI_BASE_URL + "/f/f5/Kika_2012.svg/320px-Kika_2012.svg.png", "/mediathek/res/sender/kika.png");
+                break;
 
-                case "NDR":
-                    icon = getIcon(WIKI_BASE_URL + "/0/08/NDR_Dachmarke.svg/308px-NDR_Dachmarke.svg.png", "/mediathek/res/sender/ndr.png");
-                    break;
+            case "MDR":
+                source = new IconSource(WIKI_BASE_URL + "/6/61/MDR_Logo_2017.svg/800px-MDR_Logo_2017.svg.png", "/mediathek/res/sender/mdr.png");
+                break;
 
-                case "ORF":
-                    icon = getIcon(WIKI_BASE_URL + "/d/dd/ORF_logo.svg/709px-ORF_logo.svg.png", "/mediathek/res/sender/orf.png");
-                    break;
+            case "DW":
+                source = new IconSource(WIKI_BASE_URL + "/6/69/Deutsche_Welle_Logo.svg/743px-Deutsche_Welle_Logo.svg.png", "/mediathek/res/sender/dw.png");
+                break;
 
-                case "RBB":
-                    icon = getIcon(WIKI_BASE_URL + "/7/79/Rbb_Logo_2017.08.svg/320px-Rbb_Logo_2017.08.svg.png", "/mediathek/res/sender/rbb.png");
-                    break;
+            case "NDR":
+                source = new IconSource(WIKI_BASE_URL + "/0/08/NDR_Dachmarke.svg/308px-NDR_Dachmarke.svg.png", "/mediathek/res/sender/ndr.png");
+                break;
 
-                case "SR":
-                    icon = getIcon(WIKI_BASE_URL + "/8/83/SR_Dachmarke.svg/602px-SR_Dachmarke.svg.png", "/mediathek/res/sender/sr.png");
-                    break;
+            case "ORF":
+                source = new IconSource(WIKI_BASE_URL + "/d/dd/ORF_logo.svg/709px-ORF_logo.svg.png", "/mediathek/res/sender/orf.png");
+                break;
 
-                case "SRF":
-                    icon = getIcon(WIKI_BASE_URL + "/8/84/Schweizer_Radio_und_Fernsehen_Logo.svg/559px-Schweizer_Radio_und_Fernsehen_Logo.svg.png", "/mediathek/res/sender/srf.png");
-                    break;
+            case "RBB":
+                source = new IconSource(WIKI_BASE_URL + "/7/79/Rbb_Logo_2017.08.svg/320px-Rbb_Logo_2017.08.svg.png", "/mediathek/res/sender/rbb.png");
+                break;
 
-                case "SRF.Podcast":
-                    icon = scaleImage("/mediathek/res/sender/srf-podcast.png", height);
-                    break;
+            case "SR":
+                source = new IconSource(WIKI_BASE_URL + "/8/83/SR_Dachmarke.svg/602px-SR_Dachmarke.svg.png", "/mediathek/res/sender/sr.png");
+                break;
 
-                case "SWR":
-                    icon = getIcon(WIKI_BASE_URL + "/6/6f/SWR_Dachmarke.svg/320px-SWR_Dachmarke.svg.png", "/mediathek/res/sender/swr.png");
-                    break;
+            case "SRF":
+                source = new IconSource(WIKI_BASE_URL + "/8/84/Schweizer_Radio_und_Fernsehen_Logo.svg/559px-Schweizer_Radio_und_Fernsehen_Logo.svg.png", "/mediathek/res/sender/srf.png");
+                break;
 
-                case "WDR":
-                    icon = getIcon(WIKI_BASE_URL + "/9/9b/WDR_Dachmarke.svg/320px-WDR_Dachmarke.svg.png", "/mediathek/res/sender/wdr.png");
-                    break;
+            case "SRF.Podcast":
+                source = new IconSource(null, "/mediathek/res/sender/srf-podcast.png");
+                break;
 
-                case "ZDF":
-                    icon = getIcon(WIKI_BASE_URL + "/c/c1/ZDF_logo.svg/320px-ZDF_logo.svg.png", "/mediathek/res/sender/zdf.png");
-                    break;
+            case "SWR":
+                source = new IconSource(WIKI_BASE_URL + "/6/6f/SWR_Dachmarke.svg/320px-SWR_Dachmarke.svg.png", "/mediathek/res/sender/swr.png");
+                break;
 
-                case "ZDF-tivi":
-                    icon = scaleImage("/mediathek/res/sender/zdf-tivi.png", height);
-                    break;
+            case "WDR":
+                source = new IconSource(WIKI_BASE_URL + "/9/9b/WDR_Dachmarke.svg/320px-WDR_Dachmarke.svg.png", "/mediathek/res/sender/wdr.png");
+                break;
 
-                case "PHOENIX":
-                    icon = getIcon(WIKI_BASE_URL + "/d/de/Phoenix_Logo_2018_ohne_Claim.svg/640px-Phoenix_Logo_2018_ohne_Claim.svg.png", "/mediathek/res/sender/phoenix.png");
-                    break;
+            case "ZDF":
+                source = new IconSource(WIKI_BASE_URL + "/c/c1/ZDF_logo.svg/320px-ZDF_logo.svg.png", "/mediathek/res/sender/zdf.png");
+                break;
 
-                case "Funk.net":
-                    icon = getIcon(WIKI_BASE_URL + "/9/99/Funk_Logo.svg/454px-Funk_Logo.svg.png", "/mediathek/res/sender/funk_net.png");
-                    break;
+            case "ZDF-tivi":
+                source = new IconSource(null, "/mediathek/res/sender/zdf-tivi.png");
+                break;
 
-                default:
-                    icon = null;
-                    break;
-            }
+            case "PHOENIX":
+                source = new IconSource(WIKI_BASE_URL + "/d/de/Phoenix_Logo_2018_ohne_Claim.svg/640px-Phoenix_Logo_2018_ohne_Claim.svg.png", "/mediathek/res/sender/phoenix.png");
+                break;
+
+            case "Funk.net":
+                source = new IconSource(WIKI_BASE_URL + "/9/99/Funk_Logo.svg/454px-Funk_Logo.svg.png", "/mediathek/res/sender/funk_net.png");
+                break;
 
-            final Optional<ImageIcon> optIcon;
-            if (icon == null)
-                optIcon = Optional.empty();
-            else
-                optIcon = Optional.of(icon);
+            default:
+                source = null;
+                break;
+        }
+
+        return source;
+    }
+
+    /**
+     * Network address of the icon and bundled resource used if the network is not used or unreachable.
+     */
+    private static class IconSource {
+        private final String url;
+        private final String localResource;
 
-            return optIcon;
+        IconSource(String url, String localResource) {
+            this.url = url;
+            this.localResource = localResource;
         }
     }
 }
@@ -78,15 +78,12 @@ public class MVSubtitle {
     }
 
     private void convertSubtitle(DatenDownload datenDownload, Path ttmlPath, String strSubtitleFile) {
-        try (TimedTextMarkupLanguageParser ttmlp = new TimedTextMarkupLanguageParser()) {
+        try {
             if (!strSubtitleFile.endsWith('.' + SUFFIX_SRT) && !strSubtitleFile.endsWith("." + SUFFIX_VTT)) {
                 final Path srt = Paths.get(datenDownload.getFileNameWithoutSuffix() + "." + SUFFIX_SRT);
-                if (ttmlp.parse(ttmlPath)) {
-                    ttmlp.toSrt(srt);
-                } else if (ttmlp.parseXmlFlash(ttmlPath)) {
-                    ttmlp.toSrt(srt);
+                if (new TimedTextMarkupLanguageParser().convert(ttmlPath, srt)) {
+                    logger.info("Untertitel-Datei wurde konvertiert.");
                 }
-                logger.info("Untertitel-Datei wurde konvertiert.");
             }
         } catch (Exception ex) {
             logger.error("Fehler bei Untertitel schreiben:", ex);
@@ -0,0 +1,179 @@
+package mediathek.tool;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.*;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Watches the heap while the program runs and lets caches give up memory when it gets scarce.
+ * The JVM reports when the old generation is still filled above {@link #PRESSURE_THRESHOLD} after a garbage
+ * collection, then all registered consumers drop what they can rebuild later. After a garbage collection
+ * which leaves less than {@link #RELIEF_THRESHOLD} in use, the consumers may restore their state again.
+ * <p>
+ * {@link #isLowMemory()} tells whether new data should be kept small: always with a heap below {@link #SMALL_HEAP},
+ * otherwise only while the heap is under pressure.
+ */
+public class MemoryGovernor {
+    /**
+     * Fraction of the old generation which must be in use after a collection to shed caches.
+     */
+    static final double PRESSURE_THRESHOLD = 0.85;
+    /**
+     * Fraction of the old generation below which the caches are restored.
+     */
+    static final double RELIEF_THRESHOLD = 0.6;
+    /**
+     * A maximum heap below this size is always treated as low memory.
+     */
+    static final long SMALL_HEAP = 640L * 1024 * 1024;
+    private static final String GC_NOTIFICATION = "com.sun.management.gc.notification";
+    private static final Logger logger = LogManager.getLogger(MemoryGovernor.class);
+    private static MemoryGovernor instance;
+    private final List<MemoryConsumer> consumers = new CopyOnWriteArrayList<>();
+    /**
+     * Shedding and restoring never runs on the notification thread of the JVM.
+     */
+    private final Executor executor;
+    private final boolean smallHeap;
+    private MemoryPoolMXBean oldGen;
+    private volatile boolean underPressure;
+
+    MemoryGovernor(@NotNull Executor executor) {
+        this(executor, Runtime.getRuntime().maxMemory());
+    }
+
+    MemoryGovernor(@NotNull Executor executor, long maxHeap) {
+        this.executor = executor;
+        smallHeap = maxHeap < SMALL_HEAP;
+    }
+
+    public static synchronized MemoryGovernor getInstance() {
+        if (instance == null) {
+            instance = new MemoryGovernor(Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("MemoryGovernor")
+                    .setDaemon(true)
+                    .build()));
+            instance.start();
+        }
+        return instance;
+    }
+
+    private static MemoryPoolMXBean findOldGen() {
+        MemoryPoolMXBean result = null;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            // nur der Bereich der langlebigen Objekte unterstützt beide Schwellen
+            if (pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported()
+                    && pool.isCollectionUsageThresholdSupported() && pool.getUsage().getMax() > 0) {
+                if (result == null || pool.getUsage().getMax() > result.getUsage().getMax())
+                    result = pool;
+            }
+        }
+        return result;
+    }
+
+    private void start() {
+        oldGen = findOldGen();
+        if (oldGen == null) {
+            logger.warn("No heap pool with collection usage threshold found, memory governor disabled");
+            return;
+        }
+
+        final long max = oldGen.getUsage().getMax();
+        oldGen.setCollectionUsageThreshold((long) (max * PRESSURE_THRESHOLD));
+        logger.trace("Watching memory pool {}, max {} MB", oldGen.getName(), max / (1024 * 1024));
+
+        final NotificationListener listener = (notification, handback) -> {
+            if (notification.getType().equals(MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED)
+                    || notification.getType().equals(GC_NOTIFICATION)) {
+                final MemoryUsage usage = oldGen.getCollectionUsage();
+                if (usage != null)
+                    update(usage.getUsed(), usage.getMax());
+            }
+        };
+        ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(listener, null, null);
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter)
+                ((NotificationEmitter) gc).addNotificationListener(listener, null, null);
+        }
+    }
+
+    /**
+     * Register a consumer which will be asked to give up memory.
+     */
+    public void register(@NotNull MemoryConsumer consumer) {
+        consumers.add(consumer);
+    }
+
+    public boolean isUnderPressure() {
+        return underPressure;
+    }
+
+    /**
+     * @return true if the maximum heap is below {@link #SMALL_HEAP}, this does not change while the program runs.
+     */
+    public boolean isSmallHeap() {
+        return smallHeap;
+    }
+
+    /**
+     * @return true if new data should be stored outside the heap and indices should not be built.
+     */
+    public boolean isLowMemory() {
+        return smallHeap || underPressure;
+    }
+
+    /**
+     * Evaluate the usage of the old generation after a garbage collection.
+     *
+     * @param used bytes in use after the collection
+     * @param max  size of the pool
+     */
+    synchronized void update(long used, long max) {
+        if (max <= 0)
+            return;
+
+        final double fill = (double) used / max;
+        if (!underPressure && fill >= PRESSURE_THRESHOLD) {
+            underPressure = true;
+            logger.warn("Memory pressure: {}% of heap in use after GC, dropping caches", Math.round(fill * 100));
+            executor.execute(() -> consumers.forEach(c -> run(c::shed)));
+        } else if (underPressure && fill < RELIEF_THRESHOLD) {
+            underPressure = false;
+            logger.info("Memory pressure relieved: {}% of heap in use after GC", Math.round(fill * 100));
+            executor.execute(() -> consumers.forEach(c -> run(c::restore)));
+        }
+    }
+
+    private void run(Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            logger.error("Memory consumer failed", e);
+        }
+    }
+
+    /**
+     * Holds memory which can be released and rebuilt later.
+     */
+    public interface MemoryConsumer {
+        /**
+         * Release as much memory as possible, everything dropped must be rebuilt on demand.
+         */
+        void shed();
+
+        /**
+         * Enough memory is available again, rebuild state eagerly if it is worth it.
+         */
+        default void restore() {
+        }
+    }
+}
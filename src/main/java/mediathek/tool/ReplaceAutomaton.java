@@ -0,0 +1,225 @@
+package mediathek.tool;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compiled form of the {@link ReplaceList}.
+ * All "von" strings are put into one Aho-Corasick automaton so a single scan finds every match.
+ * The matches are then assigned rule by rule in table order, which gives the same result as calling
+ * {@link String#replace(CharSequence, CharSequence)} once per rule as long as a replacement can´t
+ * create a match for a later rule. If it can, the rules are applied one after another like before.
+ */
+final class ReplaceAutomaton {
+    private final String[] von;
+    private final String[] nach;
+    /**
+     * True if one "nach" can produce a match for a following rule, then only the sequential replace is correct.
+     */
+    private final boolean sequential;
+    private final Node root = new Node();
+
+    /**
+     * @param rules the replace table, rules with empty "von" must already be removed.
+     */
+    ReplaceAutomaton(List<String[]> rules) {
+        von = new String[rules.size()];
+        nach = new String[rules.size()];
+        for (int i = 0; i < von.length; i++) {
+            final String[] rule = rules.get(i);
+            von[i] = rule[ReplaceList.VON_NR];
+            nach[i] = rule[ReplaceList.NACH_NR];
+        }
+        sequential = needsSequentialReplace();
+
+        if (!sequential) {
+            for (int i = 0; i < von.length; i++) {
+                insert(i);
+            }
+            buildFailureLinks();
+        }
+    }
+
+    /**
+     * A later rule can only match text that an earlier rule produced if it shares characters with the
+     * replacement or if an empty replacement joins the text around it.
+     */
+    private boolean needsSequentialReplace() {
+        for (int i = 0; i < von.length; i++) {
+            for (int k = i + 1; k < von.length; k++) {
+                if (nach[i].isEmpty() && von[k].length() > 1) {
+                    return true;
+                }
+                for (int c = 0; c < von[k].length(); c++) {
+                    if (nach[i].indexOf(von[k].charAt(c)) >= 0) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    String replace(String strCheck) {
+        if (von.length == 0 || strCheck.isEmpty()) {
+            return strCheck;
+        }
+
+        if (sequential) {
+            for (int i = 0; i < von.length; i++) {
+                strCheck = strCheck.replace(von[i], nach[i]);
+            }
+            return strCheck;
+        }
+
+        // alle Treffer in einem Durchlauf suchen
+        final int len = strCheck.length();
+        int[] matchRule = new int[8];
+        int[] matchStart = new int[8];
+        int matches = 0;
+        Node state = root;
+        for (int i = 0; i < len; i++) {
+            final char c = strCheck.charAt(i);
+            Node child = state.child(c);
+            while (child == null && state != root) {
+                state = state.fail;
+                child = state.child(c);
+            }
+            state = child == null ? root : child;
+            for (int rule : state.output) {
+                if (matches == matchRule.length) {
+                    matchRule = Arrays.copyOf(matchRule, matches * 2);
+                    matchStart = Arrays.copyOf(matchStart, matches * 2);
+                }
+                matchRule[matches] = rule;
+                matchStart[matches] = i - von[rule].length() + 1;
+                matches++;
+            }
+        }
+        if (matches == 0) {
+            return strCheck;
+        }
+
+        // Treffer in der Reihenfolge der Tabelle vergeben, ein Bereich wird nur einmal ersetzt
+        final int[] replaceAt = new int[len];
+        Arrays.fill(replaceAt, -1);
+        final boolean[] used = new boolean[len];
+        for (int rule = 0; rule < von.length; rule++) {
+            final int length = von[rule].length();
+            int lastEnd = 0;
+            for (int m = 0; m < matches; m++) {
+                final int start = matchStart[m];
+                if (matchRule[m] != rule || start < lastEnd || isUsed(used, start, start + length)) {
+                    continue;
+                }
+                Arrays.fill(used, start, start + length, true);
+                replaceAt[start] = rule;
+                lastEnd = start + length;
+            }
+        }
+
+        final StringBuilder sb = new StringBuilder(len + 16);
+        int i = 0;
+        while (i < len) {
+            final int rule = replaceAt[i];
+            if (rule < 0) {
+                sb.append(strCheck.charAt(i));
+                i++;
+            } else {
+                sb.append(nach[rule]);
+                i += von[rule].length();
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isUsed(boolean[] used, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (used[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void insert(int rule) {
+        Node node = root;
+        for (char c : von[rule].toCharArray()) {
+            Node child = node.child(c);
+            if (child == null) {
+                child = node.addChild(c);
+            }
+            node = child;
+        }
+        node.output = append(node.output, rule);
+    }
+
+    private void buildFailureLinks() {
+        final ArrayDeque<Node> queue = new ArrayDeque<>();
+        root.fail = root;
+        for (int i = 0; i < root.size; i++) {
+            final Node child = root.children[i];
+            child.fail = root;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            final Node node = queue.poll();
+            for (int i = 0; i < node.size; i++) {
+                final char c = node.keys[i];
+                final Node child = node.children[i];
+
+                Node fail = node.fail;
+                Node target = fail.child(c);
+                while (target == null && fail != root) {
+                    fail = fail.fail;
+                    target = fail.child(c);
+                }
+                child.fail = target == null ? root : target;
+                for (int rule : child.fail.output) {
+                    child.output = append(child.output, rule);
+                }
+                queue.add(child);
+            }
+        }
+    }
+
+    private static int[] append(int[] array, int value) {
+        final int[] ret = Arrays.copyOf(array, array.length + 1);
+        ret[array.length] = value;
+        return ret;
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int size;
+        private Node fail;
+        /**
+         * Rules whose "von" ends in this node.
+         */
+        private int[] output = new int[0];
+
+        Node child(char c) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node addChild(char c) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2 + 1);
+                children = Arrays.copyOf(children, size * 2 + 1);
+            }
+            final Node child = new Node();
+            keys[size] = c;
+            children[size] = child;
+            size++;
+            return child;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package mediathek.tool;
 
 import mediathek.config.Daten;
+import mediathek.gui.messages.BaseEvent;
 import mediathek.gui.messages.ReplaceListChangedEvent;
+import net.engio.mbassy.bus.MBassador;
+import net.engio.mbassy.listener.Handler;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -19,16 +23,61 @@ public final class ReplaceList {
 
     public static List<String[]> list = new LinkedList<>();
 
+    /**
+     * Must be a strong reference as the message bus only holds weak references.
+     */
+    private static final ChangeListener changeListener = new ChangeListener();
+
+    /**
+     * The compiled tables for names and for paths, null if they need to be rebuilt.
+     */
+    private static volatile ReplaceAutomaton[] compiled;
+
+    /**
+     * Rebuild the compiled table whenever a {@link ReplaceListChangedEvent} is published.
+     */
+    public static void subscribe(MBassador<BaseEvent> messageBus) {
+        messageBus.subscribe(changeListener);
+    }
+
     public static void init() {
         list.clear();
         list.add(new String[]{" ", "_"});
+        invalidate();
     }
 
     public static void clear() {
         list.clear();
+        invalidate();
+    }
+
+    /**
+     * The table was changed without a {@link ReplaceListChangedEvent}, rebuild the compiled form on next use.
+     */
+    public static synchronized void invalidate() {
+        compiled = null;
     }
 
     public static String replace(String strCheck, boolean pfad) {
+        ReplaceAutomaton[] automaton = compiled;
+        if (automaton == null) {
+            automaton = compile();
+        }
+        return automaton[pfad ? 1 : 0].replace(strCheck);
+    }
+
+    /**
+     * Build the compiled tables if needed.
+     * Check and assignment happen under the same lock as {@link #invalidate()}, so an invalidation is never lost.
+     */
+    private static synchronized ReplaceAutomaton[] compile() {
+        if (compiled != null)
+            return compiled;
+
+        final List<String[]> names = new ArrayList<>();
+        final List<String[]> paths = new ArrayList<>();
+        boolean removed = false;
+
         final var it = list.iterator();
         while (it.hasNext()) {
             String[] strReplace = it.next();
@@ -36,18 +85,21 @@ public final class ReplaceList {
             // hat der Nutzer als Suchbegriff "leer" eingegeben, dann weg damit
             if (strReplace[0].isEmpty()) {
                 it.remove();
-                Daten.getInstance().getMessageBus().publishAsync(new ReplaceListChangedEvent());
+                removed = true;
                 continue;
             }
 
+            names.add(strReplace);
             // bei Pfaden darf / oder \ natürlich nicht entfernt werden
-            if (pfad && strReplace[0].equals(File.separator))
-                continue;
+            if (!strReplace[0].equals(File.separator))
+                paths.add(strReplace);
+        }
 
+        if (removed)
+            Daten.getInstance().getMessageBus().publishAsync(new ReplaceListChangedEvent());
 
-            strCheck = strCheck.replace(strReplace[0], strReplace[1]);
-        }
-        return strCheck;
+        compiled = new ReplaceAutomaton[]{new ReplaceAutomaton(names), new ReplaceAutomaton(paths)};
+        return compiled;
     }
 
     public static boolean check() {
@@ -74,7 +126,14 @@ public final class ReplaceList {
             ++neu;
         }
         list.add(neu, replace);
+        invalidate();
         return neu;
     }
 
+    private static final class ChangeListener {
+        @Handler
+        private void handleReplaceListChange(ReplaceListChangedEvent e) {
+            invalidate();
+        }
+    }
 }
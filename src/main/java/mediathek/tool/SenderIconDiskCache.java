@@ -0,0 +1,121 @@
+package mediathek.tool;
+
+import com.google.common.hash.Hashing;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Stores the downloaded sender icons already scaled to every used size.
+ * The files are keyed by url and ETag of the download, an index file remembers the current ETag of every url.
+ */
+class SenderIconDiskCache {
+    private static final Logger logger = LogManager.getLogger(SenderIconDiskCache.class);
+    private static final String INDEX_FILE = "index.properties";
+    private final Path directory;
+    private final Properties index = new Properties();
+
+    SenderIconDiskCache(@NotNull Path directory) {
+        this.directory = directory;
+        try (InputStream is = Files.newInputStream(directory.resolve(INDEX_FILE))) {
+            index.load(is);
+        } catch (NoSuchFileException ignored) {
+        } catch (IOException e) {
+            logger.warn("Could not read sender icon cache index", e);
+        }
+    }
+
+    private static String fileName(String url, String etag, int height) {
+        return Hashing.sha256().hashString(url + '\n' + etag, StandardCharsets.UTF_8) + "-" + height + ".png";
+    }
+
+    /**
+     * @return the ETag of the cached download of url, empty if the server didn´t send one, null if url is not cached.
+     */
+    synchronized String getEtag(@NotNull String url) {
+        return index.getProperty(url);
+    }
+
+    /**
+     * Read the variant of the cached icon.
+     *
+     * @param url    download address of the icon
+     * @param height requested size
+     * @return the scaled icon if it is cached
+     */
+    Optional<BufferedImage> read(@NotNull String url, int height) {
+        final String etag = getEtag(url);
+        if (etag == null)
+            return Optional.empty();
+
+        final Path file = directory.resolve(fileName(url, etag, height));
+        if (Files.notExists(file))
+            return Optional.empty();
+
+        try (InputStream is = Files.newInputStream(file)) {
+            return Optional.ofNullable(ImageIO.read(is));
+        } catch (IOException e) {
+            logger.warn("Could not read cached sender icon {}", file, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Store all scaled variants of a new download and remove the ones of the old download.
+     *
+     * @param url      download address of the icon
+     * @param etag     ETag of the download, may be empty
+     * @param variants the scaled icons by their height
+     * @return false if the icons could not be written.
+     */
+    synchronized boolean store(@NotNull String url, @NotNull String etag, @NotNull Map<Integer, BufferedImage> variants) {
+        try {
+            Files.createDirectories(directory);
+            for (Map.Entry<Integer, BufferedImage> variant : variants.entrySet()) {
+                final Path file = directory.resolve(fileName(url, etag, variant.getKey()));
+                final Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+                try (OutputStream os = Files.newOutputStream(tmp)) {
+                    ImageIO.write(variant.getValue(), "png", os);
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            final String oldEtag = index.getProperty(url);
+            index.setProperty(url, etag);
+            storeIndex();
+
+            if (oldEtag != null && !oldEtag.equals(etag)) {
+                for (int height : variants.keySet()) {
+                    Files.deleteIfExists(directory.resolve(fileName(url, oldEtag, height)));
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            logger.warn("Could not cache sender icon {}", url, e);
+            return false;
+        }
+    }
+
+    private void storeIndex() throws IOException {
+        final Path file = directory.resolve(INDEX_FILE);
+        final Path tmp = file.resolveSibling(INDEX_FILE + ".tmp");
+        try (OutputStream os = Files.newOutputStream(tmp)) {
+            index.store(os, null);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,108 @@
+package mediathek.tool;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs the steps of the program start as a graph of tasks.
+ * A task starts as soon as all tasks it depends on are finished, independent tasks run in parallel.
+ * Start and duration of every task are logged, so a slow start can be traced to the responsible step.
+ */
+public class StartupGraph {
+    private static final Logger logger = LogManager.getLogger(StartupGraph.class);
+    private final Map<String, CompletableFuture<Void>> tasks = new LinkedHashMap<>();
+    private final Map<String, String> timings = new ConcurrentHashMap<>();
+    private final Stopwatch total = Stopwatch.createStarted();
+    private final ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("Startup-%d")
+            .build());
+
+    /**
+     * Add a task which runs on the startup threads.
+     *
+     * @param name         unique name of the task, used in the log and for dependencies
+     * @param action       the work of the task
+     * @param dependencies names of the tasks which must be finished before, must be added before
+     */
+    public void add(@NotNull String name, @NotNull Runnable action, String... dependencies) {
+        add(name, executor, action, dependencies);
+    }
+
+    /**
+     * Add a task which runs on a specific executor, e.g. {@link javax.swing.SwingUtilities#invokeLater(Runnable)}.
+     *
+     * @param name         unique name of the task, used in the log and for dependencies
+     * @param taskExecutor where the task runs
+     * @param action       the work of the task
+     * @param dependencies names of the tasks which must be finished before, must be added before
+     */
+    public synchronized void add(@NotNull String name, @NotNull Executor taskExecutor, @NotNull Runnable action, String... dependencies) {
+        if (tasks.containsKey(name))
+            throw new IllegalArgumentException("Startup task already exists: " + name);
+
+        final CompletableFuture<?>[] before = new CompletableFuture<?>[dependencies.length];
+        for (int i = 0; i < dependencies.length; ++i) {
+            before[i] = tasks.get(dependencies[i]);
+            if (before[i] == null)
+                throw new IllegalArgumentException("Unknown startup task: " + dependencies[i]);
+        }
+
+        final CompletableFuture<Void> task = CompletableFuture.allOf(before).thenRunAsync(() -> {
+            final long start = total.elapsed(TimeUnit.MILLISECONDS);
+            final Stopwatch watch = Stopwatch.createStarted();
+            try {
+                action.run();
+            } finally {
+                watch.stop();
+                timings.put(name, watch.toString());
+                logger.info("Startphase {}: {} (gestartet nach {} ms)", name, watch, start);
+            }
+        }, taskExecutor);
+        task.whenComplete((r, ex) -> {
+            // nur den Auslöser melden, nicht alle abhängigen Schritte
+            if (ex != null && Arrays.stream(before).noneMatch(CompletableFuture::isCompletedExceptionally)) {
+                logger.error("Startphase {} fehlgeschlagen", name, ex);
+            }
+        });
+        tasks.put(name, task);
+    }
+
+    /**
+     * @return true if the task has finished without error
+     */
+    public synchronized boolean isCompleted(@NotNull String name) {
+        final CompletableFuture<Void> task = tasks.get(name);
+        return task != null && task.isDone() && !task.isCompletedExceptionally();
+    }
+
+    /**
+     * Wait for all tasks and log the duration of the whole start.
+     *
+     * @return false if a task has failed
+     */
+    public boolean awaitAll() {
+        final CompletableFuture<?>[] all;
+        synchronized (this) {
+            all = tasks.values().toArray(new CompletableFuture<?>[0]);
+        }
+
+        boolean ok = true;
+        try {
+            CompletableFuture.allOf(all).join();
+        } catch (CompletionException | CancellationException e) {
+            ok = false;
+        } finally {
+            executor.shutdown();
+        }
+
+        total.stop();
+        logger.info("Programmstart: {} {}", total, timings);
+        return ok;
+    }
+}
@@ -0,0 +1,235 @@
+package mediathek.tool;
+
+import javafx.application.Platform;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Periodic updates of status displays driven by one common clock.
+ * Every consumer registers a {@link Tick} with its own period and the thread it has to run on.
+ * A tick only runs if its consumer is visible and something has changed since the last run, either
+ * announced with {@link Tick#markDirty()} or detected by the predicate given to {@link Tick#changedWhen(BooleanSupplier)}.
+ * All ticks due for the Swing or the JavaFX thread are executed together in one call of the respective thread,
+ * a new pulse is not queued as long as the previous one has not been executed.
+ */
+public class TickScheduler {
+    private static final Logger logger = LogManager.getLogger(TickScheduler.class);
+    private final List<Tick> ticks = new CopyOnWriteArrayList<>();
+    private final Pulse swingPulse;
+    private final Pulse fxPulse;
+    private long counter;
+
+    /**
+     * @param timerPool the pool which drives the clock with one pulse per second
+     */
+    public TickScheduler(@NotNull ScheduledExecutorService timerPool) {
+        this(SwingUtilities::invokeLater, Platform::runLater);
+        timerPool.scheduleWithFixedDelay(this::pulse, 4, 1, TimeUnit.SECONDS);
+    }
+
+    TickScheduler(@NotNull Executor swingExecutor, @NotNull Executor fxExecutor) {
+        swingPulse = new Pulse(swingExecutor);
+        fxPulse = new Pulse(fxExecutor);
+    }
+
+    /**
+     * Register a periodic update, it runs at the next due pulse.
+     *
+     * @param name    name used for logging
+     * @param period  run at most every period seconds
+     * @param target  the thread the update has to run on
+     * @param action  the update
+     * @return the tick to control the update
+     */
+    public Tick register(@NotNull String name, int period, @NotNull Target target, @NotNull Runnable action) {
+        if (period < 1)
+            throw new IllegalArgumentException("Period must be at least one second: " + period);
+
+        final Tick tick = new Tick(name, period, target, action);
+        ticks.add(tick);
+        return tick;
+    }
+
+    /**
+     * One beat of the clock, collects the due ticks.
+     * Ticks for the background run directly on the calling thread.
+     */
+    synchronized void pulse() {
+        ++counter;
+        for (Tick tick : ticks) {
+            // eine Ausnahme würde die Uhr für alle Anzeigen anhalten
+            try {
+                collect(tick);
+            } catch (Exception e) {
+                logger.error("Tick {} failed", tick.name, e);
+            }
+        }
+        swingPulse.submit();
+        fxPulse.submit();
+    }
+
+    private void collect(Tick tick) {
+        if (counter % tick.period != 0 || !tick.isDue())
+            return;
+
+        switch (tick.target) {
+            case BACKGROUND:
+                tick.run();
+                break;
+            case SWING:
+                swingPulse.add(tick);
+                break;
+            case FX:
+                fxPulse.add(tick);
+                break;
+        }
+    }
+
+    /**
+     * The thread a tick has to run on.
+     */
+    public enum Target {
+        /**
+         * The thread of the clock, must not block.
+         */
+        BACKGROUND,
+        /**
+         * The Swing event dispatch thread.
+         */
+        SWING,
+        /**
+         * The JavaFX application thread.
+         */
+        FX
+    }
+
+    /**
+     * Collects the ticks of one pulse for a UI thread.
+     */
+    private static class Pulse {
+        private final Executor executor;
+        private final AtomicBoolean queued = new AtomicBoolean(false);
+        private List<Tick> due = new ArrayList<>();
+
+        Pulse(Executor executor) {
+            this.executor = executor;
+        }
+
+        void add(Tick tick) {
+            due.add(tick);
+        }
+
+        void submit() {
+            if (due.isEmpty())
+                return;
+
+            // der UI-Thread ist noch mit dem letzten Durchlauf beschäftigt
+            if (!queued.compareAndSet(false, true)) {
+                due.clear();
+                return;
+            }
+
+            final List<Tick> batch = due;
+            due = new ArrayList<>();
+            try {
+                executor.execute(() -> {
+                    queued.set(false);
+                    batch.forEach(Tick::run);
+                });
+            } catch (Exception e) {
+                // beim nächsten Takt erneut versuchen
+                queued.set(false);
+                logger.error("Pulse could not be queued", e);
+            }
+        }
+    }
+
+    /**
+     * A registered periodic update.
+     */
+    public class Tick {
+        private final String name;
+        private final int period;
+        private final Target target;
+        private final Runnable action;
+        /**
+         * Initially dirty for the first display.
+         */
+        private final AtomicBoolean dirty = new AtomicBoolean(true);
+        private volatile BooleanSupplier visible = () -> true;
+        private volatile BooleanSupplier changed = () -> false;
+
+        private Tick(String name, int period, Target target, Runnable action) {
+            this.name = name;
+            this.period = period;
+            this.target = target;
+            this.action = action;
+        }
+
+        /**
+         * Run only while the predicate is true. It is evaluated on the clock thread and must be cheap.
+         * Changes made while not visible are shown as soon as it becomes visible again.
+         */
+        public Tick visibleWhen(@NotNull BooleanSupplier visible) {
+            this.visible = visible;
+            return this;
+        }
+
+        /**
+         * Additionally run when the predicate is true. It is evaluated on the clock thread and must be cheap.
+         */
+        public Tick changedWhen(@NotNull BooleanSupplier changed) {
+            this.changed = changed;
+            return this;
+        }
+
+        /**
+         * Something has changed, run at the next due pulse.
+         */
+        public void markDirty() {
+            dirty.set(true);
+        }
+
+        /**
+         * Stop running the update.
+         */
+        public void cancel() {
+            ticks.remove(this);
+        }
+
+        private boolean isDue() {
+            // unsichtbar bleibt die Änderung vorgemerkt
+            if (!visible.getAsBoolean())
+                return false;
+
+            if (dirty.get())
+                return true;
+
+            if (changed.getAsBoolean()) {
+                dirty.set(true);
+                return true;
+            }
+            return false;
+        }
+
+        private void run() {
+            try {
+                if (dirty.getAndSet(false))
+                    action.run();
+            } catch (Exception e) {
+                logger.error("Tick {} failed", name, e);
+            }
+        }
+    }
+}
@@ -18,334 +18,534 @@
  */
 package mediathek.tool;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import java.io.FileOutputStream;
-import java.io.OutputStreamWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.*;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Converter for TTML XML subtitle files into SubRip Text format.
  * Tested with MediathekView downloaded subtitles and TTML format version 1.0.
+ * The TTML file is read with StAX and every cue is written as soon as it has been read,
+ * the memory needed does not depend on the length of the file.
+ * The SRT file only replaces the target once the whole TTML file has been converted.
  */
-public class TimedTextMarkupLanguageParser implements AutoCloseable {
-
-    private final SimpleDateFormat ttmlFormat = new SimpleDateFormat("HH:mm:ss.SS");
-    private final SimpleDateFormat srtFormat = new SimpleDateFormat("HH:mm:ss,SS");
-    private final SimpleDateFormat sdfFlash = new SimpleDateFormat("s.S");
+public class TimedTextMarkupLanguageParser {
+    private static final String DEFAULT_COLOR = "#FFFFFF";
+    private static final long SECOND = 1_000;
+    private static final long MINUTE = 60 * SECOND;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+    /**
+     * Units and separators of the fields of "HH:mm:ss.SS" and the flash format "s.S".
+     */
+    private static final long[] TTML_UNITS = {HOUR, MINUTE, SECOND, 1};
+    private static final String TTML_SEPARATORS = "::.";
+    private static final long[] FLASH_UNITS = {SECOND, 1};
+    private static final String FLASH_SEPARATORS = ".";
+    /**
+     * Milliseconds are written with at least two digits.
+     */
+    private static final DateTimeFormatter srtFormat = new DateTimeFormatterBuilder()
+            .appendPattern("HH:mm:ss,")
+            .appendValue(ChronoField.MILLI_OF_SECOND, 2, 3, SignStyle.NOT_NEGATIVE)
+            .toFormatter();
 
-    private final Map<String, String> colorMap = new Hashtable<>();
-    private final List<Subtitle> subtitleList = new ArrayList<>();
-    private String color = "#FFFFFF";
-    private Document doc = null;
+    private final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
 
     public TimedTextMarkupLanguageParser() {
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
     }
 
     /**
-     * Build a map of used colors within the TTML file.
+     * Convert the TTML file, either EBU-TT or the format for the flash player, into SubRip Text format.
+     *
+     * @param ttmlFile the TTML file to convert
+     * @param srtFile  the SRT file to write
+     * @return true if the file has been converted
      */
-    private void buildColorMap() {
-        final NodeList styleData = doc.getElementsByTagName("tt:style");
-        for (int i = 0; i < styleData.getLength(); i++) {
-            final Node subnode = styleData.item(i);
-            if (subnode.hasAttributes()) {
-                final NamedNodeMap attrMap = subnode.getAttributes();
-                final Node idNode = attrMap.getNamedItem("xml:id");
-                final Node colorNode = attrMap.getNamedItem("tts:color");
-                if (idNode != null && colorNode != null) {
-                    colorMap.put(idNode.getNodeValue(), colorNode.getNodeValue());
-                }
+    public boolean convert(Path ttmlFile, Path srtFile) {
+        return convert(ttmlFile, srtFile, new EbuDialect()) || convert(ttmlFile, srtFile, new FlashDialect());
+    }
+
+    private boolean convert(Path ttmlFile, Path srtFile, Dialect dialect) {
+        final Path tmpFile = srtFile.resolveSibling(srtFile.getFileName() + ".tmp");
+        try {
+            // Stile nach dem ersten Untertitel: die Farben sind jetzt bekannt, nochmal schreiben
+            while (!write(ttmlFile, tmpFile, dialect)) {
+                dialect.stylesComplete = true;
             }
+            Files.move(tmpFile, srtFile, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (Exception ex) {
+            Log.errorLog(dialect.errorNumber, new String[]{ex.getLocalizedMessage(), "File: " + ttmlFile});
+            try {
+                Files.deleteIfExists(tmpFile);
+            } catch (IOException ignored) {
+            }
+            return false;
         }
     }
 
     /**
-     * Build the Subtitle objects from TTML content.
+     * @return false if the file has to be written once more with all styles known
      */
-    @SuppressWarnings("deprecation")
-    private void buildFilmList() throws Exception {
-        final NodeList subtitleData = doc.getElementsByTagName("tt:p");
-
-        for (int i = 0; i < subtitleData.getLength(); i++) {
-            final Subtitle subtitle = new Subtitle();
-
-            final Node subnode = subtitleData.item(i);
-            if (subnode.hasAttributes()) {
-                // retrieve the begin and end attributes...
-                final NamedNodeMap attrMap = subnode.getAttributes();
-                final Node beginNode = attrMap.getNamedItem("begin");
-                final Node endNode = attrMap.getNamedItem("end");
-                if (beginNode != null && endNode != null) {
-                    subtitle.begin = ttmlFormat.parse(beginNode.getNodeValue());
-                    //HACK:: Don´t know why this is set like this...
-                    //but we have to subract 10 hours from the XML
-                    if (subtitle.begin.getHours() >= 10) {
-                        subtitle.begin.setHours(subtitle.begin.getHours() - 10);
-                    }
-                    subtitle.end = ttmlFormat.parse(endNode.getNodeValue());
-                    if (subtitle.end.getHours() >= 10) {
-                        subtitle.end.setHours(subtitle.end.getHours() - 10);
+    private boolean write(Path ttmlFile, Path srtFile, Dialect dialect) throws Exception {
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(ttmlFile));
+             PrintWriter writer = new PrintWriter(Files.newBufferedWriter(srtFile, StandardCharsets.UTF_8))) {
+            final XMLStreamReader reader = inputFactory.createXMLStreamReader(is);
+            final SrtWriter srt = new SrtWriter(writer);
+            try {
+                dialect.start();
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                        dialect.startElement(reader, srt);
                     }
-
                 }
+                if (!dialect.finish()) {
+                    return false;
+                }
+            } finally {
+                reader.close();
             }
 
-            final NodeList childNodes = subnode.getChildNodes();
-            for (int j = 0; j < childNodes.getLength(); j++) {
-                final Node node = childNodes.item(j);
-                if (node.getNodeName().equalsIgnoreCase("tt:span")) {
-                    //retrieve the text and color information...
-                    final NamedNodeMap attrMap = node.getAttributes();
-                    final Node styleNode = attrMap.getNamedItem("style");
-                    final StyledString textContent = new StyledString();
-
-                    textContent.setText(node.getTextContent());
-                    final String col = colorMap.get(styleNode.getNodeValue());
-                    if (col == null) {
-                        textContent.setColor(color); // gabs beim BR
-                    } else {
-                        textContent.setColor(colorMap.get(styleNode.getNodeValue()));
+            if (writer.checkError()) {
+                throw new IOException("Error writing file: " + srtFile);
+            }
+            if (srt.truncated) {
+                Log.errorLog(201036470, "Subtitle without begin or end, File: " + ttmlFile);
+            }
+            return true;
+        }
+    }
+
+    private static String qName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+    }
+
+    private static String qName(XMLStreamReader reader) {
+        return qName(reader.getPrefix(), reader.getLocalName());
+    }
+
+    /**
+     * Find an attribute by the name used in the file, e.g. "tts:color".
+     */
+    private static String attribute(XMLStreamReader reader, String name) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (name.equals(qName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)))) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Namespace declarations count as attributes like in the DOM.
+     */
+    private static boolean hasAttributes(XMLStreamReader reader) {
+        return reader.getAttributeCount() + reader.getNamespaceCount() > 0;
+    }
+
+    /**
+     * Read all text within the current element up to its end tag.
+     *
+     * @param visitor called for every direct child element, may be null
+     */
+    private static String readText(XMLStreamReader reader, ChildVisitor visitor) throws Exception {
+        final StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    if (depth == 1 && visitor != null) {
+                        visitor.visit(reader);
                     }
-                    subtitle.listOfStrings.add(textContent);
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Parse a time stamp into milliseconds the way the lenient SimpleDateFormat used before did, the output has to
+     * stay the same: a field may exceed its range and the fraction is a number of milliseconds, ".5" is 5 ms.
+     * Text after the last field is ignored.
+     */
+    private static long parseTime(String value, long[] units, String separators) throws ParseException {
+        long time = 0;
+        int pos = 0;
+        for (int field = 0; field < units.length; field++) {
+            if (field > 0) {
+                if (pos >= value.length() || value.charAt(pos) != separators.charAt(field - 1)) {
+                    throw new ParseException("Unparseable time: \"" + value + '"', pos);
                 }
+                pos++;
+            }
+            while (pos < value.length() && (value.charAt(pos) == ' ' || value.charAt(pos) == '\t')) {
+                pos++;
+            }
+            final int start = pos;
+            long number = 0;
+            while (pos < value.length() && value.charAt(pos) >= '0' && value.charAt(pos) <= '9') {
+                number = number * 10 + value.charAt(pos) - '0';
+                pos++;
+            }
+            if (pos == start) {
+                throw new ParseException("Unparseable time: \"" + value + '"', pos);
             }
-            subtitleList.add(subtitle);
+            time += number * units[field];
         }
+        return time;
     }
 
-    private Date parseFlash(String tStamp) throws ParseException {
-        Date da;
-        if (tStamp.contains(":")) {
-            da = ttmlFormat.parse(tStamp);
+    private static long parseTtml(String value) throws ParseException {
+        return parseTime(value, TTML_UNITS, TTML_SEPARATORS);
+    }
+
+    private static long parseFlash(String value) throws ParseException {
+        if (value.contains(":")) {
+            return parseTtml(value);
         } else {
-            da = sdfFlash.parse(tStamp + "00");
+            return parseTime(value + "00", FLASH_UNITS, FLASH_SEPARATORS);
+        }
+    }
+
+    private static String formatTime(long time) {
+        return LocalTime.ofNanoOfDay(Math.floorMod(time, DAY) * 1_000_000).format(srtFormat);
+    }
+
+    @FunctionalInterface
+    private interface ChildVisitor {
+        void visit(XMLStreamReader reader) throws Exception;
+    }
+
+    private static class StyledString {
+        private final String text;
+        private final String color;
+
+        StyledString(String text, String color) {
+            this.text = text;
+            this.color = color;
         }
-        return da;
     }
 
     /**
-     * Build the Subtitle objects from TTML content.
+     * Writes the cues in SubRip Text format.
      */
-    private void buildFilmListFlash() throws Exception {
-        final NodeList subtitleData = doc.getElementsByTagName("p");
-
-        for (int i = 0; i < subtitleData.getLength(); i++) {
-            final Subtitle subtitle = new Subtitle();
-
-            final Node subnode = subtitleData.item(i);
-            if (subnode.hasAttributes()) {
-                // retrieve the begin and end attributes...
-                final NamedNodeMap attrMap = subnode.getAttributes();
-                final Node beginNode = attrMap.getNamedItem("begin");
-                final Node endNode = attrMap.getNamedItem("end");
-                if (beginNode != null && endNode != null) {
-                    subtitle.begin = parseFlash(beginNode.getNodeValue());
-                    subtitle.end = parseFlash(endNode.getNodeValue());
-                    final StyledString textContent = new StyledString();
-                    textContent.setColor(color); // sicher ist sicher
-                    textContent.setText(subnode.getTextContent());
-
-                    final Node col = attrMap.getNamedItem("tts:color");
-                    if (col != null) {
-                        textContent.setColor(col.getNodeValue());
-                    } else {
-                        final NodeList childNodes = subnode.getChildNodes();
-                        for (int j = 0; j < childNodes.getLength(); j++) {
-                            final Node node = childNodes.item(j);
-                            if (node.getNodeName().equalsIgnoreCase("span")) {
-                                //retrieve the text and color information...
-                                final NamedNodeMap attr = node.getAttributes();
-                                final Node co = attr.getNamedItem("tts:color");
-                                textContent.setColor(co.getNodeValue());
-                            }
-                        }
-                    }
-                    subtitle.listOfStrings.add(textContent);
+    private static class SrtWriter {
+        private final PrintWriter writer;
+        private long counter = 1;
+        private boolean truncated;
 
+        SrtWriter(PrintWriter writer) {
+            this.writer = writer;
+        }
+
+        void write(long begin, long end, List<StyledString> lines) {
+            if (truncated) {
+                return;
+            }
+            writer.println(counter++);
+            writer.println(formatTime(begin) + " --> " + formatTime(end));
+            for (StyledString entry : lines) {
+                if (!entry.color.isEmpty()) {
+                    writer.print("<font color=\"" + entry.color + "\">");
+                }
+                writer.print(entry.text);
+                if (!entry.color.isEmpty()) {
+                    writer.print("</font>");
                 }
+                writer.println();
+            }
+            writer.println();
+        }
+
+        /**
+         * A cue without begin or end has always ended the SRT file after its number, this stays as it is.
+         */
+        void writeUntimed() {
+            if (!truncated) {
+                writer.println(counter);
+                truncated = true;
             }
-            subtitleList.add(subtitle);
         }
     }
 
     /**
-     * Parse the TTML file into internal representation.
-     *
-     * @param ttmlFilePath the TTML file to parse
+     * One of the supported TTML formats.
+     * Styles are expected before the first cue, otherwise the file is written a second time.
      */
-    public boolean parse(Path ttmlFilePath) {
-        boolean ret;
-        try {
-            final DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-            dbf.setNamespaceAware(true);
-
-            final DocumentBuilder db = dbf.newDocumentBuilder();
-            doc = db.parse(ttmlFilePath.toFile());
-
-            //Check that we have TTML v1.0 file as we have tested only them...
-            final NodeList metaData = doc.getElementsByTagName("ebuttm:documentEbuttVersion");
-            if (metaData != null) {
-                final Node versionNode = metaData.item(0);
-                if (versionNode == null || !versionNode.getTextContent().equalsIgnoreCase("v1.0")) {
-                    throw new Exception("Unknown TTML file version");
-                }
-            } else {
-                throw new Exception("Unknown File Format");
+    private abstract static class Dialect {
+        private final int errorNumber;
+        /**
+         * All styles are known from the previous pass.
+         */
+        boolean stylesComplete;
+        boolean cueWritten;
+        boolean lateStyle;
+
+        Dialect(int errorNumber) {
+            this.errorNumber = errorNumber;
+        }
+
+        void start() {
+            cueWritten = false;
+            lateStyle = false;
+        }
+
+        void styleFound() {
+            if (cueWritten && !stylesComplete) {
+                lateStyle = true;
             }
+        }
 
-            buildColorMap();
-            buildFilmList();
-            ret = true;
-        } catch (Exception ex) {
-            //Log.errorLog(912036478, ex, new String[]{ex.getLocalizedMessage(), "File: " + ttmlFilePath});
-            Log.errorLog(912036478, new String[]{ex.getLocalizedMessage(), "File: " + ttmlFilePath});
-            ret = false;
+        abstract void startElement(XMLStreamReader reader, SrtWriter srt) throws Exception;
+
+        /**
+         * @return false if a style was found after the first cue
+         */
+        boolean finish() throws Exception {
+            return !lateStyle;
         }
-        return ret;
     }
 
     /**
-     * Parse the XML Subtitle File for Flash Player into internal representation.
-     *
-     * @param ttmlFilePath the TTML file to parse
-     * @return
+     * EBU-TT with prefixed elements, the colors are referenced by style id.
      */
-    public boolean parseXmlFlash(Path ttmlFilePath) {
-        boolean ret;
-        try {
-            final DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-            dbf.setNamespaceAware(true);
-
-            final DocumentBuilder db = dbf.newDocumentBuilder();
-            doc = db.parse(ttmlFilePath.toFile());
-
-            //Check that we have TTML v1.0 file as we have tested only them...
-            final NodeList metaData = doc.getElementsByTagName("tt");
-            final NodeList colorNote = doc.getElementsByTagName("style");
-            if (metaData != null) {
-                final Node node = metaData.item(0);
-
-                if (node.hasAttributes()) {
-                    // retrieve the begin and end attributes...
-                    final NamedNodeMap attrMap = node.getAttributes();
-                    final Node xmlns = attrMap.getNamedItem("xmlns");
-                    if (xmlns != null) {
-                        final String s = xmlns.getNodeValue();
-                        if (!s.equals("http://www.w3.org/2006/04/ttaf1")
-                                && !s.equals("http://www.w3.org/ns/ttml")) {
+    private static class EbuDialect extends Dialect {
+        private final Map<String, String> colorMap = new HashMap<>();
+        private String version;
+
+        EbuDialect() {
+            super(912036478);
+        }
+
+        @Override
+        void start() {
+            super.start();
+            version = null;
+        }
+
+        @Override
+        void startElement(XMLStreamReader reader, SrtWriter srt) throws Exception {
+            switch (qName(reader)) {
+                case "ebuttm:documentEbuttVersion":
+                    //Check that we have TTML v1.0 file as we have tested only them...
+                    if (version == null) {
+                        version = readText(reader, null);
+                        if (!version.equalsIgnoreCase("v1.0")) {
                             throw new Exception("Unknown TTML file version");
                         }
                     }
-                } else {
-                    throw new Exception("Unknown File Format");
-                }
-            } else {
-                throw new Exception("Unknown File Format");
-            }
-            if (colorNote != null) {
-                if (colorNote.getLength() == 0) {
-                    this.color = "#FFFFFF";
-                } else {
-                    final Node node = colorNote.item(0);
-
-                    if (node.hasAttributes()) {
-                        // retrieve the begin and end attributes...
-                        final NamedNodeMap attrMap = node.getAttributes();
-                        final Node col = attrMap.getNamedItem("tts:color");
-                        if (col != null) {
-                            if (!col.getNodeValue().isEmpty()) {
-                                this.color = col.getNodeValue();
-                            }
+                    break;
+
+                case "tt:style":
+                    styleFound();
+                    if (!stylesComplete) {
+                        final String id = attribute(reader, "xml:id");
+                        final String color = attribute(reader, "tts:color");
+                        if (id != null && color != null) {
+                            colorMap.put(id, color);
                         }
-                    } else {
-                        throw new Exception("Unknown File Format");
                     }
-                }
-            } else {
-                throw new Exception("Unknown File Format");
+                    break;
+
+                case "tt:p":
+                    cueWritten = true;
+                    readCue(reader, srt);
+                    break;
             }
-            buildFilmListFlash();
-            ret = true;
-        } catch (Exception ex) {
-            //Log.errorLog(46231470, ex, "File: " + ttmlFilePath);
-            Log.errorLog(46231470, new String[]{ex.getLocalizedMessage(), "File: " + ttmlFilePath});
-            ret = false;
         }
-        return ret;
-    }
 
-    /**
-     * Convert internal representation into SubRip Text Format and save to file.
-     */
-    public void toSrt(Path srtFile) {
-        try (FileOutputStream fos = new FileOutputStream(srtFile.toFile());
-             OutputStreamWriter osw = new OutputStreamWriter(fos, StandardCharsets.UTF_8);
-             PrintWriter writer = new PrintWriter(osw)) {
-            long counter = 1;
-            for (Subtitle title : subtitleList) {
-                writer.println(counter);
-                writer.println(srtFormat.format(title.begin) + " --> " + srtFormat.format(title.end));
-                for (StyledString entry : title.listOfStrings) {
-                    if (!entry.color.isEmpty()) {
-                        writer.print("<font color=\"" + entry.color + "\">");
-                    }
-                    writer.print(entry.text);
-                    if (!entry.color.isEmpty()) {
-                        writer.print("</font>");
+        private void readCue(XMLStreamReader reader, SrtWriter srt) throws Exception {
+            final String beginValue = attribute(reader, "begin");
+            final String endValue = attribute(reader, "end");
+            final boolean timed = beginValue != null && endValue != null;
+            long begin = 0;
+            long end = 0;
+            if (timed) {
+                begin = withoutOffset(parseTtml(beginValue));
+                end = withoutOffset(parseTtml(endValue));
+            }
+
+            final List<StyledString> lines = new ArrayList<>();
+            while (reader.next() != XMLStreamConstants.END_ELEMENT) {
+                if (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                if (qName(reader).equalsIgnoreCase("tt:span")) {
+                    //retrieve the text and color information...
+                    final String style = attribute(reader, "style");
+                    if (style == null) {
+                        throw new Exception("Span without style");
                     }
-                    writer.println();
+                    final String color = colorMap.getOrDefault(style, DEFAULT_COLOR); // gabs beim BR
+                    lines.add(new StyledString(readText(reader, null), color));
+                } else {
+                    readText(reader, null);
                 }
-                writer.println("");
-                counter++;
             }
-        } catch (Exception ex) {
-            Log.errorLog(201036470, ex, "File: " + srtFile);
+
+            if (timed) {
+                srt.write(begin, end, lines);
+            } else {
+                srt.writeUntimed();
+            }
+        }
+
+        /**
+         * HACK:: Don´t know why this is set like this...
+         * but we have to subract 10 hours from the XML
+         */
+        private static long withoutOffset(long time) {
+            return Math.floorMod(time, DAY) >= 10 * HOUR ? time - 10 * HOUR : time;
         }
-    }
 
-    @Override
-    public void close() {
-        colorMap.clear();
-        subtitleList.clear();
+        @Override
+        boolean finish() throws Exception {
+            if (version == null) {
+                throw new Exception("Unknown TTML file version");
+            }
+            return super.finish();
+        }
     }
 
-    private class StyledString {
+    /**
+     * XML subtitle file for the flash player, one color for the whole file or per cue.
+     */
+    private static class FlashDialect extends Dialect {
+        private String color = DEFAULT_COLOR;
+        private boolean rootFound;
+        private boolean styleRead;
+        private String spanColor;
+
+        FlashDialect() {
+            super(46231470);
+        }
 
-        public String getText() {
-            return text;
+        @Override
+        void start() {
+            super.start();
+            rootFound = false;
+            styleRead = false;
         }
 
-        public void setText(String text) {
-            this.text = text;
+        @Override
+        void startElement(XMLStreamReader reader, SrtWriter srt) throws Exception {
+            switch (qName(reader)) {
+                case "tt":
+                    if (!rootFound) {
+                        rootFound = true;
+                        checkRoot(reader);
+                    }
+                    break;
+
+                case "style":
+                    if (!styleRead) {
+                        styleRead = true;
+                        styleFound();
+                        readStyle(reader);
+                    }
+                    break;
+
+                case "p":
+                    cueWritten = true;
+                    readCue(reader, srt);
+                    break;
+            }
         }
 
-        public String getColor() {
-            return color;
+        private static void checkRoot(XMLStreamReader reader) throws Exception {
+            if (!hasAttributes(reader)) {
+                throw new Exception("Unknown File Format");
+            }
+            for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                final String prefix = reader.getNamespacePrefix(i);
+                if (prefix == null || prefix.isEmpty()) {
+                    final String uri = reader.getNamespaceURI(i);
+                    if (!"http://www.w3.org/2006/04/ttaf1".equals(uri) && !"http://www.w3.org/ns/ttml".equals(uri)) {
+                        throw new Exception("Unknown TTML file version");
+                    }
+                }
+            }
         }
 
-        public void setColor(String color) {
-            this.color = color;
+        private void readStyle(XMLStreamReader reader) throws Exception {
+            if (!hasAttributes(reader)) {
+                throw new Exception("Unknown File Format");
+            }
+            final String col = attribute(reader, "tts:color");
+            if (col != null && !col.isEmpty()) {
+                color = col;
+            }
         }
 
-        private String text = "";
-        private String color = "";
-    }
+        private void readCue(XMLStreamReader reader, SrtWriter srt) throws Exception {
+            final String beginValue = attribute(reader, "begin");
+            final String endValue = attribute(reader, "end");
+            if (beginValue == null || endValue == null) {
+                readText(reader, null);
+                srt.writeUntimed();
+                return;
+            }
 
-    private class Subtitle {
+            final long begin = parseFlash(beginValue);
+            final long end = parseFlash(endValue);
+            final String cueColor = attribute(reader, "tts:color");
+            spanColor = null;
+            final String text = readText(reader, child -> {
+                if (cueColor == null && qName(child).equalsIgnoreCase("span")) {
+                    spanColor = attribute(child, "tts:color");
+                    if (spanColor == null) {
+                        throw new Exception("Span without color");
+                    }
+                }
+            });
 
-        public Date begin;
-        public Date end;
-        public List<StyledString> listOfStrings = new ArrayList<>();
+            final String lineColor;
+            if (cueColor != null) {
+                lineColor = cueColor;
+            } else if (spanColor != null) {
+                lineColor = spanColor;
+            } else {
+                lineColor = color;
+            }
+            srt.write(begin, end, List.of(new StyledString(text, lineColor)));
+        }
+
+        @Override
+        boolean finish() throws Exception {
+            if (!rootFound) {
+                throw new Exception("Unknown File Format");
+            }
+            return super.finish();
+        }
     }
 }
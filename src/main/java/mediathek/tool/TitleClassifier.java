@@ -0,0 +1,151 @@
+package mediathek.tool;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Classifies film titles by their marker keywords in a single pass.
+ * All keywords are compiled into one Aho-Corasick automaton which is converted into a
+ * complete transition table, every char of the title costs one table lookup.
+ * Keywords are matched case sensitive like {@link String#contains(CharSequence)}.
+ */
+public final class TitleClassifier {
+    public static final int AUDIO_VERSION = 1;
+    public static final int SIGN_LANGUAGE = 1 << 1;
+    public static final int TRAILER_TEASER = 1 << 2;
+    private static final int FLAG_SHIFT = 24;
+    private static final int STATE_MASK = (1 << FLAG_SHIFT) - 1;
+    private static final TitleClassifier INSTANCE = new TitleClassifier();
+    /**
+     * Index of every char which occurs in a keyword, 0 for all other chars.
+     */
+    private final byte[] charClass = new byte[Character.MAX_VALUE + 1];
+    private final int classes;
+    /**
+     * Complete transition table, indexed by state * classes + char class.
+     * An entry holds the index of the target state row and in the upper bits the flags
+     * of the keywords ending in the target state.
+     */
+    private final int[] table;
+    /**
+     * Flags of the keywords which only count at the end of the title.
+     */
+    private final int[] flagsAtEnd;
+
+    private TitleClassifier() {
+        final List<Keyword> keywords = Arrays.asList(
+                new Keyword("Hörfassung", AUDIO_VERSION, false),
+                new Keyword("Audiodeskription", AUDIO_VERSION, false),
+                new Keyword("AD |", AUDIO_VERSION, false),
+                new Keyword("(AD)", AUDIO_VERSION, true),
+                new Keyword("Gebärden", SIGN_LANGUAGE, false),
+                new Keyword("Trailer", TRAILER_TEASER, false),
+                new Keyword("trailer", TRAILER_TEASER, false),
+                new Keyword("Teaser", TRAILER_TEASER, false),
+                new Keyword("teaser", TRAILER_TEASER, false),
+                new Keyword("Vorschau", TRAILER_TEASER, false),
+                new Keyword("vorschau", TRAILER_TEASER, false));
+
+        int classCount = 1;
+        for (Keyword keyword : keywords) {
+            for (char c : keyword.text.toCharArray()) {
+                if (charClass[c] == 0)
+                    charClass[c] = (byte) classCount++;
+            }
+        }
+
+        classes = classCount;
+
+        // Trie aufbauen
+        final List<int[]> gotoList = new ArrayList<>();
+        final List<Integer> flagList = new ArrayList<>();
+        final List<Integer> endList = new ArrayList<>();
+        gotoList.add(new int[classes]);
+        flagList.add(0);
+        endList.add(0);
+        for (Keyword keyword : keywords) {
+            int state = 0;
+            for (char c : keyword.text.toCharArray()) {
+                final int cls = charClass[c];
+                if (gotoList.get(state)[cls] == 0) {
+                    gotoList.add(new int[classes]);
+                    flagList.add(0);
+                    endList.add(0);
+                    gotoList.get(state)[cls] = gotoList.size() - 1;
+                }
+                state = gotoList.get(state)[cls];
+            }
+            if (keyword.onlyAtEnd)
+                endList.set(state, endList.get(state) | keyword.flag);
+            else
+                flagList.set(state, flagList.get(state) | keyword.flag);
+        }
+
+        final int[][] transitions = gotoList.toArray(new int[0][]);
+        final int[] flags = flagList.stream().mapToInt(Integer::intValue).toArray();
+        flagsAtEnd = endList.stream().mapToInt(Integer::intValue).toArray();
+
+        // Fehlerübergänge in Breitensuche auflösen, der Automat wird dadurch vollständig
+        final int[] fail = new int[transitions.length];
+        final Deque<Integer> queue = new ArrayDeque<>();
+        for (int cls = 0; cls < classes; ++cls) {
+            if (transitions[0][cls] != 0)
+                queue.add(transitions[0][cls]);
+        }
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            flags[state] |= flags[fail[state]];
+            flagsAtEnd[state] |= flagsAtEnd[fail[state]];
+            for (int cls = 0; cls < classes; ++cls) {
+                final int next = transitions[state][cls];
+                if (next != 0) {
+                    fail[next] = transitions[fail[state]][cls];
+                    queue.add(next);
+                } else {
+                    transitions[state][cls] = transitions[fail[state]][cls];
+                }
+            }
+        }
+
+        table = new int[transitions.length * classes];
+        for (int state = 0; state < transitions.length; ++state) {
+            for (int cls = 0; cls < classes; ++cls) {
+                final int next = transitions[state][cls];
+                table[state * classes + cls] = next * classes | (flags[next] << FLAG_SHIFT);
+            }
+        }
+    }
+
+    /**
+     * @param title the film title
+     * @return the combination of the flags whose keywords the title contains
+     */
+    public static int classify(@NotNull String title) {
+        return INSTANCE.scan(title);
+    }
+
+    private int scan(String title) {
+        int row = 0;
+        int result = 0;
+        final int length = title.length();
+        for (int i = 0; i < length; ++i) {
+            final int entry = table[row + charClass[title.charAt(i)]];
+            row = entry & STATE_MASK;
+            result |= entry >>> FLAG_SHIFT;
+        }
+        return result | flagsAtEnd[row / classes];
+    }
+
+    private static class Keyword {
+        private final String text;
+        private final int flag;
+        private final boolean onlyAtEnd;
+
+        Keyword(String text, int flag, boolean onlyAtEnd) {
+            this.text = text;
+            this.flag = flag;
+            this.onlyAtEnd = onlyAtEnd;
+        }
+    }
+}
@@ -5,18 +5,6 @@ package mediathek.tool;
  */
 public class TrailerTeaserChecker {
     public boolean check(String titel) {
-        return containsTrailer(titel) || containsTeaser(titel) || containsVorschau(titel);
-    }
-
-    private boolean containsTrailer(String titel) {
-        return titel.contains("Trailer") || titel.contains("trailer");
-    }
-
-    private boolean containsTeaser(String titel) {
-        return titel.contains("Teaser") || titel.contains("teaser");
-    }
-
-    private boolean containsVorschau(String titel) {
-        return titel.contains("Vorschau") || titel.contains("vorschau");
+        return (TitleClassifier.classify(titel) & TitleClassifier.TRAILER_TEASER) != 0;
     }
 }
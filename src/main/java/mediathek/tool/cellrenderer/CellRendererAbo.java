@@ -86,7 +86,7 @@ public class CellRendererAbo extends CellRendererBase {
 
                 case DatenAbo.ABO_SENDER:
                     if (((MVTable) table).showSenderIcons()) {
-                        setSenderIcon((String) value, ((MVTable) table).useSmallSenderIcons);
+                        setSenderIcon((String) value, ((MVTable) table).useSmallSenderIcons, table);
                     }
                     break;
             }
@@ -22,12 +22,14 @@ public class CellRendererBase extends DefaultTableCellRenderer {
 
     /**
      * Draws the sender icon in the sender model column.
+     * As long as the icon is loading the name of the sender is shown.
      *
      * @param sender Name of the sender.
+     * @param table  the table which is repainted when the icon is ready.
      */
-    protected void setSenderIcon(String sender, boolean small) {
+    protected void setSenderIcon(String sender, boolean small, JTable table) {
         setHorizontalAlignment(SwingConstants.CENTER);
-        final Optional<ImageIcon> optIcon = senderIconCache.get(sender, small);
+        final Optional<ImageIcon> optIcon = senderIconCache.get(sender, small, table);
         optIcon.ifPresent(icon -> {
             setText("");
             setIcon(icon);
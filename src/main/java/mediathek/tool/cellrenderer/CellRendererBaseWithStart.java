@@ -36,7 +36,7 @@ public class CellRendererBaseWithStart extends CellRendererBase {
     protected void setBackgroundColor(final Component c, final Start s, final boolean isSelected) {
         if (s != null) {
             Color color = null;
-            switch (s.status) {
+            switch (s.getStatus()) {
                 case Start.STATUS_INIT:
                     if (isSelected)
                         color = MVColor.DOWNLOAD_WAIT_SEL.color;
@@ -221,7 +221,7 @@ public class CellRendererDownloads extends CellRendererBaseWithStart {
 
                 case DatenDownload.DOWNLOAD_SENDER:
                     if (((MVTable) table).showSenderIcons()) {
-                        setSenderIcon((String) value, ((MVTable) table).useSmallSenderIcons);
+                        setSenderIcon((String) value, ((MVTable) table).useSmallSenderIcons, table);
                     }
                     break;
             }
@@ -238,7 +238,7 @@ public class CellRendererDownloads extends CellRendererBaseWithStart {
         setHorizontalAlignment(SwingConstants.CENTER);
         if (isSelected) {
             if (datenDownload.start != null && !datenDownload.isDownloadManager()) {
-                switch (datenDownload.start.status) {
+                switch (datenDownload.start.getStatus()) {
                     case Start.STATUS_FERTIG:
                         setIcon(film_start_tab);
                         setToolTipText(PLAY_DOWNLOADED_FILM);
@@ -259,7 +259,7 @@ public class CellRendererDownloads extends CellRendererBaseWithStart {
                 setToolTipText(DOWNLOAD_STARTEN);
             }
         } else if (datenDownload.start != null && !datenDownload.isDownloadManager()) {
-            switch (datenDownload.start.status) {
+            switch (datenDownload.start.getStatus()) {
                 case Start.STATUS_FERTIG:
                     setIcon(film_start_sw_tab);
                     setToolTipText(PLAY_DOWNLOADED_FILM);
@@ -311,7 +311,7 @@ public class CellRendererDownloads extends CellRendererBaseWithStart {
     private void handleButtonDeleteColumn(final DatenDownload datenDownload, final boolean isSelected) {
         setHorizontalAlignment(SwingConstants.CENTER);
         if (datenDownload.start != null) {
-            if (datenDownload.start.status >= Start.STATUS_FERTIG) {
+            if (datenDownload.start.getStatus() >= Start.STATUS_FERTIG) {
                 setIcons(download_clear_tab_selected, download_clear_sw_tab, DOWNLOAD_ENTFERNEN, isSelected);
             } else {
                 setupDownloadLoeschen(isSelected);
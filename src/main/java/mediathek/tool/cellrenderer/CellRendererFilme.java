@@ -8,16 +8,32 @@ import mediathek.controller.history.SeenHistoryController;
 import mediathek.controller.starter.Start;
 import mediathek.daten.DatenDownload;
 import mediathek.daten.DatenFilm;
+import mediathek.daten.ListeDownloads;
+import mediathek.gui.messages.GeoStateChangedEvent;
+import mediathek.tool.ApplicationConfiguration;
 import mediathek.tool.table.MVTable;
+import net.engio.mbassy.listener.Handler;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
+/**
+ * Renderer of the film table.
+ * Everything which is the same for all cells of a row is kept in a {@link RowState} per film. The states are
+ * dropped when the versions of the button downloads or of the history change or the geo settings are changed,
+ * otherwise a row is only evaluated again after the cache has been filled by scrolling.
+ */
 @SuppressWarnings("serial")
 public class CellRendererFilme extends CellRendererBaseWithStart {
     private static final Logger logger = LogManager.getLogger(CellRendererFilme.class);
+    /**
+     * Upper limit of cached rows, a multiple of the visible rows.
+     */
+    private static final int MAX_ROW_STATES = 1024;
     private final Icon selectedStopIcon;
     private final Icon normalStopIcon;
     private final SeenHistoryController history;
@@ -25,6 +41,18 @@ public class CellRendererFilme extends CellRendererBaseWithStart {
     private final Icon normalDownloadIcon;
     private final Icon selectedPlayIcon;
     private final Icon normalPlayIcon;
+    private final ListeDownloads listeDownloadsButton;
+    /**
+     * Only used on the EDT.
+     */
+    private final Map<DatenFilm, RowState> rowStates = new IdentityHashMap<>();
+    private long rowStatesDownloadVersion = -1;
+    private long rowStatesHistoryVersion = -1;
+    /**
+     * The renderer pane paints a cell before the next one is requested, so one text area serves all cells.
+     */
+    private JTextArea textArea = null;
+    private Font textAreaFont;
 
     public CellRendererFilme(Daten d) {
         super(d.getSenderIconCache());
@@ -38,6 +66,49 @@ public class CellRendererFilme extends CellRendererBaseWithStart {
         history = d.getSeenHistoryController();
         selectedStopIcon = IconFontSwing.buildIcon(FontAwesome.STOP, 16, Color.WHITE);
         normalStopIcon = IconFontSwing.buildIcon(FontAwesome.STOP, 16);
+
+        listeDownloadsButton = d.getListeDownloadsButton();
+    }
+
+    @Handler
+    private void handleGeoChanged(GeoStateChangedEvent e) {
+        SwingUtilities.invokeLater(() -> rowStates.clear());
+    }
+
+    @Override
+    public void updateUI() {
+        super.updateUI();
+        // mit dem neuen Look&Feel neu anlegen
+        textArea = null;
+    }
+
+    private JTextArea getTextArea() {
+        if (textArea == null) {
+            textArea = new JTextArea();
+            textArea.setLineWrap(true);
+            textArea.setWrapStyleWord(true);
+            textAreaFont = textArea.getFont();
+        }
+        return textArea;
+    }
+
+    private RowState getRowState(DatenFilm film) {
+        // Downloads der Buttons können jederzeit hinzukommen oder ihren Status ändern
+        final long downloadVersion = listeDownloadsButton.getVersion();
+        final long historyVersion = history.getVersion();
+        if (downloadVersion != rowStatesDownloadVersion || historyVersion != rowStatesHistoryVersion
+                || rowStates.size() >= MAX_ROW_STATES) {
+            rowStates.clear();
+            rowStatesDownloadVersion = downloadVersion;
+            rowStatesHistoryVersion = historyVersion;
+        }
+
+        RowState state = rowStates.get(film);
+        if (state == null) {
+            state = new RowState(film);
+            rowStates.put(film, state);
+        }
+        return state;
     }
 
     @Override
@@ -59,22 +130,20 @@ public class CellRendererFilme extends CellRendererBaseWithStart {
             final int rowModelIndex = table.convertRowIndexToModel(row);
             final int columnModelIndex = table.convertColumnIndexToModel(column);
             final DatenFilm datenFilm = (DatenFilm) table.getModel().getValueAt(rowModelIndex, DatenFilm.FILM_REF);
-            final DatenDownload datenDownload = Daten.getInstance().getListeDownloadsButton().getDownloadUrlFilm(datenFilm.getUrl());
+            final RowState state = getRowState(datenFilm);
 
             if (((MVTable) table).isLineBreak()) {
-                JTextArea textArea;
                 switch (columnModelIndex) {
                     case DatenFilm.FILM_THEMA:
                     case DatenFilm.FILM_TITEL:
                     case DatenFilm.FILM_URL:
-                        textArea = new JTextArea();
-                        textArea.setLineWrap(true);
-                        textArea.setWrapStyleWord(true);
+                        final JTextArea textArea = getTextArea();
                         textArea.setText(value.toString());
                         textArea.setForeground(getForeground());
                         textArea.setBackground(getBackground());
+                        textArea.setFont(textAreaFont);
                         setSelectionFont(textArea, isSelected);
-                        setColor(textArea, datenFilm, datenDownload, isSelected);
+                        setColor(textArea, state, isSelected);
                         return textArea;
                 }
             }
@@ -92,7 +161,7 @@ public class CellRendererFilme extends CellRendererBaseWithStart {
                     setHorizontalAlignment(SwingConstants.RIGHT);
                     break;
                 case DatenFilm.FILM_ABSPIELEN:
-                    handleButtonStartColumn(datenDownload, isSelected);
+                    handleButtonStartColumn(state.download, isSelected);
                     break;
 
                 case DatenFilm.FILM_AUFZEICHNEN:
@@ -100,42 +169,42 @@ public class CellRendererFilme extends CellRendererBaseWithStart {
                     break;
                 case DatenFilm.FILM_SENDER:
                     if (((MVTable) table).showSenderIcons()) {
-                        setSenderIcon((String) value, ((MVTable) table).useSmallSenderIcons);
+                        setSenderIcon((String) value, ((MVTable) table).useSmallSenderIcons, table);
                     }
                     break;
             }
 
-            setColor(this, datenFilm, datenDownload, isSelected);
+            setColor(this, state, isSelected);
         } catch (Exception ex) {
             logger.error("Fehler", ex);
         }
         return this;
     }
 
-    private void setColor(Component c, DatenFilm datenFilm, DatenDownload datenDownload, boolean isSelected) {
+    private void setColor(Component c, RowState state, boolean isSelected) {
         // gestarteter Film
-        final boolean start = (datenDownload != null) && (datenDownload.start != null);
+        final boolean start = (state.download != null) && (state.download.start != null);
 
         if (start) {
             //film is started for download
-            setBackgroundColor(c, datenDownload.start, isSelected);
+            setBackgroundColor(c, state.download.start, isSelected);
         } else {
             //not a start, set specific background colors
-            if (datenFilm.isLivestream()) {
+            if (state.livestream) {
                 // bei livestreams keine History anzeigen
                 c.setForeground(MVColor.FILM_LIVESTREAM.color);
-            } else if (history.urlPruefen(datenFilm.getUrl())) {
+            } else if (state.seen) {
                 if (!isSelected) {
                     c.setBackground(MVColor.FILM_HISTORY.color);
                 }
-            } else if (datenFilm.isNew()) {
+            } else if (state.neu) {
                 // fix #259
                 if (!isSelected)
                     c.setForeground(MVColor.FILM_NEU.color);
             }
 
-            if (geoMelden)
-                setupGeoblockingBackground(c, datenFilm.getGeo(), isSelected);
+            if (geoMelden && state.geoBlocked)
+                setGeoblockingBackgroundColor(c, isSelected);
         }
     }
 
@@ -144,7 +213,7 @@ public class CellRendererFilme extends CellRendererBaseWithStart {
         setHorizontalAlignment(SwingConstants.CENTER);
         if (datenDownload != null) {
             if (datenDownload.start != null) {
-                if (datenDownload.start.status == Start.STATUS_RUN) {
+                if (datenDownload.start.getStatus() == Start.STATUS_RUN) {
                     setToolTipText("Film stoppen");
                     final Icon icon;
                     if (isSelected)
@@ -181,4 +250,27 @@ public class CellRendererFilme extends CellRendererBaseWithStart {
 
         setIcon(icon);
     }
+
+    /**
+     * The facts of a film which are the same for all cells of its row.
+     */
+    private class RowState {
+        /**
+         * The download of the film started by the buttons, may be null.
+         */
+        private final DatenDownload download;
+        private final boolean seen;
+        private final boolean neu;
+        private final boolean livestream;
+        private final boolean geoBlocked;
+
+        RowState(DatenFilm film) {
+            download = listeDownloadsButton.getDownloadUrlFilm(film.getUrl());
+            livestream = film.isLivestream();
+            seen = !livestream && history.urlPruefen(film.getUrl());
+            neu = film.isNew();
+            final String geo = film.getGeo();
+            geoBlocked = !geo.isEmpty() && !geo.contains(config.getString(ApplicationConfiguration.GEO_LOCATION));
+        }
+    }
 }
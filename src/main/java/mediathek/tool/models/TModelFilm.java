@@ -132,7 +132,17 @@ public class TModelFilm extends TModel {
 
     @Override
     public Object getValueAt(int row, int column) {
-        final DatenFilm film = (DatenFilm) dataVector.elementAt(row).elementAt(0);
+        return getColumnValue((DatenFilm) dataVector.elementAt(row).elementAt(0), column);
+    }
+
+    /**
+     * Get the value of a film which is shown in a column of the film table.
+     *
+     * @param film   the film
+     * @param column the model column
+     * @return the value of the cell
+     */
+    public static Object getColumnValue(DatenFilm film, int column) {
         Object result;
         switch (column) {
             case DatenFilm.FILM_NR:
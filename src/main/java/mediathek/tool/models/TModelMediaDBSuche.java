@@ -0,0 +1,41 @@
+package mediathek.tool.models;
+
+import mediathek.daten.DatenMediaDB;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Model for the search results of the media collection.
+ * The rows are not copied into the model, the cells are read directly from the found entries.
+ * A new search only replaces the list and keeps the model, columns and sorting of the table.
+ */
+@SuppressWarnings("serial")
+public class TModelMediaDBSuche extends TModelMediaDB {
+    private List<DatenMediaDB> treffer = Collections.emptyList();
+
+    public TModelMediaDBSuche() {
+        super(new Object[][]{}, DatenMediaDB.COLUMN_NAMES);
+    }
+
+    public void setTreffer(List<DatenMediaDB> treffer) {
+        this.treffer = treffer;
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        // wird schon im Konstruktor von DefaultTableModel aufgerufen
+        return treffer == null ? 0 : treffer.size();
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        final DatenMediaDB mdb = treffer.get(row);
+        if (column == DatenMediaDB.MEDIA_DB_SIZE) {
+            return mdb.mVMediaDBFileSize;
+        } else {
+            return mdb.arr[column];
+        }
+    }
+}
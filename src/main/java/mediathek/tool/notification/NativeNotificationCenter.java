@@ -4,26 +4,20 @@ import mediathek.config.Konstanten;
 import mediathek.tool.ApplicationConfiguration;
 import mediathek.tool.javafx.FXErrorDialog;
 import mediathek.tool.notification.thrift.NotificationMessage;
-import mediathek.tool.notification.thrift.ThriftNotificationCenter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.thrift.TException;
-import org.apache.thrift.protocol.TBinaryProtocol;
-import org.apache.thrift.protocol.TMultiplexedProtocol;
-import org.apache.thrift.protocol.TProtocol;
-import org.apache.thrift.transport.TSocket;
-import org.apache.thrift.transport.TTransport;
 
 import javax.jmdns.JmDNS;
 import javax.jmdns.ServiceEvent;
 import javax.jmdns.ServiceListener;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 
 public class NativeNotificationCenter implements INotificationCenter, ServiceListener {
     private static final Logger logger = LogManager.getLogger(NativeNotificationCenter.class);
-    private static final String NOTIFICATION_SERVICE_NAME = "NotificationService";
     private static final int PORT_UNDEFINED = -1;
-    private int serverPort;
+    private final NotificationDispatcher dispatcher = new NotificationDispatcher(this::getServerAddress, this::showErrorDialog);
+    private int serverPort = PORT_UNDEFINED;
     private InetAddress serverAddress;
 
     public NativeNotificationCenter() {
@@ -44,23 +38,14 @@ public class NativeNotificationCenter implements INotificationCenter, ServiceLis
         if (!ApplicationConfiguration.getConfiguration().getBoolean(ApplicationConfiguration.APPLICATION_SHOW_NOTIFICATIONS, true))
             return;
 
-        if (serverPort == PORT_UNDEFINED || serverAddress == null) {
-            showErrorDialog(new IllegalArgumentException("server port or server address not set"));
-            return;
-        }
-
-        logger.trace("Sending native notification to {} on serverPort {}", serverAddress, serverPort);
-        try (TTransport transport = new TSocket(serverAddress.getHostAddress(), serverPort)) {
-            transport.open();
+        dispatcher.offer(msg);
+    }
 
-            TProtocol protocol = new TBinaryProtocol(transport);
-            TMultiplexedProtocol mp = new TMultiplexedProtocol(protocol, NOTIFICATION_SERVICE_NAME);
+    private synchronized InetSocketAddress getServerAddress() {
+        if (serverPort == PORT_UNDEFINED || serverAddress == null)
+            return null;
 
-            ThriftNotificationCenter.Client client = new ThriftNotificationCenter.Client(mp);
-            client.displayNotification(msg);
-        } catch (TException e) {
-            showErrorDialog(e);
-        }
+        return new InetSocketAddress(serverAddress, serverPort);
     }
 
     private void showErrorDialog(Exception ex) {
@@ -73,7 +58,7 @@ public class NativeNotificationCenter implements INotificationCenter, ServiceLis
         setServiceInfo(serviceEvent);
     }
 
-    private void setServiceInfo(ServiceEvent serviceEvent) {
+    private synchronized void setServiceInfo(ServiceEvent serviceEvent) {
         var info = serviceEvent.getInfo();
         InetAddress[] addrs = info.getInetAddresses();
         if (addrs.length > 0) {
@@ -88,7 +73,7 @@ public class NativeNotificationCenter implements INotificationCenter, ServiceLis
     }
 
     @Override
-    public void serviceRemoved(ServiceEvent serviceEvent) {
+    public synchronized void serviceRemoved(ServiceEvent serviceEvent) {
         serverPort = PORT_UNDEFINED;
         serverAddress = null;
     }
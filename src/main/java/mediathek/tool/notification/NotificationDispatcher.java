@@ -0,0 +1,205 @@
+package mediathek.tool.notification;
+
+import mediathek.tool.notification.thrift.NotificationMessage;
+import mediathek.tool.notification.thrift.ThriftNotificationCenter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TMultiplexedProtocol;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.InetSocketAddress;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Delivers notifications to the native notification helper.
+ * Messages are queued and sent on an own thread over one connection, which is reopened when it breaks
+ * or the helper has moved.
+ * Messages arriving in a burst, e.g. at the end of an abo run, are combined into one summary per title.
+ */
+public class NotificationDispatcher implements AutoCloseable {
+    public static final String SERVICE_NAME = "NotificationService";
+    private static final Logger logger = LogManager.getLogger(NotificationDispatcher.class);
+    private static final int QUEUE_SIZE = 100;
+    private static final long COALESCE_MILLIS = 750;
+    private static final int MAX_LINES_IN_SUMMARY = 5;
+    /**
+     * A helper which hangs must not block the dispatcher thread, connect and every answer use this timeout.
+     */
+    private static final int TIMEOUT_MILLIS = 3000;
+    private final BlockingQueue<NotificationMessage> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final Supplier<InetSocketAddress> server;
+    private final Consumer<Exception> errorHandler;
+    private final long coalesceMillis;
+    private final int timeoutMillis;
+    private final Thread thread;
+    private TTransport transport;
+    private ThriftNotificationCenter.Client client;
+    private InetSocketAddress connectedTo;
+
+    /**
+     * @param server       address of the helper, null if it is not known
+     * @param errorHandler called on the dispatcher thread if a notification can´t be delivered
+     */
+    public NotificationDispatcher(@NotNull Supplier<InetSocketAddress> server, @NotNull Consumer<Exception> errorHandler) {
+        this(server, errorHandler, COALESCE_MILLIS, TIMEOUT_MILLIS);
+    }
+
+    NotificationDispatcher(@NotNull Supplier<InetSocketAddress> server, @NotNull Consumer<Exception> errorHandler,
+                           long coalesceMillis, int timeoutMillis) {
+        this.server = server;
+        this.errorHandler = errorHandler;
+        this.coalesceMillis = coalesceMillis;
+        this.timeoutMillis = timeoutMillis;
+
+        thread = new Thread(this::run, "NotificationDispatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Combine the messages with the same title and type into one summary message.
+     *
+     * @param messages the messages in the order they arrived
+     * @return one message per title and type, in the order of their first occurrence
+     */
+    static List<NotificationMessage> coalesce(@NotNull List<NotificationMessage> messages) {
+        final Map<List<Object>, List<NotificationMessage>> groups = new LinkedHashMap<>();
+        for (NotificationMessage msg : messages) {
+            groups.computeIfAbsent(Arrays.asList(msg.getTitle(), msg.getType()), k -> new ArrayList<>()).add(msg);
+        }
+
+        final List<NotificationMessage> result = new ArrayList<>();
+        for (List<NotificationMessage> group : groups.values()) {
+            if (group.size() == 1) {
+                result.add(group.get(0));
+                continue;
+            }
+
+            // von jeder Meldung nur die erste Zeile
+            final StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < group.size() && i < MAX_LINES_IN_SUMMARY; ++i) {
+                final String text = Objects.toString(group.get(i).getMessage(), "");
+                final int eol = text.indexOf('\n');
+                sb.append(eol < 0 ? text : text.substring(0, eol)).append('\n');
+            }
+            if (group.size() > MAX_LINES_IN_SUMMARY) {
+                sb.append("... und ").append(group.size() - MAX_LINES_IN_SUMMARY).append(" weitere\n");
+            }
+
+            final NotificationMessage first = group.get(0);
+            final NotificationMessage summary = new NotificationMessage();
+            summary.setTitle(first.getTitle() + " (" + group.size() + ')');
+            summary.setMessage(sb.toString());
+            summary.setType(first.getType());
+            result.add(summary);
+        }
+        return result;
+    }
+
+    /**
+     * Queue a notification for delivery, the caller never waits for the helper.
+     *
+     * @return false if the queue is full and the message was dropped
+     */
+    public boolean offer(@NotNull NotificationMessage msg) {
+        if (!queue.offer(msg)) {
+            logger.warn("Notification queue full, dropping notification {}", msg.getTitle());
+            return false;
+        }
+        return true;
+    }
+
+    private void run() {
+        final List<NotificationMessage> batch = new ArrayList<>();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+
+                // kurz warten, ob noch mehr Meldungen kommen
+                final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(coalesceMillis);
+                long remaining;
+                while ((remaining = end - System.nanoTime()) > 0) {
+                    final NotificationMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null)
+                        break;
+                    batch.add(next);
+                }
+
+                for (NotificationMessage msg : coalesce(batch)) {
+                    // nach einem Fehler nicht für jede Meldung einen Dialog
+                    if (!send(msg))
+                        break;
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException ignored) {
+        } finally {
+            disconnect();
+        }
+    }
+
+    private boolean send(NotificationMessage msg) {
+        final InetSocketAddress address = server.get();
+        if (address == null) {
+            errorHandler.accept(new IllegalArgumentException("server port or server address not set"));
+            return false;
+        }
+
+        logger.trace("Sending native notification to {}", address);
+        try {
+            connect(address).displayNotification(msg);
+            return true;
+        } catch (TException e) {
+            disconnect();
+        }
+
+        // die Verbindung kann inzwischen vom Helfer geschlossen worden sein, einmal neu verbinden
+        try {
+            connect(address).displayNotification(msg);
+            return true;
+        } catch (TException e) {
+            disconnect();
+            errorHandler.accept(e);
+            return false;
+        }
+    }
+
+    private ThriftNotificationCenter.Client connect(InetSocketAddress address) throws TException {
+        if (client != null && address.equals(connectedTo) && transport.isOpen())
+            return client;
+
+        disconnect();
+        transport = new TSocket(address.getHostString(), address.getPort(), timeoutMillis, timeoutMillis);
+        transport.open();
+        client = new ThriftNotificationCenter.Client(new TMultiplexedProtocol(new TBinaryProtocol(transport), SERVICE_NAME));
+        connectedTo = address;
+
+        return client;
+    }
+
+    private void disconnect() {
+        if (transport != null)
+            transport.close();
+
+        transport = null;
+        client = null;
+        connectedTo = null;
+    }
+
+    /**
+     * Stop the dispatcher thread, queued messages are discarded.
+     */
+    @Override
+    public void close() {
+        thread.interrupt();
+    }
+}
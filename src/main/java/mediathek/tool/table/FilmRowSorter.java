@@ -0,0 +1,223 @@
+package mediathek.tool.table;
+
+import com.google.common.base.Stopwatch;
+import mediathek.daten.DatenFilm;
+import mediathek.daten.FilmSortIndex;
+import mediathek.daten.ListeFilme;
+import mediathek.tool.models.TModelFilm;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Row sorter of the film table which behaves like the default {@link javax.swing.table.TableRowSorter}.
+ * The sort keys are taken from the {@link FilmSortIndex} of the film list the models are filled from, so a new
+ * model after refiltering is put into order with one pass over the list instead of sorting it again.
+ * The list builds that index in the background after filtering, until it is ready a model is sorted by itself.
+ * The sorter stays installed when the table gets a new model.
+ */
+public class FilmRowSorter extends RowSorter<TModelFilm> {
+    private static final Logger logger = LogManager.getLogger(FilmRowSorter.class);
+    private static final int MAX_SORT_KEYS = 3;
+    private final ListeFilme listeFilme;
+    private volatile TModelFilm model;
+    private volatile List<SortKey> sortKeys = Collections.emptyList();
+    private int[] viewToModel = null;
+    private int[] modelToView = null;
+    private int modelRowCount;
+
+    /**
+     * @param model      the current model of the table
+     * @param listeFilme the list all models are filled from
+     */
+    public FilmRowSorter(@NotNull TModelFilm model, @NotNull ListeFilme listeFilme) {
+        this.model = model;
+        this.listeFilme = listeFilme;
+        modelRowCount = model.getRowCount();
+        // die Liste baut ihren Index nach dem Filtern im Hintergrund, gleich für die aktuelle Sortierung
+        listeFilme.setSortIndexPreparer(index -> index.prepare(this.model, getEffectiveSortKeys()));
+    }
+
+    @Override
+    public TModelFilm getModel() {
+        return model;
+    }
+
+    /**
+     * Use a new model, it is sorted when the table announces the structure change.
+     */
+    public void setModel(@NotNull TModelFilm model) {
+        this.model = model;
+    }
+
+    @Override
+    public void toggleSortOrder(int column) {
+        checkColumn(column);
+        List<SortKey> keys = new ArrayList<>(sortKeys);
+        int sortIndex;
+        for (sortIndex = keys.size() - 1; sortIndex >= 0; sortIndex--) {
+            if (keys.get(sortIndex).getColumn() == column)
+                break;
+        }
+
+        if (sortIndex == -1) {
+            keys.add(0, new SortKey(column, SortOrder.ASCENDING));
+        } else if (sortIndex == 0) {
+            final SortOrder order = keys.get(0).getSortOrder() == SortOrder.ASCENDING ? SortOrder.DESCENDING : SortOrder.ASCENDING;
+            keys.set(0, new SortKey(column, order));
+        } else {
+            keys.remove(sortIndex);
+            keys.add(0, new SortKey(column, SortOrder.ASCENDING));
+        }
+
+        if (keys.size() > MAX_SORT_KEYS)
+            keys = keys.subList(0, MAX_SORT_KEYS);
+        setSortKeys(keys);
+    }
+
+    @Override
+    public int convertRowIndexToModel(int index) {
+        if (viewToModel == null) {
+            if (index < 0 || index >= modelRowCount)
+                throw new IndexOutOfBoundsException("Invalid index");
+            return index;
+        }
+        return viewToModel[index];
+    }
+
+    @Override
+    public int convertRowIndexToView(int index) {
+        if (modelToView == null) {
+            if (index < 0 || index >= modelRowCount)
+                throw new IndexOutOfBoundsException("Invalid index");
+            return index;
+        }
+        return modelToView[index];
+    }
+
+    @Override
+    public List<? extends SortKey> getSortKeys() {
+        return sortKeys;
+    }
+
+    @Override
+    public void setSortKeys(List<? extends SortKey> keys) {
+        final List<SortKey> newKeys;
+        if (keys == null) {
+            newKeys = Collections.emptyList();
+        } else {
+            for (SortKey key : keys) {
+                if (key == null)
+                    throw new IllegalArgumentException("Invalid SortKey");
+                checkColumn(key.getColumn());
+            }
+            newKeys = Collections.unmodifiableList(new ArrayList<>(keys));
+        }
+
+        if (!newKeys.equals(sortKeys)) {
+            sortKeys = newKeys;
+            fireSortOrderChanged();
+            sort();
+        }
+    }
+
+    @Override
+    public int getViewRowCount() {
+        return viewToModel != null ? viewToModel.length : model.getRowCount();
+    }
+
+    @Override
+    public int getModelRowCount() {
+        return model.getRowCount();
+    }
+
+    @Override
+    public void modelStructureChanged() {
+        sort();
+    }
+
+    @Override
+    public void allRowsChanged() {
+        sort();
+    }
+
+    @Override
+    public void rowsInserted(int firstRow, int endRow) {
+        sort();
+    }
+
+    @Override
+    public void rowsDeleted(int firstRow, int endRow) {
+        sort();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow) {
+        // wie beim TableRowSorter wird bei Änderungen nicht neu sortiert
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow, int column) {
+        checkColumn(column);
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= model.getColumnCount())
+            throw new IndexOutOfBoundsException("column beyond range of TableModel");
+    }
+
+    /**
+     * Only the keys up to the first unsorted one are used, ties keep the model order.
+     */
+    private List<SortKey> getEffectiveSortKeys() {
+        for (int i = 0; i < sortKeys.size(); ++i) {
+            if (sortKeys.get(i).getSortOrder() == SortOrder.UNSORTED)
+                return sortKeys.subList(0, i);
+        }
+        return sortKeys;
+    }
+
+    private void sort() {
+        final int[] lastViewToModel = viewToModel != null ? viewToModel : new int[0];
+        modelRowCount = model.getRowCount();
+
+        final List<SortKey> keys = getEffectiveSortKeys();
+        if (keys.isEmpty()) {
+            viewToModel = null;
+            modelToView = null;
+        } else {
+            final Stopwatch stopwatch = Stopwatch.createStarted();
+            final FilmSortIndex index = listeFilme.getSortIndex();
+            int[] result = index != null ? index.sort(model, keys) : null;
+            if (result == null) {
+                // der Index der Liste ist noch nicht fertig, wird bei knappem Speicher nicht gehalten
+                // oder das Model passt nicht mehr zur Liste, dann aus den Zeilen des Models sortieren
+                final List<DatenFilm> filme = new ArrayList<>(modelRowCount);
+                for (int row = 0; row < modelRowCount; ++row) {
+                    filme.add((DatenFilm) model.getValueAt(row, DatenFilm.FILM_REF));
+                }
+                result = new FilmSortIndex(filme).sort(model, keys);
+            }
+            stopwatch.stop();
+            logger.trace("sort(): {}", stopwatch);
+
+            if (result == null) {
+                // doppelte Filme im Model, dann eben unsortiert
+                viewToModel = null;
+                modelToView = null;
+            } else {
+                viewToModel = result;
+                modelToView = new int[modelRowCount];
+                for (int view = 0; view < viewToModel.length; ++view) {
+                    modelToView[viewToModel[view]] = view;
+                }
+            }
+        }
+        fireRowSorterChanged(lastViewToModel);
+    }
+}
@@ -5,8 +5,26 @@ import mediathek.config.MVConfig;
 import mediathek.daten.DatenFilm;
 import mediathek.tool.models.TModelFilm;
 
+import javax.swing.table.TableModel;
+
 public class MVFilmTable extends ASelectableMVTable {
     private static final long serialVersionUID = -5362792359176783146L;
+    private FilmRowSorter filmRowSorter;
+
+    public MVFilmTable() {
+        super();
+        filmRowSorter = new FilmRowSorter((TModelFilm) getModel(), Daten.getInstance().getListeFilmeNachBlackList());
+        setAutoCreateRowSorter(false);
+        setRowSorter(filmRowSorter);
+    }
+
+    @Override
+    public void setModel(TableModel dataModel) {
+        // der Sortierer bleibt erhalten, nach dem Filtern wird nur die vorhandene Sortierung übernommen
+        if (filmRowSorter != null && dataModel instanceof TModelFilm)
+            filmRowSorter.setModel((TModelFilm) dataModel);
+        super.setModel(dataModel);
+    }
 
     @Override
     protected void setupTableType() {
@@ -59,6 +77,11 @@ public class MVFilmTable extends ASelectableMVTable {
         super.resetTabelle();
     }
 
+    @Override
+    protected void resetRowSorter() {
+        // die Sortierschlüssel wurden schon gelöscht
+    }
+
     @Override
     protected void spaltenAusschalten() {
         for (int i = 0; i < maxSpalten; ++i) {
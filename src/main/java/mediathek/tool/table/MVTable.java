@@ -367,14 +367,21 @@ public abstract class MVTable extends JTable {
         listeSortKeys = null;
 
         getRowSorter().setSortKeys(null);
-        setRowSorter(null);
-        setAutoCreateRowSorter(true);
+        resetRowSorter();
         spaltenAusschalten();
         setSpaltenEinAus(breite, spaltenAnzeigen);
         setSpalten();
         setHeight();
     }
 
+    /**
+     * Replace the row sorter with a new default one.
+     */
+    protected void resetRowSorter() {
+        setRowSorter(null);
+        setAutoCreateRowSorter(true);
+    }
+
     protected abstract void spaltenAusschalten();
 
     public void tabelleNachDatenSchreiben() {
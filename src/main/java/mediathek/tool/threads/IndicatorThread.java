@@ -20,14 +20,13 @@ public class IndicatorThread extends Thread {
         int numOfDownloadsActive = 0;
         double accumPercentage = 0.0;
         //only count running/active downloads and calc accumulated progress..
-        var activeDownloadList = daten.getListeDownloads().getListOfStartsNotFinished(DatenDownload.QUELLE_ALLE);
-        for (DatenDownload download : activeDownloadList) {
-            if (download.start.status == Start.STATUS_RUN) {
+        for (DatenDownload download : daten.getListeDownloads().getActiveStarts()) {
+            final Start start = download.start;
+            if (start != null && start.getStatus() == Start.STATUS_RUN) {
                 numOfDownloadsActive++;
-                accumPercentage += download.start.percent / 10.0;
+                accumPercentage += start.percent / 10.0;
             }
         }
-        activeDownloadList.clear();
 
         return accumPercentage / numOfDownloadsActive;
     }
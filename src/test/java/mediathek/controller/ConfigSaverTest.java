@@ -0,0 +1,177 @@
+package mediathek.controller;
+
+import mediathek.controller.ConfigSaver.Section;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * What ends up in the configuration file and its backups, and which backups are found for loading.
+ */
+class ConfigSaverTest {
+    /**
+     * The current content of the sections, the fragment of a section is e.g. {@code <abos>1</abos>}.
+     */
+    private final Map<Section, String> sections = new EnumMap<>(Section.class);
+    private final List<Section> serialized = new ArrayList<>();
+    private Path directory;
+    private Path xmlFile;
+    private ConfigSaver saver;
+
+    private static String fragment(Section section, int version) {
+        final String name = section.name().toLowerCase();
+        return '<' + name + '>' + version + "</" + name + '>';
+    }
+
+    private static String document(String... fragments) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final List<byte[]> content = new ArrayList<>();
+        for (String fragment : fragments) {
+            content.add(fragment.getBytes(StandardCharsets.UTF_8));
+        }
+        IoXmlSchreiben.writeConfigurationFile(bos, content);
+        return bos.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String read(Path path) throws IOException {
+        return Files.readString(path);
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("mv-config");
+        xmlFile = directory.resolve("mediathek.xml");
+        for (Section section : Section.values()) {
+            sections.put(section, fragment(section, 1));
+        }
+        saver = new ConfigSaver(xmlFile, section -> {
+            serialized.add(section);
+            return sections.get(section).getBytes(StandardCharsets.UTF_8);
+        }, Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        saver.close();
+        deleteRecursively(directory);
+    }
+
+    private Path backup(Section section, int number) {
+        return ConfigSaver.getBackupPath(xmlFile, section, number);
+    }
+
+    private String currentDocument() throws IOException {
+        return document(sections.values().toArray(new String[0]));
+    }
+
+    @Test
+    void writesAllSectionsAsOneDocument() throws IOException {
+        saver.saveNow();
+
+        assertThat(serialized).containsExactly(Section.values());
+        assertThat(read(xmlFile)).isEqualTo(currentDocument());
+        assertThat(xmlFile.resolveSibling("mediathek.xml.tmp")).doesNotExist();
+    }
+
+    @Test
+    void serializesOnlyChangedSectionsAgain() throws IOException {
+        saver.saveNow();
+        serialized.clear();
+
+        sections.put(Section.ABOS, fragment(Section.ABOS, 2));
+        saver.markDirty(Section.ABOS);
+        saver.saveNow();
+
+        assertThat(serialized).containsExactly(Section.ABOS);
+        assertThat(read(xmlFile)).isEqualTo(currentDocument());
+    }
+
+    @Test
+    void failedWriteIsRepeatedWithNextSave() throws IOException {
+        // ein nicht leeres Verzeichnis kann nicht ersetzt werden
+        Files.createDirectories(xmlFile.resolve("blockiert"));
+        saver.saveNow();
+        assertThat(xmlFile).isDirectory();
+
+        deleteRecursively(xmlFile);
+        saver.saveNow();
+
+        assertThat(read(xmlFile)).isEqualTo(currentDocument());
+    }
+
+    @Test
+    void backsUpChangedSectionsOncePerStart() throws IOException {
+        Files.writeString(backup(Section.ABOS, 1), document(fragment(Section.ABOS, 0)));
+        Files.writeString(backup(Section.BLACKLIST, 1), document(fragment(Section.BLACKLIST, 1)));
+        saver.start(true);
+
+        saver.saveNow();
+
+        // jeder Abschnitt ist für sich eine vollständige Konfig
+        assertThat(read(backup(Section.ABOS, 1))).isEqualTo(document(fragment(Section.ABOS, 1)));
+        assertThat(read(backup(Section.ABOS, 2))).isEqualTo(document(fragment(Section.ABOS, 0)));
+        assertThat(read(backup(Section.SYSTEM, 1))).isEqualTo(document(fragment(Section.SYSTEM, 1)));
+        // unverändert, keine weitere Kopie
+        assertThat(backup(Section.BLACKLIST, 2)).doesNotExist();
+
+        sections.put(Section.ABOS, fragment(Section.ABOS, 2));
+        saver.markDirty(Section.ABOS);
+        saver.saveNow();
+
+        assertThat(read(xmlFile)).isEqualTo(currentDocument());
+        assertThat(read(backup(Section.ABOS, 1))).isEqualTo(document(fragment(Section.ABOS, 1)));
+        assertThat(backup(Section.ABOS, 3)).doesNotExist();
+    }
+
+    @Test
+    void defaultsDoNotReplaceBackups() throws IOException {
+        final String lastWorking = document(fragment(Section.ABOS, 0));
+        Files.writeString(backup(Section.ABOS, 1), lastWorking);
+        saver.start(false);
+
+        saver.saveNow();
+
+        assertThat(read(xmlFile)).isEqualTo(currentDocument());
+        assertThat(read(backup(Section.ABOS, 1))).isEqualTo(lastWorking);
+        assertThat(backup(Section.ABOS, 2)).doesNotExist();
+        assertThat(backup(Section.SYSTEM, 1)).doesNotExist();
+    }
+
+    @Test
+    void findsNewestReadableBackupOfEverySection() throws IOException {
+        assertThat(ConfigSaver.findBackups(xmlFile)).isEmpty();
+
+        saver.start(true);
+        saver.saveNow();
+        assertThat(ConfigSaver.findBackups(xmlFile))
+                .containsExactly(Stream.of(Section.values()).map(s -> backup(s, 1)).toArray(Path[]::new));
+
+        // eine beim Schreiben abgebrochene Sicherung wird übergangen
+        Files.move(backup(Section.ABOS, 1), backup(Section.ABOS, 2));
+        Files.writeString(backup(Section.ABOS, 1), "<Mediathek><abos>");
+        assertThat(ConfigSaver.findBackups(xmlFile)).startsWith(backup(Section.ABOS, 2));
+    }
+}
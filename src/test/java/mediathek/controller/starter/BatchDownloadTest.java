@@ -0,0 +1,137 @@
+package mediathek.controller.starter;
+
+import mediathek.config.Config;
+import mediathek.config.Daten;
+import mediathek.daten.DatenDownload;
+import mediathek.gui.messages.DownloadFinishedEvent;
+import mediathek.tool.notification.thrift.NotificationMessage;
+import net.engio.mbassy.listener.Handler;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A direct download run by the batch mode finishes without dialogs, notifications or JavaFX.
+ */
+class BatchDownloadTest {
+    private static final int FILM_SIZE = 400 * 1024;
+    private final List<NotificationMessage> notifications = new CopyOnWriteArrayList<>();
+    private final CompletableFuture<DownloadFinishedEvent> finished = new CompletableFuture<>();
+    private MockWebServer server;
+    private Path directory;
+    private Daten daten;
+
+    @BeforeAll
+    static void startBatchMode() throws IOException {
+        // die Einstellungen sollen nicht im Nutzerverzeichnis landen
+        System.setProperty("user.home", Files.createTempDirectory("mv-home").toString());
+        Config.setBatchMode(true);
+    }
+
+    @AfterAll
+    static void stopBatchMode() {
+        Config.setBatchMode(false);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        directory = Files.createTempDirectory("mv-download");
+        daten = Daten.getInstance();
+        // ohne Stapelbetrieb würde hier JavaFX gebraucht
+        daten.setNotificationCenter(notifications::add);
+        daten.getMessageBus().subscribe(this);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        daten.getMessageBus().unsubscribe(this);
+        server.shutdown();
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator)
+                Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    @Handler
+    private void handleDownloadFinished(DownloadFinishedEvent e) {
+        finished.complete(e);
+    }
+
+    private DatenDownload download(Path target) {
+        final DatenDownload download = new DatenDownload();
+        download.arr[DatenDownload.DOWNLOAD_TITEL] = "Tatort";
+        download.arr[DatenDownload.DOWNLOAD_URL] = server.url("/tatort.mp4").toString();
+        download.arr[DatenDownload.DOWNLOAD_ZIEL_PFAD] = directory.toString();
+        download.arr[DatenDownload.DOWNLOAD_ZIEL_PFAD_DATEINAME] = target.toString();
+        download.art = DatenDownload.ART_DOWNLOAD;
+        download.start = new Start();
+        return download;
+    }
+
+    private void run(DatenDownload download) throws Exception {
+        final DirectHttpDownload thread = new DirectHttpDownload(daten, download);
+        thread.start();
+        thread.join(TimeUnit.SECONDS.toMillis(30));
+        assertThat(thread.isAlive()).isFalse();
+        finished.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void finishedDownloadRunsToTheEndWithoutNotification() throws Exception {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                // die Größe wird vorher einzeln abgefragt
+                if (request.getMethod().equals("HEAD"))
+                    return new MockResponse().setHeader("Content-Length", FILM_SIZE);
+                return new MockResponse().setBody(new Buffer().write(new byte[FILM_SIZE]));
+            }
+        });
+        final Path target = directory.resolve("tatort.mp4");
+        final DatenDownload download = download(target);
+
+        run(download);
+
+        assertThat(Files.size(target)).isEqualTo(FILM_SIZE);
+        assertThat(download.start.getStatus()).isEqualTo(Start.STATUS_FERTIG);
+        assertThat(download.start.percent).isEqualTo(Start.PROGRESS_FERTIG);
+        assertThat(notifications).isEmpty();
+    }
+
+    @Test
+    void existingFileIsKeptWithoutAsking() throws Exception {
+        final Path target = directory.resolve("tatort.mp4");
+        final byte[] existing = new byte[FILM_SIZE];
+        existing[0] = 1;
+        Files.write(target, existing);
+        final DatenDownload download = download(target);
+
+        run(download);
+
+        // abgebrochen, der Starter setzt den Download zurück
+        assertThat(download.start).isNull();
+        assertThat(Files.readAllBytes(target)).isEqualTo(existing);
+        assertThat(server.getRequestCount()).isZero();
+        assertThat(notifications).isEmpty();
+    }
+}
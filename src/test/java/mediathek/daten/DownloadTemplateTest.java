@@ -0,0 +1,49 @@
+package mediathek.daten;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The compiled templates must give the same result as the old chained StringUtils.replace calls.
+ */
+class DownloadTemplateTest {
+
+    private static final String[] FILENAME_VALUES = {"Tatort", "Der Fall", "ARD", "video", "20191018", "201500",
+            "20191019", "120000", "18", "10", "2019", "20", "15", "00", "42", "HD", "mp4", "0123456789", "0123456789.mp4"};
+
+    private static String replaceSequential(String template, String[] keys, String[] values) {
+        String ret = template;
+        for (int i = 0; i < keys.length; i++) {
+            ret = StringUtils.replace(ret, keys[i], values[i]);
+        }
+        return ret;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "%t-%T-%D.mp4", "%H_%h_%s_%N.%S", "%1.%2.%3 %4:%5:%6", "%%t", "%tT", "%i%q%Z%z", "%x%", "100%"})
+    void filenameTemplateTest(String template) {
+        final String result = DownloadTemplate.filename(template).render(key -> FILENAME_VALUES[key]);
+        assertThat(result).isEqualTo(replaceSequential(template, DownloadTemplate.FILENAME_KEYS, FILENAME_VALUES));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "-o ** %f", "%a/%b", "***", "%F --out=%a%b"})
+    void commandTemplateTest(String template) {
+        final String[] values = {"/tmp/film.mp4", "http://x.de/a%2Fb%ab.mp4", "rtmp://x", "/tmp", "film.mp4"};
+        final String result = DownloadTemplate.command(template).render(key -> values[key]);
+        assertThat(result).isEqualTo(replaceSequential(template, DownloadTemplate.COMMAND_KEYS, values));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"%t-%T", "%%tT"})
+    void valueContainingPlaceholderTest(String template) {
+        // a thema containing "%T" was replaced once more by the old implementation
+        final String[] values = FILENAME_VALUES.clone();
+        values[DownloadTemplate.FILENAME_THEMA] = "100%T";
+        final String result = DownloadTemplate.filename(template).render(key -> values[key]);
+        assertThat(result).isEqualTo(replaceSequential(template, DownloadTemplate.FILENAME_KEYS, values));
+    }
+}
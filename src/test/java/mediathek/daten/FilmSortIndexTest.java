@@ -0,0 +1,94 @@
+package mediathek.daten;
+
+import mediathek.tool.models.TModelFilm;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.swing.*;
+import javax.swing.table.TableRowSorter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilmSortIndexTest {
+    private static final String[] SENDER = {"ARD", "ZDF", "arte.DE", "3Sat", "BR"};
+    private static final String[] THEMA = {"Tatort", "tagesschau", "Äpfel", "Apfel", "Zoo", "", "Ökologie"};
+    private static final List<DatenFilm> filme = new ArrayList<>();
+    private static TModelFilm model;
+
+    @BeforeAll
+    static void setUp() {
+        final Random random = new Random(4711);
+        for (int i = 0; i < 200; ++i) {
+            final DatenFilm film = new DatenFilm();
+            film.setSender(SENDER[random.nextInt(SENDER.length)]);
+            film.setThema(THEMA[random.nextInt(THEMA.length)]);
+            film.setTitle("Folge " + random.nextInt(50));
+            film.arr[DatenFilm.FILM_DATUM] = String.format("%02d.0%d.2019", 1 + random.nextInt(28), 1 + random.nextInt(9));
+            film.arr[DatenFilm.FILM_ZEIT] = String.format("%02d:%02d:00", random.nextInt(24), random.nextInt(60));
+            film.arr[DatenFilm.FILM_DAUER] = String.format("00:%02d:00", random.nextInt(90));
+            film.setSize(random.nextInt(5) == 0 ? "" : String.valueOf(random.nextInt(1500)));
+            film.arr[DatenFilm.FILM_URL_HD] = random.nextBoolean() ? "http://hd" : "";
+            film.init();
+            filme.add(film);
+        }
+
+        // nur ein Teil der Liste, wie nach dem Filtern
+        model = new TModelFilm();
+        for (int i = 0; i < filme.size(); i += 3) {
+            model.addRow(new Object[]{filme.get(i)});
+        }
+    }
+
+    private static int[] sortDefault(List<RowSorter.SortKey> sortKeys) {
+        final TableRowSorter<TModelFilm> sorter = new TableRowSorter<>(model);
+        sorter.setSortKeys(sortKeys);
+        final int[] result = new int[sorter.getViewRowCount()];
+        Arrays.setAll(result, sorter::convertRowIndexToModel);
+        return result;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {DatenFilm.FILM_NR, DatenFilm.FILM_SENDER, DatenFilm.FILM_THEMA, DatenFilm.FILM_TITEL,
+            DatenFilm.FILM_DATUM, DatenFilm.FILM_ZEIT, DatenFilm.FILM_DAUER, DatenFilm.FILM_GROESSE, DatenFilm.FILM_HD})
+    void sortsLikeTableRowSorter(int column) {
+        final FilmSortIndex index = new FilmSortIndex(filme);
+
+        for (SortOrder order : new SortOrder[]{SortOrder.ASCENDING, SortOrder.DESCENDING}) {
+            final List<RowSorter.SortKey> sortKeys = List.of(new RowSorter.SortKey(column, order));
+            assertThat(index.sort(model, sortKeys)).containsExactly(sortDefault(sortKeys));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {DatenFilm.FILM_THEMA, DatenFilm.FILM_HD})
+    void sortsSeveralKeysLikeTableRowSorter(int column) {
+        final List<RowSorter.SortKey> sortKeys = List.of(new RowSorter.SortKey(column, SortOrder.DESCENDING),
+                new RowSorter.SortKey(DatenFilm.FILM_SENDER, SortOrder.ASCENDING));
+
+        assertThat(new FilmSortIndex(filme).sort(model, sortKeys)).containsExactly(sortDefault(sortKeys));
+    }
+
+    @Test
+    void preparedInBackgroundSortsLikeTableRowSorter() throws InterruptedException {
+        final List<RowSorter.SortKey> sortKeys = List.of(new RowSorter.SortKey(DatenFilm.FILM_TITEL, SortOrder.ASCENDING));
+        final FilmSortIndex index = new FilmSortIndex(filme);
+        final Thread background = new Thread(() -> index.prepare(new TModelFilm(), sortKeys));
+        background.start();
+        background.join();
+
+        assertThat(index.sort(model, sortKeys)).containsExactly(sortDefault(sortKeys));
+    }
+
+    @Test
+    void rejectsFilmsNotInList() {
+        final FilmSortIndex index = new FilmSortIndex(filme.subList(0, 10));
+
+        assertThat(index.sort(model, List.of(new RowSorter.SortKey(DatenFilm.FILM_TITEL, SortOrder.ASCENDING)))).isNull();
+    }
+}
@@ -0,0 +1,66 @@
+package mediathek.daten;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MediaDbSearchIndexTest {
+    private static final String[] NAMES = {
+            "Tatort-Der_Fall_Holdt.mp4", "TATORT - Borowski.mkv", "Die Sendung mit der Maus.mp4",
+            "Maus-Spezial.avi", "Ärger im Paradies.mp4", "DİE Anstalt.mp4", "ab.txt", "Wetter 2019-10-18.mp4"
+    };
+
+    private static List<DatenMediaDB> liste() {
+        final List<DatenMediaDB> liste = new ArrayList<>();
+        for (String name : NAMES) {
+            liste.add(new DatenMediaDB(name, "/tmp", 1, false));
+        }
+        return liste;
+    }
+
+    private static List<String> names(List<DatenMediaDB> treffer) {
+        return treffer.stream().map(mdb -> mdb.arr[DatenMediaDB.MEDIA_DB_NAME]).collect(Collectors.toList());
+    }
+
+    @Test
+    void substringSearchFindsTheSameAsAScan() {
+        final List<DatenMediaDB> liste = liste();
+        final MediaDbSearchIndex index = new MediaDbSearchIndex(liste);
+        for (String title : new String[]{"tatort", "MAUS", "ab", "m", "ärger", "2019-10", "xyz", "s.mp", ""}) {
+            final List<String> scan = liste.stream()
+                    .map(mdb -> mdb.arr[DatenMediaDB.MEDIA_DB_NAME])
+                    .filter(name -> name.toLowerCase().contains(title.toLowerCase()))
+                    .collect(Collectors.toList());
+            assertThat(names(index.search(title))).as(title).isEqualTo(scan);
+        }
+    }
+
+    @Test
+    void regexSearchFindsTheSameAsAScan() {
+        final List<DatenMediaDB> liste = liste();
+        final MediaDbSearchIndex index = new MediaDbSearchIndex(liste);
+        for (String regex : new String[]{"tatort.*", ".*maus.*", "die.*", "tatorx?t.*", ".*(holdt|borowski).*", "[]a-z]*ab\\.txt", ".*\\d{4}.*"}) {
+            final Pattern p = Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+            final List<String> scan = liste.stream()
+                    .map(mdb -> mdb.arr[DatenMediaDB.MEDIA_DB_NAME])
+                    .filter(name -> p.matcher(name).matches())
+                    .collect(Collectors.toList());
+            assertThat(names(index.search(p))).as(regex).isEqualTo(scan);
+        }
+    }
+
+    @Test
+    void onlyRequiredLiteralsAreUsed() {
+        assertThat(MediaDbSearchIndex.requiredLiterals(".*Tatort.*")).containsExactly("tatort");
+        assertThat(MediaDbSearchIndex.requiredLiterals("tatorx?t.*")).containsExactly("tator");
+        assertThat(MediaDbSearchIndex.requiredLiterals("abc|def")).isEmpty();
+        assertThat(MediaDbSearchIndex.requiredLiterals("(?x)a b c")).isEmpty();
+        assertThat(MediaDbSearchIndex.requiredLiterals("\\u0041bc.*")).isEmpty();
+        assertThat(MediaDbSearchIndex.requiredLiterals("[]abc]xyz(foo)bar")).containsExactly("xyz", "bar");
+    }
+}
@@ -0,0 +1,64 @@
+package mediathek.daten;
+
+import mediathek.tool.MemoryGovernor;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Started by {@link MemoryStressTest} in a JVM with a fixed heap.
+ * Creates films whose descriptions take one and a half times the heap and reads a sample of them back.
+ * With a small heap the films are stored in the database from the start, otherwise they must be moved there
+ * when the heap comes under pressure.
+ */
+final class MemoryStressRun {
+    static final String RESULT_OK = "memory stress run ok";
+    /**
+     * Estimated heap of a film with description and link, most of it is the description.
+     */
+    private static final long FILM_BYTES = 3_000;
+    private static final String FILLER = StringUtils.repeat("Beschreibung ", 150);
+
+    private MemoryStressRun() {
+    }
+
+    private static String description(int nr) {
+        return nr + FILLER;
+    }
+
+    private static String link(int nr) {
+        return "https://example.org/sendung/" + nr;
+    }
+
+    public static void main(String[] args) {
+        final ListeFilme liste = new ListeFilme();
+        final AtomicInteger moved = new AtomicInteger();
+        MemoryGovernor.getInstance().register(() -> moved.addAndGet(liste.moveDescriptionsToDatabase()));
+
+        final int count = (int) (Runtime.getRuntime().maxMemory() / FILM_BYTES * 3 / 2);
+        for (int i = 0; i < count; i++) {
+            final DatenFilm film = new DatenFilm();
+            film.setDescription(description(i));
+            film.setWebsiteLink(link(i));
+            synchronized (liste) {
+                liste.add(film);
+            }
+        }
+
+        int readFromDatabase = 0;
+        int wrong = 0;
+        for (int i = 0; i < count; i++) {
+            final DatenFilm film = liste.get(i);
+            if (film.isReadFromDatabase())
+                readFromDatabase++;
+            if (i % 101 == 0 && !(film.getDescription().equals(description(i)) && film.getWebsiteLink().equals(link(i))))
+                wrong++;
+        }
+
+        System.out.printf("films=%d moved=%d readFromDatabase=%d wrong=%d%n", count, moved.get(), readFromDatabase, wrong);
+        final boolean ok = wrong == 0 && readFromDatabase > 0;
+        if (ok)
+            System.out.println(RESULT_OK);
+        System.exit(ok ? 0 : 1);
+    }
+}
@@ -0,0 +1,44 @@
+package mediathek.daten;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Fills a film list with more descriptions than fit into the heap, in a JVM of its own for every heap size.
+ * Only runs with the profile memory-stress: {@code mvn test -P memory-stress}.
+ */
+@Tag("stress")
+class MemoryStressTest {
+    @ParameterizedTest
+    @ValueSource(strings = {"256m", "512m", "1g", "2g"})
+    void descriptionsBeyondHeap(String heap) throws Exception {
+        // Einstellungen und Datenbank des Laufs nicht im Nutzerverzeichnis
+        final Path home = Files.createTempDirectory("mv-stress");
+        // Ausgabe in eine Datei, eine volle Pipe würde den Lauf sonst anhalten
+        final Path log = home.resolve("stress.log");
+        final Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+        final Process process = new ProcessBuilder(java.toString(), "-Xmx" + heap, "-Duser.home=" + home,
+                "-cp", System.getProperty("java.class.path"), MemoryStressRun.class.getName())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+
+        if (!process.waitFor(30, TimeUnit.MINUTES)) {
+            process.destroyForcibly().waitFor();
+            fail("no result after 30 minutes with -Xmx" + heap + ":\n" + Files.readString(log));
+        }
+
+        final String output = Files.readString(log);
+        assertThat(process.exitValue()).as(output).isZero();
+        assertThat(output).contains(MemoryStressRun.RESULT_OK);
+    }
+}
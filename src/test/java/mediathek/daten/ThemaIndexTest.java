@@ -0,0 +1,58 @@
+package mediathek.daten;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Themas and film counts per sender, taken from one pass over the films.
+ */
+class ThemaIndexTest {
+    private final List<DatenFilm> filme = new ArrayList<>();
+
+    private void film(String sender, String thema) {
+        final DatenFilm film = new DatenFilm();
+        film.setSender(sender);
+        film.setThema(thema);
+        filme.add(film);
+    }
+
+    @Test
+    void themasAreSortedPerSender() {
+        film("ZDF", "Zoo");
+        film("ARD", "Tatort");
+        film("ZDF", "Äpfel");
+        film("ARD", "Apfel");
+        film("ARD", "Tatort");
+
+        final ThemaIndex index = new ThemaIndex(filme);
+
+        assertThat(index.getThemen(Collections.singletonList("ARD"))).containsExactly("Apfel", "Tatort");
+        assertThat(index.getThemen(Arrays.asList("ZDF", "ARD"))).containsExactly("Apfel", "Äpfel", "Tatort", "Zoo");
+        assertThat(index.getThemen(Collections.emptyList())).containsExactly("Apfel", "Äpfel", "Tatort", "Zoo");
+        assertThat(index.getThemen(Collections.singletonList("BR"))).isEmpty();
+    }
+
+    @Test
+    void countsFilmsPerSenderAndThema() {
+        film("ARD", "Tatort");
+        film("ARD", "Tatort");
+        film("ZDF", "Tatort");
+        film("ZDF", "Zoo");
+
+        final ThemaIndex index = new ThemaIndex(filme);
+
+        assertThat(index.getAnzahl("ARD", "Tatort")).isEqualTo(2);
+        assertThat(index.getAnzahl("ZDF", "Tatort")).isEqualTo(1);
+        assertThat(index.getAnzahl("ARD", "Zoo")).isZero();
+        assertThat(index.getAnzahl("BR", "Tatort")).isZero();
+        // leerer Sender zählt über alle Sender
+        assertThat(index.getAnzahl("", "Tatort")).isEqualTo(3);
+        assertThat(index.getAnzahl("", "Zoo")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,195 @@
+package mediathek.filmlisten;
+
+import mediathek.daten.DatenFilm;
+import mediathek.daten.ListeFilme;
+import mediathek.filmlisten.reader.FilmListValidators;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.apache.commons.lang3.time.FastDateFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.SimpleTimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Which list is requested how: diff or full, conditional or not, and when the remote id is checked first.
+ */
+class FilmListUpdateTest {
+    private static final FastDateFormat FORMAT = FastDateFormat.getInstance("dd.MM.yyyy, HH:mm",
+            new SimpleTimeZone(SimpleTimeZone.UTC_TIME, "UTC"));
+    private final ListeFilme listeFilme = new ListeFilme();
+    private final ListeFilme listeFilmeDiff = new ListeFilme();
+    /**
+     * The answers of the stub server in the order of the requests.
+     */
+    private final Deque<FilmListDownloadResult> answers = new ArrayDeque<>();
+    private final List<Download> downloads = new ArrayList<>();
+    private FilmListDownloadResult finished;
+    private Path validatorsFile;
+
+    private static void fill(ListeFilme liste, String id, long createdMillis) {
+        liste.add(new DatenFilm());
+        liste.metaData().setId(id);
+        liste.metaData().setDatum(FORMAT.format(createdMillis));
+    }
+
+    private static void fillOld(ListeFilme liste, String id) {
+        fill(liste, id, System.currentTimeMillis() - TimeUnit.DAYS.toMillis(3));
+    }
+
+    private static void fillCurrent(ListeFilme liste, String id) {
+        // in der Zukunft erstellt, damit der Test nicht von der Uhrzeit abhängt
+        fill(liste, id, System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        validatorsFile = Files.createTempFile("mv", ".validators");
+        Files.delete(validatorsFile);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(validatorsFile);
+    }
+
+    private void runUpdate() {
+        new FilmeImportierenAutoThread(listeFilme, listeFilmeDiff, 0, (url, liste, days, localListId) -> {
+            downloads.add(new Download(url, liste, localListId));
+            if (liste == listeFilmeDiff)
+                liste.add(new DatenFilm());
+            return answers.remove();
+        }, result -> finished = result).run();
+    }
+
+    private FilmListValidators validatorsFor(String url, String listId) {
+        final FilmListValidators validators = new FilmListValidators(validatorsFile);
+        final Response response = new Response.Builder()
+                .request(new Request.Builder().url(url).build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .header("ETag", "\"akt\"")
+                .build();
+        validators.update(url, response, listId);
+        return validators;
+    }
+
+    @Test
+    void oldListRequestsFullListWithLocalId() {
+        fillOld(listeFilme, "id-1");
+        answers.add(FilmListDownloadResult.NOT_MODIFIED);
+
+        runUpdate();
+
+        assertThat(downloads).containsExactly(new Download(FilmeImportierenAutoThread.URL_FULL, listeFilme, "id-1"));
+        assertThat(finished).isEqualTo(FilmListDownloadResult.NOT_MODIFIED);
+    }
+
+    @Test
+    void emptyListIsLoadedUnconditionally() {
+        answers.add(FilmListDownloadResult.LOADED);
+
+        runUpdate();
+
+        assertThat(downloads).containsExactly(new Download(FilmeImportierenAutoThread.URL_FULL, listeFilme, null));
+        assertThat(finished).isEqualTo(FilmListDownloadResult.LOADED);
+    }
+
+    @Test
+    void unchangedDiffDoesNotLoadFullList() {
+        fillCurrent(listeFilme, "id-1");
+        answers.add(FilmListDownloadResult.NOT_MODIFIED);
+
+        runUpdate();
+
+        assertThat(downloads).containsExactly(new Download(FilmeImportierenAutoThread.URL_DIFF, listeFilmeDiff, "id-1"));
+        assertThat(finished).isEqualTo(FilmListDownloadResult.NOT_MODIFIED);
+    }
+
+    @Test
+    void failedDiffFallsBackToFullList() {
+        fillCurrent(listeFilme, "id-1");
+        answers.add(FilmListDownloadResult.FAILED);
+        answers.add(FilmListDownloadResult.LOADED);
+
+        runUpdate();
+
+        assertThat(downloads).containsExactly(
+                new Download(FilmeImportierenAutoThread.URL_DIFF, listeFilmeDiff, "id-1"),
+                new Download(FilmeImportierenAutoThread.URL_FULL, listeFilme, "id-1"));
+        assertThat(listeFilmeDiff).isEmpty();
+        assertThat(finished).isEqualTo(FilmListDownloadResult.LOADED);
+    }
+
+    @Test
+    void conditionalFullListReplacesIdCheck() {
+        fillOld(listeFilme, "id-1");
+
+        assertThat(FilmeLaden.needsRemoteIdCheck(listeFilme, "", new FilmListValidators(validatorsFile))).isTrue();
+        assertThat(FilmeLaden.needsRemoteIdCheck(listeFilme, "", validatorsFor(FilmeImportierenAutoThread.URL_FULL, "id-1"))).isFalse();
+        // die Validatoren gehören zu einer anderen Liste
+        assertThat(FilmeLaden.needsRemoteIdCheck(listeFilme, "", validatorsFor(FilmeImportierenAutoThread.URL_FULL, "id-0"))).isTrue();
+        // für die Diff-Liste zählen sie nicht
+        assertThat(FilmeLaden.needsRemoteIdCheck(listeFilme, "", validatorsFor(FilmeImportierenAutoThread.URL_DIFF, "id-1"))).isTrue();
+    }
+
+    @Test
+    void noIdCheckForDiffLocalFileOrEmptyList() {
+        final FilmListValidators validators = new FilmListValidators(validatorsFile);
+
+        assertThat(FilmeLaden.needsRemoteIdCheck(listeFilme, "", validators)).isFalse();
+
+        fillOld(listeFilme, "id-1");
+        assertThat(FilmeLaden.needsRemoteIdCheck(listeFilme, "/tmp/filme.json", validators)).isFalse();
+        assertThat(FilmeLaden.needsRemoteIdCheck(listeFilme, "https://example.org/filme.xz", validators)).isTrue();
+
+        final ListeFilme current = new ListeFilme();
+        fillCurrent(current, "id-2");
+        assertThat(FilmeLaden.needsRemoteIdCheck(current, "", validators)).isFalse();
+    }
+
+    private static final class Download {
+        private final String url;
+        private final ListeFilme target;
+        private final String localListId;
+
+        Download(String url, ListeFilme target, String localListId) {
+            this.url = url;
+            this.target = target;
+            this.localListId = localListId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Download))
+                return false;
+            final Download other = (Download) o;
+            return url.equals(other.url) && target == other.target
+                    && Objects.equals(localListId, other.localListId);
+        }
+
+        @Override
+        public int hashCode() {
+            return url.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return url + " -> " + (target.isEmpty() ? "leere Liste" : target.getId()) + " (" + localListId + ")";
+        }
+    }
+}
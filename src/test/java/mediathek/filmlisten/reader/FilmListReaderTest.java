@@ -0,0 +1,123 @@
+package mediathek.filmlisten.reader;
+
+import mediathek.daten.DatenFilm;
+import mediathek.daten.ListeFilme;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * What a web download does to the local list for a full answer, a 304 and an error.
+ */
+class FilmListReaderTest {
+    private static final String ETAG = "\"akt-2\"";
+    private MockWebServer server;
+    private Path validatorsFile;
+    private FilmListValidators validators;
+    private FilmListReader reader;
+
+    @BeforeAll
+    static void useTemporarySettings() throws IOException {
+        // die Einstellungen, die beim Lesen abgefragt werden, sollen nicht im Nutzerverzeichnis landen
+        System.setProperty("user.home", Files.createTempDirectory("mv-home").toString());
+    }
+
+    private static String filmList(String id, String... titles) {
+        final StringBuilder sb = new StringBuilder("{\"Filmliste\":[\"18.10.2019, 10:00\",\"18.10.2019, 10:00\",\"3\",\"MSearch\",\"")
+                .append(id)
+                .append("\"],\"Filmliste\":[\"Sender\",\"Thema\",\"Titel\"]");
+        for (String title : titles) {
+            sb.append(",\"X\":[\"ARD\",\"Tatort\",\"").append(title)
+                    .append("\",\"18.10.2019\",\"20:15:00\",\"01:28:00\",\"1200\",\"\",\"http://example.org/")
+                    .append(title)
+                    .append(".mp4\",\"\",\"\",\"\",\"\",\"\",\"\",\"\",\"1571422500\",\"\",\"\",\"false\"]");
+        }
+        return sb.append('}').toString();
+    }
+
+    private static ListeFilme localList(String id, String title) {
+        final ListeFilme liste = new ListeFilme();
+        final DatenFilm film = new DatenFilm();
+        film.setTitle(title);
+        liste.add(film);
+        liste.metaData().setId(id);
+        return liste;
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        validatorsFile = Files.createTempFile("mv", ".validators");
+        Files.delete(validatorsFile);
+        validators = new FilmListValidators(validatorsFile);
+        reader = new FilmListReader(new OkHttpClient(), validators);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+        Files.deleteIfExists(validatorsFile);
+    }
+
+    @Test
+    void fullAnswerReplacesListAndKeepsValidators() throws InterruptedException {
+        final String url = server.url("/Filmliste-akt.json").toString();
+        server.enqueue(new MockResponse().setBody(filmList("id-2", "Borowski", "Odenthal")).setHeader("ETag", ETAG));
+        final ListeFilme liste = localList("id-1", "alt");
+
+        reader.readFilmListe(url, liste, 0, "id-1");
+
+        assertThat(reader.isNotModified()).isFalse();
+        assertThat(liste).extracting(DatenFilm::getTitle).containsExactly("Borowski", "Odenthal");
+        assertThat(liste.getId()).isEqualTo("id-2");
+        assertThat(validators.isValidFor(url, "id-2")).isTrue();
+        // ohne gespeicherte Validatoren ist die erste Anfrage nicht bedingt
+        assertThat(server.takeRequest().getHeader("If-None-Match")).isNull();
+    }
+
+    @Test
+    void notModifiedKeepsLocalList() throws InterruptedException {
+        final String url = server.url("/Filmliste-akt.json").toString();
+        server.enqueue(new MockResponse().setBody(filmList("id-2", "Borowski")).setHeader("ETag", ETAG));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        final ListeFilme liste = new ListeFilme();
+        reader.readFilmListe(url, liste, 0, null);
+
+        reader.readFilmListe(url, liste, 0, liste.getId());
+
+        assertThat(reader.isNotModified()).isTrue();
+        assertThat(liste).extracting(DatenFilm::getTitle).containsExactly("Borowski");
+        assertThat(liste.getId()).isEqualTo("id-2");
+        server.takeRequest();
+        assertThat(server.takeRequest().getHeader("If-None-Match")).isEqualTo(ETAG);
+    }
+
+    @Test
+    void serverErrorClearsListAndValidators() {
+        final String url = server.url("/Filmliste-diff.json").toString();
+        server.enqueue(new MockResponse().setBody(filmList("id-2", "Borowski")).setHeader("ETag", ETAG));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("{kaputt"));
+        final ListeFilme liste = new ListeFilme();
+        reader.readFilmListe(url, liste, 0, null);
+
+        reader.readFilmListe(url, liste, 0, "id-2");
+        assertThat(reader.isNotModified()).isFalse();
+        assertThat(liste).isEmpty();
+
+        // eine unlesbare Antwort verwirft auch die Validatoren, die nächste Anfrage ist nicht bedingt
+        reader.readFilmListe(url, localList("id-2", "alt"), 0, "id-2");
+        assertThat(validators.isValidFor(url, "id-2")).isFalse();
+    }
+}
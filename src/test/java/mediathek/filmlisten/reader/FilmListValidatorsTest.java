@@ -0,0 +1,114 @@
+package mediathek.filmlisten.reader;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stub server with the akt/diff/304 scenarios of the film list update.
+ */
+class FilmListValidatorsTest {
+    private static final String ETAG = "\"5d9f-akt\"";
+    private static final String LAST_MODIFIED = "Fri, 18 Oct 2019 10:00:00 GMT";
+    private final OkHttpClient client = new OkHttpClient();
+    private MockWebServer server;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        file = Files.createTempFile("mv", ".validators");
+        Files.delete(file);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    private Response get(FilmListValidators validators, String url, String localListId) throws IOException {
+        final Request.Builder builder = new Request.Builder().url(url);
+        validators.addConditionalHeaders(builder, url, localListId);
+        return client.newCall(builder.build()).execute();
+    }
+
+    @Test
+    void unchangedListCostsOne304() throws IOException {
+        final String url = server.url("/Filmliste-akt.xz").toString();
+        server.enqueue(new MockResponse().setBody("akt").setHeader("ETag", ETAG).setHeader("Last-Modified", LAST_MODIFIED));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        FilmListValidators validators = new FilmListValidators(file);
+        try (Response response = get(validators, url, null)) {
+            assertThat(response.body().string()).isEqualTo("akt");
+            validators.update(url, response, "id-1");
+        }
+
+        // survives a restart
+        validators = new FilmListValidators(file);
+        try (Response response = get(validators, url, "id-1")) {
+            assertThat(response.code()).isEqualTo(304);
+        }
+
+        server.takeRequest();
+        final RecordedRequest conditional = server.takeRequest();
+        assertThat(conditional.getHeader("If-None-Match")).isEqualTo(ETAG);
+        assertThat(conditional.getHeader("If-Modified-Since")).isEqualTo(LAST_MODIFIED);
+    }
+
+    @Test
+    void otherLocalListIsNotConditional() throws IOException {
+        final String akt = server.url("/Filmliste-akt.xz").toString();
+        final String diff = server.url("/Filmliste-diff.xz").toString();
+        server.enqueue(new MockResponse().setBody("akt").setHeader("ETag", ETAG));
+        server.enqueue(new MockResponse().setBody("diff").setHeader("ETag", "\"diff\""));
+        server.enqueue(new MockResponse().setBody("akt"));
+
+        final FilmListValidators validators = new FilmListValidators(file);
+        try (Response response = get(validators, akt, null)) {
+            validators.update(akt, response, "id-1");
+        }
+        // diff was applied, the local list is now id-2
+        try (Response response = get(validators, diff, "id-1")) {
+            validators.update(diff, response, "id-2");
+        }
+        assertThat(validators.isValidFor(diff, "id-2")).isTrue();
+        try (Response response = get(validators, akt, "id-2")) {
+            assertThat(response.code()).isEqualTo(200);
+        }
+
+        server.takeRequest();
+        assertThat(server.takeRequest().getHeader("If-None-Match")).isNull();
+        assertThat(server.takeRequest().getHeader("If-None-Match")).isNull();
+    }
+
+    @Test
+    void responseWithoutValidatorsRemovesEntry() throws IOException {
+        final String url = server.url("/Filmliste-akt.xz").toString();
+        server.enqueue(new MockResponse().setBody("akt").setHeader("ETag", ETAG));
+        server.enqueue(new MockResponse().setBody("akt"));
+
+        final FilmListValidators validators = new FilmListValidators(file);
+        try (Response response = get(validators, url, null)) {
+            validators.update(url, response, "id-1");
+        }
+        try (Response response = get(validators, url, "id-1")) {
+            validators.update(url, response, "id-1");
+        }
+        assertThat(validators.isValidFor(url, "id-1")).isFalse();
+    }
+}
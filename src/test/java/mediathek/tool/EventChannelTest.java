@@ -0,0 +1,139 @@
+package mediathek.tool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * How the progress of a download reaches its listeners: directly, on a busy UI thread and on the worker.
+ */
+class EventChannelTest {
+    /**
+     * Tasks waiting for a UI thread which is busy until the test runs them.
+     */
+    private final Deque<Runnable> uiThread = new ArrayDeque<>();
+
+    private static Progress progress(int percent) {
+        return new Progress(percent);
+    }
+
+    @Test
+    void directListenerRunsOnPublishingThreadBeforePublishReturns() {
+        final EventChannel<Progress> channel = new EventChannel<>("Progress", true);
+        final ProgressBar bar = new ProgressBar();
+        channel.subscribe(EventChannel.Dispatch.DIRECT, bar::show);
+
+        channel.publish(progress(10));
+        assertThat(bar.percent).isEqualTo(10);
+
+        // auch ein zusammenfassender Kanal ruft direkte Empfänger für jedes Ereignis auf
+        channel.publish(progress(20));
+        assertThat(bar.repaints).isEqualTo(2);
+        assertThat(bar.thread).isEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    void busyUiThreadGetsOnlyTheLatestProgress() {
+        final EventChannel<Progress> channel = new EventChannel<>("Progress", true);
+        final ProgressBar bar = new ProgressBar();
+        channel.subscribe(uiThread::add, bar::show);
+
+        for (int percent = 1; percent <= 50; ++percent)
+            channel.publish(progress(percent));
+        assertThat(uiThread).hasSize(1);
+
+        uiThread.remove().run();
+        assertThat(bar.percent).isEqualTo(50);
+        assertThat(bar.repaints).isEqualTo(1);
+
+        // nach der Auslieferung wird wieder eingeplant
+        channel.publish(progress(51));
+        assertThat(uiThread).hasSize(1);
+        uiThread.remove().run();
+        assertThat(bar.percent).isEqualTo(51);
+    }
+
+    @Test
+    void channelWithoutCoalescingKeepsEveryEventInOrder() {
+        final EventChannel<Progress> channel = new EventChannel<>("Finished", false);
+        final List<Integer> log = new ArrayList<>();
+        channel.subscribe(uiThread::add, p -> log.add(p.percent));
+
+        channel.publish(progress(100));
+        channel.publish(progress(0));
+        assertThat(uiThread).hasSize(2);
+
+        uiThread.forEach(Runnable::run);
+        assertThat(log).containsExactly(100, 0);
+    }
+
+    @Test
+    void eachSubscriberIsCoalescedOnItsOwn() {
+        final EventChannel<Progress> channel = new EventChannel<>("Progress", true);
+        final ProgressBar table = new ProgressBar();
+        final ProgressBar statusBar = new ProgressBar();
+        channel.subscribe(uiThread::add, table::show);
+        channel.subscribe(EventChannel.Dispatch.DIRECT, statusBar::show);
+
+        channel.publish(progress(30));
+        channel.publish(progress(40));
+
+        assertThat(statusBar.repaints).isEqualTo(2);
+        assertThat(table.repaints).isZero();
+        uiThread.remove().run();
+        assertThat(table.percent).isEqualTo(40);
+    }
+
+    @Test
+    void progressScheduledBeforeCancelStillArrives() {
+        final EventChannel<Progress> channel = new EventChannel<>("Progress", true);
+        final ProgressBar bar = new ProgressBar();
+        final EventChannel<Progress>.Subscription subscription = channel.subscribe(uiThread::add, bar::show);
+
+        channel.publish(progress(70));
+        subscription.cancel();
+        channel.publish(progress(80));
+
+        assertThat(uiThread).hasSize(1);
+        uiThread.remove().run();
+        assertThat(bar.percent).isEqualTo(70);
+    }
+
+    @Test
+    void workerListenerRunsOnTheSharedWorkerThread() throws Exception {
+        final EventChannel<Progress> channel = new EventChannel<>("Progress", false);
+        final CompletableFuture<String> thread = new CompletableFuture<>();
+        channel.subscribe(EventChannel.Dispatch.WORKER, p -> thread.complete(Thread.currentThread().getName()));
+
+        channel.publish(progress(1));
+
+        assertThat(thread.get(5, TimeUnit.SECONDS)).isEqualTo("EventChannel-Worker");
+    }
+
+    private static final class Progress {
+        private final int percent;
+
+        Progress(int percent) {
+            this.percent = percent;
+        }
+    }
+
+    private static final class ProgressBar {
+        private int percent = -1;
+        private int repaints;
+        private String thread;
+
+        void show(Progress progress) {
+            percent = progress.percent;
+            ++repaints;
+            thread = Thread.currentThread().getName();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package mediathek.tool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemoryGovernorTest {
+    private static final long POOL = 1000;
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    void smallHeapIsAlwaysLowMemory() {
+        final MemoryGovernor governor = new MemoryGovernor(Runnable::run, 256 * MB);
+
+        assertThat(governor.isSmallHeap()).isTrue();
+        assertThat(governor.isUnderPressure()).isFalse();
+        assertThat(governor.isLowMemory()).isTrue();
+
+        governor.update(900, POOL);
+        governor.update(100, POOL);
+        assertThat(governor.isLowMemory()).isTrue();
+    }
+
+    @Test
+    void largeHeapIsLowMemoryOnlyUnderPressure() {
+        final MemoryGovernor governor = new MemoryGovernor(Runnable::run, 2048 * MB);
+        assertThat(governor.isLowMemory()).isFalse();
+
+        governor.update(850, POOL);
+        assertThat(governor.isLowMemory()).isTrue();
+
+        // zwischen den Schwellen bleibt der Zustand erhalten, sonst würde bei jeder GC hin und her geschaltet
+        governor.update(700, POOL);
+        assertThat(governor.isLowMemory()).isTrue();
+
+        governor.update(599, POOL);
+        assertThat(governor.isLowMemory()).isFalse();
+        assertThat(governor.isSmallHeap()).isFalse();
+    }
+
+    @Test
+    void indexIsDroppedOnceAndRebuiltAfterRelief() {
+        final MemoryGovernor governor = new MemoryGovernor(Runnable::run, 2048 * MB);
+        final Index index = new Index();
+        governor.register(index);
+
+        governor.update(900, POOL);
+        governor.update(950, POOL);
+        governor.update(700, POOL);
+        assertThat(index.keys).isNull();
+
+        governor.update(300, POOL);
+        assertThat(index.keys).hasSize(Index.SIZE);
+        assertThat(index.builds).isEqualTo(2);
+    }
+
+    @Test
+    void consumersRunOnTheGovernorExecutor() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "governor-test"));
+        try {
+            final MemoryGovernor governor = new MemoryGovernor(executor, 2048 * MB);
+            final CompletableFuture<String> shedThread = new CompletableFuture<>();
+            governor.register(() -> shedThread.complete(Thread.currentThread().getName()));
+
+            governor.update(900, POOL);
+
+            assertThat(shedThread.get(5, TimeUnit.SECONDS)).isEqualTo("governor-test");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void poolWithoutLimitIsIgnored() {
+        final MemoryGovernor governor = new MemoryGovernor(Runnable::run, 2048 * MB);
+
+        governor.update(900, -1);
+
+        assertThat(governor.isUnderPressure()).isFalse();
+    }
+
+    /**
+     * A consumer like the lookup indices of the film lists.
+     */
+    private static final class Index implements MemoryGovernor.MemoryConsumer {
+        static final int SIZE = 100;
+        int[] keys;
+        int builds;
+
+        Index() {
+            restore();
+        }
+
+        @Override
+        public void shed() {
+            keys = null;
+        }
+
+        @Override
+        public void restore() {
+            keys = new int[SIZE];
+            builds++;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package mediathek.tool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplaceAutomatonTest {
+    private static final String ALPHABET = "ab_ /ä";
+    /**
+     * Replacements without characters of the texts, these tables are replaced in a single scan.
+     */
+    private static final String REPLACEMENTS = "XYZ";
+
+    /**
+     * The replace as it was before the automaton: one {@link String#replace(CharSequence, CharSequence)} per rule.
+     */
+    private static String sequentialReplace(List<String[]> rules, String text) {
+        for (String[] rule : rules) {
+            text = text.replace(rule[ReplaceList.VON_NR], rule[ReplaceList.NACH_NR]);
+        }
+        return text;
+    }
+
+    private static String randomString(Random random, String alphabet, int minLength, int maxLength) {
+        final int length = minLength + random.nextInt(maxLength - minLength + 1);
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void defaultTable() {
+        final List<String[]> rules = List.<String[]>of(new String[]{" ", "_"});
+
+        assertThat(new ReplaceAutomaton(rules).replace("Tatort - Borowski und der Engel"))
+                .isEqualTo("Tatort_-_Borowski_und_der_Engel");
+    }
+
+    @Test
+    void overlappingRulesUseTableOrder() {
+        final List<String[]> rules = List.of(new String[]{"bc", "X"}, new String[]{"abcd", "Y"}, new String[]{"ab", "Z"});
+        final ReplaceAutomaton automaton = new ReplaceAutomaton(rules);
+
+        assertThat(automaton.replace("abcd abc bcab")).isEqualTo(sequentialReplace(rules, "abcd abc bcab"));
+        assertThat(automaton.replace("abcd abc bcab")).isEqualTo("aXd aX XZ");
+    }
+
+    @Test
+    void replacementCreatingLaterMatch() {
+        // "a" -> "b" erzeugt Treffer für "bb", das geht nur nacheinander
+        final List<String[]> rules = List.of(new String[]{"a", "b"}, new String[]{"bb", "c"});
+
+        assertThat(new ReplaceAutomaton(rules).replace("ab aa")).isEqualTo("c c");
+    }
+
+    @Test
+    void emptyReplacementJoiningText() {
+        final List<String[]> rules = List.of(new String[]{"-", ""}, new String[]{"ab", "X"});
+
+        assertThat(new ReplaceAutomaton(rules).replace("a-b")).isEqualTo("X");
+    }
+
+    @Test
+    void matchesSequentialReplaceForRandomTables() {
+        final Random random = new Random(42);
+        for (int table = 0; table < 2_000; table++) {
+            // Ersetzungen aus den Zeichen des Textes erzwingen meist das Ersetzen nacheinander
+            final String replacements = table % 2 == 0 ? REPLACEMENTS : ALPHABET;
+            final List<String[]> rules = new ArrayList<>();
+            final int count = 1 + random.nextInt(5);
+            for (int i = 0; i < count; i++) {
+                rules.add(new String[]{randomString(random, ALPHABET, 1, 3), randomString(random, replacements, 0, 3)});
+            }
+            final ReplaceAutomaton automaton = new ReplaceAutomaton(rules);
+
+            for (int i = 0; i < 20; i++) {
+                final String text = randomString(random, ALPHABET, 0, 30);
+                assertThat(automaton.replace(text))
+                        .as("text '%s'", text)
+                        .isEqualTo(sequentialReplace(rules, text));
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package mediathek.tool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * When a status display driven by the clock is updated: first display, changes, period, visibility
+ * and the pulses for the UI threads.
+ */
+class TickSchedulerTest {
+    /**
+     * Number of running downloads, the model shown by the displays.
+     */
+    private int running;
+    /**
+     * The batch of Swing ticks waiting for the event dispatch thread, the scheduler queues at most one.
+     */
+    private Runnable swingBatch;
+    private int swingBatches;
+    private final Executor swing = batch -> {
+        assertThat(swingBatch).as("only one pulse waits for the Swing thread").isNull();
+        swingBatch = batch;
+        ++swingBatches;
+    };
+    private final TickScheduler scheduler = new TickScheduler(swing, Runnable::run);
+
+    private void runSwingBatch() {
+        final Runnable batch = swingBatch;
+        swingBatch = null;
+        batch.run();
+    }
+
+    private void pulses(int count) {
+        for (int i = 0; i < count; ++i)
+            scheduler.pulse();
+    }
+
+    private TickScheduler.Tick register(Display display, int period, TickScheduler.Target target) {
+        return scheduler.register("Downloads", period, target, () -> display.show(running));
+    }
+
+    @Test
+    void showsInitialStateOnceThenOnlyMarkedChanges() {
+        final Display display = new Display();
+        final TickScheduler.Tick tick = register(display, 1, TickScheduler.Target.BACKGROUND);
+
+        pulses(3);
+        assertThat(display.shown).isZero();
+        assertThat(display.updates).isEqualTo(1);
+
+        running = 2;
+        pulses(1);
+        assertThat(display.shown).isZero();
+
+        tick.markDirty();
+        pulses(1);
+        assertThat(display.shown).isEqualTo(2);
+        assertThat(display.updates).isEqualTo(2);
+    }
+
+    @Test
+    void predicateDetectsChangesOnTheClockThread() {
+        final Display display = new Display();
+        register(display, 1, TickScheduler.Target.BACKGROUND).changedWhen(() -> display.shown != running);
+        pulses(1);
+
+        running = 3;
+        pulses(2);
+
+        assertThat(display.shown).isEqualTo(3);
+        assertThat(display.updates).isEqualTo(2);
+    }
+
+    @Test
+    void changesAreShownOnlyEveryPeriod() {
+        final Display display = new Display();
+        register(display, 3, TickScheduler.Target.BACKGROUND).changedWhen(() -> display.shown != running);
+
+        for (int pulse = 1; pulse <= 6; ++pulse) {
+            running = pulse;
+            scheduler.pulse();
+        }
+
+        // nur beim dritten und sechsten Takt
+        assertThat(display.updates).isEqualTo(2);
+        assertThat(display.shown).isEqualTo(6);
+    }
+
+    @Test
+    void hiddenDisplayCatchesUpWhenShownAgain() {
+        final Display display = new Display();
+        final boolean[] visible = {true};
+        final TickScheduler.Tick tick = register(display, 1, TickScheduler.Target.FX).visibleWhen(() -> visible[0]);
+        pulses(1);
+
+        visible[0] = false;
+        running = 5;
+        tick.markDirty();
+        pulses(3);
+        assertThat(display.shown).isZero();
+
+        visible[0] = true;
+        pulses(1);
+        assertThat(display.shown).isEqualTo(5);
+        assertThat(display.updates).isEqualTo(2);
+    }
+
+    @Test
+    void swingDisplaysShareOnePulseAndBusyThreadSkipsPulses() {
+        final Display list = new Display();
+        final Display statusBar = new Display();
+        final Display fxInfo = new Display();
+        register(list, 1, TickScheduler.Target.SWING).changedWhen(() -> list.shown != running);
+        register(statusBar, 1, TickScheduler.Target.SWING).changedWhen(() -> statusBar.shown != running);
+        register(fxInfo, 1, TickScheduler.Target.FX).changedWhen(() -> fxInfo.shown != running);
+
+        pulses(1);
+        assertThat(swingBatches).isEqualTo(1);
+        assertThat(list.updates).isZero();
+        // der JavaFX-Takt hängt nicht vom Swing-Thread ab
+        assertThat(fxInfo.updates).isEqualTo(1);
+
+        // der Swing-Thread ist noch beschäftigt, der Takt entfällt
+        running = 1;
+        pulses(1);
+        assertThat(swingBatches).isEqualTo(1);
+
+        runSwingBatch();
+        assertThat(list.shown).isEqualTo(1);
+        assertThat(statusBar.shown).isEqualTo(1);
+        assertThat(list.updates).isEqualTo(1);
+
+        running = 2;
+        pulses(1);
+        assertThat(swingBatches).isEqualTo(2);
+        runSwingBatch();
+        assertThat(list.shown).isEqualTo(2);
+        assertThat(statusBar.updates).isEqualTo(2);
+    }
+
+    @Test
+    void failingPredicateDoesNotStopOtherDisplays() {
+        final Display broken = new Display();
+        final Display list = new Display();
+        final boolean[] fails = {true};
+        register(broken, 1, TickScheduler.Target.BACKGROUND).visibleWhen(() -> {
+            if (fails[0])
+                throw new IllegalStateException("Tabelle nicht verfügbar");
+            return true;
+        });
+        register(list, 1, TickScheduler.Target.BACKGROUND).changedWhen(() -> list.shown != running);
+
+        running = 1;
+        pulses(2);
+        assertThat(broken.updates).isZero();
+        assertThat(list.shown).isEqualTo(1);
+
+        // die Anzeige wird nachgeholt, sobald die Bedingung wieder geht
+        fails[0] = false;
+        pulses(1);
+        assertThat(broken.shown).isEqualTo(1);
+    }
+
+    @Test
+    void rejectedPulseIsQueuedAgainWithNextPulse() {
+        final boolean[] rejects = {true};
+        final Display list = new Display();
+        final TickScheduler busySwing = new TickScheduler(batch -> {
+            if (rejects[0])
+                throw new IllegalStateException("Toolkit not initialized");
+            batch.run();
+        }, Runnable::run);
+        busySwing.register("Downloads", 1, TickScheduler.Target.SWING, () -> list.show(running))
+                .changedWhen(() -> list.shown != running);
+
+        running = 1;
+        busySwing.pulse();
+        assertThat(list.updates).isZero();
+
+        rejects[0] = false;
+        busySwing.pulse();
+        assertThat(list.shown).isEqualTo(1);
+    }
+
+    @Test
+    void periodMustBeAtLeastOneSecond() {
+        assertThatThrownBy(() -> scheduler.register("Downloads", 0, TickScheduler.Target.SWING, () -> {
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static final class Display {
+        private int shown;
+        private int updates;
+
+        void show(int value) {
+            shown = value;
+            ++updates;
+        }
+    }
+}
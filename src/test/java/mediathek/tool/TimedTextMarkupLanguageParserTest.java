@@ -0,0 +1,69 @@
+package mediathek.tool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The expected SRT files were written by the former DOM based converter.
+ */
+class TimedTextMarkupLanguageParserTest {
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("ttml");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    private Path copyResource(String name) throws Exception {
+        final Path file = dir.resolve(name);
+        try (InputStream is = getClass().getResourceAsStream("ttml/" + name)) {
+            Files.copy(is, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return file;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ebu", "flash", "flash-late-style", "ebu-untimed"})
+    void convertsLikeBefore(String name) throws Exception {
+        final Path ttml = copyResource(name + ".ttml");
+        final Path expected = copyResource(name + ".srt");
+        final Path srt = dir.resolve(name + ".out.srt");
+
+        assertThat(new TimedTextMarkupLanguageParser().convert(ttml, srt)).isTrue();
+
+        final String result = new String(Files.readAllBytes(srt), StandardCharsets.UTF_8)
+                .replace(System.lineSeparator(), "\n");
+        assertThat(result).isEqualTo(new String(Files.readAllBytes(expected), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void invalidFileLeavesNoSrt() throws Exception {
+        final Path ttml = copyResource("ebu-badtime.ttml");
+        final Path srt = dir.resolve("ebu-badtime.srt");
+
+        assertThat(new TimedTextMarkupLanguageParser().convert(ttml, srt)).isFalse();
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files).containsExactly(ttml);
+        }
+    }
+}
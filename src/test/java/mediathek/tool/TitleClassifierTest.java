@@ -0,0 +1,55 @@
+package mediathek.tool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TitleClassifierTest {
+    private static final String[] WORDS = {
+            "Hörfassung", "Audiodeskription", "AD |", "(AD)", "AD", "(AD", "Gebärden", "Gebärdensprache",
+            "Trailer", "trailer", "TRAILER", "Teaser", "teaser", "Vorschau", "vorschau", "Vorsch", "Tatort", " ", "|", "(", ")",
+            "Tagesschau", "Hör", "Teas", "Audio"
+    };
+
+    /**
+     * The checks as they were before the classifier.
+     */
+    private static int reference(String title) {
+        int flags = 0;
+        if (title.contains("Hörfassung") || title.contains("Audiodeskription")
+                || title.contains("AD |") || title.endsWith("(AD)"))
+            flags |= TitleClassifier.AUDIO_VERSION;
+        if (title.contains("Gebärden"))
+            flags |= TitleClassifier.SIGN_LANGUAGE;
+        if (title.contains("Trailer") || title.contains("trailer") || title.contains("Teaser") || title.contains("teaser")
+                || title.contains("Vorschau") || title.contains("vorschau"))
+            flags |= TitleClassifier.TRAILER_TEASER;
+        return flags;
+    }
+
+    @Test
+    void knownTitles() {
+        assertThat(TitleClassifier.classify("Tatort: Borowski (AD)")).isEqualTo(TitleClassifier.AUDIO_VERSION);
+        assertThat(TitleClassifier.classify("Tatort: Borowski (AD) - Trailer")).isEqualTo(TitleClassifier.TRAILER_TEASER);
+        assertThat(TitleClassifier.classify("Tagesschau mit Gebärdensprache")).isEqualTo(TitleClassifier.SIGN_LANGUAGE);
+        assertThat(TitleClassifier.classify("Filmvorschau (Audiodeskription)"))
+                .isEqualTo(TitleClassifier.AUDIO_VERSION | TitleClassifier.TRAILER_TEASER);
+        assertThat(TitleClassifier.classify("")).isZero();
+    }
+
+    @Test
+    void sameResultAsTheSingleChecks() {
+        final Random random = new Random(4711);
+        for (int i = 0; i < 100_000; ++i) {
+            final StringBuilder sb = new StringBuilder();
+            final int words = random.nextInt(5);
+            for (int w = 0; w < words; ++w) {
+                sb.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            final String title = sb.toString();
+            assertThat(TitleClassifier.classify(title)).as(title).isEqualTo(reference(title));
+        }
+    }
+}
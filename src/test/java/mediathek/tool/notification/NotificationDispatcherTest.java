@@ -0,0 +1,154 @@
+package mediathek.tool.notification;
+
+import mediathek.tool.notification.thrift.MessageType;
+import mediathek.tool.notification.thrift.NotificationMessage;
+import mediathek.tool.notification.thrift.ThriftNotificationCenter;
+import org.apache.thrift.TMultiplexedProcessor;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.server.ServerContext;
+import org.apache.thrift.server.TServer;
+import org.apache.thrift.server.TServerEventHandler;
+import org.apache.thrift.server.TThreadPoolServer;
+import org.apache.thrift.transport.TServerSocket;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Delivery against an in-process notification helper.
+ */
+class NotificationDispatcherTest {
+    private final BlockingQueue<NotificationMessage> received = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Exception> errors = new LinkedBlockingQueue<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private TServer server;
+    private InetSocketAddress address;
+
+    private static NotificationMessage message(String title, String text, MessageType type) {
+        final NotificationMessage msg = new NotificationMessage();
+        msg.setTitle(title);
+        msg.setMessage(text);
+        msg.setType(type);
+        return msg;
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final TServerSocket socket = new TServerSocket(0);
+        address = new InetSocketAddress("127.0.0.1", socket.getServerSocket().getLocalPort());
+
+        final TMultiplexedProcessor processor = new TMultiplexedProcessor();
+        processor.registerProcessor(NotificationDispatcher.SERVICE_NAME, new ThriftNotificationCenter.Processor<>(received::add));
+        server = new TThreadPoolServer(new TThreadPoolServer.Args(socket).processor(processor));
+        server.setServerEventHandler(new TServerEventHandler() {
+            @Override
+            public void preServe() {
+            }
+
+            @Override
+            public ServerContext createContext(TProtocol input, TProtocol output) {
+                connections.incrementAndGet();
+                return null;
+            }
+
+            @Override
+            public void deleteContext(ServerContext serverContext, TProtocol input, TProtocol output) {
+            }
+
+            @Override
+            public void processContext(ServerContext serverContext, TTransport inputTransport, TTransport outputTransport) {
+            }
+        });
+
+        final Thread serverThread = new Thread(server::serve);
+        serverThread.setDaemon(true);
+        serverThread.start();
+        while (!server.isServing()) {
+            Thread.sleep(10);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private NotificationDispatcher dispatcher(InetSocketAddress helper) {
+        return new NotificationDispatcher(() -> helper, errors::add, 300, 500);
+    }
+
+    /**
+     * The next message the helper got, a delivery error fails the test with its cause.
+     */
+    private NotificationMessage nextReceived() throws InterruptedException {
+        final NotificationMessage msg = received.poll(5, TimeUnit.SECONDS);
+        assertThat(errors).as("delivery errors").isEmpty();
+        assertThat(msg).as("received notification").isNotNull();
+        return msg;
+    }
+
+    @Test
+    void burstIsCoalescedAndSentOverOneConnection() throws InterruptedException {
+        try (NotificationDispatcher dispatcher = dispatcher(address)) {
+            for (int i = 0; i < 10; ++i) {
+                dispatcher.offer(message("Download war erfolgreich", "Film:   " + i + "\nSender: ARD\n", MessageType.INFO));
+            }
+            dispatcher.offer(message("Download war fehlerhaft", "Film:   kaputt\n", MessageType.ERROR));
+
+            final NotificationMessage summary = nextReceived();
+            assertThat(summary.getTitle()).isEqualTo("Download war erfolgreich (10)");
+            assertThat(summary.getMessage()).startsWith("Film:   0\nFilm:   1\n").endsWith("... und 5 weitere\n");
+            assertThat(nextReceived().getTitle()).isEqualTo("Download war fehlerhaft");
+
+            // die nächste Meldung nutzt dieselbe Verbindung
+            dispatcher.offer(message("Programminfos", "noch eine", MessageType.INFO));
+            assertThat(nextReceived().getMessage()).isEqualTo("noch eine");
+            assertThat(received).isEmpty();
+            assertThat(connections).hasValue(1);
+        }
+        assertThat(errors).isEmpty();
+    }
+
+    @Test
+    void unknownServerIsReportedOncePerBurst() throws InterruptedException {
+        try (NotificationDispatcher dispatcher = dispatcher(null)) {
+            dispatcher.offer(message("a", "1", MessageType.INFO));
+            dispatcher.offer(message("b", "2", MessageType.INFO));
+
+            assertThat(errors.poll(5, TimeUnit.SECONDS)).isInstanceOf(IllegalArgumentException.class);
+            assertThat(errors.poll(500, TimeUnit.MILLISECONDS)).isNull();
+        }
+    }
+
+    @Test
+    void helperWhichDoesNotAnswerTimesOut() throws Exception {
+        // nimmt Verbindungen an, liest aber nie und antwortet nicht
+        try (ServerSocket silent = new ServerSocket(0);
+             NotificationDispatcher dispatcher = dispatcher(new InetSocketAddress("127.0.0.1", silent.getLocalPort()))) {
+            dispatcher.offer(message("a", "1", MessageType.INFO));
+
+            assertThat(errors.poll(5, TimeUnit.SECONDS)).isInstanceOf(TTransportException.class);
+        }
+    }
+
+    @Test
+    void singleMessagesAreNotChanged() {
+        final List<NotificationMessage> messages = new ArrayList<>();
+        messages.add(message("a", "1", MessageType.INFO));
+        messages.add(message("a", "2", MessageType.ERROR));
+        assertThat(NotificationDispatcher.coalesce(messages)).containsExactlyElementsOf(messages);
+    }
+}